@@ -0,0 +1,82 @@
+package com.dwestermann.erp.common.collection;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Simple thread-safe Bloom filter for strings.
+ * Keine false negatives - "mightContain == false" ist sicher, "true" muss exakt geprüft werden.
+ * Lesen ist lock-free und allocation-free, Einträge können nicht entfernt werden (neu aufbauen).
+ */
+public final class BloomFilter {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashCount;
+
+    private BloomFilter(long bitCount, int hashCount) {
+        this.bitCount = bitCount;
+        this.hashCount = hashCount;
+        this.bits = new AtomicLongArray((int) ((bitCount + 63) >>> 6));
+    }
+
+    /**
+     * Create filter sized for the expected number of insertions and false positive probability
+     */
+    public static BloomFilter create(int expectedInsertions, double falsePositiveProbability) {
+        int insertions = Math.max(expectedInsertions, 1);
+        long bitCount = Math.max(64, (long) Math.ceil(-insertions * Math.log(falsePositiveProbability) / (LN2 * LN2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitCount / insertions * LN2));
+        return new BloomFilter(bitCount, hashCount);
+    }
+
+    public void put(String value) {
+        long hash = hash64(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(hash1 + i * hash2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        int hash1 = (int) hash;
+        int hash2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            long index = index(hash1 + i * hash2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long index(int combinedHash) {
+        return (combinedHash & 0x7fffffffL) % bitCount;
+    }
+
+    /**
+     * FNV-1a over the chars with a murmur3 finalizer (keine Allokation über getBytes)
+     */
+    private static long hash64(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -7,6 +7,7 @@ import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.TenantId;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -28,6 +29,8 @@ public abstract class BaseEntity {
     @Column(name = "id", updatable = false, nullable = false)
     private UUID id;
 
+    // Hibernate Tenant-Discriminator: alle Queries und Loads werden auf den aktuellen Tenant gefiltert
+    @TenantId
     @Column(name = "tenant_id", nullable = false, length = 50)
     private String tenantId;
 
@@ -75,7 +78,7 @@ public abstract class BaseEntity {
 
         // Set created_by from security context if available
         if (this.createdBy == null) {
-            this.createdBy = getCurrentUsername();
+            this.createdBy = currentUsername();
         }
     }
 
@@ -89,7 +92,7 @@ public abstract class BaseEntity {
         this.updatedAt = LocalDateTime.now();
 
         // Set updated_by from security context if available
-        this.updatedBy = getCurrentUsername();
+        this.updatedBy = currentUsername();
     }
 
     // ==================== TENANT VALIDATION ====================
@@ -121,9 +124,10 @@ public abstract class BaseEntity {
 
     /**
      * Get current username from Spring Security context
+     * Also used for audit fields of bulk updates, which bypass the lifecycle callbacks
      * @return username or "system" if no authentication context
      */
-    private String getCurrentUsername() {
+    public static String currentUsername() {
         try {
             var authentication = org.springframework.security.core.context.SecurityContextHolder
                     .getContext().getAuthentication();
@@ -0,0 +1,48 @@
+package com.dwestermann.erp.common.pagination;
+
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset listing. totalElements ist nur gesetzt, wenn der Client den Count explizit anfordert.
+ */
+@Value
+public class CursorPage<T> {
+
+    List<T> content;
+    String nextCursor;
+    boolean hasNext;
+    Long totalElements;
+
+    /**
+     * Build a page from a query that fetched up to size + 1 rows
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Sort.Direction direction,
+                                       Function<T, String> sortKey, Function<T, UUID> id, Long totalElements) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            T last = content.get(content.size() - 1);
+            nextCursor = new KeysetCursor(direction, sortKey.apply(last), id.apply(last)).encode();
+        }
+        return new CursorPage<>(List.copyOf(content), nextCursor, hasNext, totalElements);
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(content.stream().map(mapper).toList(), nextCursor, hasNext, totalElements);
+    }
+
+    public CursorPaginationResponse toPaginationResponse() {
+        return CursorPaginationResponse.builder()
+                .pageSize(content.size())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .totalElements(totalElements)
+                .build();
+    }
+}
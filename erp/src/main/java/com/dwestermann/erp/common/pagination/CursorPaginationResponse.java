@@ -0,0 +1,13 @@
+package com.dwestermann.erp.common.pagination;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CursorPaginationResponse {
+    private int pageSize;
+    private String nextCursor;   // null auf der letzten Seite
+    private boolean hasNext;
+    private Long totalElements;  // nur mit includeTotal=true
+}
@@ -0,0 +1,68 @@
+package com.dwestermann.erp.common.pagination;
+
+import lombok.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a listing sorted by (sort key, id), als opakes Token an den Client gegeben.
+ * Die nächste Seite startet direkt hinter dieser Position (Seek statt OFFSET), das Token ist an die Sortierrichtung gebunden.
+ */
+@Value
+public class KeysetCursor {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final char SEPARATOR = '|';
+
+    Sort.Direction direction;
+    String sortKey;
+    UUID id;
+
+    public String encode() {
+        String raw = (direction.isAscending() ? 'A' : 'D') + String.valueOf(SEPARATOR) + id + SEPARATOR + sortKey;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a continuation token
+     *
+     * @throws InvalidCursorException if the token is malformed or was issued for another sort direction
+     */
+    public static KeysetCursor decode(String token, Sort.Direction expectedDirection) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int idEnd = raw.indexOf(SEPARATOR, 2);
+            if (raw.length() < 2 || raw.charAt(1) != SEPARATOR || idEnd < 0) {
+                throw new InvalidCursorException("Malformed cursor");
+            }
+            Sort.Direction direction = switch (raw.charAt(0)) {
+                case 'A' -> Sort.Direction.ASC;
+                case 'D' -> Sort.Direction.DESC;
+                default -> throw new InvalidCursorException("Malformed cursor");
+            };
+            if (direction != expectedDirection) {
+                throw new InvalidCursorException("Cursor was issued for sort direction " + direction);
+            }
+            return new KeysetCursor(direction, raw.substring(idEnd + 1), UUID.fromString(raw.substring(2, idEnd)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor");
+        }
+    }
+
+    /**
+     * First page of a keyset query: eine Zeile mehr laden, um hasNext ohne COUNT zu erkennen
+     */
+    public static Pageable pageRequest(int size, Sort.Direction direction, String sortProperty) {
+        return PageRequest.of(0, size + 1, Sort.by(direction, sortProperty, "id"));
+    }
+
+    public static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+}
@@ -0,0 +1,145 @@
+package com.dwestermann.erp.common.timing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (Varghese/Lauck) for deadline based expiry.
+ * Jede Ebene hat 64 Slots, Ebene n deckt 64^(n+1) Ticks ab. Einträge werden beim
+ * Erreichen ihres Slots eine Ebene tiefer einsortiert und auf Ebene 0 abgelaufen.
+ * schedule/advance sind O(1) amortisiert; die Klasse ist thread-safe (synchronized).
+ *
+ * @param <T> type of the scheduled items
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    private final List<Entry<T>>[][] buckets;
+
+    private long currentTick;
+    private int size;
+
+    /**
+     * @param tick   resolution of the wheel - items expire at most one tick late
+     * @param levels number of wheel levels (4 levels with 1s tick cover ~194 days)
+     * @param start  point in time the wheel starts at
+     */
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(Duration tick, int levels, Instant start) {
+        if (tick.toMillis() <= 0 || levels < 1 || levels > 9) {
+            throw new IllegalArgumentException("Invalid timing wheel configuration");
+        }
+        this.tickMillis = tick.toMillis();
+        this.levels = levels;
+        this.buckets = new List[levels][SLOTS];
+        this.currentTick = Math.floorDiv(start.toEpochMilli(), tickMillis);
+    }
+
+    /**
+     * Schedule an item to expire at the given deadline
+     *
+     * @return false if the deadline has already passed (item is not scheduled)
+     */
+    public synchronized boolean schedule(T item, Instant deadline) {
+        long deadlineTick = Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis);
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(item, deadlineTick));
+        size++;
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given point in time and hand out all expired items
+     *
+     * @return number of expired items
+     */
+    public synchronized int advance(Instant now, Consumer<? super T> onExpired) {
+        long targetTick = Math.floorDiv(now.toEpochMilli(), tickMillis);
+        int expired = 0;
+
+        while (currentTick < targetTick) {
+            currentTick++;
+
+            // Höhere Ebenen zuerst eine Ebene tiefer einsortieren
+            for (int level = levels - 1; level >= 1; level--) {
+                long levelSpan = 1L << (SLOT_BITS * level);
+                if ((currentTick & (levelSpan - 1)) == 0) {
+                    List<Entry<T>> entries = takeBucket(level, slotOf(currentTick, level));
+                    if (entries != null) {
+                        entries.forEach(this::place);
+                    }
+                }
+            }
+
+            List<Entry<T>> due = takeBucket(0, slotOf(currentTick, 0));
+            if (due != null) {
+                for (Entry<T> entry : due) {
+                    if (entry.deadlineTick() <= currentTick) {
+                        size--;
+                        expired++;
+                        onExpired.accept(entry.item());
+                    } else {
+                        place(entry);
+                    }
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Number of scheduled items
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick() - currentTick;
+        long slotTick = entry.deadlineTick();
+
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) {
+            level++;
+        }
+
+        // Weiter als das Rad reicht: in den letzten Slot der obersten Ebene, wird dort neu einsortiert
+        long maxSpan = 1L << (SLOT_BITS * levels);
+        if (delta >= maxSpan) {
+            slotTick = currentTick + maxSpan - 1;
+        }
+
+        int slot = slotOf(slotTick, level);
+        List<Entry<T>> bucket = buckets[level][slot];
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets[level][slot] = bucket;
+        }
+        bucket.add(entry);
+    }
+
+    private List<Entry<T>> takeBucket(int level, int slot) {
+        List<Entry<T>> bucket = buckets[level][slot];
+        buckets[level][slot] = null;
+        return bucket;
+    }
+
+    private static int slotOf(long tick, int level) {
+        return (int) ((tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+
+    private record Entry<T>(T item, long deadlineTick) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.dwestermann.erp.config;
+
+import com.dwestermann.erp.tenant.concurrent.TenantAwareTaskDecorator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Async Execution mit Tenant-Propagation.
+ * Boots applicationTaskExecutor bleibt der Executor für @Async (spring.task.execution.mode=force) und übernimmt den
+ * {@link TenantAwareTaskDecorator}. Tenant Fan-Outs (CompletableFuture.supplyAsync) laufen auf dem eigenen
+ * {@link #TENANT_FAN_OUT_EXECUTOR}, async MVC Requests (Produkt-Export) auf dem {@link #MVC_ASYNC_EXECUTOR} -
+ * beide müssen explizit per @Qualifier injiziert werden.
+ */
+@Configuration
+@EnableAsync
+@Slf4j
+public class AsyncConfig {
+
+    public static final String TENANT_FAN_OUT_EXECUTOR = "tenantFanOutExecutor";
+    public static final String MVC_ASYNC_EXECUTOR = "mvcAsyncExecutor";
+
+    /**
+     * Tenant des aufrufenden Threads für @Async Methoden (wird von Boot auf den applicationTaskExecutor angewendet)
+     */
+    @Bean
+    public TaskDecorator tenantAwareTaskDecorator() {
+        return new TenantAwareTaskDecorator();
+    }
+
+    /**
+     * Virtual Threads für Fan-Outs über mehrere Tenants/Teilabfragen.
+     * async.max-concurrency gilt prozessweit für alle Fan-Outs zusammen, nicht pro Fan-Out - weitere Tasks warten.
+     */
+    @Bean(name = TENANT_FAN_OUT_EXECUTOR, destroyMethod = "close")
+    public SimpleAsyncTaskExecutor tenantFanOutExecutor(
+            @Value("${async.max-concurrency:32}") int maxConcurrency,
+            @Value("${async.termination-timeout:10000}") long terminationTimeout) {
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tenant-fan-out-");
+        executor.setVirtualThreads(true);
+        // Obergrenze paralleler Tasks (und damit DB Connections) aller Fan-Outs zusammen
+        executor.setConcurrencyLimit(maxConcurrency);
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        executor.setTaskTerminationTimeout(terminationTimeout);
+
+        log.info("Tenant fan-out executor initialized on virtual threads (max concurrency {} process-wide)", maxConcurrency);
+        return executor;
+    }
+
+    /**
+     * Virtual Threads für async MVC Requests (StreamingResponseBody des Produkt-Exports).
+     * Eigener Executor, damit lange Downloads weder @Async noch Fan-Outs verdrängen; die Grenze entspricht
+     * product.export.max-concurrent, weitere Exporte lehnt der ProductExportService schon vorher ab.
+     */
+    @Bean(name = MVC_ASYNC_EXECUTOR, destroyMethod = "close")
+    public SimpleAsyncTaskExecutor mvcAsyncExecutor(
+            @Value("${product.export.max-concurrent:4}") int maxConcurrency,
+            @Value("${async.termination-timeout:10000}") long terminationTimeout) {
+
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("mvc-async-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(Math.max(1, maxConcurrency));
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+        executor.setTaskTerminationTimeout(terminationTimeout);
+
+        log.info("MVC async executor initialized on virtual threads (max concurrency {})", maxConcurrency);
+        return executor;
+    }
+}
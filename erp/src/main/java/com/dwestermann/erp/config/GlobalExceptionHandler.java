@@ -1,12 +1,23 @@
 package com.dwestermann.erp.config;
 
+import com.dwestermann.erp.common.pagination.InvalidCursorException;
 import com.dwestermann.erp.customer.exception.CustomerNotFoundException;
 import com.dwestermann.erp.customer.exception.DuplicateCustomerEmailException;
 import com.dwestermann.erp.customer.exception.DuplicateCustomerNumberException;
 import com.dwestermann.erp.customer.exception.InvalidCustomerOperationException;
+import com.dwestermann.erp.product.exception.ExportCapacityExceededException;
+import com.dwestermann.erp.product.exception.InsufficientStockException;
+import com.dwestermann.erp.product.exception.InvalidStockReservationStateException;
+import com.dwestermann.erp.product.exception.StockReservationNotFoundException;
+import com.dwestermann.erp.security.exception.PasswordHashingUnavailableException;
+import com.dwestermann.erp.security.exception.RateLimitExceededException;
+import com.dwestermann.erp.tenant.exception.TenantBulkheadFullException;
+import com.dwestermann.erp.tenant.exception.UnknownTenantException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.InternalAuthenticationServiceException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -85,6 +96,165 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    @ExceptionHandler(PasswordHashingUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handlePasswordHashingUnavailableException(
+            PasswordHashingUnavailableException ex, WebRequest request) {
+
+        log.warn("Password hashing unavailable: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "SERVICE_BUSY",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<ErrorResponse> handleRateLimitExceededException(
+            RateLimitExceededException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "TOO_MANY_REQUESTS",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    // DaoAuthenticationProvider wraps errors thrown while loading the user
+    @ExceptionHandler(InternalAuthenticationServiceException.class)
+    public ResponseEntity<ErrorResponse> handleInternalAuthenticationServiceException(
+            InternalAuthenticationServiceException ex, WebRequest request) {
+
+        if (ex.getCause() instanceof PasswordHashingUnavailableException cause) {
+            return handlePasswordHashingUnavailableException(cause, request);
+        }
+        return handleGenericException(ex, request);
+    }
+
+    @ExceptionHandler(UnknownTenantException.class)
+    public ResponseEntity<ErrorResponse> handleUnknownTenantException(
+            UnknownTenantException ex, WebRequest request) {
+
+        log.warn("Rejected request for unknown tenant: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "UNKNOWN_TENANT",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler(TenantBulkheadFullException.class)
+    public ResponseEntity<ErrorResponse> handleTenantBulkheadFullException(
+            TenantBulkheadFullException ex, WebRequest request) {
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "TENANT_CONCURRENCY_LIMIT",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidCursorException(
+            InvalidCursorException ex, WebRequest request) {
+
+        log.debug("Invalid pagination cursor: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "INVALID_CURSOR",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorResponse> handleInsufficientStockException(
+            InsufficientStockException ex, WebRequest request) {
+
+        log.debug("Insufficient stock: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "INSUFFICIENT_STOCK",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+    }
+
+    @ExceptionHandler(StockReservationNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleStockReservationNotFoundException(
+            StockReservationNotFoundException ex, WebRequest request) {
+
+        log.debug("Stock reservation not found: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "STOCK_RESERVATION_NOT_FOUND",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+    }
+
+    @ExceptionHandler(InvalidStockReservationStateException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidStockReservationStateException(
+            InvalidStockReservationStateException ex, WebRequest request) {
+
+        log.debug("Invalid stock reservation state: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "INVALID_RESERVATION_STATE",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+    }
+
+    @ExceptionHandler(ExportCapacityExceededException.class)
+    public ResponseEntity<ErrorResponse> handleExportCapacityExceededException(
+            ExportCapacityExceededException ex, WebRequest request) {
+
+        log.warn("Export rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                "SERVICE_BUSY",
+                ex.getMessage(),
+                LocalDateTime.now(),
+                request.getDescription(false)
+        );
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ValidationErrorResponse> handleValidationExceptions(
             MethodArgumentNotValidException ex, WebRequest request) {
@@ -0,0 +1,12 @@
+package com.dwestermann.erp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Aktiviert @Scheduled für Hintergrund-Jobs (z.B. Refresh des Account-Status)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
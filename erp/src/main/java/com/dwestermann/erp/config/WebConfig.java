@@ -1,12 +1,15 @@
 package com.dwestermann.erp.config;
 
+import com.dwestermann.erp.tenant.interceptor.TenantBulkheadInterceptor;
 import com.dwestermann.erp.tenant.interceptor.TenantInterceptor;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -15,14 +18,33 @@ import java.util.Arrays;
 import java.util.List;
 
 @Configuration
-@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
 
     private final TenantInterceptor tenantInterceptor;
+    private final TenantBulkheadInterceptor tenantBulkheadInterceptor;
+    private final AsyncTaskExecutor mvcAsyncExecutor;
+
+    public WebConfig(TenantInterceptor tenantInterceptor,
+                     TenantBulkheadInterceptor tenantBulkheadInterceptor,
+                     @Qualifier(AsyncConfig.MVC_ASYNC_EXECUTOR) AsyncTaskExecutor mvcAsyncExecutor) {
+        this.tenantInterceptor = tenantInterceptor;
+        this.tenantBulkheadInterceptor = tenantBulkheadInterceptor;
+        this.mvcAsyncExecutor = mvcAsyncExecutor;
+    }
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(tenantInterceptor);
+        // Nach dem TenantInterceptor - braucht den aufgelösten Tenant
+        registry.addInterceptor(tenantBulkheadInterceptor).addPathPatterns("/api/**");
+    }
+
+    /**
+     * StreamingResponseBody & Co. auf dem eigenen Executor statt auf dem applicationTaskExecutor
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcAsyncExecutor);
     }
 
     /**
@@ -1,6 +1,7 @@
 // CustomerController.java
 package com.dwestermann.erp.customer.controller;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.customer.domain.Customer;
 import com.dwestermann.erp.customer.domain.ContactPerson;
 import com.dwestermann.erp.customer.domain.CustomerStatus;
@@ -140,6 +141,28 @@ public class CustomerController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(summary = "Scroll customers", description = "Keyset pagination by name with an opaque continuation token, "
+            + "no COUNT unless includeTotal is set")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Customers retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CustomerListResponse> scrollCustomers(
+            @Parameter(description = "Continuation token of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction by name") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Include the total count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Scrolling customers - size: {}, direction: {}, continued: {}", size, sortDir, cursor != null);
+
+        CursorPage<Customer> customers = customerService.scrollCustomers(
+                cursor, size, Sort.Direction.fromString(sortDir), includeTotal);
+
+        CustomerListResponse response = customerMapper.toListResponse(customers);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(summary = "Search customers", description = "Search customers by various criteria")
     @PostMapping("/search")
     public ResponseEntity<CustomerListResponse> searchCustomers(
@@ -1,6 +1,7 @@
 // CustomerMapper.java
 package com.dwestermann.erp.customer.controller;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.customer.domain.Address;
 import com.dwestermann.erp.customer.domain.ContactPerson;
 import com.dwestermann.erp.customer.domain.Customer;
@@ -142,6 +143,15 @@ public class CustomerMapper {
         return response;
     }
 
+    public CustomerListResponse toListResponse(CursorPage<Customer> customerPage) {
+        CustomerListResponse response = new CustomerListResponse();
+        response.setCustomers(customerPage.getContent().stream()
+                .map(this::toSummaryResponse)
+                .collect(Collectors.toList()));
+        response.setCursor(customerPage.toPaginationResponse());
+        return response;
+    }
+
     // Request to Entity mappings
 
     public Customer toEntity(CreateCustomerRequest request) {
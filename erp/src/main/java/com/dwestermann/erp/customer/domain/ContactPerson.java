@@ -11,7 +11,10 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "contact_persons")
+@Table(name = "contact_persons", indexes = {
+        @Index(name = "idx_contact_persons_customer_primary", columnList = "customer_id, is_primary"),
+        @Index(name = "idx_contact_persons_tenant_email", columnList = "tenant_id, email")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -2,6 +2,7 @@ package com.dwestermann.erp.customer.domain;
 
 import com.dwestermann.erp.common.entity.BaseEntity;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -18,7 +19,15 @@ import java.util.Optional;
 
 @Entity
 @Table(name = "customers",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"email", "tenant_id"}))
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uq_customers_tenant_email", columnNames = {"tenant_id", "email"}),
+                @UniqueConstraint(name = "uq_customers_tenant_number", columnNames = {"tenant_id", "customer_number"})
+        },
+        indexes = {
+                @Index(name = "idx_customers_tenant_status_created", columnList = "tenant_id, status, created_at DESC"),
+                @Index(name = "idx_customers_tenant_type", columnList = "tenant_id, type"),
+                @Index(name = "idx_customers_tenant_name_id", columnList = "tenant_id, name, id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -40,7 +49,7 @@ public class Customer extends BaseEntity {
     private String phone;
 
     @Size(max = 20, message = "Customer number must not exceed 20 characters")
-    @Column(name = "customer_number", unique = true)
+    @Column(name = "customer_number")
     private String customerNumber;
 
     @Enumerated(EnumType.STRING)
@@ -61,7 +70,9 @@ public class Customer extends BaseEntity {
     })
     private Address primaryAddress;
 
+    // Listen laden die Kontakte einer Seite in wenigen IN-Queries (siehe CustomerServiceImpl)
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
+    @BatchSize(size = 50)
     private List<ContactPerson> contacts = new ArrayList<>();
 
     @Column(name = "notes", columnDefinition = "TEXT")
@@ -1,5 +1,6 @@
 package com.dwestermann.erp.customer.dto.response;
 
+import com.dwestermann.erp.common.pagination.CursorPaginationResponse;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -13,4 +14,5 @@ public class CustomerListResponse {
 
     private List<CustomerSummaryResponse> customers;
     private PaginationResponse pagination;
+    private CursorPaginationResponse cursor; // nur bei /scroll (Keyset-Pagination)
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import com.dwestermann.erp.customer.domain.CustomerStatus;
 import com.dwestermann.erp.customer.domain.CustomerType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -22,9 +23,27 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
     @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId")
     Page<Customer> findByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
 
+    // Keyset pagination: Seek auf (name, id) statt OFFSET, Sortierung kommt aus dem Pageable
+
+    @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId")
+    List<Customer> findKeysetFirstByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId " +
+            "AND c.name >= :name AND (c.name > :name OR c.id > :id)")
+    List<Customer> findKeysetAfterByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                             @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId " +
+            "AND c.name <= :name AND (c.name < :name OR c.id < :id)")
+    List<Customer> findKeysetBeforeByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                              @Param("id") UUID id, Pageable pageable);
+
+    // Kontakte gleich mitladen - die Mapper lesen sie nach dem Ende der Service-Transaktion
+    @EntityGraph(attributePaths = "contacts")
     @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId AND c.id = :id")
     Optional<Customer> findByTenantIdAndId(@Param("tenantId") String tenantId, @Param("id") UUID id);
 
+    @EntityGraph(attributePaths = "contacts")
     @Query("SELECT c FROM Customer c WHERE c.tenantId = :tenantId AND c.customerNumber = :customerNumber")
     Optional<Customer> findByTenantIdAndCustomerNumber(@Param("tenantId") String tenantId,
                                                        @Param("customerNumber") String customerNumber);
@@ -102,6 +121,9 @@ public interface CustomerRepository extends JpaRepository<Customer, UUID> {
 
     // Statistics queries
 
+    @Query("SELECT COUNT(c) FROM Customer c WHERE c.tenantId = :tenantId")
+    long countByTenantId(@Param("tenantId") String tenantId);
+
     @Query("SELECT COUNT(c) FROM Customer c WHERE c.tenantId = :tenantId AND c.status = 'ACTIVE'")
     long countActiveCustomersByTenantId(@Param("tenantId") String tenantId);
 
@@ -1,11 +1,13 @@
 package com.dwestermann.erp.customer.service;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.customer.domain.Customer;
 import com.dwestermann.erp.customer.domain.ContactPerson;
 import com.dwestermann.erp.customer.domain.CustomerStatus;
 import com.dwestermann.erp.customer.domain.CustomerType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +24,7 @@ public interface CustomerService {
 
     // List and search operations
     Page<Customer> findAllCustomers(Pageable pageable);
+    CursorPage<Customer> scrollCustomers(String cursor, int size, Sort.Direction direction, boolean includeTotal);
     Page<Customer> findActiveCustomers(Pageable pageable);
     Page<Customer> findCustomersByStatus(CustomerStatus status, Pageable pageable);
     Page<Customer> findCustomersByType(CustomerType type, Pageable pageable);
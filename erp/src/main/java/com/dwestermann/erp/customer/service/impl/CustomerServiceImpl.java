@@ -1,5 +1,7 @@
 package com.dwestermann.erp.customer.service.impl;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
+import com.dwestermann.erp.common.pagination.KeysetCursor;
 import com.dwestermann.erp.customer.domain.Customer;
 import com.dwestermann.erp.customer.domain.ContactPerson;
 import com.dwestermann.erp.customer.domain.CustomerStatus;
@@ -14,8 +16,10 @@ import com.dwestermann.erp.customer.service.CustomerService;
 import com.dwestermann.erp.tenant.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -153,28 +157,49 @@ public class CustomerServiceImpl implements CustomerService {
     @Transactional(readOnly = true)
     public Page<Customer> findAllCustomers(Pageable pageable) {
         String tenantId = TenantContext.getTenantId();
-        return customerRepository.findByTenantId(tenantId, pageable);
+        return withContacts(customerRepository.findByTenantId(tenantId, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Customer> scrollCustomers(String cursor, int size, Sort.Direction direction, boolean includeTotal) {
+        String tenantId = TenantContext.getTenantId();
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable pageable = KeysetCursor.pageRequest(pageSize, direction, "name");
+
+        List<Customer> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = customerRepository.findKeysetFirstByTenantId(tenantId, pageable);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor, direction);
+            rows = direction.isAscending()
+                    ? customerRepository.findKeysetAfterByTenantId(tenantId, position.getSortKey(), position.getId(), pageable)
+                    : customerRepository.findKeysetBeforeByTenantId(tenantId, position.getSortKey(), position.getId(), pageable);
+        }
+
+        Long total = includeTotal ? customerRepository.countByTenantId(tenantId) : null;
+        return CursorPage.of(withContacts(rows), pageSize, direction, Customer::getName, Customer::getId, total);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Customer> findActiveCustomers(Pageable pageable) {
         String tenantId = TenantContext.getTenantId();
-        return customerRepository.findActiveCustomersByTenantId(tenantId, pageable);
+        return withContacts(customerRepository.findActiveCustomersByTenantId(tenantId, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Customer> findCustomersByStatus(CustomerStatus status, Pageable pageable) {
         String tenantId = TenantContext.getTenantId();
-        return customerRepository.findByTenantIdAndStatus(tenantId, status, pageable);
+        return withContacts(customerRepository.findByTenantIdAndStatus(tenantId, status, pageable));
     }
 
     @Override
     @Transactional(readOnly = true)
     public Page<Customer> findCustomersByType(CustomerType type, Pageable pageable) {
         String tenantId = TenantContext.getTenantId();
-        return customerRepository.findByTenantIdAndType(tenantId, type, pageable);
+        return withContacts(customerRepository.findByTenantIdAndType(tenantId, type, pageable));
     }
 
     @Override
@@ -184,7 +209,7 @@ public class CustomerServiceImpl implements CustomerService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return findAllCustomers(pageable);
         }
-        return customerRepository.findByTenantIdAndSearch(tenantId, searchTerm.trim(), pageable);
+        return withContacts(customerRepository.findByTenantIdAndSearch(tenantId, searchTerm.trim(), pageable));
     }
 
     @Override
@@ -194,7 +219,7 @@ public class CustomerServiceImpl implements CustomerService {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
             return findActiveCustomers(pageable);
         }
-        return customerRepository.findActiveCustomersByTenantIdAndSearch(tenantId, searchTerm.trim(), pageable);
+        return withContacts(customerRepository.findActiveCustomersByTenantIdAndSearch(tenantId, searchTerm.trim(), pageable));
     }
 
     @Override
@@ -203,7 +228,7 @@ public class CustomerServiceImpl implements CustomerService {
                                                   CustomerStatus status, CustomerType type,
                                                   Pageable pageable) {
         String tenantId = TenantContext.getTenantId();
-        return customerRepository.findByTenantIdAndCriteria(tenantId, name, email, city, status, type, pageable);
+        return withContacts(customerRepository.findByTenantIdAndCriteria(tenantId, name, email, city, status, type, pageable));
     }
 
     @Override
@@ -454,4 +479,12 @@ public class CustomerServiceImpl implements CustomerService {
         // Additional validation logic can be added here
         log.debug("Validating contact person operations for customer: {}", customerId);
     }
-}
\ No newline at end of file
+
+    /**
+     * Load the contacts of the customers inside the transaction (Batch-Fetch), die Mapper laufen danach im Controller
+     */
+    private <T extends Iterable<Customer>> T withContacts(T customers) {
+        customers.forEach(customer -> Hibernate.initialize(customer.getContacts()));
+        return customers;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dwestermann.erp.product.bulk;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Field changes of a bulk mutation, null = unverändert.
+ * Die Status-Regeln entsprechen {@link com.dwestermann.erp.product.domain.Product#activate()} und
+ * {@link com.dwestermann.erp.product.domain.Product#discontinue()}, werden aber als UPDATE auf der Menge angewendet.
+ */
+@Value
+@Builder
+public class ProductMutation {
+
+    ProductStatus status;
+    UUID categoryId;
+    BigDecimal minStockLevel;
+    BigDecimal maxStockLevel;
+    Boolean active;
+
+    /**
+     * Active flag to write: activate() setzt true, discontinue() false, sonst der angeforderte Wert
+     */
+    public Boolean getEffectiveActive() {
+        if (status == ProductStatus.ACTIVE) {
+            return Boolean.TRUE;
+        }
+        if (status == ProductStatus.DISCONTINUED) {
+            return Boolean.FALSE;
+        }
+        return active;
+    }
+
+    // activate() verlangt einen Verkaufspreis
+    public boolean requiresSellingPrice() {
+        return status == ProductStatus.ACTIVE;
+    }
+
+    public boolean changesCategory() {
+        return categoryId != null;
+    }
+
+    public boolean changesColumns() {
+        return status != null || minStockLevel != null || maxStockLevel != null || active != null;
+    }
+}
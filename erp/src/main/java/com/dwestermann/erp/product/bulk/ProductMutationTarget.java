@@ -0,0 +1,14 @@
+package com.dwestermann.erp.product.bulk;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Product selected for a bulk mutation - nur die Spalten für Keyset und Geschäftsregeln, keine Entity
+ */
+public record ProductMutationTarget(UUID id, String name, BigDecimal sellingPrice) {
+
+    public boolean hasSellingPrice() {
+        return sellingPrice != null;
+    }
+}
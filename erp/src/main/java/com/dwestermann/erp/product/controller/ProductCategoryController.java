@@ -1,5 +1,6 @@
 package com.dwestermann.erp.product.controller;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.product.dto.request.CategoryHierarchyData;
 import com.dwestermann.erp.product.dto.request.CreateCategoryRequest;
 import com.dwestermann.erp.product.dto.request.UpdateCategoryRequest;
@@ -137,6 +138,28 @@ public class ProductCategoryController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Scroll categories", description = "Keyset pagination by name with an opaque continuation token, "
+            + "no COUNT unless includeTotal is set")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Categories retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<CursorPage<CategoryResponse>> scrollCategories(
+            @Parameter(description = "Continuation token of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction by name") @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Include the total count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Scrolling categories - size: {}, direction: {}, continued: {}", size, sortDirection, cursor != null);
+
+        CursorPage<CategoryResponse> response = categoryService.scrollCategories(
+                cursor, size, Sort.Direction.fromString(sortDirection), includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/root")
     @PreAuthorize("hasPermission('product', 'read')")
     @Operation(summary = "Get root categories", description = "Retrieves all root categories with their hierarchy")
@@ -2,7 +2,13 @@ package com.dwestermann.erp.product.controller;
 
 import com.dwestermann.erp.product.dto.request.*;
 import com.dwestermann.erp.product.dto.response.*;
+import com.dwestermann.erp.product.export.ProductExportFormat;
+import com.dwestermann.erp.product.scan.ProductCodeIndex;
+import com.dwestermann.erp.product.service.ProductExportService;
+import com.dwestermann.erp.product.service.ProductScanService;
 import com.dwestermann.erp.product.service.ProductService;
+import com.dwestermann.erp.product.service.StockReservationService;
+import com.dwestermann.erp.tenant.context.TenantContext;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,11 +20,16 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 
@@ -30,6 +41,9 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final StockReservationService stockReservationService;
+    private final ProductExportService productExportService;
+    private final ProductScanService productScanService;
 
     // ==================== CRUD OPERATIONS ====================
 
@@ -68,6 +82,54 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/sku/{sku}")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Get product by SKU", description = "Retrieves a product by its SKU (cached lookup)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<ProductResponse> getProductBySku(
+            @Parameter(description = "Product SKU") @PathVariable String sku) {
+        log.debug("Retrieving product with SKU: {}", sku);
+
+        ProductResponse response = productService.getProductBySku(sku);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/barcode/{barcode}")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Get product by barcode", description = "Retrieves a product by its barcode (cached lookup)")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<ProductResponse> getProductByBarcode(
+            @Parameter(description = "Product barcode") @PathVariable String barcode) {
+        log.debug("Retrieving product with barcode: {}", barcode);
+
+        ProductResponse response = productService.getProductByBarcode(barcode);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/scan/{code}")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Scan product code", description = "Resolves a scanned barcode or SKU to product ID and current "
+            + "stock from the in-memory scan index")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Product found"),
+            @ApiResponse(responseCode = "404", description = "No product with this code"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<ProductScanResponse> scanProduct(
+            @Parameter(description = "Scanned barcode or SKU") @PathVariable String code,
+            @Parameter(description = "BARCODE or SKU, default: barcode first, then SKU")
+            @RequestParam(required = false) ProductCodeIndex.CodeType type) {
+        return ResponseEntity.of(productScanService.lookup(code, type));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasPermission('product', 'write')")
     @Operation(summary = "Update product", description = "Updates an existing product with new details")
@@ -132,6 +194,28 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Scroll products", description = "Keyset pagination by name with an opaque continuation token, "
+            + "no COUNT unless includeTotal is set")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Products retrieved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<ProductListResponse> scrollProducts(
+            @Parameter(description = "Continuation token of the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (max 100)") @RequestParam(defaultValue = "20") int size,
+            @Parameter(description = "Sort direction by name") @RequestParam(defaultValue = "ASC") String sortDirection,
+            @Parameter(description = "Include the total count") @RequestParam(defaultValue = "false") boolean includeTotal) {
+
+        log.debug("Scrolling products - size: {}, direction: {}, continued: {}", size, sortDirection, cursor != null);
+
+        ProductListResponse response = productService.scrollProducts(
+                cursor, size, Sort.Direction.fromString(sortDirection), includeTotal);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/search")
     @PreAuthorize("hasPermission('product', 'read')")
     @Operation(summary = "Search products", description = "Searches products with advanced filtering options")
@@ -148,6 +232,22 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Suggest products", description = "Prefix suggestions by SKU, barcode or name for search-as-you-type")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Suggestions retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<List<ProductTypeaheadResponse>> suggestProducts(
+            @Parameter(description = "Prefix of SKU, barcode or name") @RequestParam String q,
+            @Parameter(description = "Max suggestions (max 10)") @RequestParam(defaultValue = "10") int limit) {
+        log.debug("Typeahead for prefix: {}", q);
+
+        List<ProductTypeaheadResponse> response = productService.suggestProducts(q, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/statistics")
     @PreAuthorize("hasPermission('product', 'read')")
     @Operation(summary = "Get product statistics", description = "Retrieves comprehensive product statistics for dashboard")
@@ -162,6 +262,35 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    // ==================== EXPORT ====================
+
+    @GetMapping("/export")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Export product catalog", description = "Streams all products of the tenant ordered by name "
+            + "as CSV or NDJSON, optionally gzip-compressed")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Catalog streamed successfully"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions"),
+            @ApiResponse(responseCode = "503", description = "Too many exports running")
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Format: csv or ndjson") @RequestParam(defaultValue = "csv") String format,
+            @Parameter(description = "Compress the file with gzip") @RequestParam(defaultValue = "false") boolean gzip) {
+
+        ProductExportFormat exportFormat = ProductExportFormat.fromString(format);
+        String tenantId = TenantContext.getTenantId();
+        log.debug("Exporting products - format: {}, gzip: {}", exportFormat, gzip);
+
+        String filename = "products-" + tenantId + "-" + LocalDate.now() + "." + exportFormat.getFileExtension()
+                + (gzip ? ".gz" : "");
+        StreamingResponseBody body = productExportService.openExport(tenantId, exportFormat, gzip);
+        return ResponseEntity.ok()
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
     // ==================== STOCK MANAGEMENT ====================
 
     @PutMapping("/{id}/stock")
@@ -226,6 +355,95 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/{id}/stock/movements")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Get stock movements", description = "Retrieves the stock ledger of a product, newest movement first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock movements retrieved successfully"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StockMovementListResponse> getStockMovements(
+            @Parameter(description = "Product ID") @PathVariable UUID id,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        log.debug("Retrieving stock movements for product ID: {} - page: {}, size: {}", id, page, size);
+
+        StockMovementListResponse response = productService.getStockMovements(id, PageRequest.of(page, size));
+        return ResponseEntity.ok(response);
+    }
+
+    // ==================== STOCK RESERVATIONS ====================
+
+    @PostMapping("/{id}/reservations")
+    @PreAuthorize("hasPermission('product', 'write')")
+    @Operation(summary = "Reserve stock", description = "Holds stock for an open cart or quote until it is confirmed, released or expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock reserved successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid reservation data or insufficient available stock"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @Parameter(description = "Product ID") @PathVariable UUID id,
+            @Valid @RequestBody ReserveStockRequest request) {
+        log.debug("Reserving {} stock of product ID: {}", request.getQuantity(), id);
+
+        StockReservationResponse response = stockReservationService.reserve(id, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @GetMapping("/{id}/reservations")
+    @PreAuthorize("hasPermission('product', 'read')")
+    @Operation(summary = "Get active reservations", description = "Retrieves the active stock reservations of a product, next expiry first")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations retrieved successfully"),
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<List<StockReservationResponse>> getActiveReservations(
+            @Parameter(description = "Product ID") @PathVariable UUID id) {
+        log.debug("Retrieving active reservations for product ID: {}", id);
+
+        List<StockReservationResponse> response = stockReservationService.getActiveReservations(id);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/reservations/{reservationId}/confirm")
+    @PreAuthorize("hasPermission('product', 'write')")
+    @Operation(summary = "Confirm reservation", description = "Books the reserved quantity as a stock removal")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation confirmed successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found"),
+            @ApiResponse(responseCode = "409", description = "Reservation is no longer active"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StockReservationResponse> confirmReservation(
+            @Parameter(description = "Product ID") @PathVariable UUID id,
+            @Parameter(description = "Reservation ID") @PathVariable UUID reservationId) {
+        log.debug("Confirming reservation {} of product ID: {}", reservationId, id);
+
+        StockReservationResponse response = stockReservationService.confirm(id, reservationId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/{id}/reservations/{reservationId}/release")
+    @PreAuthorize("hasPermission('product', 'write')")
+    @Operation(summary = "Release reservation", description = "Releases the reserved quantity before it expires")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation released successfully"),
+            @ApiResponse(responseCode = "404", description = "Reservation not found"),
+            @ApiResponse(responseCode = "409", description = "Reservation is no longer active"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<StockReservationResponse> releaseReservation(
+            @Parameter(description = "Product ID") @PathVariable UUID id,
+            @Parameter(description = "Reservation ID") @PathVariable UUID reservationId) {
+        log.debug("Releasing reservation {} of product ID: {}", reservationId, id);
+
+        StockReservationResponse response = stockReservationService.release(id, reservationId);
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== VALIDATION AND UTILITY ====================
 
     @PostMapping("/validate")
@@ -280,6 +498,24 @@ public class ProductController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/bulk/update")
+    @PreAuthorize("hasPermission('product', 'write')")
+    @Operation(summary = "Bulk update products",
+            description = "Applies field changes (status, category, min/max stock, active) to products selected by IDs or a filter")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk operation completed"),
+            @ApiResponse(responseCode = "400", description = "Invalid bulk operation data"),
+            @ApiResponse(responseCode = "403", description = "Insufficient permissions")
+    })
+    public ResponseEntity<BulkOperationResponse> bulkUpdate(
+            @Valid @RequestBody BulkProductUpdateRequest request) {
+        BulkOperationResponse response = productService.bulkUpdate(request);
+
+        log.info("Bulk update completed: {} of {} products updated, {} failed",
+                response.getSuccessfulOperations(), response.getTotalRequested(), response.getFailedOperations());
+        return ResponseEntity.ok(response);
+    }
+
     // ==================== PRODUCT VARIANTS (Future Enhancement) ====================
 
     @GetMapping("/{id}/variants")
@@ -9,7 +9,9 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.experimental.SuperBuilder;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -17,11 +19,14 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "products", indexes = {
-        @Index(name = "idx_product_sku_tenant", columnList = "sku, tenantId", unique = true),
-        @Index(name = "idx_product_category", columnList = "category_id"),
-        @Index(name = "idx_product_status", columnList = "status"),
-        @Index(name = "idx_product_name", columnList = "name"),
-        @Index(name = "idx_product_barcode", columnList = "barcode")
+        @Index(name = "uq_products_tenant_sku", columnList = "tenant_id, sku", unique = true),
+        @Index(name = "idx_products_tenant_name_id", columnList = "tenant_id, name, id"),
+        @Index(name = "idx_products_tenant_status", columnList = "tenant_id, status"),
+        @Index(name = "idx_products_tenant_category", columnList = "tenant_id, category_id"),
+        @Index(name = "idx_products_category", columnList = "category_id"),
+        @Index(name = "idx_products_tenant_barcode", columnList = "tenant_id, barcode"),
+        @Index(name = "idx_products_tenant_created", columnList = "tenant_id, created_at DESC"),
+        @Index(name = "idx_products_tenant_updated", columnList = "tenant_id, updated_at DESC")
 })
 @Getter @Setter
 @NoArgsConstructor
@@ -82,6 +87,12 @@ public class Product extends BaseEntity {
     @DecimalMin(value = "0.0", message = "Lagerbestand kann nicht negativ sein")
     private BigDecimal currentStock = BigDecimal.ZERO;
 
+    // Summe der aktiven Reservierungen, nur per bedingtem UPDATE geändert (siehe StockReservationService)
+    @Column(name = "reserved_stock", precision = 19, scale = 4, nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal reservedStock = BigDecimal.ZERO;
+
     @Column(precision = 19, scale = 4)
     @DecimalMin(value = "0.0", message = "Mindestbestand kann nicht negativ sein")
     private BigDecimal minStockLevel = BigDecimal.ZERO;
@@ -168,6 +179,14 @@ public class Product extends BaseEntity {
         this.currentStock = this.currentStock.subtract(quantity);
     }
 
+    /**
+     * Stock that is not held by an active reservation
+     */
+    public BigDecimal getAvailableStock() {
+        BigDecimal reserved = reservedStock != null ? reservedStock : BigDecimal.ZERO;
+        return currentStock.subtract(reserved).max(BigDecimal.ZERO);
+    }
+
     public boolean isLowStock() {
         return minStockLevel != null &&
                 currentStock.compareTo(minStockLevel) <= 0;
@@ -264,6 +283,9 @@ public class Product extends BaseEntity {
         if (this.minStockLevel == null) {
             this.minStockLevel = BigDecimal.ZERO;
         }
+        if (this.reservedStock == null) {
+            this.reservedStock = BigDecimal.ZERO;
+        }
         if (this.active == null) {
             this.active = true;
         }
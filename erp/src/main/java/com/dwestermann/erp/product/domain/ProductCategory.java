@@ -16,10 +16,9 @@ import java.util.Objects;
 
 @Entity
 @Table(name = "product_categories", indexes = {
-        @Index(name = "idx_category_name_parent_tenant", columnList = "name, parent_category_id, tenantId", unique = true),
-        @Index(name = "idx_category_parent", columnList = "parent_category_id"),
-        @Index(name = "idx_category_name", columnList = "name"),
-        @Index(name = "idx_category_tenant", columnList = "tenantId")
+        @Index(name = "uq_product_categories_tenant_parent_name", columnList = "tenant_id, parent_category_id, name", unique = true),
+        @Index(name = "idx_product_categories_tenant_name_id", columnList = "tenant_id, name, id"),
+        @Index(name = "idx_product_categories_parent", columnList = "parent_category_id")
 })
 @Getter
 @Setter
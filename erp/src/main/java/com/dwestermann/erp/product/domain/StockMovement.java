@@ -0,0 +1,52 @@
+package com.dwestermann.erp.product.domain;
+
+import com.dwestermann.erp.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One entry in the append-only stock ledger, written together with the conditional stock update.
+ * product_id ohne Fremdschlüssel - die Historie bleibt erhalten, wenn das Produkt gelöscht wird.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        @Index(name = "idx_stock_movements_tenant_product_created", columnList = "tenant_id, product_id, created_at DESC")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class StockMovement extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private StockMovementType type;
+
+    // Vorzeichenbehaftet: Zugang positiv, Abgang negativ
+    @Column(precision = 19, scale = 4, nullable = false, updatable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "resulting_stock", precision = 19, scale = 4, nullable = false, updatable = false)
+    private BigDecimal resultingStock;
+
+    @Column(length = 255, updatable = false)
+    private String reason;
+
+    // Lieferschein bzw. Auftragsnummer aus dem Request
+    @Column(length = 100, updatable = false)
+    private String reference;
+
+    public BigDecimal getPreviousStock() {
+        return resultingStock.subtract(quantity);
+    }
+}
@@ -0,0 +1,16 @@
+package com.dwestermann.erp.product.domain;
+
+import lombok.Getter;
+
+@Getter
+public enum StockMovementType {
+    ADD("Zugang"),
+    REMOVE("Abgang"),
+    UPDATE("Inventur"); // absoluter Bestand, Delta gegen den Vorbestand
+
+    private final String displayName;
+
+    StockMovementType(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -0,0 +1,50 @@
+package com.dwestermann.erp.product.domain;
+
+import com.dwestermann.erp.common.entity.BaseEntity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.experimental.SuperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Stock held for an open cart or quote until it is confirmed, released or expires.
+ * Statuswechsel nur per bedingtem UPDATE aus ACTIVE heraus, die Menge ist zusätzlich in products.reserved_stock summiert.
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        @Index(name = "idx_stock_reservations_tenant_product_status", columnList = "tenant_id, product_id, status"),
+        @Index(name = "idx_stock_reservations_status_expires", columnList = "status, expires_at")
+})
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@SuperBuilder
+public class StockReservation extends BaseEntity {
+
+    @Column(name = "product_id", nullable = false, updatable = false)
+    private UUID productId;
+
+    @Column(precision = 19, scale = 4, nullable = false, updatable = false)
+    private BigDecimal quantity;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StockReservationStatus status;
+
+    @Column(name = "expires_at", nullable = false, updatable = false)
+    private LocalDateTime expiresAt;
+
+    // Warenkorb bzw. Angebotsnummer aus dem Request
+    @Column(length = 100, updatable = false)
+    private String reference;
+
+    public boolean isActive() {
+        return status == StockReservationStatus.ACTIVE;
+    }
+}
@@ -0,0 +1,17 @@
+package com.dwestermann.erp.product.domain;
+
+import lombok.Getter;
+
+@Getter
+public enum StockReservationStatus {
+    ACTIVE("Aktiv"),
+    CONFIRMED("Bestätigt"), // als Abgang gebucht
+    RELEASED("Freigegeben"),
+    EXPIRED("Abgelaufen");
+
+    private final String displayName;
+
+    StockReservationStatus(String displayName) {
+        this.displayName = displayName;
+    }
+}
@@ -1,20 +1,29 @@
 package com.dwestermann.erp.product.dto.mapper;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.common.valueobject.Money;
 import com.dwestermann.erp.product.domain.Product;
 import com.dwestermann.erp.product.domain.ProductCategory;
 import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.StockMovement;
+import com.dwestermann.erp.product.domain.StockReservation;
 import com.dwestermann.erp.product.dto.request.CreateProductRequest;
+import com.dwestermann.erp.product.dto.request.ProductSearchRequest;
 import com.dwestermann.erp.product.dto.request.UpdateProductRequest;
 import com.dwestermann.erp.product.dto.response.*;
+import com.dwestermann.erp.product.search.FacetCounts;
+import com.dwestermann.erp.product.search.ProductSuggestion;
+import com.dwestermann.erp.product.search.StockState;
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.util.Currency;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -33,6 +42,7 @@ public class ProductMapper {
                 .name(product.getName())
                 .description(product.getDescription())
                 .sku(product.getSku())
+                .barcode(product.getBarcode())
                 .price(product.getSellingPrice() != null ? product.getSellingPrice().getAmount() : null)
                 .currency(product.getSellingPrice() != null ? product.getSellingPrice().getCurrency() : "EUR")
                 .formattedPrice(formatPrice(
@@ -41,6 +51,8 @@ public class ProductMapper {
                 .unit(product.getUnit())
                 .unitDisplayName(product.getUnit() != null ? product.getUnit().getDisplayName() : "")
                 .stockQuantity(product.getCurrentStock() != null ? product.getCurrentStock().intValue() : 0)
+                .reservedStock(product.getReservedStock() != null ? product.getReservedStock().intValue() : 0)
+                .availableStock(product.getCurrentStock() != null ? product.getAvailableStock().intValue() : 0)
                 .minimumStockLevel(product.getMinStockLevel() != null ? product.getMinStockLevel().intValue() : 0)
                 .status(product.getStatus())
                 .statusDisplayName(getStatusDisplayName(product.getStatus()))
@@ -109,6 +121,64 @@ public class ProductMapper {
                 .build();
     }
 
+    /**
+     * Stock response of one ledger movement - Bestände aus der Bewegung, bei Write-Combining teilen sich mehrere
+     * Aufrufer dasselbe Produkt
+     */
+    public ProductStockResponse toStockResponse(Product product, StockMovement movement) {
+        BigDecimal resultingStock = movement.getResultingStock();
+
+        return ProductStockResponse.builder()
+                .productId(product.getId())
+                .productName(product.getName())
+                .sku(product.getSku())
+                .currentStock(resultingStock.intValue())
+                .minimumStockLevel(product.getMinStockLevel() != null ? product.getMinStockLevel().intValue() : 0)
+                .isLowStock(isLowStock(resultingStock, product.getMinStockLevel()))
+                .isOutOfStock(resultingStock.signum() == 0)
+                .previousStock(movement.getPreviousStock().intValue())
+                .operation(movement.getType().name())
+                .changeAmount(movement.getQuantity().intValue())
+                .reason(movement.getReason())
+                .lastStockUpdate(product.getUpdatedAt())
+                .updatedBy(movement.getCreatedBy())
+                .build();
+    }
+
+    public StockMovementResponse toStockMovementResponse(StockMovement movement) {
+        return StockMovementResponse.builder()
+                .id(movement.getId())
+                .productId(movement.getProductId())
+                .type(movement.getType().name())
+                .typeDisplayName(movement.getType().getDisplayName())
+                .quantity(movement.getQuantity())
+                .previousStock(movement.getPreviousStock())
+                .resultingStock(movement.getResultingStock())
+                .reason(movement.getReason())
+                .reference(movement.getReference())
+                .notes(movement.getNotes())
+                .createdAt(movement.getCreatedAt())
+                .createdBy(movement.getCreatedBy())
+                .build();
+    }
+
+    public StockReservationResponse toStockReservationResponse(StockReservation reservation, Product product) {
+        return StockReservationResponse.builder()
+                .id(reservation.getId())
+                .productId(reservation.getProductId())
+                .sku(product.getSku())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus().name())
+                .statusDisplayName(reservation.getStatus().getDisplayName())
+                .reference(reservation.getReference())
+                .notes(reservation.getNotes())
+                .expiresAt(reservation.getExpiresAt())
+                .availableStock(product.getAvailableStock().intValue())
+                .createdAt(reservation.getCreatedAt())
+                .createdBy(reservation.getCreatedBy())
+                .build();
+    }
+
     // ==================== LIST MAPPING ====================
 
     public List<ProductResponse> toResponseList(List<Product> products) {
@@ -130,6 +200,79 @@ public class ProductMapper {
                 .build();
     }
 
+    public ProductListResponse toListResponse(CursorPage<Product> productPage) {
+        return ProductListResponse.builder()
+                .products(toSummaryResponseList(productPage.getContent()))
+                .cursor(productPage.toPaginationResponse())
+                .build();
+    }
+
+    public StockMovementListResponse toStockMovementListResponse(Page<StockMovement> movementPage) {
+        return StockMovementListResponse.builder()
+                .movements(movementPage.getContent().stream()
+                        .map(this::toStockMovementResponse)
+                        .collect(Collectors.toList()))
+                .pagination(toPaginationResponse(movementPage))
+                .build();
+    }
+
+    public ProductFilterSummaryResponse toFilterSummaryResponse(ProductSearchRequest request, long totalResults,
+                                                                FacetCounts facets, Map<UUID, String> categoryNames) {
+        List<FacetCountResponse> categories = new ArrayList<>();
+        facets.getCategories().forEach((id, count) ->
+                categories.add(new FacetCountResponse(id.toString(), categoryNames.getOrDefault(id, id.toString()), count)));
+        if (facets.getUncategorized() > 0) {
+            categories.add(new FacetCountResponse("none", "Ohne Kategorie", facets.getUncategorized()));
+        }
+
+        List<FacetCountResponse> statuses = new ArrayList<>();
+        facets.getStatuses().forEach((status, count) ->
+                statuses.add(new FacetCountResponse(status.name(), getStatusDisplayName(status), count)));
+
+        List<FacetCountResponse> units = new ArrayList<>();
+        facets.getUnits().forEach((unit, count) ->
+                units.add(new FacetCountResponse(unit.name(), unit.getDisplayName(), count)));
+
+        List<FacetCountResponse> priceBands = new ArrayList<>();
+        facets.getPriceBands().forEach((band, count) ->
+                priceBands.add(new FacetCountResponse(band.getKey(), band.getLabel(), count)));
+
+        List<FacetCountResponse> stockStates = new ArrayList<>();
+        facets.getStockStates().forEach((state, count) ->
+                stockStates.add(new FacetCountResponse(state.name(), state.getDisplayName(), count)));
+
+        return ProductFilterSummaryResponse.builder()
+                .totalResults(totalResults)
+                .appliedSearchTerm(request.getSearchTerm())
+                .appliedStatuses(request.getStatus() != null ? List.of(request.getStatus()) : List.of())
+                .appliedUnits(request.getUnit() != null ? List.of(request.getUnit().name()) : List.of())
+                .categories(categories)
+                .statuses(statuses)
+                .units(units)
+                .priceBands(priceBands)
+                .stockStates(stockStates)
+                .build();
+    }
+
+    public ProductTypeaheadResponse toTypeaheadResponse(ProductSuggestion suggestion) {
+        return ProductTypeaheadResponse.builder()
+                .id(suggestion.getId())
+                .sku(suggestion.getSku())
+                .name(suggestion.getName())
+                .barcode(suggestion.getBarcode())
+                .matchedField(suggestion.getMatchedField().name())
+                .build();
+    }
+
+    public ProductTypeaheadResponse toTypeaheadResponse(Product product) {
+        return ProductTypeaheadResponse.builder()
+                .id(product.getId())
+                .sku(product.getSku())
+                .name(product.getName())
+                .barcode(product.getBarcode())
+                .build();
+    }
+
     // ==================== REQUEST TO ENTITY MAPPING ====================
 
     public Product toEntity(CreateProductRequest request, ProductCategory category) {
@@ -229,10 +372,14 @@ public class ProductMapper {
     }
 
     private boolean isLowStock(Product product) {
-        if (product.getCurrentStock() == null || product.getMinStockLevel() == null) {
+        return isLowStock(product.getCurrentStock(), product.getMinStockLevel());
+    }
+
+    private boolean isLowStock(BigDecimal stock, BigDecimal minStockLevel) {
+        if (stock == null || minStockLevel == null) {
             return false;
         }
-        return product.getCurrentStock().compareTo(product.getMinStockLevel()) < 0;
+        return stock.compareTo(minStockLevel) < 0;
     }
 
     private CategoryResponse mapCategoryBasic(ProductCategory category) {
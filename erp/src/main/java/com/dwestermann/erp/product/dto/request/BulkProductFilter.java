@@ -0,0 +1,18 @@
+package com.dwestermann.erp.product.dto.request;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Products selected by a bulk update - gleiche Kriterien wie findWithFilters, null = kein Filter
+ */
+@Data
+public class BulkProductFilter {
+    private UUID categoryId;
+    private ProductStatus status;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+}
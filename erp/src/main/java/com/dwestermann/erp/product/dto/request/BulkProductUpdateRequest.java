@@ -0,0 +1,59 @@
+package com.dwestermann.erp.product.dto.request;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class BulkProductUpdateRequest {
+
+    // Entweder IDs oder Filter
+    private List<UUID> productIds;
+
+    @Valid
+    private BulkProductFilter filter;
+
+    // Änderungen, null = unverändert
+    private ProductStatus newStatus;
+    private UUID newCategoryId;
+
+    @DecimalMin(value = "0.0", message = "Minimum stock level cannot be negative")
+    private BigDecimal newMinStockLevel;
+
+    @DecimalMin(value = "0.0", message = "Maximum stock level cannot be negative")
+    private BigDecimal newMaxStockLevel;
+
+    private Boolean newActive;
+
+    private String reason;
+
+    @AssertTrue(message = "Either product IDs or a filter is required")
+    public boolean isTargetSpecified() {
+        boolean hasIds = productIds != null && !productIds.isEmpty();
+        return hasIds != (filter != null);
+    }
+
+    @AssertTrue(message = "At least one change is required")
+    public boolean isChangeSpecified() {
+        return newStatus != null || newCategoryId != null || newMinStockLevel != null
+                || newMaxStockLevel != null || newActive != null;
+    }
+
+    @AssertTrue(message = "Minimum stock level cannot exceed maximum stock level")
+    public boolean isStockLevelRangeValid() {
+        return newMinStockLevel == null || newMaxStockLevel == null || newMinStockLevel.compareTo(newMaxStockLevel) <= 0;
+    }
+
+    @AssertTrue(message = "Active flag contradicts the new status")
+    public boolean isActiveConsistentWithStatus() {
+        return newActive == null
+                || !(newStatus == ProductStatus.ACTIVE && !newActive)
+                && !(newStatus == ProductStatus.DISCONTINUED && newActive);
+    }
+}
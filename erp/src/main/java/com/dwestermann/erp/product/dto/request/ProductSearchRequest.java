@@ -1,6 +1,7 @@
 package com.dwestermann.erp.product.dto.request;
 
 import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
 import lombok.Data;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +16,7 @@ public class ProductSearchRequest {
     private String searchTerm;
     private UUID categoryId;
     private ProductStatus status;
+    private Unit unit;
     private BigDecimal minPrice;
     private BigDecimal maxPrice;
     private Boolean lowStockOnly;
@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class ReserveStockRequest {
+
+    @NotNull(message = "Quantity to reserve is required")
+    @Positive(message = "Quantity to reserve must be positive")
+    private Integer quantity;
+
+    // Haltedauer, ohne Angabe product.reservations.default-ttl
+    @Positive(message = "TTL must be positive")
+    @Max(value = 86400, message = "TTL must not exceed 24 hours")
+    private Integer ttlSeconds;
+
+    @Size(max = 100, message = "Reference must not exceed 100 characters")
+    private String reference; // Warenkorb bzw. Angebotsnummer
+
+    private String notes;
+}
@@ -0,0 +1,16 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCountResponse {
+    private String value;   // Filterwert (ID, Enum-Name, Preisband "10-50")
+    private String label;   // Anzeige in der Sidebar
+    private long count;
+}
@@ -14,4 +14,11 @@ public class ProductFilterSummaryResponse {
     private String appliedSearchTerm;
     private List<ProductStatus> appliedStatuses;
     private List<String> appliedUnits;
-}
\ No newline at end of file
+
+    // Facetten: Treffer pro Wert mit allen anderen Filtern
+    private List<FacetCountResponse> categories;
+    private List<FacetCountResponse> statuses;
+    private List<FacetCountResponse> units;
+    private List<FacetCountResponse> priceBands;
+    private List<FacetCountResponse> stockStates;
+}
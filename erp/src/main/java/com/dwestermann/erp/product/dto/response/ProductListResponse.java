@@ -1,5 +1,6 @@
 package com.dwestermann.erp.product.dto.response;
 
+import com.dwestermann.erp.common.pagination.CursorPaginationResponse;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,4 +11,6 @@ import java.util.List;
 public class ProductListResponse {
     private List<ProductSummaryResponse> products;
     private PaginationResponse pagination;  // ← Verschachtelt!
+    private ProductFilterSummaryResponse filterSummary;  // nur bei der Suche
+    private CursorPaginationResponse cursor;  // nur bei /scroll (Keyset-Pagination)
 }
\ No newline at end of file
@@ -16,12 +16,15 @@ public class ProductResponse {
     private String name;
     private String description;
     private String sku;
+    private String barcode;
     private BigDecimal price;
     private String currency;
     private String formattedPrice;
     private Unit unit;
     private String unitDisplayName;
     private Integer stockQuantity;
+    private Integer reservedStock;
+    private Integer availableStock; // stockQuantity - reservedStock
     private Integer minimumStockLevel;
     private ProductStatus status;
     private String statusDisplayName;
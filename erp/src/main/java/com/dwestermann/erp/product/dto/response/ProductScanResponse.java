@@ -0,0 +1,19 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductScanResponse {
+    private UUID id;
+    private String matchedField; // SKU oder BARCODE
+    private BigDecimal currentStock;
+}
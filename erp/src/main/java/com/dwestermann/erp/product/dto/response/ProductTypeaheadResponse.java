@@ -0,0 +1,20 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductTypeaheadResponse {
+    private UUID id;
+    private String sku;
+    private String name;
+    private String barcode;
+    private String matchedField; // SKU, BARCODE oder NAME
+}
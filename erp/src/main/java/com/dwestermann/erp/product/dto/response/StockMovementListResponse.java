@@ -0,0 +1,13 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class StockMovementListResponse {
+    private List<StockMovementResponse> movements;
+    private PaginationResponse pagination;
+}
@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class StockMovementResponse {
+    private UUID id;
+    private UUID productId;
+    private String type;
+    private String typeDisplayName;
+    private BigDecimal quantity; // Zugang positiv, Abgang negativ
+    private BigDecimal previousStock;
+    private BigDecimal resultingStock;
+    private String reason;
+    private String reference;
+    private String notes;
+    private LocalDateTime createdAt;
+    private String createdBy;
+}
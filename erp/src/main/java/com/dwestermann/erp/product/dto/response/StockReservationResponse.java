@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.dto.response;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class StockReservationResponse {
+    private UUID id;
+    private UUID productId;
+    private String sku;
+    private BigDecimal quantity;
+    private String status;
+    private String statusDisplayName;
+    private String reference;
+    private String notes;
+    private LocalDateTime expiresAt;
+    private Integer availableStock; // nach dieser Operation
+    private LocalDateTime createdAt;
+    private String createdBy;
+}
@@ -0,0 +1,49 @@
+package com.dwestermann.erp.product.event;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.statistics.ProductContribution;
+import lombok.Value;
+
+/**
+ * Published by the product service whenever a product is created, changed or deleted.
+ * Listener laufen nach dem Commit (@TransactionalEventListener) - die Entity ist dann detached,
+ * Version und Felder entsprechen dem gespeicherten Stand. previous ist der Statistik-Beitrag vor der Änderung.
+ */
+@Value
+public class ProductChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    Type type;
+    String tenantId;
+    Product product;
+    ProductContribution previous; // null bei CREATED
+
+    public static ProductChangedEvent created(Product product) {
+        return new ProductChangedEvent(Type.CREATED, product.getTenantId(), product, null);
+    }
+
+    /**
+     * @param previous contribution captured before the product was modified
+     */
+    public static ProductChangedEvent updated(Product product, ProductContribution previous) {
+        return new ProductChangedEvent(Type.UPDATED, product.getTenantId(), product, previous);
+    }
+
+    public static ProductChangedEvent deleted(Product product) {
+        return new ProductChangedEvent(Type.DELETED, product.getTenantId(), product, ProductContribution.of(product));
+    }
+
+    public boolean isDeleted() {
+        return type == Type.DELETED;
+    }
+
+    /**
+     * Contribution after the change, null for deleted products
+     */
+    public ProductContribution getCurrent() {
+        return isDeleted() ? null : ProductContribution.of(product);
+    }
+}
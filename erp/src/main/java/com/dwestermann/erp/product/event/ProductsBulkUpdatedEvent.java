@@ -0,0 +1,13 @@
+package com.dwestermann.erp.product.event;
+
+import lombok.Value;
+
+/**
+ * Published after a set-based bulk mutation. Die geänderten Produkte werden nicht geladen - Listener verwerfen
+ * ihren Stand des Tenants statt einzelne {@link ProductChangedEvent}s anzuwenden.
+ */
+@Value
+public class ProductsBulkUpdatedEvent {
+    String tenantId;
+    int updatedProducts;
+}
@@ -0,0 +1,17 @@
+package com.dwestermann.erp.product.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when product.export.max-concurrent exports are already running (503 Service Unavailable)
+ */
+@Getter
+public class ExportCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ExportCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
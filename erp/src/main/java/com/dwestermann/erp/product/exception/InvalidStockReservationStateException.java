@@ -0,0 +1,10 @@
+package com.dwestermann.erp.product.exception;
+
+/**
+ * Thrown when a reservation is confirmed or released that is no longer active
+ */
+public class InvalidStockReservationStateException extends RuntimeException {
+    public InvalidStockReservationStateException(String message) {
+        super(message);
+    }
+}
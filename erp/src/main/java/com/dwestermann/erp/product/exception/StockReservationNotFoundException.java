@@ -0,0 +1,7 @@
+package com.dwestermann.erp.product.exception;
+
+public class StockReservationNotFoundException extends RuntimeException {
+    public StockReservationNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,93 @@
+package com.dwestermann.erp.product.export;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+
+/**
+ * CSV nach RFC 4180: Komma als Trenner, CRLF, Felder mit Trenner/Anführungszeichen/Umbruch in Anführungszeichen
+ */
+class CsvProductExportWriter implements ProductExportWriter {
+
+    private static final String[] HEADER = {
+            "id", "sku", "name", "description", "category", "unit",
+            "purchase_price", "purchase_currency", "selling_price", "selling_currency",
+            "current_stock", "reserved_stock", "available_stock", "min_stock_level", "max_stock_level",
+            "status", "active", "barcode", "weight", "updated_at"
+    };
+
+    private final Writer out;
+
+    CsvProductExportWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        for (int i = 0; i < HEADER.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(HEADER[i]);
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void write(ProductExportRow row) throws IOException {
+        field(row.id(), false);
+        field(row.sku(), true);
+        field(row.name(), true);
+        field(row.description(), true);
+        field(row.categoryName(), true);
+        field(row.unit(), true);
+        field(row.purchasePrice(), true);
+        field(row.purchaseCurrency(), true);
+        field(row.sellingPrice(), true);
+        field(row.sellingCurrency(), true);
+        field(row.currentStock(), true);
+        field(row.reservedStock(), true);
+        field(row.availableStock(), true);
+        field(row.minStockLevel(), true);
+        field(row.maxStockLevel(), true);
+        field(row.status(), true);
+        field(row.active(), true);
+        field(row.barcode(), true);
+        field(row.weight(), true);
+        field(row.updatedAt(), true);
+        out.write("\r\n");
+    }
+
+    private void field(Object value, boolean separator) throws IOException {
+        if (separator) {
+            out.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString();
+        if (!needsQuoting(text)) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                out.write('"');
+            }
+            out.write(c);
+        }
+        out.write('"');
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,47 @@
+package com.dwestermann.erp.product.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Newline-delimited JSON, ein Objekt pro Zeile (Feldnamen wie {@link ProductExportRow})
+ */
+class NdjsonProductExportWriter implements ProductExportWriter {
+
+    private final JsonGenerator generator;
+    private final ObjectWriter rowWriter;
+
+    NdjsonProductExportWriter(Writer out, ObjectMapper objectMapper) {
+        try {
+            // Generator schließt und flusht den Writer nicht, volle Puffer gehen direkt in den Writer
+            this.generator = objectMapper.getFactory().createGenerator(out)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot create JSON generator", e);
+        }
+        this.rowWriter = objectMapper.writerFor(ProductExportRow.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    public void writeHeader() {
+        // NDJSON hat keinen Header
+    }
+
+    @Override
+    public void write(ProductExportRow row) throws IOException {
+        rowWriter.writeValue(generator, row);
+        generator.writeRaw('\n');
+    }
+
+    @Override
+    public void finish() throws IOException {
+        generator.flush();
+    }
+}
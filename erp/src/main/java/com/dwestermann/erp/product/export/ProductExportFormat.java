@@ -0,0 +1,39 @@
+package com.dwestermann.erp.product.export;
+
+import java.util.Locale;
+
+/**
+ * Output formats of the catalog export
+ */
+public enum ProductExportFormat {
+
+    CSV("text/csv", "csv"),
+    NDJSON("application/x-ndjson", "ndjson");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ProductExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Parse the format case-insensitively (wie Sort.Direction.fromString)
+     */
+    public static ProductExportFormat fromString(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format '" + value + "', expected csv or ndjson", e);
+        }
+    }
+}
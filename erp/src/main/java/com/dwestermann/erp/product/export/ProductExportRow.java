@@ -0,0 +1,43 @@
+package com.dwestermann.erp.product.export;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One product of the catalog export (JPQL projection, keine Entity im Persistence Context)
+ */
+public record ProductExportRow(
+        UUID id,
+        String sku,
+        String name,
+        String description,
+        String categoryName,
+        Unit unit,
+        BigDecimal purchasePrice,
+        String purchaseCurrency,
+        BigDecimal sellingPrice,
+        String sellingCurrency,
+        BigDecimal currentStock,
+        BigDecimal reservedStock,
+        BigDecimal minStockLevel,
+        BigDecimal maxStockLevel,
+        ProductStatus status,
+        Boolean active,
+        String barcode,
+        BigDecimal weight,
+        LocalDateTime updatedAt) {
+
+    /**
+     * Available stock net of reservations, wie Product.getAvailableStock()
+     */
+    @JsonProperty("availableStock")
+    public BigDecimal availableStock() {
+        BigDecimal reserved = reservedStock != null ? reservedStock : BigDecimal.ZERO;
+        return currentStock.subtract(reserved).max(BigDecimal.ZERO);
+    }
+}
@@ -0,0 +1,29 @@
+package com.dwestermann.erp.product.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes export rows one by one to a character stream, ohne Zeilen zu puffern
+ */
+public interface ProductExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(ProductExportRow row) throws IOException;
+
+    /**
+     * Hand buffered output to the underlying writer (flusht ihn nicht)
+     */
+    default void finish() throws IOException {
+    }
+
+    static ProductExportWriter of(ProductExportFormat format, Writer out, ObjectMapper objectMapper) {
+        return switch (format) {
+            case CSV -> new CsvProductExportWriter(out);
+            case NDJSON -> new NdjsonProductExportWriter(out, objectMapper);
+        };
+    }
+}
@@ -25,6 +25,22 @@ public interface ProductCategoryRepository extends JpaRepository<ProductCategory
 
     Page<ProductCategory> findAllByOrderByNameAsc(Pageable pageable);
 
+    // ==================== KEYSET PAGINATION ====================
+    // Seek auf (name, id) statt OFFSET, Sortierung kommt aus dem Pageable
+
+    @Query("SELECT c FROM ProductCategory c WHERE c.tenantId = :tenantId")
+    List<ProductCategory> findKeysetFirstByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
+
+    @Query("SELECT c FROM ProductCategory c WHERE c.tenantId = :tenantId " +
+            "AND c.name >= :name AND (c.name > :name OR c.id > :id)")
+    List<ProductCategory> findKeysetAfterByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                                    @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT c FROM ProductCategory c WHERE c.tenantId = :tenantId " +
+            "AND c.name <= :name AND (c.name < :name OR c.id < :id)")
+    List<ProductCategory> findKeysetBeforeByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                                     @Param("id") UUID id, Pageable pageable);
+
     // ==================== HIERARCHY QUERIES ====================
 
     @Query("SELECT c FROM ProductCategory c WHERE c.tenantId = :tenantId AND c.parentCategory IS NULL ORDER BY c.name ASC")
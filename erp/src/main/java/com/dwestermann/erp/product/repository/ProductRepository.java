@@ -1,18 +1,34 @@
 package com.dwestermann.erp.product.repository;
 
+import com.dwestermann.erp.product.bulk.ProductMutationTarget;
 import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.ProductCategory;
 import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.export.ProductExportRow;
+import com.dwestermann.erp.product.scan.ProductScanEntry;
+import com.dwestermann.erp.product.search.ProductFacetRow;
+import com.dwestermann.erp.product.search.ProductSearchDocument;
+import com.dwestermann.erp.product.statistics.ProductStatisticsRow;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, UUID> {
@@ -23,10 +39,30 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     boolean existsBySkuAndTenantId(String sku, String tenantId);
 
+    // Nur die ID - der Lookup-Cache lädt das Produkt selbst über die ID
+    @Query("SELECT p.id FROM Product p WHERE p.sku = :sku AND p.tenantId = :tenantId")
+    Optional<UUID> findIdBySkuAndTenantId(@Param("sku") String sku, @Param("tenantId") String tenantId);
+
     Page<Product> findByTenantIdOrderByNameAsc(String tenantId, Pageable pageable);
 
     List<Product> findByTenantIdOrderByNameAsc(String tenantId);
 
+    // ==================== KEYSET PAGINATION ====================
+    // Seek auf (name, id) statt OFFSET, Sortierung kommt aus dem Pageable. "name >=/<=" begrenzt den Indexbereich.
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId")
+    List<Product> findKeysetFirstByTenantId(@Param("tenantId") String tenantId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId " +
+            "AND p.name >= :name AND (p.name > :name OR p.id > :id)")
+    List<Product> findKeysetAfterByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                            @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId " +
+            "AND p.name <= :name AND (p.name < :name OR p.id < :id)")
+    List<Product> findKeysetBeforeByTenantId(@Param("tenantId") String tenantId, @Param("name") String name,
+                                             @Param("id") UUID id, Pageable pageable);
+
     // ==================== CATEGORY-BASED QUERIES ====================
 
     List<Product> findByCategoryIdAndTenantId(UUID categoryId, String tenantId);
@@ -49,6 +85,41 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
                                @Param("tenantId") String tenantId,
                                Pageable pageable);
 
+    // Facetten der Suche ohne Index, gleiche Treffer wie searchByTerm ('' = alle); Summen bildet ProductSearchService
+    @Query("SELECT new com.dwestermann.erp.product.search.ProductFacetRow(c.id, p.status, p.unit, " +
+            "CASE WHEN p.currentStock IS NULL OR p.currentStock = 0 THEN 2 " +
+            "WHEN p.minStockLevel IS NOT NULL AND p.currentStock < p.minStockLevel THEN 1 ELSE 0 END, COUNT(p)) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.tenantId = :tenantId AND (:searchTerm = '' OR " +
+            "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.barcode) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "GROUP BY c.id, p.status, p.unit, " +
+            "CASE WHEN p.currentStock IS NULL OR p.currentStock = 0 THEN 2 " +
+            "WHEN p.minStockLevel IS NOT NULL AND p.currentStock < p.minStockLevel THEN 1 ELSE 0 END")
+    List<ProductFacetRow> aggregateFacetsByTerm(@Param("searchTerm") String searchTerm,
+                                                @Param("tenantId") String tenantId);
+
+    // Preisbänder sind konfigurierbar - Treffer pro Verkaufspreis, Zuordnung zum Band im ProductSearchService
+    @Query("SELECT p.sellingPrice.amount, COUNT(p) FROM Product p WHERE p.tenantId = :tenantId AND (:searchTerm = '' OR " +
+            "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.sku) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
+            "LOWER(p.barcode) LIKE LOWER(CONCAT('%', :searchTerm, '%'))) " +
+            "GROUP BY p.sellingPrice.amount")
+    List<Object[]> countByPriceAndTerm(@Param("searchTerm") String searchTerm,
+                                       @Param("tenantId") String tenantId);
+
+    // Suchindex: nur die indexierten Felder laden, Treffer werden per ID in einer Query nachgeladen
+    @Query("SELECT new com.dwestermann.erp.product.search.ProductSearchDocument(" +
+            "p.id, p.version, p.sku, p.name, p.description, p.barcode, c.id, p.status, p.unit, " +
+            "p.sellingPrice.amount, p.currentStock, p.minStockLevel) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.tenantId = :tenantId")
+    List<ProductSearchDocument> findSearchDocumentsByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN :ids")
+    List<Product> findAllWithCategoryByIdIn(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT p FROM Product p WHERE p.tenantId = :tenantId AND " +
             "LOWER(p.name) LIKE LOWER(CONCAT('%', :searchTerm, '%'))")
     List<Product> findByNameContainingIgnoreCaseAndTenantId(@Param("searchTerm") String searchTerm,
@@ -77,6 +148,14 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.tenantId = :tenantId AND p.currentStock = 0")
     List<Product> findOutOfStockProducts(@Param("tenantId") String tenantId);
 
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId AND " +
+            "p.currentStock <= p.minStockLevel AND p.minStockLevel > 0 ORDER BY p.currentStock ASC, p.name ASC")
+    List<Product> findLowStockProducts(@Param("tenantId") String tenantId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.tenantId = :tenantId AND p.currentStock = 0 " +
+            "ORDER BY p.name ASC")
+    List<Product> findOutOfStockProducts(@Param("tenantId") String tenantId, Pageable pageable);
+
     @Query("SELECT p FROM Product p WHERE p.tenantId = :tenantId AND " +
             "p.maxStockLevel IS NOT NULL AND p.currentStock > p.maxStockLevel")
     List<Product> findOverStockProducts(@Param("tenantId") String tenantId);
@@ -119,6 +198,15 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT COUNT(p) FROM Product p WHERE p.tenantId = :tenantId")
     Long countByTenantId(@Param("tenantId") String tenantId);
 
+    // Produktstatistik in einem Durchlauf, Summen über die Gruppen bildet ProductStatisticsSnapshot
+    @Query("SELECT new com.dwestermann.erp.product.statistics.ProductStatisticsRow(" +
+            "p.category.id, p.status, COUNT(p), " +
+            "SUM(CASE WHEN p.currentStock <= p.minStockLevel AND p.minStockLevel > 0 THEN 1 ELSE 0 END), " +
+            "SUM(CASE WHEN p.currentStock = 0 THEN 1 ELSE 0 END), " +
+            "SUM(p.sellingPrice.amount * p.currentStock)) " +
+            "FROM Product p WHERE p.tenantId = :tenantId GROUP BY p.category.id, p.status")
+    List<ProductStatisticsRow> aggregateStatisticsByTenantId(@Param("tenantId") String tenantId);
+
     @Query("SELECT COUNT(DISTINCT p.category) FROM Product p WHERE p.tenantId = :tenantId AND p.category IS NOT NULL")
     Long countDistinctCategoriesByTenantId(@Param("tenantId") String tenantId);
 
@@ -128,12 +216,79 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT AVG(p.sellingPrice.amount) FROM Product p WHERE p.tenantId = :tenantId AND p.sellingPrice.amount IS NOT NULL")
     BigDecimal calculateAverageSellingPrice(@Param("tenantId") String tenantId);
 
+    // ==================== STOCK MOVEMENTS ====================
+
+    /**
+     * Bedingtes Delta-Update statt Read-Modify-Write: 0 Zeilen = Produkt fehlt oder ein Abgang würde reservierten
+     * Bestand verbrauchen. Die Version wird erhöht, damit ein vorher geladenes Produkt-Update den Bestand nicht überschreibt.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.currentStock = p.currentStock + :delta, p.version = COALESCE(p.version, 0) + 1, " +
+            "p.updatedAt = :updatedAt, p.updatedBy = :updatedBy " +
+            "WHERE p.id = :id AND p.tenantId = :tenantId AND (:delta >= 0 OR p.currentStock + :delta >= p.reservedStock)")
+    int adjustStock(@Param("id") UUID id,
+                    @Param("tenantId") String tenantId,
+                    @Param("delta") BigDecimal delta,
+                    @Param("updatedAt") LocalDateTime updatedAt,
+                    @Param("updatedBy") String updatedBy);
+
+    /**
+     * Delta für eine bereits gesperrte und geprüfte Zeile - eine Inventur darf unter die Reservierungen fallen
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.currentStock = p.currentStock + :delta, p.version = COALESCE(p.version, 0) + 1, " +
+            "p.updatedAt = :updatedAt, p.updatedBy = :updatedBy " +
+            "WHERE p.id = :id AND p.tenantId = :tenantId AND p.currentStock + :delta >= 0")
+    int adjustLockedStock(@Param("id") UUID id,
+                          @Param("tenantId") String tenantId,
+                          @Param("delta") BigDecimal delta,
+                          @Param("updatedAt") LocalDateTime updatedAt,
+                          @Param("updatedBy") String updatedBy);
+
+    // Inventur (absoluter Bestand): Zeile sperren, damit das Delta im Ledger zum Vorbestand passt
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id AND p.tenantId = :tenantId")
+    Optional<Product> findByIdAndTenantIdForUpdate(@Param("id") UUID id, @Param("tenantId") String tenantId);
+
+    // ==================== STOCK RESERVATIONS ====================
+
+    // 0 Zeilen = Produkt fehlt oder nicht genug verfügbarer Bestand (current_stock - reserved_stock)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedStock = p.reservedStock + :quantity, p.version = COALESCE(p.version, 0) + 1 " +
+            "WHERE p.id = :id AND p.tenantId = :tenantId AND p.currentStock - p.reservedStock >= :quantity")
+    int reserveStock(@Param("id") UUID id,
+                     @Param("tenantId") String tenantId,
+                     @Param("quantity") BigDecimal quantity);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.reservedStock = p.reservedStock - :quantity, p.version = COALESCE(p.version, 0) + 1 " +
+            "WHERE p.id = :id AND p.tenantId = :tenantId AND p.reservedStock >= :quantity")
+    int releaseReservedStock(@Param("id") UUID id,
+                             @Param("tenantId") String tenantId,
+                             @Param("quantity") BigDecimal quantity);
+
+    // Bestätigte Reservierung als Abgang buchen, 0 Zeilen = der Bestand wurde inzwischen per Inventur verringert
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.currentStock = p.currentStock - :quantity, p.reservedStock = p.reservedStock - :quantity, " +
+            "p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :updatedAt, p.updatedBy = :updatedBy " +
+            "WHERE p.id = :id AND p.tenantId = :tenantId AND p.reservedStock >= :quantity AND p.currentStock >= :quantity")
+    int consumeReservedStock(@Param("id") UUID id,
+                             @Param("tenantId") String tenantId,
+                             @Param("quantity") BigDecimal quantity,
+                             @Param("updatedAt") LocalDateTime updatedAt,
+                             @Param("updatedBy") String updatedBy);
+
     // ==================== BARCODE QUERIES ====================
 
     Optional<Product> findByBarcodeAndTenantId(String barcode, String tenantId);
 
     boolean existsByBarcodeAndTenantId(String barcode, String tenantId);
 
+    // Barcodes sind nicht eindeutig, bei Duplikaten gewinnt die kleinste ID
+    @Query("SELECT p.id FROM Product p WHERE p.barcode = :barcode AND p.tenantId = :tenantId ORDER BY p.id")
+    List<UUID> findIdsByBarcodeAndTenantId(@Param("barcode") String barcode, @Param("tenantId") String tenantId,
+                                           Pageable pageable);
+
     // ==================== RECENT PRODUCTS ====================
 
     @Query("SELECT p FROM Product p WHERE p.tenantId = :tenantId ORDER BY p.createdAt DESC")
@@ -161,6 +316,104 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
     @Query("SELECT p FROM Product p WHERE p.id IN :productIds AND p.tenantId = :tenantId")
     List<Product> findByIdsAndTenantId(@Param("productIds") List<UUID> productIds, @Param("tenantId") String tenantId);
 
+    // Bulk-Mutationen: nur die Zielspalten laden, die Änderung selbst läuft als UPDATE auf der ID-Menge
+
+    @Query("SELECT new com.dwestermann.erp.product.bulk.ProductMutationTarget(p.id, p.name, p.sellingPrice.amount) " +
+            "FROM Product p WHERE p.id IN :productIds AND p.tenantId = :tenantId")
+    List<ProductMutationTarget> findMutationTargets(@Param("productIds") Collection<UUID> productIds,
+                                                    @Param("tenantId") String tenantId);
+
+    // Keyset über (name, id) wie die Listen-Pagination, Filter wie findWithFilters
+    @Query("SELECT new com.dwestermann.erp.product.bulk.ProductMutationTarget(p.id, p.name, p.sellingPrice.amount) " +
+            "FROM Product p WHERE p.tenantId = :tenantId AND " +
+            "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+            "(:status IS NULL OR p.status = :status) AND " +
+            "(:minPrice IS NULL OR p.sellingPrice.amount >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.sellingPrice.amount <= :maxPrice) " +
+            "ORDER BY p.name, p.id")
+    List<ProductMutationTarget> findMutationTargetsFirst(@Param("tenantId") String tenantId,
+                                                         @Param("categoryId") UUID categoryId,
+                                                         @Param("status") ProductStatus status,
+                                                         @Param("minPrice") BigDecimal minPrice,
+                                                         @Param("maxPrice") BigDecimal maxPrice,
+                                                         Pageable pageable);
+
+    @Query("SELECT new com.dwestermann.erp.product.bulk.ProductMutationTarget(p.id, p.name, p.sellingPrice.amount) " +
+            "FROM Product p WHERE p.tenantId = :tenantId AND " +
+            "p.name >= :name AND (p.name > :name OR p.id > :id) AND " +
+            "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+            "(:status IS NULL OR p.status = :status) AND " +
+            "(:minPrice IS NULL OR p.sellingPrice.amount >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.sellingPrice.amount <= :maxPrice) " +
+            "ORDER BY p.name, p.id")
+    List<ProductMutationTarget> findMutationTargetsAfter(@Param("tenantId") String tenantId,
+                                                         @Param("name") String name,
+                                                         @Param("id") UUID id,
+                                                         @Param("categoryId") UUID categoryId,
+                                                         @Param("status") ProductStatus status,
+                                                         @Param("minPrice") BigDecimal minPrice,
+                                                         @Param("maxPrice") BigDecimal maxPrice,
+                                                         Pageable pageable);
+
+    /**
+     * Set-based field update, null = Spalte unverändert. Version wird erhöht wie bei adjustStock.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.status = COALESCE(:status, p.status), p.active = COALESCE(:active, p.active), " +
+            "p.minStockLevel = COALESCE(:minStockLevel, p.minStockLevel), " +
+            "p.maxStockLevel = COALESCE(:maxStockLevel, p.maxStockLevel), " +
+            "p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :updatedAt, p.updatedBy = :updatedBy " +
+            "WHERE p.id IN :productIds AND p.tenantId = :tenantId")
+    int bulkUpdate(@Param("productIds") Collection<UUID> productIds,
+                   @Param("tenantId") String tenantId,
+                   @Param("status") ProductStatus status,
+                   @Param("active") Boolean active,
+                   @Param("minStockLevel") BigDecimal minStockLevel,
+                   @Param("maxStockLevel") BigDecimal maxStockLevel,
+                   @Param("updatedAt") LocalDateTime updatedAt,
+                   @Param("updatedBy") String updatedBy);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.category = :category, " +
+            "p.version = COALESCE(p.version, 0) + 1, p.updatedAt = :updatedAt, p.updatedBy = :updatedBy " +
+            "WHERE p.id IN :productIds AND p.tenantId = :tenantId")
+    int bulkUpdateCategory(@Param("productIds") Collection<UUID> productIds,
+                           @Param("tenantId") String tenantId,
+                           @Param("category") ProductCategory category,
+                           @Param("updatedAt") LocalDateTime updatedAt,
+                           @Param("updatedBy") String updatedBy);
+
+    // ==================== EXPORT ====================
+
+    // Katalog-Export als Cursor statt Liste - PostgreSQL liest in einer Transaktion blockweise (Fetch Size),
+    // der Aufrufer muss den Stream schließen
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.dwestermann.erp.product.export.ProductExportRow(" +
+            "p.id, p.sku, p.name, p.description, c.name, p.unit, " +
+            "p.purchasePrice.amount, p.purchasePrice.currency, p.sellingPrice.amount, p.sellingPrice.currency, " +
+            "p.currentStock, p.reservedStock, p.minStockLevel, p.maxStockLevel, " +
+            "p.status, p.active, p.barcode, p.weight, p.updatedAt) " +
+            "FROM Product p LEFT JOIN p.category c WHERE p.tenantId = :tenantId ORDER BY p.name, p.id")
+    Stream<ProductExportRow> streamExportRowsByTenantId(@Param("tenantId") String tenantId);
+
+    // ==================== SCAN INDEX ====================
+
+    // Schlanke Projektion für den Off-Heap-Scan-Index, per Cursor ohne Sortierung (doppelte Barcodes löst der Index)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.dwestermann.erp.product.scan.ProductScanEntry(p.id, p.version, p.sku, p.barcode, p.currentStock) " +
+            "FROM Product p WHERE p.tenantId = :tenantId")
+    Stream<ProductScanEntry> streamScanEntriesByTenantId(@Param("tenantId") String tenantId);
+
+    @Query("SELECT new com.dwestermann.erp.product.scan.ProductScanEntry(p.id, p.version, p.sku, p.barcode, p.currentStock) " +
+            "FROM Product p WHERE p.sku = :sku AND p.tenantId = :tenantId")
+    Optional<ProductScanEntry> findScanEntryBySkuAndTenantId(@Param("sku") String sku, @Param("tenantId") String tenantId);
+
+    @Query("SELECT new com.dwestermann.erp.product.scan.ProductScanEntry(p.id, p.version, p.sku, p.barcode, p.currentStock) " +
+            "FROM Product p WHERE p.barcode = :barcode AND p.tenantId = :tenantId ORDER BY p.id")
+    List<ProductScanEntry> findScanEntriesByBarcodeAndTenantId(@Param("barcode") String barcode,
+                                                               @Param("tenantId") String tenantId,
+                                                               Pageable pageable);
+
     // ==================== UTILITY METHODS ====================
 
     @Query("SELECT DISTINCT p.unit FROM Product p WHERE p.tenantId = :tenantId")
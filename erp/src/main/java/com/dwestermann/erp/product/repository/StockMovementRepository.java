@@ -0,0 +1,16 @@
+package com.dwestermann.erp.product.repository;
+
+import com.dwestermann.erp.product.domain.StockMovement;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface StockMovementRepository extends JpaRepository<StockMovement, UUID> {
+
+    // Neueste Bewegung zuerst, läuft über idx_stock_movements_tenant_product_created
+    Page<StockMovement> findByTenantIdAndProductIdOrderByCreatedAtDesc(String tenantId, UUID productId, Pageable pageable);
+}
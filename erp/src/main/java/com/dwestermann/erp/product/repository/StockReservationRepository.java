@@ -0,0 +1,53 @@
+package com.dwestermann.erp.product.repository;
+
+import com.dwestermann.erp.product.domain.StockReservation;
+import com.dwestermann.erp.product.domain.StockReservationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, UUID> {
+
+    Optional<StockReservation> findByIdAndTenantIdAndProductId(UUID id, String tenantId, UUID productId);
+
+    // Aktive Reservierungen eines Produkts, läuft über idx_stock_reservations_tenant_product_status
+    List<StockReservation> findByTenantIdAndProductIdAndStatusOrderByExpiresAtAsc(String tenantId, UUID productId,
+                                                                                 StockReservationStatus status);
+
+    // Nach einem Neustart alle aktiven Reservierungen ins Timing Wheel laden (idx_stock_reservations_status_expires)
+    List<StockReservation> findByStatus(StockReservationStatus status);
+
+    List<StockReservation> findByStatusAndExpiresAtLessThanEqual(StockReservationStatus status, LocalDateTime expiresAt);
+
+    /**
+     * Bestätigen bzw. Freigeben: nur aus ACTIVE und vor Ablauf, 0 Zeilen = nicht (mehr) aktiv
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = :status, r.version = COALESCE(r.version, 0) + 1, " +
+            "r.updatedAt = :now, r.updatedBy = :updatedBy " +
+            "WHERE r.id = :id AND r.tenantId = :tenantId " +
+            "AND r.status = com.dwestermann.erp.product.domain.StockReservationStatus.ACTIVE AND r.expiresAt > :now")
+    int finishActive(@Param("id") UUID id,
+                     @Param("tenantId") String tenantId,
+                     @Param("status") StockReservationStatus status,
+                     @Param("now") LocalDateTime now,
+                     @Param("updatedBy") String updatedBy);
+
+    // Ablauf, 0 Zeilen = inzwischen bestätigt oder freigegeben
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockReservation r SET r.status = com.dwestermann.erp.product.domain.StockReservationStatus.EXPIRED, " +
+            "r.version = COALESCE(r.version, 0) + 1, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.tenantId = :tenantId " +
+            "AND r.status = com.dwestermann.erp.product.domain.StockReservationStatus.ACTIVE AND r.expiresAt <= :now")
+    int expire(@Param("id") UUID id,
+               @Param("tenantId") String tenantId,
+               @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,250 @@
+package com.dwestermann.erp.product.scan;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Open-addressing hash table with 128-bit keys and a fixed number of long values per slot, stored in a direct
+ * {@link ByteBuffer} außerhalb des Heaps - Millionen Einträge erzeugen keine Objekte und keine GC-Last.
+ * Lineares Sondieren, Löschen per Backward Shift (keine Tombstones), Kapazität ist eine Zweierpotenz und
+ * wächst nur (Verdopplung bei Überschreiten des Load Factors).
+ * Der Schlüssel (0, 0) markiert freie Slots und ist nicht erlaubt.
+ * Nicht thread-safe: Schreiber müssen synchronisiert werden. Leser dürfen parallel zu einem Schreiber nur
+ * optimistisch lesen und das Ergebnis danach validieren (siehe {@link ProductCodeIndex}) - Slot-Indizes bleiben dabei
+ * immer innerhalb des Puffers, da die Tabelle nie schrumpft.
+ */
+public class OffHeapHashTable {
+
+    private static final int KEY_BYTES = 2 * Long.BYTES;
+
+    private final int valueLongs;
+    private final int slotBytes;
+    private final float maxLoadFactor;
+    private volatile Slots slots;
+    private int size;
+
+    /**
+     * @param valueLongs      number of long values per entry
+     * @param initialCapacity expected number of entries
+     * @param maxLoadFactor   resize threshold (0.1 - 0.95)
+     */
+    public OffHeapHashTable(int valueLongs, int initialCapacity, float maxLoadFactor) {
+        if (valueLongs < 1 || maxLoadFactor < 0.1f || maxLoadFactor > 0.95f) {
+            throw new IllegalArgumentException("Invalid table layout: " + valueLongs + " values, load factor " + maxLoadFactor);
+        }
+        this.valueLongs = valueLongs;
+        this.slotBytes = KEY_BYTES + valueLongs * Long.BYTES;
+        this.maxLoadFactor = maxLoadFactor;
+        this.slots = allocate(capacityFor(initialCapacity));
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Find the slot of a key
+     *
+     * @return slot index for {@link #value}, -1 if absent
+     */
+    public int find(long key1, long key2) {
+        Slots current = slots;
+        int capacity = current.mask + 1;
+        int slot = indexFor(key1, key2, current.mask);
+        // Begrenzt, damit ein optimistischer Leser bei paralleler Änderung nicht endlos sondiert
+        for (int probes = 0; probes < capacity; probes++) {
+            long stored1 = current.key1(slot);
+            long stored2 = current.key2(slot);
+            if (stored1 == key1 && stored2 == key2) {
+                return slot;
+            }
+            if (stored1 == 0 && stored2 == 0) {
+                return -1;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Value {@code index} of the slot returned by {@link #find}
+     */
+    public long value(int slot, int index) {
+        return slots.buffer.getLong(slot * slotBytes + KEY_BYTES + index * Long.BYTES);
+    }
+
+    // ==================== WRITE ====================
+
+    /**
+     * Insert or replace an entry
+     */
+    public void put(long key1, long key2, long... values) {
+        if (key1 == 0 && key2 == 0) {
+            throw new IllegalArgumentException("Key (0, 0) is reserved for empty slots");
+        }
+        if (values.length != valueLongs) {
+            throw new IllegalArgumentException("Expected " + valueLongs + " values, got " + values.length);
+        }
+        if (size + 1 > (slots.mask + 1) * maxLoadFactor) {
+            resize();
+        }
+
+        Slots current = slots;
+        int slot = indexFor(key1, key2, current.mask);
+        while (true) {
+            long stored1 = current.key1(slot);
+            long stored2 = current.key2(slot);
+            if (stored1 == 0 && stored2 == 0) {
+                current.writeValues(slot, values);
+                current.writeKey(slot, key1, key2);
+                size++;
+                return;
+            }
+            if (stored1 == key1 && stored2 == key2) {
+                current.writeValues(slot, values);
+                return;
+            }
+            slot = (slot + 1) & current.mask;
+        }
+    }
+
+    /**
+     * Remove an entry, nachfolgende Einträge der Sondierungskette rücken auf
+     *
+     * @return true if the key was present
+     */
+    public boolean remove(long key1, long key2) {
+        int slot = find(key1, key2);
+        if (slot < 0) {
+            return false;
+        }
+
+        Slots current = slots;
+        int gap = slot;
+        int next = (gap + 1) & current.mask;
+        while (true) {
+            long next1 = current.key1(next);
+            long next2 = current.key2(next);
+            if (next1 == 0 && next2 == 0) {
+                break;
+            }
+            int home = indexFor(next1, next2, current.mask);
+            // Eintrag nur verschieben, wenn sein Home-Slot nicht zyklisch zwischen Lücke und aktuellem Slot liegt
+            if (((next - home) & current.mask) >= ((next - gap) & current.mask)) {
+                current.copy(next, gap);
+                gap = next;
+            }
+            next = (next + 1) & current.mask;
+        }
+        current.writeKey(gap, 0, 0);
+        size--;
+        return true;
+    }
+
+    // ==================== SIZE ====================
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return slots.mask + 1;
+    }
+
+    /**
+     * Allocated direct memory in bytes
+     */
+    public long offHeapBytes() {
+        return slots.buffer.capacity();
+    }
+
+    private void resize() {
+        Slots old = slots;
+        int oldCapacity = old.mask + 1;
+        if (oldCapacity >= Integer.MAX_VALUE / 2 / slotBytes) {
+            throw new IllegalStateException("Off-heap table full at " + oldCapacity + " slots");
+        }
+        Slots resized = allocate(oldCapacity * 2);
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            long key1 = old.key1(slot);
+            long key2 = old.key2(slot);
+            if (key1 == 0 && key2 == 0) {
+                continue;
+            }
+            int target = indexFor(key1, key2, resized.mask);
+            while (resized.key1(target) != 0 || resized.key2(target) != 0) {
+                target = (target + 1) & resized.mask;
+            }
+            resized.buffer.put(target * slotBytes, old.buffer, slot * slotBytes, slotBytes);
+        }
+        slots = resized;
+    }
+
+    private Slots allocate(int capacity) {
+        if ((long) capacity * slotBytes > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Off-heap table too large: " + capacity + " slots");
+        }
+        // Direkter Puffer ist mit Nullen initialisiert, also alle Slots frei
+        ByteBuffer buffer = ByteBuffer.allocateDirect(capacity * slotBytes).order(ByteOrder.nativeOrder());
+        return new Slots(buffer, capacity - 1);
+    }
+
+    private int capacityFor(int entries) {
+        long needed = (long) Math.ceil(Math.max(entries, 16) / (double) maxLoadFactor);
+        int capacity = Integer.highestOneBit((int) Math.min(needed, 1 << 30));
+        return capacity < needed ? capacity << 1 : capacity;
+    }
+
+    private static int indexFor(long key1, long key2, int mask) {
+        return (int) mix(key1 ^ Long.rotateLeft(key2, 32)) & mask;
+    }
+
+    /**
+     * 64-bit finalizer (MurmurHash3 fmix64)
+     */
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    /**
+     * Buffer and mask as one reference, damit Leser nie einen Puffer mit der Maske eines anderen kombinieren
+     */
+    private final class Slots {
+
+        private final ByteBuffer buffer;
+        private final int mask;
+
+        private Slots(ByteBuffer buffer, int mask) {
+            this.buffer = buffer;
+            this.mask = mask;
+        }
+
+        private long key1(int slot) {
+            return buffer.getLong(slot * slotBytes);
+        }
+
+        private long key2(int slot) {
+            return buffer.getLong(slot * slotBytes + Long.BYTES);
+        }
+
+        private void writeKey(int slot, long key1, long key2) {
+            buffer.putLong(slot * slotBytes, key1);
+            buffer.putLong(slot * slotBytes + Long.BYTES, key2);
+        }
+
+        private void writeValues(int slot, long[] values) {
+            int offset = slot * slotBytes + KEY_BYTES;
+            for (long value : values) {
+                buffer.putLong(offset, value);
+                offset += Long.BYTES;
+            }
+        }
+
+        private void copy(int from, int to) {
+            buffer.put(to * slotBytes, buffer, from * slotBytes, slotBytes);
+        }
+    }
+}
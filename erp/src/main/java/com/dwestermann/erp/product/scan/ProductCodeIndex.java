@@ -0,0 +1,262 @@
+package com.dwestermann.erp.product.scan;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Off-heap index of one tenant: SKU/Barcode -> Produkt-ID und Produkt-ID -> Codes, Bestand, Version.
+ * Codes werden als 128-Bit-Fingerprint (Typ + Code) gespeichert, nicht als String - pro Produkt fallen je nach
+ * Füllgrad etwa 130 - 260 Bytes direkter Speicher an, auf dem Heap nichts.
+ * Ein Code-Treffer wird gegen den Produkteintrag geprüft, veraltete Zuordnungen liefern daher nie ein falsches Produkt.
+ * Änderungen mit kleinerer Version als gespeichert werden ignoriert (Events können sich überholen), gelöschte
+ * Produkte bleiben als Tombstone bis zum nächsten Rebuild. Bei doppelten Barcodes gewinnt die kleinste ID wie in der DB.
+ * Lookups lesen optimistisch ohne Lock (StampedLock), Änderungen sind exklusiv.
+ */
+public class ProductCodeIndex {
+
+    public enum CodeType {
+        SKU, BARCODE
+    }
+
+    // Nachkommastellen von products.current_stock
+    public static final int STOCK_SCALE = 4;
+
+    private static final long NO_VERSION = Long.MIN_VALUE;
+    private static final long DELETED = Long.MAX_VALUE;
+
+    // Werte der Produkttabelle
+    private static final int SKU_FINGERPRINT = 0;
+    private static final int BARCODE_FINGERPRINT = 2;
+    private static final int STOCK = 4;
+    private static final int VERSION = 5;
+
+    private final StampedLock lock = new StampedLock();
+    private final OffHeapHashTable codes;
+    private final OffHeapHashTable products;
+    private int live;
+
+    /**
+     * @param expectedProducts initial sizing, die Tabellen wachsen bei Bedarf
+     */
+    public ProductCodeIndex(int expectedProducts, float maxLoadFactor) {
+        this.codes = new OffHeapHashTable(2, expectedProducts * 2, maxLoadFactor);
+        this.products = new OffHeapHashTable(6, expectedProducts, maxLoadFactor);
+    }
+
+    // ==================== LOOKUP ====================
+
+    /**
+     * Resolve a code of the given type
+     *
+     * @return the product or null if the code is unknown to the index
+     */
+    public ProductScanHit lookup(CodeType type, String code) {
+        if (code == null || code.isEmpty()) {
+            return null;
+        }
+        long fingerprint1 = fingerprint1(type, code);
+        long fingerprint2 = fingerprint2(type, code);
+
+        long stamp = lock.tryOptimisticRead();
+        ProductScanHit hit = find(type, fingerprint1, fingerprint2);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                hit = find(type, fingerprint1, fingerprint2);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return hit;
+    }
+
+    private ProductScanHit find(CodeType type, long fingerprint1, long fingerprint2) {
+        int codeSlot = codes.find(fingerprint1, fingerprint2);
+        if (codeSlot < 0) {
+            return null;
+        }
+        long msb = codes.value(codeSlot, 0);
+        long lsb = codes.value(codeSlot, 1);
+        int productSlot = products.find(msb, lsb);
+        if (productSlot < 0 || products.value(productSlot, VERSION) == DELETED) {
+            return null;
+        }
+        int offset = type == CodeType.SKU ? SKU_FINGERPRINT : BARCODE_FINGERPRINT;
+        if (products.value(productSlot, offset) != fingerprint1 || products.value(productSlot, offset + 1) != fingerprint2) {
+            return null;
+        }
+        return new ProductScanHit(new UUID(msb, lsb), type,
+                BigDecimal.valueOf(products.value(productSlot, STOCK), STOCK_SCALE));
+    }
+
+    // ==================== CHANGES ====================
+
+    /**
+     * Insert or update a product
+     *
+     * @return false if the index already holds the same or a newer version
+     */
+    public boolean upsert(ProductScanEntry entry) {
+        long msb = entry.getId().getMostSignificantBits();
+        long lsb = entry.getId().getLeastSignificantBits();
+        long version = entry.getVersion() != null ? entry.getVersion() : NO_VERSION;
+        long sku1 = fingerprint1(CodeType.SKU, entry.getSku());
+        long sku2 = fingerprint2(CodeType.SKU, entry.getSku());
+        long barcode1 = fingerprint1(CodeType.BARCODE, entry.getBarcode());
+        long barcode2 = fingerprint2(CodeType.BARCODE, entry.getBarcode());
+        BigDecimal stock = entry.getCurrentStock() != null ? entry.getCurrentStock() : BigDecimal.ZERO;
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = products.find(msb, lsb);
+            if (slot >= 0) {
+                long stored = products.value(slot, VERSION);
+                if (stored == DELETED || (version != NO_VERSION && version <= stored)) {
+                    return false;
+                }
+                removeCode(products.value(slot, SKU_FINGERPRINT), products.value(slot, SKU_FINGERPRINT + 1), msb, lsb);
+                removeCode(products.value(slot, BARCODE_FINGERPRINT), products.value(slot, BARCODE_FINGERPRINT + 1),
+                        msb, lsb);
+            }
+
+            long unscaledStock;
+            try {
+                unscaledStock = stock.setScale(STOCK_SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            } catch (ArithmeticException e) {
+                // Passt nicht in 64 Bit - Produkt nicht indexieren, Lookups gehen an die DB
+                if (slot >= 0) {
+                    products.remove(msb, lsb);
+                    live--;
+                }
+                return false;
+            }
+
+            products.put(msb, lsb, sku1, sku2, barcode1, barcode2, unscaledStock, version);
+            putCode(sku1, sku2, msb, lsb);
+            putCode(barcode1, barcode2, msb, lsb);
+            if (slot < 0) {
+                live++;
+            }
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove a deleted product, spätere Änderungen mit älterer Version werden ignoriert
+     */
+    public void remove(UUID productId) {
+        long msb = productId.getMostSignificantBits();
+        long lsb = productId.getLeastSignificantBits();
+
+        long stamp = lock.writeLock();
+        try {
+            int slot = products.find(msb, lsb);
+            if (slot >= 0) {
+                if (products.value(slot, VERSION) == DELETED) {
+                    return;
+                }
+                removeCode(products.value(slot, SKU_FINGERPRINT), products.value(slot, SKU_FINGERPRINT + 1), msb, lsb);
+                removeCode(products.value(slot, BARCODE_FINGERPRINT), products.value(slot, BARCODE_FINGERPRINT + 1),
+                        msb, lsb);
+                live--;
+            }
+            products.put(msb, lsb, 0, 0, 0, 0, 0, DELETED);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private void putCode(long fingerprint1, long fingerprint2, long msb, long lsb) {
+        if (fingerprint1 == 0 && fingerprint2 == 0) {
+            return;
+        }
+        int slot = codes.find(fingerprint1, fingerprint2);
+        if (slot >= 0) {
+            long otherMsb = codes.value(slot, 0);
+            long otherLsb = codes.value(slot, 1);
+            boolean other = otherMsb != msb || otherLsb != lsb;
+            // Doppelter Code: kleinste ID gewinnt (PostgreSQL vergleicht UUIDs vorzeichenlos)
+            if (other && hasCode(otherMsb, otherLsb, fingerprint1, fingerprint2)
+                    && compareUnsigned(otherMsb, otherLsb, msb, lsb) < 0) {
+                return;
+            }
+        }
+        codes.put(fingerprint1, fingerprint2, msb, lsb);
+    }
+
+    private void removeCode(long fingerprint1, long fingerprint2, long msb, long lsb) {
+        if (fingerprint1 == 0 && fingerprint2 == 0) {
+            return;
+        }
+        int slot = codes.find(fingerprint1, fingerprint2);
+        if (slot >= 0 && codes.value(slot, 0) == msb && codes.value(slot, 1) == lsb) {
+            codes.remove(fingerprint1, fingerprint2);
+        }
+    }
+
+    private boolean hasCode(long msb, long lsb, long fingerprint1, long fingerprint2) {
+        int slot = products.find(msb, lsb);
+        if (slot < 0 || products.value(slot, VERSION) == DELETED) {
+            return false;
+        }
+        return (products.value(slot, SKU_FINGERPRINT) == fingerprint1 && products.value(slot, SKU_FINGERPRINT + 1) == fingerprint2)
+                || (products.value(slot, BARCODE_FINGERPRINT) == fingerprint1
+                && products.value(slot, BARCODE_FINGERPRINT + 1) == fingerprint2);
+    }
+
+    // ==================== SIZE ====================
+
+    /**
+     * Indexed products without tombstones
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return live;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Direct memory of both tables in bytes
+     */
+    public long offHeapBytes() {
+        return codes.offHeapBytes() + products.offHeapBytes();
+    }
+
+    // ==================== FINGERPRINT ====================
+
+    // Zwei unabhängig gemischte 64-Bit-Hälften; (0, 0) steht für "kein Code"
+    static long fingerprint1(CodeType type, String code) {
+        if (code == null || code.isEmpty()) {
+            return 0;
+        }
+        long hash = 0xcbf29ce484222325L ^ (type.ordinal() + 1);
+        for (int i = 0; i < code.length(); i++) {
+            hash = (hash ^ code.charAt(i)) * 0x100000001b3L;
+        }
+        long fingerprint = OffHeapHashTable.mix(hash ^ code.length());
+        return fingerprint != 0 ? fingerprint : 1;
+    }
+
+    static long fingerprint2(CodeType type, String code) {
+        if (code == null || code.isEmpty()) {
+            return 0;
+        }
+        long hash = 0x9e3779b97f4a7c15L * (type.ordinal() + 1);
+        for (int i = 0; i < code.length(); i++) {
+            hash = Long.rotateLeft(hash + code.charAt(i) * 0xc2b2ae3d27d4eb4fL, 31) * 0x9e3779b97f4a7c15L;
+        }
+        return OffHeapHashTable.mix(hash + code.length());
+    }
+
+    private static int compareUnsigned(long msb1, long lsb1, long msb2, long lsb2) {
+        int compared = Long.compareUnsigned(msb1, msb2);
+        return compared != 0 ? compared : Long.compareUnsigned(lsb1, lsb2);
+    }
+}
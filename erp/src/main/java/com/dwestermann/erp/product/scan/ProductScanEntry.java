@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.scan;
+
+import com.dwestermann.erp.product.domain.Product;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The fields of a product held by the {@link ProductCodeIndex} (JPQL projection, keine Entity)
+ */
+@Value
+public class ProductScanEntry {
+
+    UUID id;
+    Long version;
+    String sku;
+    String barcode;
+    BigDecimal currentStock;
+
+    public static ProductScanEntry of(Product product) {
+        return new ProductScanEntry(product.getId(), product.getVersion(), product.getSku(), product.getBarcode(),
+                product.getCurrentStock());
+    }
+}
@@ -0,0 +1,17 @@
+package com.dwestermann.erp.product.scan;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A product resolved from a scanned code, mit dem Bestand zum Zeitpunkt der letzten Änderung im Index
+ */
+@Value
+public class ProductScanHit {
+
+    UUID productId;
+    ProductCodeIndex.CodeType matchedField;
+    BigDecimal currentStock;
+}
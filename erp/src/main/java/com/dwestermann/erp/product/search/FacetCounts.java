@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import lombok.Value;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Counts per facet value. Jede Facette zählt die Treffer mit allen Filtern außer dem eigenen,
+ * damit die Sidebar auch Alternativen zum gewählten Wert anzeigen kann. Nur Werte mit Treffern.
+ */
+@Value
+public class FacetCounts {
+
+    public static final FacetCounts EMPTY = new FacetCounts(Map.of(), 0, Map.of(), Map.of(), Map.of(), Map.of());
+
+    Map<UUID, Long> categories;
+    long uncategorized;
+    Map<ProductStatus, Long> statuses;
+    Map<Unit, Long> units;
+    Map<PriceBand, Long> priceBands;
+    Map<StockState, Long> stockStates;
+}
@@ -0,0 +1,63 @@
+package com.dwestermann.erp.product.search;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Price range [from, to) of the price facet. from/to null = offen, beide null = ohne Verkaufspreis.
+ */
+@Value
+public class PriceBand {
+
+    public static final PriceBand NO_PRICE = new PriceBand(null, null);
+
+    BigDecimal from;
+    BigDecimal to;
+
+    /**
+     * @param bounds ascending upper bounds (10, 50 -> bis 10, 10 - 50, ab 50), zuletzt {@link #NO_PRICE}
+     */
+    public static PriceBand[] of(BigDecimal[] bounds) {
+        PriceBand[] bands = new PriceBand[bounds.length + 2];
+        for (int i = 0; i <= bounds.length; i++) {
+            bands[i] = new PriceBand(i == 0 ? null : bounds[i - 1], i == bounds.length ? null : bounds[i]);
+        }
+        bands[bounds.length + 1] = NO_PRICE;
+        return bands;
+    }
+
+    /**
+     * Position of the price in {@link #of(BigDecimal[])}
+     */
+    public static int indexOf(BigDecimal[] bounds, BigDecimal price) {
+        if (price == null) {
+            return bounds.length + 1;
+        }
+        int band = 0;
+        while (band < bounds.length && price.compareTo(bounds[band]) >= 0) {
+            band++;
+        }
+        return band;
+    }
+
+    public String getKey() {
+        if (this == NO_PRICE || (from == null && to == null)) {
+            return "none";
+        }
+        return (from != null ? from.toPlainString() : "") + "-" + (to != null ? to.toPlainString() : "");
+    }
+
+    public String getLabel() {
+        if (from == null && to == null) {
+            return "Ohne Preis";
+        }
+        if (from == null) {
+            return "bis " + to.toPlainString();
+        }
+        if (to == null) {
+            return "ab " + from.toPlainString();
+        }
+        return from.toPlainString() + " - " + to.toPlainString();
+    }
+}
@@ -0,0 +1,21 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * One group (category, status, unit, stock state) of the facet aggregate for searches without the index
+ * (JPQL projection, stockState = Ordinal von {@link StockState})
+ */
+@Value
+public class ProductFacetRow {
+
+    UUID categoryId;
+    ProductStatus status;
+    Unit unit;
+    Integer stockState;
+    Long products;
+}
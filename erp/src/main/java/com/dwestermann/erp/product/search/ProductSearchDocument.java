@@ -0,0 +1,38 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * The searchable fields and facet attributes of a product (JPQL projection, keine Entity)
+ */
+@Value
+public class ProductSearchDocument {
+
+    UUID id;
+    Long version;
+    String sku;
+    String name;
+    String description;
+    String barcode;
+    UUID categoryId;
+    ProductStatus status;
+    Unit unit;
+    BigDecimal sellingPrice;
+    BigDecimal currentStock;
+    BigDecimal minStockLevel;
+
+    public static ProductSearchDocument of(Product product) {
+        return new ProductSearchDocument(product.getId(), product.getVersion(), product.getSku(),
+                product.getName(), product.getDescription(), product.getBarcode(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                product.getStatus(), product.getUnit(),
+                product.getSellingPrice() != null ? product.getSellingPrice().getAmount() : null,
+                product.getCurrentStock(), product.getMinStockLevel());
+    }
+}
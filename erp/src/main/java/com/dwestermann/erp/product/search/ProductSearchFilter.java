@@ -0,0 +1,27 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Facet filters of a product search, null = kein Filter
+ */
+@Value
+@Builder
+public class ProductSearchFilter {
+
+    public static final ProductSearchFilter NONE = ProductSearchFilter.builder().build();
+
+    UUID categoryId;
+    ProductStatus status;
+    Unit unit;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Set<StockState> stockStates;
+}
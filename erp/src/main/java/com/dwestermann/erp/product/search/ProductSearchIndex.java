@@ -0,0 +1,589 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * In-memory inverted index over the products of one tenant.
+ * Name und Beschreibung als Tokens in sortierten Term-Dictionaries (exakt + Prefix), SKU und Barcode
+ * zusätzlich als Trigramme für Teilstring-Suche. Dokumente bekommen fortlaufende int-IDs, Postings sind
+ * dadurch aufsteigend sortiert; Updates hängen ein neues Dokument an und markieren das alte als gelöscht.
+ * Facetten (Kategorie, Status, Einheit, Preisband, Bestand) liegen spaltenweise pro Dokument und werden
+ * zusammen mit dem Filter in einem Durchlauf über die Treffermenge gezählt.
+ * Nicht thread-safe - der {@link com.dwestermann.erp.product.service.ProductSearchService} synchronisiert.
+ */
+public class ProductSearchIndex {
+
+    static final float SCORE_CODE_EXACT = 100f;
+    static final float SCORE_CODE_PREFIX = 60f;
+    static final float SCORE_CODE_CONTAINS = 40f;
+    static final float SCORE_NAME_EXACT = 10f;
+    static final float SCORE_NAME_PREFIX = 6f;
+    static final float SCORE_DESCRIPTION_EXACT = 3f;
+    static final float SCORE_DESCRIPTION_PREFIX = 1f;
+
+    private static final int GRAM = 3;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 512;
+    private static final long DELETED = Long.MAX_VALUE;
+    private static final BigDecimal[] DEFAULT_PRICE_BOUNDS = {
+            BigDecimal.valueOf(10), BigDecimal.valueOf(50), BigDecimal.valueOf(100), BigDecimal.valueOf(500)};
+
+    private static final int NONE = -1;
+    private static final int CATEGORY = 0;
+    private static final int STATUS = 1;
+    private static final int UNIT = 2;
+    private static final int PRICE = 3;
+    private static final int STOCK = 4;
+    private static final int MULTIPLE = 5;
+
+    // ==================== DOCUMENT STORE (per int doc id) ====================
+
+    private final List<UUID> ids = new ArrayList<>();
+    private final List<String> sortKeys = new ArrayList<>();
+    private final List<String> skus = new ArrayList<>();
+    private final List<String> barcodes = new ArrayList<>();
+    private final BitSet live = new BitSet();
+    private final Map<UUID, Integer> docsById = new HashMap<>();
+    private final Map<UUID, Long> versions = new HashMap<>();
+
+    // ==================== FACET COLUMNS (per int doc id, -1 = kein Wert) ====================
+
+    private final Column categories = new Column();
+    private final Column statuses = new Column();
+    private final Column units = new Column();
+    private final Column priceBands = new Column();
+    private final Column stockStates = new Column();
+    private final List<BigDecimal> prices = new ArrayList<>();
+    private final List<UUID> categoryValues = new ArrayList<>();
+    private final Map<UUID, Integer> categoryOrdinals = new HashMap<>();
+    private final BigDecimal[] priceBounds;
+    private final PriceBand[] bands;
+
+    // ==================== POSTINGS ====================
+
+    private final NavigableMap<String, Postings> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, Postings> descriptionTerms = new TreeMap<>();
+    private final Map<String, Postings> exactCodes = new HashMap<>();
+    private final Map<String, Postings> codeGrams = new HashMap<>();
+
+    public ProductSearchIndex() {
+        this(DEFAULT_PRICE_BOUNDS);
+    }
+
+    /**
+     * @param priceBounds ascending upper bounds of the price bands (10, 50 -> bis 10, 10 - 50, ab 50)
+     */
+    public ProductSearchIndex(BigDecimal... priceBounds) {
+        this.priceBounds = priceBounds.clone();
+        this.bands = PriceBand.of(this.priceBounds);
+    }
+
+    /**
+     * Add or replace a product. Ältere Versionen (verspätete Events) und gelöschte Produkte werden ignoriert.
+     *
+     * @return true if the index changed
+     */
+    public boolean upsert(ProductSearchDocument document) {
+        UUID id = document.getId();
+        Long stored = versions.get(id);
+        if (stored != null && (stored == DELETED
+                || (document.getVersion() != null && document.getVersion() <= stored))) {
+            return false;
+        }
+        kill(id);
+
+        int doc = ids.size();
+        String sku = SearchTokenizer.normalizeCode(document.getSku());
+        String barcode = SearchTokenizer.normalizeCode(document.getBarcode());
+        ids.add(id);
+        sortKeys.add(SearchTokenizer.normalize(document.getName()));
+        skus.add(sku);
+        barcodes.add(barcode);
+        live.set(doc);
+        docsById.put(id, doc);
+        versions.put(id, document.getVersion() != null ? document.getVersion() : -1L);
+
+        categories.add(document.getCategoryId() != null
+                ? categoryOrdinals.computeIfAbsent(document.getCategoryId(), this::addCategory) : NONE);
+        statuses.add(document.getStatus() != null ? document.getStatus().ordinal() : NONE);
+        units.add(document.getUnit() != null ? document.getUnit().ordinal() : NONE);
+        prices.add(document.getSellingPrice());
+        priceBands.add(priceBand(document.getSellingPrice()));
+        stockStates.add(StockState.of(document.getCurrentStock(), document.getMinStockLevel()).ordinal());
+
+        addTerms(nameTerms, SearchTokenizer.tokenize(document.getName()), doc);
+        addTerms(descriptionTerms, SearchTokenizer.tokenize(document.getDescription()), doc);
+        addCode(sku, doc);
+        addCode(barcode, doc);
+        return true;
+    }
+
+    /**
+     * Remove a product, spätere Upserts mit alter Version bleiben wirkungslos
+     */
+    public boolean remove(UUID id) {
+        versions.put(id, DELETED);
+        return kill(id);
+    }
+
+    public int size() {
+        return docsById.size();
+    }
+
+    /**
+     * Documents that are still in the postings but no longer live (bis zum nächsten Rebuild)
+     */
+    public int deletedCount() {
+        return ids.size() - docsById.size();
+    }
+
+    // ==================== SEARCH ====================
+
+    public SearchHits search(String query, int offset, int limit) {
+        return search(query, ProductSearchFilter.NONE, offset, limit);
+    }
+
+    /**
+     * Ranked, filtered search with facet counts.
+     * Alle Tokens der Anfrage müssen in Name oder Beschreibung vorkommen (exakt oder als Prefix),
+     * alternativ trifft die ganze Anfrage als Teilstring von SKU/Barcode. Ohne Suchbegriff zählen alle
+     * Produkte als Treffer. Sortierung: Score, Name, ID.
+     */
+    public SearchHits search(String query, ProductSearchFilter filter, int offset, int limit) {
+        int docCount = ids.size();
+        float[] scores = new float[docCount];
+        BitSet matches = query == null || query.isBlank()
+                ? (BitSet) live.clone()
+                : matchText(query, scores);
+        if (matches == null) {
+            return SearchHits.EMPTY;
+        }
+
+        Comparator<Integer> ranking = Comparator.<Integer>comparingDouble(doc -> -scores[doc])
+                .thenComparing(sortKeys::get)
+                .thenComparing(ids::get);
+        int keep = (int) Math.min((long) offset + Math.max(0, limit), docCount);
+        PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, keep), ranking.reversed());
+
+        ResolvedFilter resolved = new ResolvedFilter(filter);
+        long[][] counts = {
+                new long[categoryValues.size() + 1],
+                new long[ProductStatus.values().length],
+                new long[Unit.values().length],
+                new long[bands.length],
+                new long[StockState.values().length]};
+
+        long total = 0;
+        for (int doc = matches.nextSetBit(0); doc >= 0; doc = matches.nextSetBit(doc + 1)) {
+            int failed = resolved.failedDimension(doc);
+            if (failed == MULTIPLE) {
+                continue;
+            }
+            count(counts, doc, failed);
+            if (failed != NONE) {
+                continue;
+            }
+
+            total++;
+            if (top.size() < keep) {
+                top.add(doc);
+            } else if (keep > 0 && ranking.compare(doc, top.peek()) < 0) {
+                top.poll();
+                top.add(doc);
+            }
+        }
+
+        Integer[] ranked = top.toArray(new Integer[0]);
+        Arrays.sort(ranked, ranking);
+        List<UUID> page = new ArrayList<>(Math.max(0, ranked.length - offset));
+        for (int i = offset; i < ranked.length; i++) {
+            page.add(ids.get(ranked[i]));
+        }
+        return new SearchHits(page, total, toFacetCounts(counts));
+    }
+
+    /**
+     * Text phase: Treffer als BitSet, Scores in scores[] (null wenn die Anfrage keine Tokens hat)
+     */
+    private BitSet matchText(String query, float[] scores) {
+        List<String> tokens = SearchTokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        int docCount = ids.size();
+        int[] matchedTokens = new int[docCount];
+        float[] best = new float[docCount];
+        Postings touched = new Postings();
+        Postings candidates = new Postings();
+
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            touched.clear();
+            collect(nameTerms, token, SCORE_NAME_EXACT, SCORE_NAME_PREFIX, best, touched);
+            collect(descriptionTerms, token, SCORE_DESCRIPTION_EXACT, SCORE_DESCRIPTION_PREFIX, best, touched);
+
+            for (int i = 0; i < touched.size(); i++) {
+                int doc = touched.get(i);
+                if (matchedTokens[doc] == t) {
+                    scores[doc] += best[doc];
+                    matchedTokens[doc]++;
+                    if (t == 0) {
+                        candidates.add(doc);
+                    }
+                }
+                best[doc] = 0f;
+            }
+        }
+
+        BitSet matches = matchCodes(SearchTokenizer.normalizeCode(query), scores, matchedTokens, candidates);
+        for (int i = 0; i < candidates.size(); i++) {
+            int doc = candidates.get(i);
+            if (live.get(doc) && matchedTokens[doc] == tokens.size()) {
+                matches.set(doc);
+            }
+        }
+        return matches;
+    }
+
+    private void collect(NavigableMap<String, Postings> terms, String token, float exactScore, float prefixScore,
+                         float[] best, Postings touched) {
+        Postings exact = terms.get(token);
+        if (exact != null) {
+            accumulate(exact, exactScore, best, touched);
+        }
+        if (token.length() < MIN_PREFIX_LENGTH) {
+            return;
+        }
+        int expansions = 0;
+        for (Postings postings : terms.subMap(token, false, token + Character.MAX_VALUE, false).values()) {
+            accumulate(postings, prefixScore, best, touched);
+            if (++expansions >= MAX_PREFIX_EXPANSIONS) {
+                break;
+            }
+        }
+    }
+
+    private void accumulate(Postings postings, float score, float[] best, Postings touched) {
+        for (int i = 0; i < postings.size(); i++) {
+            int doc = postings.get(i);
+            if (!live.get(doc)) {
+                continue;
+            }
+            if (best[doc] == 0f) {
+                touched.add(doc);
+            }
+            best[doc] = Math.max(best[doc], score);
+        }
+    }
+
+    private BitSet matchCodes(String code, float[] scores, int[] matchedTokens, Postings candidates) {
+        BitSet matches = new BitSet();
+        if (code.isEmpty()) {
+            return matches;
+        }
+
+        Postings exact = exactCodes.get(code);
+        Postings grams = code.length() >= GRAM ? gramCandidates(code) : null;
+        Postings[] sources = {exact, grams};
+        for (Postings source : sources) {
+            if (source == null) {
+                continue;
+            }
+            for (int i = 0; i < source.size(); i++) {
+                int doc = source.get(i);
+                if (!live.get(doc) || matches.get(doc)) {
+                    continue;
+                }
+                float score = Math.max(codeScore(skus.get(doc), code), codeScore(barcodes.get(doc), code));
+                if (score > 0f) {
+                    matches.set(doc);
+                    scores[doc] += score;
+                    if (matchedTokens[doc] == 0) {
+                        candidates.add(doc);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    private static float codeScore(String value, String code) {
+        if (value.equals(code)) {
+            return SCORE_CODE_EXACT;
+        }
+        if (value.startsWith(code)) {
+            return SCORE_CODE_PREFIX;
+        }
+        return value.contains(code) ? SCORE_CODE_CONTAINS : 0f;
+    }
+
+    private Postings gramCandidates(String code) {
+        Postings result = null;
+        for (int i = 0; i + GRAM <= code.length(); i++) {
+            Postings postings = codeGrams.get(code.substring(i, i + GRAM));
+            if (postings == null) {
+                return null;
+            }
+            result = result == null ? postings : result.intersect(postings);
+            if (result.size() == 0) {
+                return null;
+            }
+        }
+        return result;
+    }
+
+    // ==================== FACETS ====================
+
+    private void count(long[][] counts, int doc, int onlyDimension) {
+        if (onlyDimension == NONE || onlyDimension == CATEGORY) {
+            int category = categories.get(doc);
+            counts[CATEGORY][category == NONE ? categoryValues.size() : category]++;
+        }
+        if ((onlyDimension == NONE || onlyDimension == STATUS) && statuses.get(doc) != NONE) {
+            counts[STATUS][statuses.get(doc)]++;
+        }
+        if ((onlyDimension == NONE || onlyDimension == UNIT) && units.get(doc) != NONE) {
+            counts[UNIT][units.get(doc)]++;
+        }
+        if (onlyDimension == NONE || onlyDimension == PRICE) {
+            counts[PRICE][priceBands.get(doc)]++;
+        }
+        if (onlyDimension == NONE || onlyDimension == STOCK) {
+            counts[STOCK][stockStates.get(doc)]++;
+        }
+    }
+
+    private FacetCounts toFacetCounts(long[][] counts) {
+        Map<UUID, Long> categoryCounts = new LinkedHashMap<>();
+        Integer[] byCount = new Integer[categoryValues.size()];
+        Arrays.setAll(byCount, i -> i);
+        Arrays.sort(byCount, Comparator.comparingLong(i -> -counts[CATEGORY][i]));
+        for (int category : byCount) {
+            if (counts[CATEGORY][category] > 0) {
+                categoryCounts.put(categoryValues.get(category), counts[CATEGORY][category]);
+            }
+        }
+
+        Map<PriceBand, Long> priceBandCounts = new LinkedHashMap<>();
+        for (int band = 0; band < bands.length; band++) {
+            if (counts[PRICE][band] > 0) {
+                priceBandCounts.put(bands[band], counts[PRICE][band]);
+            }
+        }
+
+        return new FacetCounts(categoryCounts, counts[CATEGORY][categoryValues.size()],
+                enumCounts(ProductStatus.class, counts[STATUS]),
+                enumCounts(Unit.class, counts[UNIT]),
+                priceBandCounts,
+                enumCounts(StockState.class, counts[STOCK]));
+    }
+
+    private static <E extends Enum<E>> Map<E, Long> enumCounts(Class<E> type, long[] counts) {
+        Map<E, Long> result = new EnumMap<>(type);
+        E[] values = type.getEnumConstants();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                result.put(values[i], counts[i]);
+            }
+        }
+        return result;
+    }
+
+    private int priceBand(BigDecimal price) {
+        return PriceBand.indexOf(priceBounds, price);
+    }
+
+    private int addCategory(UUID categoryId) {
+        categoryValues.add(categoryId);
+        return categoryValues.size() - 1;
+    }
+
+    /**
+     * Filter mit aufgelösten Ordinals, prüft alle Dimensionen eines Dokuments
+     */
+    private final class ResolvedFilter {
+
+        private static final int ANY = Integer.MIN_VALUE;
+        private static final int UNKNOWN_CATEGORY = -2;
+
+        private final int category;
+        private final int status;
+        private final int unit;
+        private final BigDecimal minPrice;
+        private final BigDecimal maxPrice;
+        private final int stockMask;
+
+        ResolvedFilter(ProductSearchFilter filter) {
+            this.category = filter.getCategoryId() == null ? ANY
+                    : categoryOrdinals.getOrDefault(filter.getCategoryId(), UNKNOWN_CATEGORY);
+            this.status = filter.getStatus() == null ? ANY : filter.getStatus().ordinal();
+            this.unit = filter.getUnit() == null ? ANY : filter.getUnit().ordinal();
+            this.minPrice = filter.getMinPrice();
+            this.maxPrice = filter.getMaxPrice();
+            int mask = 0;
+            if (filter.getStockStates() != null) {
+                for (StockState state : filter.getStockStates()) {
+                    mask |= 1 << state.ordinal();
+                }
+            }
+            this.stockMask = filter.getStockStates() == null || filter.getStockStates().isEmpty() ? ANY : mask;
+        }
+
+        /**
+         * @return NONE if the document passes, the only failed dimension, or MULTIPLE
+         */
+        int failedDimension(int doc) {
+            int failed = NONE;
+            if (category != ANY && categories.get(doc) != category) {
+                failed = CATEGORY;
+            }
+            if (status != ANY && statuses.get(doc) != status) {
+                if (failed != NONE) {
+                    return MULTIPLE;
+                }
+                failed = STATUS;
+            }
+            if (unit != ANY && units.get(doc) != unit) {
+                if (failed != NONE) {
+                    return MULTIPLE;
+                }
+                failed = UNIT;
+            }
+            if (!priceInRange(prices.get(doc))) {
+                if (failed != NONE) {
+                    return MULTIPLE;
+                }
+                failed = PRICE;
+            }
+            if (stockMask != ANY && (stockMask & (1 << stockStates.get(doc))) == 0) {
+                if (failed != NONE) {
+                    return MULTIPLE;
+                }
+                failed = STOCK;
+            }
+            return failed;
+        }
+
+        private boolean priceInRange(BigDecimal price) {
+            if (minPrice == null && maxPrice == null) {
+                return true;
+            }
+            return price != null
+                    && (minPrice == null || price.compareTo(minPrice) >= 0)
+                    && (maxPrice == null || price.compareTo(maxPrice) <= 0);
+        }
+    }
+
+    // ==================== INDEXING ====================
+
+    private boolean kill(UUID id) {
+        Integer doc = docsById.remove(id);
+        if (doc == null) {
+            return false;
+        }
+        live.clear(doc);
+        return true;
+    }
+
+    private static void addTerms(Map<String, Postings> terms, List<String> tokens, int doc) {
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, t -> new Postings()).add(doc);
+        }
+    }
+
+    private void addCode(String code, int doc) {
+        if (code.isEmpty()) {
+            return;
+        }
+        exactCodes.computeIfAbsent(code, c -> new Postings()).add(doc);
+        for (int i = 0; i + GRAM <= code.length(); i++) {
+            codeGrams.computeIfAbsent(code.substring(i, i + GRAM), g -> new Postings()).add(doc);
+        }
+    }
+
+    /**
+     * Growable int column, Index = doc id
+     */
+    static final class Column {
+
+        private int[] values = new int[16];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int doc) {
+            return values[doc];
+        }
+    }
+
+    /**
+     * Growable, ascending list of doc ids
+     */
+    static final class Postings {
+
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        int get(int index) {
+            return docs[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        Postings intersect(Postings other) {
+            Postings result = new Postings();
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (docs[i] == other.docs[j]) {
+                    result.add(docs[i]);
+                    i++;
+                    j++;
+                } else if (docs[i] < other.docs[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.dwestermann.erp.product.search;
+
+import lombok.Value;
+import org.springframework.data.domain.Page;
+
+import java.util.UUID;
+
+/**
+ * Page of ranked product IDs plus the facet counts over all matches
+ */
+@Value
+public class ProductSearchResult {
+
+    Page<UUID> ids;
+    FacetCounts facets;
+}
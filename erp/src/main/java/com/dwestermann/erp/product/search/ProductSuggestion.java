@@ -0,0 +1,22 @@
+package com.dwestermann.erp.product.search;
+
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A typeahead hit with the fields needed to render it (ohne DB-Zugriff)
+ */
+@Value
+public class ProductSuggestion {
+
+    UUID id;
+    String sku;
+    String name;
+    String barcode;
+    MatchedField matchedField;
+
+    public enum MatchedField {
+        SKU, BARCODE, NAME
+    }
+}
@@ -0,0 +1,158 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.search.ProductSuggestion.MatchedField;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Prefix suggestions for SKU, barcode and product name of one tenant.
+ * Codes liegen normalisiert in einem Trie, Namen zusätzlich ab jedem Wort ("akku bohrschrauber" findet auch "bohr").
+ * Ranking: SKU vor Barcode vor Name, frühere Wörter und kürzere Keys zuerst. Nicht thread-safe.
+ */
+public class ProductTypeahead {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    private static final int MAX_NAME_WORDS = 6;
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final List<Integer> freeEntries = new ArrayList<>();
+    private final Map<UUID, Indexed> products = new HashMap<>();
+    private final RadixTrie codes;
+    private final RadixTrie names;
+
+    public ProductTypeahead() {
+        Comparator<Integer> ranking = Comparator.comparing(entries::get, Entry.RANKING);
+        this.codes = new RadixTrie(MAX_SUGGESTIONS, ranking, entry -> entries.get(entry).product);
+        this.names = new RadixTrie(MAX_SUGGESTIONS, ranking, entry -> entries.get(entry).product);
+    }
+
+    // ==================== UPDATES ====================
+
+    /**
+     * Add or replace the keys of a product
+     */
+    public void put(ProductSearchDocument document) {
+        remove(document.getId());
+
+        UUID id = document.getId();
+        List<Integer> added = new ArrayList<>();
+        addCode(id, MatchedField.SKU, document.getSku(), added);
+        addCode(id, MatchedField.BARCODE, document.getBarcode(), added);
+
+        List<String> words = SearchTokenizer.tokenize(document.getName());
+        for (int word = 0; word < Math.min(words.size(), MAX_NAME_WORDS); word++) {
+            String key = String.join(" ", words.subList(word, words.size()));
+            add(names, new Entry(id, MatchedField.NAME, word, truncate(key)), added);
+        }
+
+        products.put(id, new Indexed(document.getSku(), document.getName(), document.getBarcode(),
+                added.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    public void remove(UUID id) {
+        Indexed indexed = products.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (int entryId : indexed.entries) {
+            Entry entry = entries.get(entryId);
+            (entry.field == MatchedField.NAME ? names : codes).remove(entry.key, entryId);
+            entries.set(entryId, null);
+            freeEntries.add(entryId);
+        }
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Best products whose SKU, barcode or a name word starts with the query
+     *
+     * @param limit max results, höchstens {@link #MAX_SUGGESTIONS}
+     */
+    public List<ProductSuggestion> suggest(String query, int limit) {
+        int max = Math.min(limit, MAX_SUGGESTIONS);
+        if (max <= 0) {
+            return List.of();
+        }
+        List<Integer> candidates = new ArrayList<>();
+        String code = SearchTokenizer.normalizeCode(query);
+        if (!code.isEmpty()) {
+            for (int entry : codes.top(code)) {
+                candidates.add(entry);
+            }
+        }
+        String name = truncate(String.join(" ", SearchTokenizer.tokenize(query)));
+        if (!name.isEmpty()) {
+            for (int entry : names.top(name)) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Comparator.comparing(entries::get, Entry.RANKING));
+
+        List<ProductSuggestion> suggestions = new ArrayList<>(max);
+        Set<UUID> seen = new HashSet<>();
+        for (int entryId : candidates) {
+            Entry entry = entries.get(entryId);
+            if (seen.add(entry.product)) {
+                Indexed product = products.get(entry.product);
+                suggestions.add(new ProductSuggestion(entry.product, product.sku, product.name,
+                        product.barcode, entry.field));
+                if (suggestions.size() == max) {
+                    break;
+                }
+            }
+        }
+        return suggestions;
+    }
+
+    // ==================== INTERNALS ====================
+
+    private void addCode(UUID id, MatchedField field, String value, List<Integer> added) {
+        String key = SearchTokenizer.normalizeCode(value);
+        if (!key.isEmpty()) {
+            add(codes, new Entry(id, field, 0, truncate(key)), added);
+        }
+    }
+
+    private void add(RadixTrie trie, Entry entry, List<Integer> added) {
+        int entryId;
+        if (freeEntries.isEmpty()) {
+            entryId = entries.size();
+            entries.add(entry);
+        } else {
+            entryId = freeEntries.remove(freeEntries.size() - 1);
+            entries.set(entryId, entry);
+        }
+        trie.insert(entry.key, entryId);
+        added.add(entryId);
+    }
+
+    private static String truncate(String key) {
+        return key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key;
+    }
+
+    private record Entry(UUID product, MatchedField field, int word, String key) {
+
+        static final Comparator<Entry> RANKING = Comparator.comparing(Entry::field)
+                .thenComparingInt(Entry::word)
+                .thenComparingInt(entry -> entry.key.length())
+                .thenComparing(Entry::key)
+                .thenComparing(Entry::product);
+    }
+
+    private record Indexed(String sku, String name, String barcode, int[] entries) {
+    }
+}
@@ -0,0 +1,314 @@
+package com.dwestermann.erp.product.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntFunction;
+
+/**
+ * Path-compressed prefix trie over int entries with cached top-k per node.
+ * Nur Knoten mit mehr als k Einträgen im Teilbaum halten eine Top-Liste, kleinere Teilbäume werden bei der
+ * Abfrage direkt eingesammelt - so bleibt der Speicher pro Knoten klein und jede Abfrage kostet
+ * O(Prefixlänge + k). Top-Listen enthalten pro Gruppe (Produkt) nur den besten Eintrag.
+ */
+final class RadixTrie {
+
+    private static final char[] NO_LABEL = new char[0];
+    private static final int[] NO_ENTRIES = new int[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final int k;
+    private final Comparator<Integer> ranking;
+    private final IntFunction<Object> groupOf;
+    private final Node root = new Node(NO_LABEL);
+
+    /**
+     * @param k       size of the cached top lists
+     * @param ranking order of entries, best first
+     * @param groupOf group of an entry (z.B. Produkt), pro Gruppe zählt nur der beste Eintrag
+     */
+    RadixTrie(int k, Comparator<Integer> ranking, IntFunction<Object> groupOf) {
+        this.k = k;
+        this.ranking = ranking;
+        this.groupOf = groupOf;
+    }
+
+    // ==================== QUERY ====================
+
+    /**
+     * Best entries (max k, one per group) whose key starts with the prefix
+     */
+    int[] top(String prefix) {
+        Node node = root;
+        int i = 0;
+        while (i < prefix.length()) {
+            Node child = node.child(prefix.charAt(i));
+            if (child == null) {
+                return NO_ENTRIES;
+            }
+            int common = commonPrefix(child.label, prefix, i);
+            if (i + common == prefix.length()) {
+                node = child;
+                break;
+            }
+            if (common < child.label.length) {
+                return NO_ENTRIES;
+            }
+            node = child;
+            i += common;
+        }
+        return node.top != null ? node.top : best(collectAll(node, new ArrayList<>()));
+    }
+
+    // ==================== UPDATES ====================
+
+    void insert(String key, int entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            int index = node.childIndex(key.charAt(i));
+            if (index < 0) {
+                Node leaf = new Node(key.substring(i).toCharArray());
+                node.addChild(leaf);
+                node = leaf;
+                path.add(node);
+                break;
+            }
+            Node child = node.children[index];
+            int common = commonPrefix(child.label, key, i);
+            if (common < child.label.length) {
+                // Kante aufteilen: node -> mid -> child
+                Node mid = new Node(Arrays.copyOf(child.label, common));
+                child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                mid.children = new Node[]{child};
+                mid.size = child.size;
+                mid.top = child.top != null ? child.top.clone() : null;
+                node.children[index] = mid;
+                child = mid;
+            }
+            node = child;
+            path.add(node);
+            i += common;
+        }
+        node.entries = append(node.entries, entry);
+
+        for (Node n : path) {
+            n.size++;
+            if (n.top != null) {
+                n.top = offer(n.top, entry);
+            } else if (n.size > k) {
+                n.top = best(collectAll(n, new ArrayList<>()));
+            }
+        }
+    }
+
+    void remove(String key, int entry) {
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        int i = 0;
+        while (i < key.length()) {
+            Node child = node.child(key.charAt(i));
+            if (child == null || commonPrefix(child.label, key, i) < child.label.length) {
+                return;
+            }
+            node = child;
+            path.add(node);
+            i += child.label.length;
+        }
+        int[] remaining = without(node.entries, entry);
+        if (remaining.length == node.entries.length) {
+            return;
+        }
+        node.entries = remaining;
+
+        for (int d = path.size() - 1; d >= 0; d--) {
+            Node n = path.get(d);
+            n.size--;
+            if (d > 0 && n.entries.length == 0 && n.children.length == 0) {
+                path.get(d - 1).removeChild(n);
+            } else if (d > 0 && n.entries.length == 0 && n.children.length == 1) {
+                // Knoten ohne Einträge mit einem Kind zusammenfassen
+                Node only = n.children[0];
+                only.label = concat(n.label, only.label);
+                path.get(d - 1).replaceChild(n, only);
+            } else {
+                n.top = n.size > k ? recompute(n) : null;
+            }
+        }
+    }
+
+    // ==================== TOP-K ====================
+
+    private int[] recompute(Node node) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int entry : node.entries) {
+            candidates.add(entry);
+        }
+        for (Node child : node.children) {
+            if (child.top != null) {
+                for (int entry : child.top) {
+                    candidates.add(entry);
+                }
+            } else {
+                collectAll(child, candidates);
+            }
+        }
+        return best(candidates);
+    }
+
+    private List<Integer> collectAll(Node node, List<Integer> target) {
+        for (int entry : node.entries) {
+            target.add(entry);
+        }
+        for (Node child : node.children) {
+            collectAll(child, target);
+        }
+        return target;
+    }
+
+    private int[] best(List<Integer> candidates) {
+        candidates.sort(ranking);
+        int[] result = new int[Math.min(k, candidates.size())];
+        int size = 0;
+        for (int entry : candidates) {
+            if (size == result.length) {
+                break;
+            }
+            if (indexOfGroup(result, size, groupOf.apply(entry)) < 0) {
+                result[size++] = entry;
+            }
+        }
+        return size == result.length ? result : Arrays.copyOf(result, size);
+    }
+
+    /**
+     * Insert an entry into a sorted top list, ersetzt einen schlechteren Eintrag derselben Gruppe
+     */
+    private int[] offer(int[] top, int entry) {
+        int existing = indexOfGroup(top, top.length, groupOf.apply(entry));
+        if (existing >= 0) {
+            if (ranking.compare(entry, top[existing]) >= 0) {
+                return top;
+            }
+            top = without(top, top[existing]);
+        } else if (top.length == k && ranking.compare(entry, top[k - 1]) >= 0) {
+            return top;
+        }
+
+        int position = 0;
+        while (position < top.length && ranking.compare(top[position], entry) < 0) {
+            position++;
+        }
+        int[] result = new int[Math.min(k, top.length + 1)];
+        System.arraycopy(top, 0, result, 0, position);
+        if (position < result.length) {
+            result[position] = entry;
+            System.arraycopy(top, position, result, position + 1, result.length - position - 1);
+        }
+        return result;
+    }
+
+    private int indexOfGroup(int[] entries, int size, Object group) {
+        for (int i = 0; i < size; i++) {
+            if (groupOf.apply(entries[i]).equals(group)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // ==================== HELPERS ====================
+
+    private static int commonPrefix(char[] label, String key, int offset) {
+        int max = Math.min(label.length, key.length() - offset);
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] append(int[] values, int value) {
+        int[] result = Arrays.copyOf(values, values.length + 1);
+        result[values.length] = value;
+        return result;
+    }
+
+    private static int[] without(int[] values, int value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == value) {
+                int[] result = new int[values.length - 1];
+                System.arraycopy(values, 0, result, 0, i);
+                System.arraycopy(values, i + 1, result, i, values.length - i - 1);
+                return result;
+            }
+        }
+        return values;
+    }
+
+    private static char[] concat(char[] first, char[] second) {
+        char[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static final class Node {
+
+        char[] label;
+        Node[] children = NO_CHILDREN; // sortiert nach erstem Zeichen
+        int[] entries = NO_ENTRIES;    // Keys, die hier enden
+        int[] top;                     // null wenn size <= k
+        int size;                      // Einträge im Teilbaum
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = childIndex(c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        int childIndex(char c) {
+            int low = 0;
+            int high = children.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].label[0];
+                if (first < c) {
+                    low = mid + 1;
+                } else if (first > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addChild(Node child) {
+            int position = -(childIndex(child.label[0]) + 1);
+            Node[] result = new Node[children.length + 1];
+            System.arraycopy(children, 0, result, 0, position);
+            result[position] = child;
+            System.arraycopy(children, position, result, position + 1, children.length - position);
+            children = result;
+        }
+
+        void removeChild(Node child) {
+            int index = childIndex(child.label[0]);
+            Node[] result = new Node[children.length - 1];
+            System.arraycopy(children, 0, result, 0, index);
+            System.arraycopy(children, index + 1, result, index, children.length - index - 1);
+            children = result;
+        }
+
+        void replaceChild(Node child, Node replacement) {
+            children[childIndex(child.label[0])] = replacement;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.dwestermann.erp.product.search;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of ranked product IDs, the total number of matches and the facet counts
+ */
+@Value
+public class SearchHits {
+
+    public static final SearchHits EMPTY = new SearchHits(List.of(), 0, FacetCounts.EMPTY);
+
+    List<UUID> ids;
+    long total;
+    FacetCounts facets;
+}
@@ -0,0 +1,48 @@
+package com.dwestermann.erp.product.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Normalization shared by indexing and querying.
+ * Kleinschreibung, Akzente/Umlaute ohne Diakritika ("Müller" -> "muller"), Trennung an allem außer Buchstaben/Ziffern.
+ */
+public final class SearchTokenizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private SearchTokenizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Split free text (name, description, query) into tokens
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Codes (SKU, Barcode) ohne Trennzeichen: "AB-123 x" -> "ab123x"
+     */
+    public static String normalizeCode(String code) {
+        return SEPARATORS.matcher(normalize(code)).replaceAll("");
+    }
+}
@@ -0,0 +1,31 @@
+package com.dwestermann.erp.product.search;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+/**
+ * Stock facet of a product, gleiche Regeln wie isLowStock/isOutOfStock im ProductMapper
+ */
+@Getter
+public enum StockState {
+    IN_STOCK("Auf Lager"),
+    LOW_STOCK("Niedriger Bestand"),
+    OUT_OF_STOCK("Nicht auf Lager");
+
+    private final String displayName;
+
+    StockState(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public static StockState of(BigDecimal currentStock, BigDecimal minStockLevel) {
+        if (currentStock == null || currentStock.signum() == 0) {
+            return OUT_OF_STOCK;
+        }
+        if (minStockLevel != null && currentStock.compareTo(minStockLevel) < 0) {
+            return LOW_STOCK;
+        }
+        return IN_STOCK;
+    }
+}
@@ -0,0 +1,245 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.common.entity.BaseEntity;
+import com.dwestermann.erp.product.bulk.ProductMutation;
+import com.dwestermann.erp.product.bulk.ProductMutationTarget;
+import com.dwestermann.erp.product.domain.ProductCategory;
+import com.dwestermann.erp.product.dto.request.BulkProductFilter;
+import com.dwestermann.erp.product.dto.response.BulkOperationResponse;
+import com.dwestermann.erp.product.event.ProductsBulkUpdatedEvent;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Bulk mutations of products as set-based UPDATEs, one transaction per chunk.
+ * Pro Chunk werden nur ID, Name und Verkaufspreis gelesen (Keyset bzw. activate()-Regel), danach höchstens zwei
+ * UPDATEs auf der ID-Menge - keine Entities im Persistence Context, kein Event pro Produkt.
+ * Suchindex und Statistik des Tenants werden anschließend über {@link ProductsBulkUpdatedEvent} verworfen.
+ */
+@Service
+@Slf4j
+public class ProductBulkMutationService {
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private final ProductRepository productRepository;
+    private final ProductCategoryService categoryService;
+    private final ProductLookupCache productLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public ProductBulkMutationService(
+            ProductRepository productRepository,
+            ProductCategoryService categoryService,
+            ProductLookupCache productLookupCache,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            @Value("${product.bulk.chunk-size:500}") int chunkSize) {
+        this.productRepository = productRepository;
+        this.categoryService = categoryService;
+        this.productLookupCache = productLookupCache;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Apply the mutation to the given products of the current tenant. Fehlgeschlagene Chunks werden gemeldet,
+     * die übrigen trotzdem geschrieben.
+     */
+    public BulkOperationResponse updateByIds(List<UUID> productIds, ProductMutation mutation, String operationType) {
+        String tenantId = TenantContext.getTenantId();
+        ProductCategory category = resolveCategory(mutation);
+        List<UUID> ids = new ArrayList<>(new LinkedHashSet<>(productIds));
+        Progress progress = new Progress(operationType);
+        progress.requested = ids.size();
+
+        try {
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<UUID> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                try {
+                    ChunkResult result = transactionTemplate.execute(status -> {
+                        List<ProductMutationTarget> targets = productRepository.findMutationTargets(chunk, tenantId);
+                        Set<UUID> found = new HashSet<>();
+                        targets.forEach(target -> found.add(target.id()));
+
+                        List<String> errors = new ArrayList<>();
+                        chunk.stream()
+                                .filter(id -> !found.contains(id))
+                                .forEach(id -> errors.add("Failed to update product " + id + ": Product not found with ID: " + id));
+                        return apply(tenantId, targets, mutation, category, errors);
+                    });
+                    progress.add(result);
+                    invalidate(tenantId, result);
+                } catch (RuntimeException e) {
+                    progress.failChunk(chunk.size(), e);
+                }
+            }
+        } finally {
+            publish(tenantId, progress);
+        }
+        return progress.toResponse();
+    }
+
+    /**
+     * Apply the mutation to all products of the current tenant matching the filter (Keyset über name, id).
+     * Ein fehlgeschlagener Chunk bricht ab, da die nächste Position nicht feststeht.
+     */
+    public BulkOperationResponse updateByFilter(BulkProductFilter filter, ProductMutation mutation, String operationType) {
+        String tenantId = TenantContext.getTenantId();
+        ProductCategory category = resolveCategory(mutation);
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        Progress progress = new Progress(operationType);
+
+        try {
+            ProductMutationTarget last = null;
+            while (true) {
+                ProductMutationTarget after = last;
+                ChunkResult result;
+                try {
+                    result = transactionTemplate.execute(status -> {
+                        List<ProductMutationTarget> targets = after == null
+                                ? productRepository.findMutationTargetsFirst(tenantId, filter.getCategoryId(),
+                                        filter.getStatus(), filter.getMinPrice(), filter.getMaxPrice(), chunk)
+                                : productRepository.findMutationTargetsAfter(tenantId, after.name(), after.id(),
+                                        filter.getCategoryId(), filter.getStatus(), filter.getMinPrice(),
+                                        filter.getMaxPrice(), chunk);
+                        return apply(tenantId, targets, mutation, category, new ArrayList<>());
+                    });
+                } catch (RuntimeException e) {
+                    progress.abort(e);
+                    break;
+                }
+
+                List<ProductMutationTarget> targets = result.targets();
+                progress.add(result);
+                invalidate(tenantId, result);
+                progress.requested += targets.size();
+                if (targets.size() < chunkSize) {
+                    break;
+                }
+                last = targets.get(targets.size() - 1);
+            }
+        } finally {
+            publish(tenantId, progress);
+        }
+        return progress.toResponse();
+    }
+
+    // ==================== CHUNK ====================
+
+    private ChunkResult apply(String tenantId, List<ProductMutationTarget> targets, ProductMutation mutation,
+                              ProductCategory category, List<String> errors) {
+        List<UUID> eligible = new ArrayList<>(targets.size());
+        for (ProductMutationTarget target : targets) {
+            if (mutation.requiresSellingPrice() && !target.hasSellingPrice()) {
+                errors.add("Failed to update product " + target.id() + ": Cannot activate product without selling price");
+            } else {
+                eligible.add(target.id());
+            }
+        }
+        if (eligible.isEmpty()) {
+            return new ChunkResult(targets, List.of(), 0, errors);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        String updatedBy = BaseEntity.currentUsername();
+        int updated = 0;
+        if (mutation.changesColumns()) {
+            updated = productRepository.bulkUpdate(eligible, tenantId, mutation.getStatus(), mutation.getEffectiveActive(),
+                    mutation.getMinStockLevel(), mutation.getMaxStockLevel(), now, updatedBy);
+        }
+        if (mutation.changesCategory()) {
+            updated = productRepository.bulkUpdateCategory(eligible, tenantId, category, now, updatedBy);
+        }
+        return new ChunkResult(targets, eligible, updated, errors);
+    }
+
+    private void invalidate(String tenantId, ChunkResult result) {
+        // Nach dem Commit des Chunks, abgelehnte Produkte wurden nicht geändert und bleiben gecacht
+        if (result.updated() > 0) {
+            productLookupCache.invalidateAll(tenantId, result.updatedIds());
+        }
+    }
+
+    private ProductCategory resolveCategory(ProductMutation mutation) {
+        return mutation.changesCategory() ? categoryService.getCategoryEntityById(mutation.getCategoryId()) : null;
+    }
+
+    private void publish(String tenantId, Progress progress) {
+        if (progress.successful > 0) {
+            eventPublisher.publishEvent(new ProductsBulkUpdatedEvent(tenantId, progress.successful));
+        }
+        log.info("Bulk update {} completed: {} of {} products updated, {} failed",
+                progress.operationType, progress.successful, progress.requested, progress.failed);
+    }
+
+    private record ChunkResult(List<ProductMutationTarget> targets, List<UUID> updatedIds, int updated,
+                               List<String> errors) {
+    }
+
+    /**
+     * Counters of one bulk run, ein Chunk zählt erst nach seinem Commit
+     */
+    private static final class Progress {
+
+        private final String operationType;
+        private final List<String> errors = new ArrayList<>();
+        private int requested;
+        private int successful;
+        private int failed;
+
+        private Progress(String operationType) {
+            this.operationType = operationType;
+        }
+
+        private void add(ChunkResult result) {
+            successful += result.updated();
+            failed += result.errors().size();
+            result.errors().forEach(this::report);
+        }
+
+        private void failChunk(int size, RuntimeException e) {
+            failed += size;
+            report("Failed to update " + size + " products: " + e.getMessage());
+        }
+
+        private void abort(RuntimeException e) {
+            report("Bulk update aborted after " + (successful + failed) + " products: " + e.getMessage());
+        }
+
+        private void report(String error) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+
+        private BulkOperationResponse toResponse() {
+            return BulkOperationResponse.builder()
+                    .totalRequested(requested)
+                    .successfulOperations(successful)
+                    .failedOperations(failed)
+                    .errors(errors)
+                    .operationType(operationType)
+                    .message(String.format("Updated %d of %d products", successful, requested))
+                    .build();
+        }
+    }
+}
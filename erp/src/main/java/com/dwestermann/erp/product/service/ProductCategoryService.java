@@ -1,5 +1,6 @@
 package com.dwestermann.erp.product.service;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
 import com.dwestermann.erp.product.domain.ProductCategory;
 import com.dwestermann.erp.product.dto.request.CreateCategoryRequest;
 import com.dwestermann.erp.product.dto.request.UpdateCategoryRequest;
@@ -13,6 +14,7 @@ import com.dwestermann.erp.product.dto.result.CategoryImportResult;
 import com.dwestermann.erp.product.dto.result.CategoryValidationResult;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.UUID;
@@ -69,6 +71,16 @@ public interface ProductCategoryService {
      */
     Page<CategoryResponse> getAllCategories(Pageable pageable);
 
+    /**
+     * Retrieves categories by name with keyset pagination (kein OFFSET, COUNT nur auf Anfrage)
+     * @param cursor Continuation token of the previous page, null for the first page
+     * @param size Page size
+     * @param direction Sort direction by name
+     * @param includeTotal Whether to count all categories
+     * @return Page of categories with the token of the next page
+     */
+    CursorPage<CategoryResponse> scrollCategories(String cursor, int size, Sort.Direction direction, boolean includeTotal);
+
     /**
      * Retrieves all root categories (categories without parent)
      * @return List of root categories with their complete hierarchy
@@ -0,0 +1,128 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.exception.ExportCapacityExceededException;
+import com.dwestermann.erp.product.export.ProductExportFormat;
+import com.dwestermann.erp.product.export.ProductExportRow;
+import com.dwestermann.erp.product.export.ProductExportWriter;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streaming export of a tenant's product catalog.
+ * Zeilen kommen über einen Cursor aus der DB und gehen direkt in den Response - der Speicherbedarf hängt nur von
+ * Fetch Size und Puffergröße ab, nicht von der Kataloggröße. Läuft im async Thread des StreamingResponseBody
+ * (eigener Executor, siehe AsyncConfig). Höchstens product.export.max-concurrent Exporte gleichzeitig, weitere werden
+ * sofort mit 503 abgelehnt statt eine DB Connection und einen Thread für die Dauer des Downloads zu blockieren.
+ */
+@Service
+@Slf4j
+public class ProductExportService {
+
+    private final ProductRepository productRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int bufferSize;
+    private final Semaphore exportPermits;
+    private final long retryAfterSeconds;
+
+    public ProductExportService(
+            ProductRepository productRepository,
+            ObjectProvider<ObjectMapper> objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${product.export.buffer-size:65536}") int bufferSize,
+            @Value("${product.export.max-concurrent:4}") int maxConcurrent,
+            @Value("${product.export.retry-after:30}") long retryAfterSeconds) {
+        this.productRepository = productRepository;
+        // Ohne Spring MVC (z.B. Repository-Tests) wie Spring Boot konfiguriert: ISO-Datumswerte
+        this.objectMapper = objectMapper.getIfAvailable(() -> Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // PostgreSQL nutzt den Cursor (Fetch Size) nur ohne Autocommit, also innerhalb einer Transaktion
+        this.readOnlyTransaction.setReadOnly(true);
+        this.bufferSize = Math.max(1024, bufferSize);
+        this.exportPermits = new Semaphore(Math.max(1, maxConcurrent));
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Reserve an export slot and return the response body, der Slot wird nach dem Export (auch bei Abbruch) freigegeben
+     *
+     * @throws ExportCapacityExceededException if all export slots are in use
+     */
+    public StreamingResponseBody openExport(String tenantId, ProductExportFormat format, boolean gzip) {
+        if (!exportPermits.tryAcquire()) {
+            throw new ExportCapacityExceededException("Too many product exports running, please retry later",
+                    retryAfterSeconds);
+        }
+        return out -> {
+            try {
+                export(tenantId, format, gzip, out);
+            } finally {
+                exportPermits.release();
+            }
+        };
+    }
+
+    /**
+     * Write all products of the tenant to the stream, ordered by name (Stream wird nicht geschlossen)
+     *
+     * @return number of exported products
+     */
+    public long export(String tenantId, ProductExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        long started = System.nanoTime();
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, bufferSize) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(compressed != null ? compressed : out, StandardCharsets.UTF_8), bufferSize);
+        ProductExportWriter exportWriter = ProductExportWriter.of(format, writer, objectMapper);
+        AtomicLong exported = new AtomicLong();
+
+        try {
+            TenantContext.runWithTenant(tenantId, () -> readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<ProductExportRow> rows = productRepository.streamExportRowsByTenantId(tenantId)) {
+                    exportWriter.writeHeader();
+                    for (ProductExportRow row : (Iterable<ProductExportRow>) rows::iterator) {
+                        exportWriter.write(row);
+                        exported.incrementAndGet();
+                    }
+                    exportWriter.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            // Meist ein abgebrochener Download
+            log.warn("Product export of tenant {} aborted after {} products: {}", tenantId, exported.get(), e.getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+        log.info("Exported {} products of tenant {} as {}{} in {} ms", exported.get(), tenantId, format,
+                gzip ? " (gzip)" : "", (System.nanoTime() - started) / 1_000_000);
+        return exported.get();
+    }
+}
@@ -0,0 +1,207 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.dto.response.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Read-through cache for single product lookups by ID, SKU and barcode (POS, Auftragserfassung).
+ * Produkte liegen pro (Tenant, ID) in einem nach geschätzter Größe begrenzten Cache (W-TinyLFU, TTL für Änderungen
+ * anderer Instanzen). SKU und Barcode zeigen nur auf die ID und werden beim Lesen gegen das Produkt geprüft,
+ * veraltete Zuordnungen führen daher nie zu einem falschen Produkt.
+ * Invalidiert wird pro Produkt nach dem Commit - ein paralleler Loader wird von Caffeine vorher abgeschlossen.
+ * Gecachte Responses werden von mehreren Requests geteilt und dürfen nicht verändert werden.
+ */
+@Component
+@Slf4j
+public class ProductLookupCache {
+
+    private final boolean enabled;
+    private final Cache<ProductKey, ProductResponse> products;
+    private final Cache<CodeKey, UUID> codes;
+
+    public ProductLookupCache(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.cache.enabled:true}") boolean enabled,
+            @Value("${product.cache.max-weight:32MB}") DataSize maxWeight,
+            @Value("${product.cache.max-codes:100000}") long maxCodes,
+            @Value("${product.cache.ttl:5m}") Duration ttl) {
+        this.enabled = enabled;
+        this.products = Caffeine.newBuilder()
+                .maximumWeight(maxWeight.toBytes())
+                .weigher((ProductKey key, ProductResponse product) -> estimateBytes(product))
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.codes = Caffeine.newBuilder()
+                .maximumSize(maxCodes)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        CaffeineCacheMetrics.monitor(registry, products, "product.lookup", Tags.empty());
+        CaffeineCacheMetrics.monitor(registry, codes, "product.lookup.codes", Tags.empty());
+
+        log.info("Product lookup cache {} (max weight {}, max codes {}, ttl {})",
+                enabled ? "enabled" : "disabled", maxWeight, maxCodes, ttl);
+    }
+
+    // ==================== LOOKUPS ====================
+
+    /**
+     * Return the cached product or load it once - Exceptions des Loaders (z.B. nicht gefunden) werden nicht gecacht
+     */
+    public ProductResponse getById(String tenantId, UUID productId, Supplier<ProductResponse> loader) {
+        if (!enabled || tenantId == null) {
+            return loader.get();
+        }
+        return products.get(new ProductKey(tenantId, productId), key -> loader.get());
+    }
+
+    /**
+     * Look up a product by SKU
+     *
+     * @param idResolver SKU -> product ID from the database
+     * @param loader     product ID -> product, wie bei {@link #getById}
+     */
+    public Optional<ProductResponse> getBySku(String tenantId, String sku, Function<String, Optional<UUID>> idResolver,
+                                              Function<UUID, ProductResponse> loader) {
+        return getByCode(tenantId, CodeType.SKU, sku, idResolver, loader);
+    }
+
+    /**
+     * Look up a product by barcode (Parameter wie {@link #getBySku})
+     */
+    public Optional<ProductResponse> getByBarcode(String tenantId, String barcode,
+                                                  Function<String, Optional<UUID>> idResolver,
+                                                  Function<UUID, ProductResponse> loader) {
+        return getByCode(tenantId, CodeType.BARCODE, barcode, idResolver, loader);
+    }
+
+    private Optional<ProductResponse> getByCode(String tenantId, CodeType type, String code,
+                                                Function<String, Optional<UUID>> idResolver,
+                                                Function<UUID, ProductResponse> loader) {
+        if (!enabled || tenantId == null) {
+            return idResolver.apply(code).map(loader);
+        }
+
+        CodeKey codeKey = new CodeKey(tenantId, type, code);
+        UUID cachedId = codes.getIfPresent(codeKey);
+        if (cachedId != null) {
+            ProductResponse cached = products.getIfPresent(new ProductKey(tenantId, cachedId));
+            if (cached != null && type.matches(cached, code)) {
+                return Optional.of(cached);
+            }
+        }
+
+        Optional<UUID> productId = idResolver.apply(code);
+        if (productId.isEmpty()) {
+            codes.invalidate(codeKey);
+            return Optional.empty();
+        }
+        ProductResponse product = getById(tenantId, productId.get(), () -> loader.apply(productId.get()));
+        if (!type.matches(product, code)) {
+            // Code wurde zwischen Auflösung und Laden geändert - am Cache vorbei direkt laden
+            products.invalidate(new ProductKey(tenantId, productId.get()));
+            return idResolver.apply(code).map(loader);
+        }
+        codes.put(codeKey, product.getId());
+        return Optional.of(product);
+    }
+
+    // ==================== INVALIDATION ====================
+
+    /**
+     * Remove the product, bei laufender Transaktion erst nach dem Commit
+     */
+    public void invalidate(String tenantId, UUID productId) {
+        afterCommit(() -> products.invalidate(new ProductKey(tenantId, productId)));
+    }
+
+    /**
+     * Remove several products of a tenant (Bulk-Änderungen)
+     */
+    public void invalidateAll(String tenantId, Collection<UUID> productIds) {
+        afterCommit(() -> productIds.forEach(productId -> products.invalidate(new ProductKey(tenantId, productId))));
+    }
+
+    /**
+     * Remove all products of the category (Name/Beschreibung der Kategorie stecken in der Response)
+     */
+    public void invalidateCategory(String tenantId, UUID categoryId) {
+        afterCommit(() -> products.asMap().entrySet().removeIf(entry ->
+                entry.getKey().tenantId().equals(tenantId)
+                        && entry.getValue().getCategory() != null
+                        && categoryId.equals(entry.getValue().getCategory().getId())));
+    }
+
+    /**
+     * Approximate number of cached products
+     */
+    public long size() {
+        return products.estimatedSize();
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidation.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidation.run();
+            }
+        });
+    }
+
+    /**
+     * Grobe Heap-Schätzung einer Response (Objekte + Strings), Grundlage für max-weight
+     */
+    private static int estimateBytes(ProductResponse product) {
+        int chars = length(product.getName()) + length(product.getDescription()) + length(product.getSku())
+                + length(product.getBarcode()) + length(product.getNotes()) + length(product.getFormattedPrice())
+                + length(product.getCreatedBy()) + length(product.getUpdatedBy());
+        if (product.getCategory() != null) {
+            chars += length(product.getCategory().getName()) + length(product.getCategory().getDescription());
+        }
+        return 600 + 2 * chars;
+    }
+
+    private static int length(String value) {
+        return value != null ? value.length() : 0;
+    }
+
+    private record ProductKey(String tenantId, UUID productId) {
+    }
+
+    private record CodeKey(String tenantId, CodeType type, String code) {
+    }
+
+    private enum CodeType {
+        SKU, BARCODE;
+
+        private boolean matches(ProductResponse product, String code) {
+            return code.equals(this == SKU ? product.getSku() : product.getBarcode());
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.dto.response.ProductScanResponse;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
+import com.dwestermann.erp.product.event.ProductsBulkUpdatedEvent;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.scan.ProductCodeIndex;
+import com.dwestermann.erp.product.scan.ProductCodeIndex.CodeType;
+import com.dwestermann.erp.product.scan.ProductScanEntry;
+import com.dwestermann.erp.product.scan.ProductScanHit;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Barcode/SKU lookups for warehouse scanners from a per-tenant off-heap index ({@link ProductCodeIndex}).
+ * Der Index wird beim ersten Scan eines Tenants per Cursor aus der DB geladen, über {@link ProductChangedEvent}s
+ * (Stammdaten und Bestand) aktuell gehalten und periodisch neu aufgebaut (Änderungen anderer Instanzen, Tombstones).
+ * Unbekannte Codes werden einmal in der DB nachgeschlagen und bei Treffer übernommen.
+ */
+@Service
+@Slf4j
+public class ProductScanService {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final int initialCapacity;
+    private final float maxLoadFactor;
+    private final long rebuildIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final Map<String, TenantScanIndex> indexes = new ConcurrentHashMap<>();
+    private final Timer lookupTimer;
+    private final Timer rebuildTimer;
+    private final Counter fallbackCounter;
+
+    public ProductScanService(
+            ProductRepository productRepository,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.scan-index.enabled:true}") boolean enabled,
+            @Value("${product.scan-index.initial-capacity:1024}") int initialCapacity,
+            @Value("${product.scan-index.max-load-factor:0.75}") float maxLoadFactor,
+            @Value("${product.scan-index.rebuild-interval:30m}") Duration rebuildInterval,
+            @Value("${product.scan-index.idle-timeout:2h}") Duration idleTimeout) {
+        this.productRepository = productRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        // Cursor (Fetch Size) nur innerhalb einer Transaktion
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.initialCapacity = initialCapacity;
+        this.maxLoadFactor = maxLoadFactor;
+        this.rebuildIntervalNanos = rebuildInterval.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.lookupTimer = Timer.builder("product.scan.lookup")
+                .description("Scanner lookups by barcode or SKU")
+                .register(registry);
+        this.rebuildTimer = Timer.builder("product.scan.rebuild")
+                .description("Full rebuilds of a tenant scan index")
+                .register(registry);
+        this.fallbackCounter = Counter.builder("product.scan.fallback")
+                .description("Scanner lookups not found in the index and resolved from the database")
+                .register(registry);
+        Gauge.builder("product.scan.tenants", indexes, Map::size)
+                .description("Tenants with a loaded scan index")
+                .register(registry);
+        Gauge.builder("product.scan.products", this, ProductScanService::getProductCount)
+                .description("Products in all scan indexes")
+                .register(registry);
+        Gauge.builder("product.scan.off-heap", this, ProductScanService::getOffHeapBytes)
+                .description("Direct memory of all scan indexes")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    /**
+     * Resolve a scanned code of the current tenant
+     *
+     * @param type SKU or BARCODE, null tries the barcode first and then the SKU
+     * @return product ID and current stock, empty if no product has the code
+     */
+    public Optional<ProductScanResponse> lookup(String code, CodeType type) {
+        String tenantId = TenantContext.getTenantId();
+        return lookupTimer.record(() -> {
+            if (!enabled) {
+                return resolve(tenantId, code, type).map(entry -> toResponse(entry, code, type));
+            }
+
+            TenantScanIndex index = indexes.computeIfAbsent(tenantId, TenantScanIndex::new);
+            ProductScanHit hit = type != null ? index.lookup(type, code) : index.lookup(CodeType.BARCODE, code);
+            if (hit == null && type == null) {
+                hit = index.lookup(CodeType.SKU, code);
+            }
+            if (hit != null) {
+                return Optional.of(toResponse(hit));
+            }
+
+            fallbackCounter.increment();
+            Optional<ProductScanEntry> entry = resolve(tenantId, code, type);
+            entry.ifPresent(found -> index.apply(target -> target.upsert(found)));
+            return entry.map(found -> toResponse(found, code, type));
+        });
+    }
+
+    /**
+     * Apply a committed product change to a loaded index
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        TenantScanIndex index = indexes.get(event.getTenantId());
+        if (index == null) {
+            return;
+        }
+        if (event.isDeleted()) {
+            index.apply(target -> target.remove(event.getProduct().getId()));
+        } else {
+            ProductScanEntry entry = ProductScanEntry.of(event.getProduct());
+            index.apply(target -> target.upsert(entry));
+        }
+    }
+
+    /**
+     * Drop the scan index of the tenant after a bulk mutation, wird beim nächsten Scan neu geladen
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        invalidate(event.getTenantId());
+    }
+
+    /**
+     * Drop the index of a tenant, der direkte Speicher wird mit dem Puffer-Objekt vom GC freigegeben
+     */
+    public void invalidate(String tenantId) {
+        indexes.remove(tenantId);
+    }
+
+    /**
+     * Evict idle tenants and rebuild indexes older than the rebuild interval
+     */
+    @Scheduled(fixedDelayString = "${product.scan-index.maintenance-interval:60000}")
+    public void maintain() {
+        long now = System.nanoTime();
+        indexes.values().removeIf(index -> now - index.lastUsedNanos > idleTimeoutNanos);
+
+        for (TenantScanIndex index : indexes.values()) {
+            if (index.index != null && now - index.builtAtNanos > rebuildIntervalNanos) {
+                try {
+                    index.rebuild(true);
+                } catch (RuntimeException e) {
+                    log.warn("Rebuilding scan index for tenant {} failed: {}", index.tenantId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int getProductCount() {
+        int products = 0;
+        for (TenantScanIndex index : indexes.values()) {
+            ProductCodeIndex current = index.index;
+            products += current != null ? current.size() : 0;
+        }
+        return products;
+    }
+
+    public long getOffHeapBytes() {
+        long bytes = 0;
+        for (TenantScanIndex index : indexes.values()) {
+            ProductCodeIndex current = index.index;
+            bytes += current != null ? current.offHeapBytes() : 0;
+        }
+        return bytes;
+    }
+
+    private Optional<ProductScanEntry> resolve(String tenantId, String code, CodeType type) {
+        if (type == CodeType.SKU) {
+            return productRepository.findScanEntryBySkuAndTenantId(code, tenantId);
+        }
+        Optional<ProductScanEntry> byBarcode = productRepository
+                .findScanEntriesByBarcodeAndTenantId(code, tenantId, PageRequest.of(0, 1)).stream().findFirst();
+        if (byBarcode.isPresent() || type == CodeType.BARCODE) {
+            return byBarcode;
+        }
+        return productRepository.findScanEntryBySkuAndTenantId(code, tenantId);
+    }
+
+    private static ProductScanResponse toResponse(ProductScanHit hit) {
+        return new ProductScanResponse(hit.getProductId(), hit.getMatchedField().name(), hit.getCurrentStock());
+    }
+
+    private static ProductScanResponse toResponse(ProductScanEntry entry, String code, CodeType type) {
+        CodeType matched = type != null ? type : code.equals(entry.getBarcode()) ? CodeType.BARCODE : CodeType.SKU;
+        return new ProductScanResponse(entry.getId(), matched.name(), entry.getCurrentStock());
+    }
+
+    // ==================== TENANT INDEX ====================
+
+    /**
+     * Index of one tenant. Lookups lesen ohne Lock aus dem aktuellen Index; ein Rebuild lädt in einen neuen Index
+     * und spielt anschließend die währenddessen eingegangenen Änderungen nach, bevor er ihn veröffentlicht.
+     */
+    private final class TenantScanIndex {
+
+        private final String tenantId;
+        private final ReentrantLock writeLock = new ReentrantLock();
+        private final ReentrantLock rebuildLock = new ReentrantLock();
+        private volatile ProductCodeIndex index;
+        private List<Consumer<ProductCodeIndex>> pending;
+        private volatile long builtAtNanos;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        TenantScanIndex(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        ProductScanHit lookup(CodeType type, String code) {
+            lastUsedNanos = System.nanoTime();
+            if (index == null) {
+                rebuild(false);
+            }
+            return index.lookup(type, code);
+        }
+
+        void apply(Consumer<ProductCodeIndex> change) {
+            writeLock.lock();
+            try {
+                if (index != null) {
+                    change.accept(index);
+                }
+                if (pending != null) {
+                    pending.add(change);
+                }
+            } finally {
+                writeLock.unlock();
+            }
+        }
+
+        void rebuild(boolean force) {
+            rebuildLock.lock();
+            try {
+                if (index != null && !force) {
+                    return;
+                }
+                setPending(new ArrayList<>());
+
+                ProductCodeIndex rebuilt = new ProductCodeIndex(initialCapacity, maxLoadFactor);
+                try {
+                    rebuildTimer.record(() -> TenantContext.runWithTenant(tenantId, () ->
+                            readOnlyTransaction.executeWithoutResult(status -> {
+                                try (Stream<ProductScanEntry> entries = productRepository.streamScanEntriesByTenantId(tenantId)) {
+                                    entries.forEach(rebuilt::upsert);
+                                }
+                            })));
+                } catch (RuntimeException e) {
+                    setPending(null);
+                    throw e;
+                }
+
+                writeLock.lock();
+                try {
+                    pending.forEach(change -> change.accept(rebuilt));
+                    pending = null;
+                    index = rebuilt;
+                } finally {
+                    writeLock.unlock();
+                }
+                builtAtNanos = System.nanoTime();
+                log.debug("Built scan index for tenant {} with {} products ({} bytes off-heap)",
+                        tenantId, rebuilt.size(), rebuilt.offHeapBytes());
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+
+        private void setPending(List<Consumer<ProductCodeIndex>> changes) {
+            writeLock.lock();
+            try {
+                pending = changes;
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+}
@@ -1,4 +1,357 @@
 package com.dwestermann.erp.product.service;
 
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
+import com.dwestermann.erp.product.event.ProductsBulkUpdatedEvent;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.search.FacetCounts;
+import com.dwestermann.erp.product.search.PriceBand;
+import com.dwestermann.erp.product.search.ProductFacetRow;
+import com.dwestermann.erp.product.search.ProductSearchDocument;
+import com.dwestermann.erp.product.search.ProductSearchFilter;
+import com.dwestermann.erp.product.search.ProductSearchIndex;
+import com.dwestermann.erp.product.search.ProductSearchResult;
+import com.dwestermann.erp.product.search.ProductSuggestion;
+import com.dwestermann.erp.product.search.ProductTypeahead;
+import com.dwestermann.erp.product.search.SearchHits;
+import com.dwestermann.erp.product.search.StockState;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Catalog search over a per-tenant in-memory inverted index ({@link ProductSearchIndex}).
+ * Der Index wird bei der ersten Suche eines Tenants aus der DB geladen, danach über {@link ProductChangedEvent}s
+ * aktuell gehalten und periodisch neu aufgebaut (Änderungen anderer Instanzen, gelöschte Dokumente).
+ * Liefert gerankte IDs und Facetten-Counts - das Laden der Produkte übernimmt der {@link ProductService} in einer Query.
+ * Typeahead-Vorschläge ({@link ProductTypeahead}) teilen Events und Rebuilds mit dem Index und kommen ohne DB aus.
+ */
+@Service
+@Slf4j
 public class ProductSearchService {
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final long rebuildIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final BigDecimal[] priceBands;
+    private final Map<String, TenantIndex> indexes = new ConcurrentHashMap<>();
+    private final Timer queryTimer;
+    private final Timer typeaheadTimer;
+    private final Timer rebuildTimer;
+
+    public ProductSearchService(
+            ProductRepository productRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.search.enabled:true}") boolean enabled,
+            @Value("${product.search.rebuild-interval:30m}") Duration rebuildInterval,
+            @Value("${product.search.idle-timeout:2h}") Duration idleTimeout,
+            @Value("${product.search.price-bands:10,50,100,500}") List<BigDecimal> priceBands) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+        this.rebuildIntervalNanos = rebuildInterval.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.priceBands = priceBands.stream().sorted().toArray(BigDecimal[]::new);
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.queryTimer = Timer.builder("product.search.query")
+                .description("Product search queries against the in-memory index")
+                .register(registry);
+        this.typeaheadTimer = Timer.builder("product.search.typeahead")
+                .description("Typeahead lookups against the in-memory prefix tries")
+                .register(registry);
+        this.rebuildTimer = Timer.builder("product.search.rebuild")
+                .description("Full rebuilds of a tenant search index")
+                .register(registry);
+        Gauge.builder("product.search.tenants", indexes, Map::size)
+                .description("Tenants with a loaded search index")
+                .register(registry);
+        Gauge.builder("product.search.documents", this, ProductSearchService::getDocumentCount)
+                .description("Products in all search indexes")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Search the tenant's catalog, sortiert nach Relevanz (Sortierung im Pageable wird ignoriert).
+     * Ohne Suchbegriff werden alle Produkte gefiltert und nach Name sortiert.
+     *
+     * @return page of product IDs in rank order and the facet counts of all matches
+     */
+    public ProductSearchResult search(String tenantId, String term, ProductSearchFilter filter, Pageable pageable) {
+        TenantIndex index = indexes.computeIfAbsent(tenantId, TenantIndex::new);
+        SearchHits hits = queryTimer.record(
+                () -> index.search(term, filter, (int) pageable.getOffset(), pageable.getPageSize()));
+        return new ProductSearchResult(new PageImpl<>(hits.getIds(), pageable, hits.getTotal()), hits.getFacets());
+    }
+
+    /**
+     * Facet counts straight from the database (GROUP BY) for searches without the index ({@code product.search.enabled=false}).
+     * Die Suche ohne Index filtert nur nach dem Suchbegriff, daher zählen alle Facetten über dieselben Treffer.
+     *
+     * @param term search term, null oder leer = alle Produkte des Tenants
+     */
+    public FacetCounts countFacets(String tenantId, String term) {
+        String searchTerm = term != null ? term.trim() : "";
+
+        Map<UUID, Long> categories = new HashMap<>();
+        long uncategorized = 0;
+        Map<ProductStatus, Long> statuses = new EnumMap<>(ProductStatus.class);
+        Map<Unit, Long> units = new EnumMap<>(Unit.class);
+        Map<StockState, Long> stockStates = new EnumMap<>(StockState.class);
+        StockState[] states = StockState.values();
+        for (ProductFacetRow row : productRepository.aggregateFacetsByTerm(searchTerm, tenantId)) {
+            if (row.getCategoryId() != null) {
+                categories.merge(row.getCategoryId(), row.getProducts(), Long::sum);
+            } else {
+                uncategorized += row.getProducts();
+            }
+            statuses.merge(row.getStatus(), row.getProducts(), Long::sum);
+            units.merge(row.getUnit(), row.getProducts(), Long::sum);
+            stockStates.merge(states[row.getStockState()], row.getProducts(), Long::sum);
+        }
+
+        PriceBand[] bands = PriceBand.of(priceBands);
+        long[] bandCounts = new long[bands.length];
+        for (Object[] row : productRepository.countByPriceAndTerm(searchTerm, tenantId)) {
+            bandCounts[PriceBand.indexOf(priceBands, (BigDecimal) row[0])] += ((Number) row[1]).longValue();
+        }
+        Map<PriceBand, Long> priceBandCounts = new LinkedHashMap<>();
+        for (int band = 0; band < bands.length; band++) {
+            if (bandCounts[band] > 0) {
+                priceBandCounts.put(bands[band], bandCounts[band]);
+            }
+        }
+
+        // Kategorien wie im Index nach Treffern absteigend
+        Map<UUID, Long> categoryCounts = new LinkedHashMap<>();
+        categories.entrySet().stream()
+                .sorted(Map.Entry.<UUID, Long>comparingByValue().reversed())
+                .forEach(entry -> categoryCounts.put(entry.getKey(), entry.getValue()));
+
+        return new FacetCounts(categoryCounts, uncategorized, statuses, units, priceBandCounts, stockStates);
+    }
+
+    /**
+     * Prefix suggestions for SKU, barcode and name (max {@link ProductTypeahead#MAX_SUGGESTIONS})
+     */
+    public List<ProductSuggestion> suggest(String tenantId, String prefix, int limit) {
+        TenantIndex index = indexes.computeIfAbsent(tenantId, TenantIndex::new);
+        return typeaheadTimer.record(() -> index.suggest(prefix, limit));
+    }
+
+    /**
+     * Apply a committed product change to a loaded index (nicht geladene Tenants laden später aus der DB)
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        TenantIndex index = indexes.get(event.getTenantId());
+        if (index != null) {
+            index.apply(event);
+        }
+    }
+
+    /**
+     * Drop the search index of the tenant after a bulk mutation, wird beim nächsten Zugriff neu geladen
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        invalidate(event.getTenantId());
+    }
+
+    /**
+     * Drop the index of a tenant, wird bei der nächsten Suche neu geladen
+     */
+    public void invalidate(String tenantId) {
+        indexes.remove(tenantId);
+    }
+
+    /**
+     * Evict idle tenants and rebuild indexes older than the rebuild interval
+     */
+    @Scheduled(fixedDelayString = "${product.search.maintenance-interval:60000}")
+    public void maintain() {
+        long now = System.nanoTime();
+        indexes.values().removeIf(index -> now - index.lastUsedNanos > idleTimeoutNanos);
+
+        for (TenantIndex index : indexes.values()) {
+            if (index.loaded && now - index.builtAtNanos > rebuildIntervalNanos) {
+                try {
+                    index.rebuild(true);
+                } catch (RuntimeException e) {
+                    log.warn("Rebuilding search index for tenant {} failed: {}", index.tenantId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    public int getDocumentCount() {
+        int documents = 0;
+        for (TenantIndex index : indexes.values()) {
+            documents += index.size();
+        }
+        return documents;
+    }
+
+    // ==================== TENANT INDEX ====================
+
+    /**
+     * Index of one tenant. Suchen laufen parallel unter dem Read-Lock; ein Rebuild lädt ohne Lock aus der DB
+     * und spielt anschließend die währenddessen eingegangenen Änderungen nach, bevor er den Index tauscht.
+     */
+    private final class TenantIndex {
+
+        private final String tenantId;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final ReentrantLock rebuildLock = new ReentrantLock();
+        private ProductSearchIndex index;
+        private ProductTypeahead typeahead;
+        private List<ProductChangedEvent> pending;
+        private volatile boolean loaded;
+        private volatile long builtAtNanos;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        TenantIndex(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        SearchHits search(String query, ProductSearchFilter filter, int offset, int limit) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                return index.search(query, filter, offset, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        List<ProductSuggestion> suggest(String prefix, int limit) {
+            ensureLoaded();
+            lock.readLock().lock();
+            try {
+                return typeahead.suggest(prefix, limit);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        void apply(ProductChangedEvent event) {
+            lock.writeLock().lock();
+            try {
+                if (index != null) {
+                    apply(index, typeahead, event);
+                }
+                if (pending != null) {
+                    pending.add(event);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void rebuild(boolean force) {
+            rebuildLock.lock();
+            try {
+                if (loaded && !force) {
+                    return;
+                }
+                setPending(new ArrayList<>());
+
+                ProductSearchIndex rebuilt = new ProductSearchIndex(priceBands);
+                ProductTypeahead rebuiltTypeahead = new ProductTypeahead();
+                try {
+                    rebuildTimer.record(() -> TenantContext.runWithTenant(tenantId, () ->
+                            productRepository.findSearchDocumentsByTenantId(tenantId).forEach(document -> {
+                                if (rebuilt.upsert(document)) {
+                                    rebuiltTypeahead.put(document);
+                                }
+                            })));
+                } catch (RuntimeException e) {
+                    setPending(null);
+                    throw e;
+                }
+
+                lock.writeLock().lock();
+                try {
+                    pending.forEach(event -> apply(rebuilt, rebuiltTypeahead, event));
+                    pending = null;
+                    index = rebuilt;
+                    typeahead = rebuiltTypeahead;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                builtAtNanos = System.nanoTime();
+                loaded = true;
+                log.debug("Built search index for tenant {} with {} products", tenantId, rebuilt.size());
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+
+        private void ensureLoaded() {
+            lastUsedNanos = System.nanoTime();
+            if (!loaded) {
+                rebuild(false);
+            }
+        }
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return index != null ? index.size() : 0;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private void setPending(List<ProductChangedEvent> events) {
+            lock.writeLock().lock();
+            try {
+                pending = events;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private static void apply(ProductSearchIndex target, ProductTypeahead targetTypeahead,
+                                  ProductChangedEvent event) {
+            if (event.isDeleted()) {
+                target.remove(event.getProduct().getId());
+                targetTypeahead.remove(event.getProduct().getId());
+            } else {
+                ProductSearchDocument document = ProductSearchDocument.of(event.getProduct());
+                if (target.upsert(document)) {
+                    targetTypeahead.put(document);
+                }
+            }
+        }
+    }
 }
@@ -4,6 +4,7 @@ import com.dwestermann.erp.product.domain.ProductStatus;
 import com.dwestermann.erp.product.dto.request.*;
 import com.dwestermann.erp.product.dto.response.*;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.UUID;
@@ -13,18 +14,23 @@ public interface ProductService {
     // CRUD Operations
     ProductResponse createProduct(CreateProductRequest request);
     ProductResponse getProductById(UUID id); // Geändert von Long zu UUID
+    ProductResponse getProductBySku(String sku);
+    ProductResponse getProductByBarcode(String barcode);
     ProductResponse updateProduct(UUID id, UpdateProductRequest request); // Geändert von Long zu UUID
     void deleteProduct(UUID id); // Geändert von Long zu UUID
 
     // Listing and Search
     ProductListResponse getAllProducts(Pageable pageable);
+    ProductListResponse scrollProducts(String cursor, int size, Sort.Direction direction, boolean includeTotal);
     ProductListResponse searchProducts(ProductSearchRequest request);
+    List<ProductTypeaheadResponse> suggestProducts(String query, int limit);
     ProductStatisticsResponse getProductStatistics();
 
     // Stock Management
     ProductStockResponse updateStock(UUID id, UpdateStockRequest request); // Geändert von Long zu UUID
     ProductStockResponse addStock(UUID id, AddStockRequest request); // Geändert von Long zu UUID
     ProductStockResponse removeStock(UUID id, RemoveStockRequest request); // Geändert von Long zu UUID
+    StockMovementListResponse getStockMovements(UUID productId, Pageable pageable);
 
     // Validation
     ProductValidationResponse validateProduct(CreateProductRequest request);
@@ -32,4 +38,5 @@ public interface ProductService {
 
     // Bulk Operations
     BulkOperationResponse bulkUpdateStatus(List<UUID> productIds, ProductStatus newStatus); // Geändert von Long zu UUID
+    BulkOperationResponse bulkUpdate(BulkProductUpdateRequest request);
 }
\ No newline at end of file
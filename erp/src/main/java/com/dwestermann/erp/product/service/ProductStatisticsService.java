@@ -0,0 +1,258 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.dto.mapper.ProductMapper;
+import com.dwestermann.erp.product.dto.response.ProductSummaryResponse;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
+import com.dwestermann.erp.product.event.ProductsBulkUpdatedEvent;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.statistics.ProductContribution;
+import com.dwestermann.erp.product.statistics.ProductStatistics;
+import com.dwestermann.erp.product.statistics.ProductStatisticsRow;
+import com.dwestermann.erp.product.statistics.ProductStatisticsSnapshot;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Product statistics per tenant from an in-memory snapshot.
+ * Der Snapshot wird beim ersten Abruf mit einer Aggregat-Query geladen, danach über {@link ProductChangedEvent}s
+ * (alter und neuer Beitrag) fortgeschrieben und periodisch neu berechnet - das korrigiert Drift durch andere Instanzen.
+ * Die Top-10-Listen (niedriger Bestand, ausverkauft) werden nur nach relevanten Änderungen neu geladen.
+ */
+@Service
+@Slf4j
+public class ProductStatisticsService {
+
+    private static final int STOCK_LIST_SIZE = 10;
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final long recomputeIntervalNanos;
+    private final long idleTimeoutNanos;
+    private final Map<String, TenantStatistics> tenants = new ConcurrentHashMap<>();
+    private final Timer recomputeTimer;
+
+    public ProductStatisticsService(
+            ProductRepository productRepository,
+            ProductMapper productMapper,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.statistics.recompute-interval:10m}") Duration recomputeInterval,
+            @Value("${product.statistics.idle-timeout:2h}") Duration idleTimeout) {
+        this.productRepository = productRepository;
+        this.productMapper = productMapper;
+        this.recomputeIntervalNanos = recomputeInterval.toNanos();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.recomputeTimer = Timer.builder("product.statistics.recompute")
+                .description("Full recomputes of a tenant statistics snapshot")
+                .register(registry);
+        Gauge.builder("product.statistics.tenants", tenants, Map::size)
+                .description("Tenants with a loaded statistics snapshot")
+                .register(registry);
+    }
+
+    public ProductStatistics getStatistics(String tenantId) {
+        return tenant(tenantId).statistics();
+    }
+
+    /**
+     * Up to 10 products at or below their minimum stock level (aufrufen innerhalb einer Transaktion)
+     */
+    public List<ProductSummaryResponse> getLowStockProducts(String tenantId) {
+        return tenant(tenantId).lowStockProducts();
+    }
+
+    /**
+     * Up to 10 products without stock (aufrufen innerhalb einer Transaktion)
+     */
+    public List<ProductSummaryResponse> getOutOfStockProducts(String tenantId) {
+        return tenant(tenantId).outOfStockProducts();
+    }
+
+    /**
+     * Apply a committed product change to a loaded snapshot
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        TenantStatistics statistics = tenants.get(event.getTenantId());
+        if (statistics != null) {
+            statistics.apply(event.getPrevious(), event.getCurrent());
+        }
+    }
+
+    /**
+     * Drop the statistics snapshot of the tenant after a bulk mutation, wird beim nächsten Zugriff neu geladen
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductsBulkUpdated(ProductsBulkUpdatedEvent event) {
+        tenants.remove(event.getTenantId());
+    }
+
+    /**
+     * Evict idle tenants and recompute snapshots older than the recompute interval
+     */
+    @Scheduled(fixedDelayString = "${product.statistics.maintenance-interval:60000}")
+    public void maintain() {
+        long now = System.nanoTime();
+        tenants.values().removeIf(statistics -> now - statistics.lastUsedNanos > idleTimeoutNanos);
+
+        for (TenantStatistics statistics : tenants.values()) {
+            if (statistics.loaded && now - statistics.computedAtNanos > recomputeIntervalNanos) {
+                try {
+                    statistics.recompute(true);
+                } catch (RuntimeException e) {
+                    log.warn("Recomputing statistics for tenant {} failed: {}", statistics.tenantId, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private TenantStatistics tenant(String tenantId) {
+        TenantStatistics statistics = tenants.computeIfAbsent(tenantId, TenantStatistics::new);
+        statistics.lastUsedNanos = System.nanoTime();
+        if (!statistics.loaded) {
+            statistics.recompute(false);
+        }
+        return statistics;
+    }
+
+    // ==================== TENANT SNAPSHOT ====================
+
+    /**
+     * Snapshot of one tenant. Änderungen, die während einer Neuberechnung eintreffen, sind evtl. schon in der
+     * Query enthalten - der Snapshot wird dann beim nächsten Wartungslauf erneut berechnet.
+     */
+    private final class TenantStatistics {
+
+        private final String tenantId;
+        private final ReentrantLock recomputeLock = new ReentrantLock();
+        private ProductStatisticsSnapshot snapshot;
+        private boolean recomputing;
+        private boolean changedDuringRecompute;
+        private long listVersion;
+        private List<ProductSummaryResponse> lowStock;
+        private List<ProductSummaryResponse> outOfStock;
+        private volatile boolean loaded;
+        private volatile long computedAtNanos;
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        TenantStatistics(String tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        synchronized ProductStatistics statistics() {
+            return snapshot.toStatistics();
+        }
+
+        synchronized void apply(ProductContribution previous, ProductContribution current) {
+            if (snapshot != null) {
+                snapshot.apply(previous, current);
+            }
+            if (recomputing) {
+                changedDuringRecompute = true;
+            }
+            if (affectsStockLists(previous) || affectsStockLists(current)) {
+                invalidateLists();
+            }
+        }
+
+        List<ProductSummaryResponse> lowStockProducts() {
+            return stockList(true, pageable -> productRepository.findLowStockProducts(tenantId, pageable));
+        }
+
+        List<ProductSummaryResponse> outOfStockProducts() {
+            return stockList(false, pageable -> productRepository.findOutOfStockProducts(tenantId, pageable));
+        }
+
+        void recompute(boolean force) {
+            recomputeLock.lock();
+            try {
+                if (loaded && !force) {
+                    return;
+                }
+                synchronized (this) {
+                    recomputing = true;
+                    changedDuringRecompute = false;
+                }
+
+                List<ProductStatisticsRow> rows = new ArrayList<>();
+                try {
+                    recomputeTimer.record(() -> TenantContext.runWithTenant(tenantId,
+                            () -> rows.addAll(productRepository.aggregateStatisticsByTenantId(tenantId))));
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        recomputing = false;
+                    }
+                    throw e;
+                }
+
+                synchronized (this) {
+                    snapshot = ProductStatisticsSnapshot.of(rows);
+                    recomputing = false;
+                    computedAtNanos = changedDuringRecompute ? System.nanoTime() - recomputeIntervalNanos : System.nanoTime();
+                    invalidateLists();
+                }
+                loaded = true;
+                log.debug("Computed product statistics for tenant {}", tenantId);
+            } finally {
+                recomputeLock.unlock();
+            }
+        }
+
+        private List<ProductSummaryResponse> stockList(boolean low,
+                                                       Function<PageRequest, List<Product>> query) {
+            long version;
+            synchronized (this) {
+                List<ProductSummaryResponse> cached = low ? lowStock : outOfStock;
+                if (cached != null) {
+                    return cached;
+                }
+                version = listVersion;
+            }
+
+            List<ProductSummaryResponse> loadedList = List.copyOf(
+                    productMapper.toSummaryResponseList(query.apply(PageRequest.of(0, STOCK_LIST_SIZE))));
+
+            synchronized (this) {
+                // Nur übernehmen, wenn zwischenzeitlich keine relevante Änderung eingetroffen ist
+                if (version == listVersion) {
+                    if (low) {
+                        lowStock = loadedList;
+                    } else {
+                        outOfStock = loadedList;
+                    }
+                }
+            }
+            return loadedList;
+        }
+
+        private void invalidateLists() {
+            listVersion++;
+            lowStock = null;
+            outOfStock = null;
+        }
+
+        private boolean affectsStockLists(ProductContribution contribution) {
+            return contribution != null && (contribution.isLowStock() || contribution.isOutOfStock());
+        }
+    }
+}
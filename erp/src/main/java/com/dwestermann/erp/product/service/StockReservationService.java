@@ -0,0 +1,358 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.common.entity.BaseEntity;
+import com.dwestermann.erp.common.timing.HierarchicalTimingWheel;
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.StockMovement;
+import com.dwestermann.erp.product.domain.StockMovementType;
+import com.dwestermann.erp.product.domain.StockReservation;
+import com.dwestermann.erp.product.domain.StockReservationStatus;
+import com.dwestermann.erp.product.dto.mapper.ProductMapper;
+import com.dwestermann.erp.product.dto.request.ReserveStockRequest;
+import com.dwestermann.erp.product.dto.response.StockReservationResponse;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
+import com.dwestermann.erp.product.exception.InsufficientStockException;
+import com.dwestermann.erp.product.exception.InvalidStockReservationStateException;
+import com.dwestermann.erp.product.exception.ProductNotFoundException;
+import com.dwestermann.erp.product.exception.StockReservationNotFoundException;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.repository.StockReservationRepository;
+import com.dwestermann.erp.product.statistics.ProductContribution;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stock reservations for open carts and quotes: reserve with a TTL, then confirm (als Abgang gebucht) or release.
+ * Verfügbar ist current_stock - reserved_stock, beide werden nur per bedingtem UPDATE geändert.
+ * Der Ablauf läuft über ein Timing Wheel im Speicher (O(1) pro Reservierung, bestätigte/freigegebene Einträge
+ * laufen einfach leer). Nach einem Neustart werden die aktiven Reservierungen aus der DB geladen, ein seltener
+ * Sweep räumt Reservierungen ab, deren Instanz vor dem Ablauf gestoppt wurde.
+ */
+@Service
+@Slf4j
+public class StockReservationService {
+
+    private final ProductRepository productRepository;
+    private final StockReservationRepository reservationRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ProductMapper productMapper;
+    private final ProductLookupCache productLookupCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<TenantRoutingDataSource> routingDataSource;
+    private final Duration defaultTtl;
+    private final Counter expiredReservations;
+
+    private final HierarchicalTimingWheel<ReservationExpiry> expiryWheel =
+            new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 4, Instant.now());
+
+    public StockReservationService(
+            ProductRepository productRepository,
+            StockReservationRepository reservationRepository,
+            StockMovementRepository stockMovementRepository,
+            ApplicationEventPublisher eventPublisher,
+            ProductMapper productMapper,
+            ProductLookupCache productLookupCache,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<TenantRoutingDataSource> routingDataSource,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.reservations.default-ttl:15m}") Duration defaultTtl) {
+        this.productRepository = productRepository;
+        this.reservationRepository = reservationRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.eventPublisher = eventPublisher;
+        this.productMapper = productMapper;
+        this.productLookupCache = productLookupCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.routingDataSource = routingDataSource;
+        this.defaultTtl = defaultTtl;
+
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.expiredReservations = Counter.builder("product.stock.reservations.expired")
+                .description("Stock reservations released by expiry")
+                .register(registry);
+        Gauge.builder("product.stock.reservations.scheduled", expiryWheel, HierarchicalTimingWheel::size)
+                .description("Reservation expiries pending in the timing wheel")
+                .register(registry);
+    }
+
+    // ==================== RESERVATIONS ====================
+
+    @Transactional
+    public StockReservationResponse reserve(UUID productId, ReserveStockRequest request) {
+        String tenantId = TenantContext.getTenantId();
+        BigDecimal quantity = BigDecimal.valueOf(request.getQuantity());
+        Duration ttl = request.getTtlSeconds() != null ? Duration.ofSeconds(request.getTtlSeconds()) : defaultTtl;
+        log.debug("Reserving {} of product {} for {}", quantity, productId, ttl);
+
+        if (productRepository.reserveStock(productId, tenantId, quantity) == 0) {
+            Product product = loadProduct(productId);
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock for product %s. Available: %s, Requested: %s",
+                            product.getSku(), product.getAvailableStock(), quantity));
+        }
+
+        StockReservation reservation = reservationRepository.save(StockReservation.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .status(StockReservationStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .reference(request.getReference())
+                .notes(request.getNotes())
+                .build());
+        scheduleAfterCommit(ReservationExpiry.of(reservation));
+        productLookupCache.invalidate(tenantId, productId);
+
+        log.info("Reserved {} of product {} until {} (reservation {})",
+                quantity, productId, reservation.getExpiresAt(), reservation.getId());
+        return productMapper.toStockReservationResponse(reservation, loadProduct(productId));
+    }
+
+    /**
+     * Book the reserved quantity as a stock removal
+     */
+    @Transactional
+    public StockReservationResponse confirm(UUID productId, UUID reservationId) {
+        String tenantId = TenantContext.getTenantId();
+        String username = BaseEntity.currentUsername();
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = findReservation(tenantId, productId, reservationId);
+
+        if (reservationRepository.finishActive(reservationId, tenantId, StockReservationStatus.CONFIRMED, now, username) == 0) {
+            throw notActive(reservation, now);
+        }
+        if (productRepository.consumeReservedStock(productId, tenantId, reservation.getQuantity(), now, username) == 0) {
+            // Bestand wurde per Inventur unter die Reservierung gesetzt - Reservierung bleibt aktiv
+            Product product = loadProduct(productId);
+            throw new InsufficientStockException(
+                    String.format("Insufficient stock for product %s. Available: %s, Requested: %s",
+                            product.getSku(), product.getCurrentStock(), reservation.getQuantity()));
+        }
+
+        Product product = loadProduct(productId);
+        StockMovement movement = stockMovementRepository.save(StockMovement.builder()
+                .productId(productId)
+                .type(StockMovementType.REMOVE)
+                .quantity(reservation.getQuantity().negate())
+                .resultingStock(product.getCurrentStock())
+                .reason("Reservierung bestätigt")
+                .reference(reservation.getReference())
+                .notes("Reservierung " + reservationId)
+                .createdBy(username)
+                .build());
+        eventPublisher.publishEvent(ProductChangedEvent.updated(product,
+                ProductContribution.of(product, movement.getPreviousStock())));
+        productLookupCache.invalidate(tenantId, productId);
+
+        log.info("Confirmed reservation {} of product {}, new stock: {}", reservationId, productId, product.getCurrentStock());
+        return productMapper.toStockReservationResponse(findReservation(tenantId, productId, reservationId), product);
+    }
+
+    @Transactional
+    public StockReservationResponse release(UUID productId, UUID reservationId) {
+        String tenantId = TenantContext.getTenantId();
+        LocalDateTime now = LocalDateTime.now();
+        StockReservation reservation = findReservation(tenantId, productId, reservationId);
+
+        if (reservationRepository.finishActive(reservationId, tenantId, StockReservationStatus.RELEASED, now,
+                BaseEntity.currentUsername()) == 0) {
+            throw notActive(reservation, now);
+        }
+        releaseReservedStock(tenantId, productId, reservationId, reservation.getQuantity());
+        productLookupCache.invalidate(tenantId, productId);
+
+        log.info("Released reservation {} of product {}", reservationId, productId);
+        return productMapper.toStockReservationResponse(findReservation(tenantId, productId, reservationId),
+                loadProduct(productId));
+    }
+
+    @Transactional(readOnly = true)
+    public List<StockReservationResponse> getActiveReservations(UUID productId) {
+        Product product = loadProduct(productId);
+        return reservationRepository.findByTenantIdAndProductIdAndStatusOrderByExpiresAtAsc(
+                        TenantContext.getTenantId(), productId, StockReservationStatus.ACTIVE).stream()
+                .map(reservation -> productMapper.toStockReservationResponse(reservation, product))
+                .toList();
+    }
+
+    // ==================== EXPIRY ====================
+
+    /**
+     * Release all reservations whose deadline has passed
+     */
+    @Scheduled(fixedDelayString = "${product.reservations.expiry-interval:1000}")
+    public void expireDue() {
+        List<ReservationExpiry> due = new ArrayList<>();
+        expiryWheel.advance(Instant.now(), due::add);
+        expire(due);
+    }
+
+    /**
+     * Load active reservations after a restart - abgelaufene sofort freigeben, den Rest ins Timing Wheel
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverActiveReservations() {
+        List<ReservationExpiry> active = loadReservations(
+                repository -> repository.findByStatus(StockReservationStatus.ACTIVE));
+
+        List<ReservationExpiry> due = new ArrayList<>();
+        for (ReservationExpiry expiry : active) {
+            if (!expiryWheel.schedule(expiry, expiry.deadline())) {
+                due.add(expiry);
+            }
+        }
+        log.info("Recovered {} active stock reservations ({} already expired)", active.size(), due.size());
+        expire(due);
+    }
+
+    /**
+     * Safety net for reservations of instances that stopped before the expiry (nur überfällige, per Index)
+     */
+    @Scheduled(fixedDelayString = "${product.reservations.sweep-interval:600000}",
+            initialDelayString = "${product.reservations.sweep-interval:600000}")
+    public void sweepOverdue() {
+        LocalDateTime now = LocalDateTime.now();
+        List<ReservationExpiry> overdue = loadReservations(repository ->
+                repository.findByStatusAndExpiresAtLessThanEqual(StockReservationStatus.ACTIVE, now));
+        if (!overdue.isEmpty()) {
+            log.info("Sweeping {} overdue stock reservations", overdue.size());
+            expire(overdue);
+        }
+    }
+
+    private void expire(List<ReservationExpiry> due) {
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<String, List<ReservationExpiry>> byTenant = due.stream()
+                .collect(Collectors.groupingBy(ReservationExpiry::tenantId));
+
+        // Eine Transaktion pro Reservierung - eine fehlerhafte blockiert nicht die übrigen des Tenants
+        byTenant.forEach((tenantId, expiries) -> TenantContext.runWithTenant(tenantId, () -> {
+            for (ReservationExpiry expiry : expiries) {
+                try {
+                    Boolean expired = transactionTemplate.execute(status -> {
+                        // 0 Zeilen = inzwischen bestätigt oder freigegeben
+                        if (reservationRepository.expire(expiry.reservationId(), tenantId, LocalDateTime.now()) == 0) {
+                            return false;
+                        }
+                        releaseReservedStock(tenantId, expiry.productId(), expiry.reservationId(), expiry.quantity());
+                        return true;
+                    });
+                    if (Boolean.TRUE.equals(expired)) {
+                        productLookupCache.invalidate(tenantId, expiry.productId());
+                        expiredReservations.increment();
+                    }
+                } catch (RuntimeException e) {
+                    // Bleibt aktiv und wird beim nächsten Sweep erneut freigegeben
+                    log.warn("Failed to expire stock reservation {} of tenant {}", expiry.reservationId(), tenantId, e);
+                }
+            }
+        }));
+    }
+
+    private void scheduleAfterCommit(ReservationExpiry expiry) {
+        // Erst nach dem Commit, sonst findet ein sehr kurzer Ablauf die Reservierung noch nicht.
+        // Schon überschrittene Deadline (langsamer Commit) im nächsten Tick ablaufen lassen
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Instant nextTick = Instant.now().plusSeconds(1);
+                Instant deadline = expiry.deadline();
+                expiryWheel.schedule(expiry, deadline.isAfter(nextTick) ? deadline : nextTick);
+            }
+        });
+    }
+
+    /**
+     * Query the shared pool (alle Tenants ohne eigene DB) and every routed tenant database
+     */
+    private List<ReservationExpiry> loadReservations(
+            Function<StockReservationRepository, List<StockReservation>> query) {
+        Map<UUID, ReservationExpiry> found = new LinkedHashMap<>();
+        transactionTemplate.executeWithoutResult(status ->
+                query.apply(reservationRepository).forEach(r -> found.put(r.getId(), ReservationExpiry.of(r))));
+
+        TenantRoutingDataSource routing = routingDataSource.getIfAvailable();
+        if (routing != null) {
+            for (String tenantId : routing.getRoutedTenants()) {
+                TenantContext.runWithTenant(tenantId, () -> transactionTemplate.executeWithoutResult(status ->
+                        query.apply(reservationRepository).forEach(r -> found.put(r.getId(), ReservationExpiry.of(r)))));
+            }
+        }
+        return new ArrayList<>(found.values());
+    }
+
+    // ==================== HELPERS ====================
+
+    private void releaseReservedStock(String tenantId, UUID productId, UUID reservationId, BigDecimal quantity) {
+        if (productRepository.releaseReservedStock(productId, tenantId, quantity) == 0) {
+            // reserved_stock deckt die Reservierung nicht (mehr) - Statuswechsel zurückrollen
+            throw new IllegalStateException(String.format(
+                    "Reserved stock of product %s does not cover reservation %s", productId, reservationId));
+        }
+    }
+
+    private StockReservation findReservation(String tenantId, UUID productId, UUID reservationId) {
+        return reservationRepository.findByIdAndTenantIdAndProductId(reservationId, tenantId, productId)
+                .orElseThrow(() -> new StockReservationNotFoundException(
+                        "Stock reservation not found with ID: " + reservationId));
+    }
+
+    private Product loadProduct(UUID productId) {
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+    }
+
+    private InvalidStockReservationStateException notActive(StockReservation reservation, LocalDateTime now) {
+        if (reservation.isActive() && !reservation.getExpiresAt().isAfter(now)) {
+            return new InvalidStockReservationStateException("Stock reservation " + reservation.getId() + " has expired");
+        }
+        return new InvalidStockReservationStateException(
+                "Stock reservation " + reservation.getId() + " is already " + reservation.getStatus());
+    }
+
+    private record ReservationExpiry(String tenantId, UUID reservationId, UUID productId, BigDecimal quantity,
+                                     LocalDateTime expiresAt) {
+
+        static ReservationExpiry of(StockReservation reservation) {
+            return new ReservationExpiry(reservation.getTenantId(), reservation.getId(), reservation.getProductId(),
+                    reservation.getQuantity(), reservation.getExpiresAt());
+        }
+
+        Instant deadline() {
+            return expiresAt.atZone(ZoneId.systemDefault()).toInstant();
+        }
+    }
+}
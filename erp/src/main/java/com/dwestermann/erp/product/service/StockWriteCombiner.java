@@ -0,0 +1,293 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.StockMovement;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
+import com.dwestermann.erp.product.exception.InsufficientStockException;
+import com.dwestermann.erp.product.exception.ProductNotFoundException;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.statistics.ProductContribution;
+import com.dwestermann.erp.product.stock.StockBatch;
+import com.dwestermann.erp.product.stock.StockChange;
+import com.dwestermann.erp.product.stock.StockOperation;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-combining for stock changes on the same product.
+ * Pro Produkt läuft höchstens ein Batch gleichzeitig. Anfragen, die währenddessen eintreffen, werden gesammelt und
+ * danach mit einem UPDATE (Netto-Delta) und einem Ledger-Eintrag pro Anfrage in einer Transaktion geschrieben.
+ * Ohne Konkurrenz wird nicht gewartet, der Batch besteht dann aus einer Anfrage.
+ * Ausgeführt wird vom Thread der ersten Anfrage im Batch - Aufrufer dürfen keine Transaktion offen halten,
+ * die Ergebnisse werden erst nach dem Commit zurückgegeben.
+ */
+@Service
+@Slf4j
+public class StockWriteCombiner {
+
+    private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final Map<LaneKey, Lane> lanes = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+
+    public StockWriteCombiner(
+            ProductRepository productRepository,
+            StockMovementRepository stockMovementRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${product.stock.write-combining.enabled:true}") boolean enabled,
+            @Value("${product.stock.write-combining.max-batch-size:100}") int maxBatchSize) {
+        this.productRepository = productRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+
+        this.batchSizes = DistributionSummary.builder("product.stock.batch.size")
+                .description("Stock operations written per combined update")
+                .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Apply a stock operation of the current tenant, combined with concurrent operations on the same product
+     *
+     * @throws InsufficientStockException if a removal would consume reserved stock at this operation's turn in the batch
+     * @throws ProductNotFoundException if the product does not exist
+     */
+    public StockChange apply(UUID productId, StockOperation operation) {
+        String tenantId = TenantContext.getTenantId();
+        Pending pending = new Pending(operation);
+
+        if (!enabled) {
+            execute(tenantId, productId, List.of(pending));
+            return pending.outcome();
+        }
+
+        LaneKey key = new LaneKey(tenantId, productId);
+        Lane lane = enqueue(key, pending);
+
+        // Entweder schreibt ein anderer Thread unseren Batch, oder wir sind als Nächste dran
+        CompletableFuture.anyOf(pending.result.exceptionally(e -> null), pending.turn).join();
+        if (!pending.result.isDone()) {
+            drain(key, lane);
+        }
+        return pending.outcome();
+    }
+
+    // ==================== LANES ====================
+
+    private Lane enqueue(LaneKey key, Pending pending) {
+        while (true) {
+            Lane lane = lanes.computeIfAbsent(key, k -> new Lane());
+            synchronized (lane) {
+                if (lane.retired) {
+                    continue;
+                }
+                lane.queue.add(pending);
+                if (!lane.busy) {
+                    lane.busy = true;
+                    pending.turn.complete(null);
+                }
+                return lane;
+            }
+        }
+    }
+
+    /**
+     * Write the next batch (starts with the caller's own operation) and hand over to the next waiting caller
+     */
+    private void drain(LaneKey key, Lane lane) {
+        List<Pending> batch = new ArrayList<>();
+        synchronized (lane) {
+            while (!lane.queue.isEmpty() && batch.size() < maxBatchSize) {
+                batch.add(lane.queue.poll());
+            }
+        }
+
+        try {
+            execute(key.tenantId(), key.productId(), batch);
+        } finally {
+            // Nur wirksam, falls execute mit einem Error abgebrochen ist - sonst sind alle Ergebnisse gesetzt
+            batch.forEach(pending -> pending.result.completeExceptionally(
+                    new IllegalStateException("Stock batch for product " + key.productId() + " aborted")));
+            synchronized (lane) {
+                if (lane.queue.isEmpty()) {
+                    lane.busy = false;
+                    lane.retired = true;
+                    lanes.remove(key, lane);
+                } else {
+                    lane.queue.peek().turn.complete(null);
+                }
+            }
+        }
+    }
+
+    // ==================== BATCH ====================
+
+    private void execute(String tenantId, UUID productId, List<Pending> batch) {
+        batchSizes.record(batch.size());
+        List<StockOperation> operations = batch.stream().map(pending -> pending.operation).toList();
+
+        List<Object> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> write(tenantId, productId, operations));
+        } catch (RuntimeException e) {
+            batch.forEach(pending -> pending.result.completeExceptionally(e));
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof StockChange change) {
+                batch.get(i).result.complete(change);
+            } else {
+                batch.get(i).result.completeExceptionally((RuntimeException) outcome);
+            }
+        }
+    }
+
+    /**
+     * @return per operation either its {@link StockChange} or the exception for the caller
+     */
+    private List<Object> write(String tenantId, UUID productId, List<StockOperation> operations) {
+        LocalDateTime now = LocalDateTime.now();
+        String updatedBy = operations.get(operations.size() - 1).getRequestedBy();
+
+        // Schnellpfad: nur Deltas und das Netto-Delta passt - ein bedingtes UPDATE ohne vorheriges Lesen
+        StockBatch admitted = null;
+        BigDecimal netDelta = StockBatch.netDelta(operations);
+        if (netDelta != null && productRepository.adjustStock(productId, tenantId, netDelta, now, updatedBy) == 1) {
+            Product updated = loadProduct(productId);
+            BigDecimal endStock = updated.getCurrentStock();
+            admitted = StockBatch.admit(endStock.subtract(netDelta), updated.getReservedStock(), operations);
+            if (admitted.getEndStock().compareTo(endStock) != 0) {
+                // Netto passt, aber ein Abgang vor einem Zugang nicht - abgelehnte Abgänge zurückbuchen (Zeile ist gesperrt)
+                productRepository.adjustStock(productId, tenantId, admitted.getEndStock().subtract(endStock), now, updatedBy);
+            }
+        }
+
+        List<Object> outcomes = new ArrayList<>(operations.size());
+        if (admitted == null) {
+            // Einzeln zulassen: Zeile sperren und in Ankunftsreihenfolge gegen den Bestand prüfen
+            Product locked = productRepository.findByIdAndTenantIdForUpdate(productId, tenantId)
+                    .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+            admitted = StockBatch.admit(locked.getCurrentStock(), locked.getReservedStock(), operations);
+            if (admitted.hasAccepted()) {
+                productRepository.adjustLockedStock(productId, tenantId,
+                        admitted.getEndStock().subtract(admitted.getStartStock()), now, updatedBy);
+            } else {
+                for (int i = 0; i < operations.size(); i++) {
+                    outcomes.add(insufficientStock(locked, admitted, operations, i));
+                }
+                return outcomes;
+            }
+        }
+
+        Product product = loadProduct(productId);
+        List<StockMovement> movements = new ArrayList<>();
+        BigDecimal stock = admitted.getStartStock();
+        for (int i = 0; i < operations.size(); i++) {
+            if (!admitted.isAccepted(i)) {
+                outcomes.add(insufficientStock(product, admitted, operations, i));
+                continue;
+            }
+            StockOperation operation = operations.get(i);
+            StockMovement movement = StockMovement.builder()
+                    .productId(productId)
+                    .type(operation.getType())
+                    .quantity(operation.deltaFrom(stock))
+                    .resultingStock(admitted.getResultingStocks().get(i))
+                    .reason(operation.getReason())
+                    .reference(operation.getReference())
+                    .notes(operation.getNotes())
+                    .createdBy(operation.getRequestedBy())
+                    .build();
+            stock = movement.getResultingStock();
+            movements.add(movement);
+            outcomes.add(new StockChange(product, movement));
+        }
+        stockMovementRepository.saveAll(movements);
+
+        ProductContribution previous = ProductContribution.of(product, admitted.getStartStock());
+        eventPublisher.publishEvent(ProductChangedEvent.updated(product, previous));
+        return outcomes;
+    }
+
+    private Product loadProduct(UUID productId) {
+        // Nach adjustStock neu laden, der Persistence Context wurde geleert
+        return productRepository.findById(productId)
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + productId));
+    }
+
+    private InsufficientStockException insufficientStock(Product product, StockBatch admitted,
+                                                         List<StockOperation> operations, int index) {
+        // Bestand zum Zeitpunkt dieser Operation im Batch, abzüglich Reservierungen
+        BigDecimal stock = admitted.getStartStock();
+        for (int i = 0; i < index; i++) {
+            if (admitted.isAccepted(i)) {
+                stock = admitted.getResultingStocks().get(i);
+            }
+        }
+        BigDecimal available = stock.subtract(product.getReservedStock()).max(BigDecimal.ZERO);
+        return new InsufficientStockException(
+                String.format("Insufficient stock for product %s. Available: %s, Requested: %s",
+                        product.getSku(), available, operations.get(index).deltaFrom(stock).negate()));
+    }
+
+    private record LaneKey(String tenantId, UUID productId) {
+    }
+
+    private static final class Lane {
+        private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+        private boolean busy;
+        private boolean retired;
+    }
+
+    private static final class Pending {
+        private final StockOperation operation;
+        private final CompletableFuture<StockChange> result = new CompletableFuture<>();
+        private final CompletableFuture<Void> turn = new CompletableFuture<>();
+
+        private Pending(StockOperation operation) {
+            this.operation = operation;
+        }
+
+        private StockChange outcome() {
+            try {
+                return result.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.dwestermann.erp.product.service.impl;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
+import com.dwestermann.erp.common.pagination.KeysetCursor;
 import com.dwestermann.erp.product.domain.ProductCategory;
 import com.dwestermann.erp.product.dto.mapper.CategoryMapper;
 import com.dwestermann.erp.product.dto.request.CategoryImportNode;
@@ -12,11 +14,13 @@ import com.dwestermann.erp.product.exception.*;
 import com.dwestermann.erp.product.repository.ProductCategoryRepository;
 import com.dwestermann.erp.product.repository.ProductRepository;
 import com.dwestermann.erp.product.service.*;
+import com.dwestermann.erp.tenant.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -33,6 +37,7 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
     private final ProductCategoryRepository categoryRepository;
     private final ProductRepository productRepository;
     private final CategoryMapper categoryMapper;
+    private final ProductLookupCache productLookupCache;
 
     // ==================== CRUD OPERATIONS ====================
 
@@ -90,6 +95,7 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
         // Update category
         categoryMapper.updateEntity(category, request, newParentCategory);
         category = categoryRepository.save(category);
+        productLookupCache.invalidateCategory(category.getTenantId(), categoryId);
 
         log.info("Updated category: {} (ID: {})", category.getName(), category.getId());
         return categoryMapper.toResponse(category);
@@ -110,6 +116,7 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
         }
 
         categoryRepository.delete(category);
+        productLookupCache.invalidateCategory(category.getTenantId(), categoryId);
         log.info("Deleted category: {} (ID: {})", category.getName(), category.getId());
     }
 
@@ -136,6 +143,29 @@ public class ProductCategoryServiceImpl implements ProductCategoryService {
         return categories.map(categoryMapper::toResponseWithoutSubcategories);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CategoryResponse> scrollCategories(String cursor, int size, Sort.Direction direction,
+                                                         boolean includeTotal) {
+        String tenantId = TenantContext.getTenantId();
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable pageable = KeysetCursor.pageRequest(pageSize, direction, "name");
+
+        List<ProductCategory> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = categoryRepository.findKeysetFirstByTenantId(tenantId, pageable);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor, direction);
+            rows = direction.isAscending()
+                    ? categoryRepository.findKeysetAfterByTenantId(tenantId, position.getSortKey(), position.getId(), pageable)
+                    : categoryRepository.findKeysetBeforeByTenantId(tenantId, position.getSortKey(), position.getId(), pageable);
+        }
+
+        Long total = includeTotal ? categoryRepository.countByTenantId(tenantId) : null;
+        return CursorPage.of(rows, pageSize, direction, ProductCategory::getName, ProductCategory::getId, total)
+                .map(categoryMapper::toResponseWithoutSubcategories);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<CategoryResponse> getRootCategories() {
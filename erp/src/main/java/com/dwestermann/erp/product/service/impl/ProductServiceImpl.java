@@ -1,27 +1,59 @@
 package com.dwestermann.erp.product.service.impl;
 
+import com.dwestermann.erp.common.pagination.CursorPage;
+import com.dwestermann.erp.common.pagination.KeysetCursor;
+import com.dwestermann.erp.product.bulk.ProductMutation;
 import com.dwestermann.erp.product.domain.Product;
 import com.dwestermann.erp.product.domain.ProductCategory;
 import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.StockMovement;
+import com.dwestermann.erp.product.domain.StockMovementType;
 import com.dwestermann.erp.product.dto.mapper.ProductMapper;
 import com.dwestermann.erp.product.dto.request.*;
 import com.dwestermann.erp.product.dto.response.*;
+import com.dwestermann.erp.product.event.ProductChangedEvent;
 import com.dwestermann.erp.product.exception.*;
+import com.dwestermann.erp.product.repository.ProductCategoryRepository;
 import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.search.FacetCounts;
+import com.dwestermann.erp.product.search.ProductSearchFilter;
+import com.dwestermann.erp.product.search.ProductSearchResult;
+import com.dwestermann.erp.product.search.ProductTypeahead;
+import com.dwestermann.erp.product.search.StockState;
+import com.dwestermann.erp.product.statistics.ProductContribution;
+import com.dwestermann.erp.product.statistics.ProductStatistics;
+import com.dwestermann.erp.product.stock.StockChange;
+import com.dwestermann.erp.product.stock.StockOperation;
+import com.dwestermann.erp.product.service.ProductBulkMutationService;
+import com.dwestermann.erp.product.service.ProductLookupCache;
 import com.dwestermann.erp.product.service.ProductCategoryService;
+import com.dwestermann.erp.product.service.ProductSearchService;
+import com.dwestermann.erp.product.service.ProductStatisticsService;
+import com.dwestermann.erp.product.service.StockWriteCombiner;
 import com.dwestermann.erp.product.service.ProductService;
 import com.dwestermann.erp.tenant.context.TenantContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -31,8 +63,16 @@ import java.util.stream.Collectors;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final ProductCategoryRepository categoryRepository;
     private final ProductCategoryService categoryService;
     private final ProductMapper productMapper;
+    private final ProductSearchService productSearchService;
+    private final ProductStatisticsService productStatisticsService;
+    private final StockWriteCombiner stockWriteCombiner;
+    private final ProductBulkMutationService bulkMutationService;
+    private final ProductLookupCache productLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ==================== CRUD OPERATIONS ====================
 
@@ -58,6 +98,18 @@ public class ProductServiceImpl implements ProductService {
         product.setTenantId(tenantId);
         product = productRepository.save(product);
 
+        // Anfangsbestand ins Ledger, damit die Summe der Bewegungen dem Bestand entspricht
+        if (product.getCurrentStock().signum() > 0) {
+            stockMovementRepository.save(StockMovement.builder()
+                    .productId(product.getId())
+                    .type(StockMovementType.UPDATE)
+                    .quantity(product.getCurrentStock())
+                    .resultingStock(product.getCurrentStock())
+                    .reason("Anfangsbestand")
+                    .build());
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.created(product));
+
         log.info("Created product: {} (ID: {})", product.getName(), product.getId());
         return productMapper.toResponse(product);
     }
@@ -65,8 +117,29 @@ public class ProductServiceImpl implements ProductService {
     @Override
     @Transactional(readOnly = true)
     public ProductResponse getProductById(UUID id) {
-        Product product = getProductEntityById(id);
-        return productMapper.toResponse(product);
+        return productLookupCache.getById(TenantContext.getTenantId(), id,
+                () -> productMapper.toResponse(getProductEntityById(id)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse getProductBySku(String sku) {
+        String tenantId = TenantContext.getTenantId();
+        return productLookupCache.getBySku(tenantId, sku,
+                        code -> productRepository.findIdBySkuAndTenantId(code, tenantId),
+                        id -> productMapper.toResponse(getProductEntityById(id)))
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with SKU: " + sku));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductResponse getProductByBarcode(String barcode) {
+        String tenantId = TenantContext.getTenantId();
+        return productLookupCache.getByBarcode(tenantId, barcode,
+                        code -> productRepository.findIdsByBarcodeAndTenantId(code, tenantId, PageRequest.of(0, 1))
+                                .stream().findFirst(),
+                        id -> productMapper.toResponse(getProductEntityById(id)))
+                .orElseThrow(() -> new ProductNotFoundException("Product not found with barcode: " + barcode));
     }
 
     @Override
@@ -82,8 +155,11 @@ public class ProductServiceImpl implements ProductService {
         }
 
         // Update product
+        ProductContribution previous = ProductContribution.of(product);
         productMapper.updateEntity(product, request, category);
         product = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(product, previous));
+        productLookupCache.invalidate(product.getTenantId(), product.getId());
 
         log.info("Updated product: {} (ID: {})", product.getName(), product.getId());
         return productMapper.toResponse(product);
@@ -99,6 +175,8 @@ public class ProductServiceImpl implements ProductService {
         // TODO: Add validation for existing orders, invoices, etc.
 
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product));
+        productLookupCache.invalidate(product.getTenantId(), product.getId());
         log.info("Deleted product: {} (ID: {})", product.getName(), product.getId());
     }
 
@@ -112,6 +190,28 @@ public class ProductServiceImpl implements ProductService {
         return productMapper.toListResponse(productPage);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public ProductListResponse scrollProducts(String cursor, int size, Sort.Direction direction, boolean includeTotal) {
+        String tenantId = TenantContext.getTenantId();
+        int pageSize = KeysetCursor.clampPageSize(size);
+        Pageable pageable = KeysetCursor.pageRequest(pageSize, direction, "name");
+
+        List<Product> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = productRepository.findKeysetFirstByTenantId(tenantId, pageable);
+        } else {
+            KeysetCursor position = KeysetCursor.decode(cursor, direction);
+            rows = direction.isAscending()
+                    ? productRepository.findKeysetAfterByTenantId(tenantId, position.getSortKey(), position.getId(), pageable)
+                    : productRepository.findKeysetBeforeByTenantId(tenantId, position.getSortKey(), position.getId(), pageable);
+        }
+
+        Long total = includeTotal ? productRepository.countByTenantId(tenantId) : null;
+        return productMapper.toListResponse(
+                CursorPage.of(rows, pageSize, direction, Product::getName, Product::getId, total));
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ProductListResponse searchProducts(ProductSearchRequest request) {
@@ -119,7 +219,19 @@ public class ProductServiceImpl implements ProductService {
 
         String tenantId = TenantContext.getTenantId();
 
-        // Simple text search implementation
+        if (productSearchService.isEnabled()) {
+            // Gerankte IDs + Facetten aus dem Suchindex, Produkte in einer Query nachladen
+            String searchTerm = request.getSearchTerm() != null ? request.getSearchTerm().trim() : null;
+            ProductSearchResult result = productSearchService.search(
+                    tenantId, searchTerm, toSearchFilter(request), request.toPageable());
+
+            ProductListResponse response = productMapper.toListResponse(loadInOrder(result.getIds()));
+            response.setFilterSummary(productMapper.toFilterSummaryResponse(
+                    request, result.getIds().getTotalElements(), result.getFacets(), categoryNames(result.getFacets())));
+            return response;
+        }
+
+        // Fallback ohne Suchindex
         Page<Product> productPage;
         if (request.getSearchTerm() != null && !request.getSearchTerm().trim().isEmpty()) {
             productPage = productRepository.searchByTerm(
@@ -132,89 +244,119 @@ public class ProductServiceImpl implements ProductService {
             productPage = productRepository.findByTenantIdOrderByNameAsc(tenantId, request.toPageable());
         }
 
-        return productMapper.toListResponse(productPage);
+        // Facetten per GROUP BY über dieselben Treffer
+        FacetCounts facets = productSearchService.countFacets(tenantId, request.getSearchTerm());
+        ProductListResponse response = productMapper.toListResponse(productPage);
+        response.setFilterSummary(productMapper.toFilterSummaryResponse(
+                request, productPage.getTotalElements(), facets, categoryNames(facets)));
+        return response;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ProductStatisticsResponse getProductStatistics() {
-        log.debug("Calculating product statistics");
-
+    public List<ProductTypeaheadResponse> suggestProducts(String query, int limit) {
         String tenantId = TenantContext.getTenantId();
+        String prefix = query != null ? query.trim() : "";
+        int max = Math.min(Math.max(limit, 1), ProductTypeahead.MAX_SUGGESTIONS);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
 
-        Long totalProducts = productRepository.countByTenantId(tenantId);
-        Long activeProducts = productRepository.countByStatusAndTenantId(ProductStatus.ACTIVE, tenantId);
-        Long draftProducts = productRepository.countByStatusAndTenantId(ProductStatus.DRAFT, tenantId);
-        Long discontinuedProducts = productRepository.countByStatusAndTenantId(ProductStatus.DISCONTINUED, tenantId);
+        if (productSearchService.isEnabled()) {
+            // Direkt aus den Prefix-Tries im Speicher, kein DB-Zugriff
+            return productSearchService.suggest(tenantId, prefix, max).stream()
+                    .map(productMapper::toTypeaheadResponse)
+                    .collect(Collectors.toList());
+        }
 
-        List<Product> lowStockProducts = productRepository.findLowStockProducts(tenantId);
-        List<Product> outOfStockProducts = productRepository.findOutOfStockProducts(tenantId);
+        // Fallback ohne Suchindex
+        return productRepository.searchByTerm(prefix, tenantId, PageRequest.of(0, max)).stream()
+                .map(productMapper::toTypeaheadResponse)
+                .collect(Collectors.toList());
+    }
 
-        BigDecimal totalInventoryValue = productRepository.calculateTotalInventoryValue(tenantId);
-        Long categoriesWithProducts = productRepository.countDistinctCategoriesByTenantId(tenantId);
+    @Override
+    @Transactional(readOnly = true)
+    public ProductStatisticsResponse getProductStatistics() {
+        log.debug("Reading product statistics snapshot");
+
+        String tenantId = TenantContext.getTenantId();
+        ProductStatistics statistics = productStatisticsService.getStatistics(tenantId);
 
         return ProductStatisticsResponse.builder()
-                .totalProducts(totalProducts)
-                .activeProducts(activeProducts)
-                .draftProducts(draftProducts)
-                .discontinuedProducts(discontinuedProducts)
-                .lowStockProducts((long) lowStockProducts.size())
-                .outOfStockProducts((long) outOfStockProducts.size())
-                .totalInventoryValue(totalInventoryValue)
-                .totalInventoryValueFormatted(formatCurrency(totalInventoryValue, "EUR"))
-                .categoriesWithProducts(categoriesWithProducts)
-                .lowStockProductsList(productMapper.toSummaryResponseList(lowStockProducts.stream().limit(10).collect(Collectors.toList())))
-                .outOfStockProductsList(productMapper.toSummaryResponseList(outOfStockProducts.stream().limit(10).collect(Collectors.toList())))
+                .totalProducts(statistics.getTotalProducts())
+                .activeProducts(statistics.getProducts(ProductStatus.ACTIVE))
+                .draftProducts(statistics.getProducts(ProductStatus.DRAFT))
+                .discontinuedProducts(statistics.getProducts(ProductStatus.DISCONTINUED))
+                .lowStockProducts(statistics.getLowStockProducts())
+                .outOfStockProducts(statistics.getOutOfStockProducts())
+                .totalInventoryValue(statistics.getTotalInventoryValue())
+                .totalInventoryValueFormatted(formatCurrency(statistics.getTotalInventoryValue(), "EUR"))
+                .categoriesWithProducts(statistics.getCategoriesWithProducts())
+                .lowStockProductsList(productStatisticsService.getLowStockProducts(tenantId))
+                .outOfStockProductsList(productStatisticsService.getOutOfStockProducts(tenantId))
                 .build();
     }
 
     // ==================== STOCK MANAGEMENT ====================
 
+    // Bestandsänderungen laufen über den StockWriteCombiner, der in eigener Transaktion schreibt und committet
+
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductStockResponse updateStock(UUID id, UpdateStockRequest request) {
         log.debug("Updating stock for product ID: {} to quantity: {}", id, request.getNewStockQuantity());
 
-        Product product = getProductEntityById(id);
-        Integer previousStock = product.getCurrentStock() != null ? product.getCurrentStock().intValue() : 0;
+        StockChange change = stockWriteCombiner.apply(id, StockOperation.set(
+                BigDecimal.valueOf(request.getNewStockQuantity()), request.getReason(), request.getNotes()));
+        productLookupCache.invalidate(TenantContext.getTenantId(), id);
 
-        product.updateStock(BigDecimal.valueOf(request.getNewStockQuantity()));
-        product = productRepository.save(product);
+        log.info("Updated stock for product ID: {} from {} to {}", id,
+                change.getMovement().getPreviousStock(), request.getNewStockQuantity());
 
-        log.info("Updated stock for product ID: {} from {} to {}", id, previousStock, request.getNewStockQuantity());
-
-        return productMapper.toStockResponse(product, "UPDATE", previousStock, request.getReason());
+        return productMapper.toStockResponse(change.getProduct(), change.getMovement());
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductStockResponse addStock(UUID id, AddStockRequest request) {
         log.debug("Adding {} stock to product ID: {}", request.getQuantityToAdd(), id);
 
-        Product product = getProductEntityById(id);
-        Integer previousStock = product.getCurrentStock() != null ? product.getCurrentStock().intValue() : 0;
-
-        product.addStock(BigDecimal.valueOf(request.getQuantityToAdd()));
-        product = productRepository.save(product);
+        StockChange change = stockWriteCombiner.apply(id, StockOperation.add(
+                BigDecimal.valueOf(request.getQuantityToAdd()), request.getReason(),
+                request.getSupplierReference(), request.getNotes()));
+        productLookupCache.invalidate(TenantContext.getTenantId(), id);
 
-        Integer newStock = product.getCurrentStock().intValue();
-        log.info("Added {} stock to product ID: {}, new total: {}", request.getQuantityToAdd(), id, newStock);
+        log.info("Added {} stock to product ID: {}, new total: {}", request.getQuantityToAdd(), id,
+                change.getMovement().getResultingStock());
 
-        return productMapper.toStockResponse(product, "ADD", previousStock, request.getReason());
+        return productMapper.toStockResponse(change.getProduct(), change.getMovement());
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ProductStockResponse removeStock(UUID id, RemoveStockRequest request) {
         log.debug("Removing {} stock from product ID: {}", request.getQuantityToRemove(), id);
 
-        Product product = getProductEntityById(id);
-        Integer previousStock = product.getCurrentStock() != null ? product.getCurrentStock().intValue() : 0;
+        StockChange change = stockWriteCombiner.apply(id, StockOperation.remove(
+                BigDecimal.valueOf(request.getQuantityToRemove()), request.getReason(),
+                request.getOrderReference(), request.getNotes()));
+        productLookupCache.invalidate(TenantContext.getTenantId(), id);
 
-        product.removeStock(BigDecimal.valueOf(request.getQuantityToRemove()));
-        product = productRepository.save(product);
+        log.info("Removed {} stock from product ID: {}, new total: {}", request.getQuantityToRemove(), id,
+                change.getMovement().getResultingStock());
 
-        Integer newStock = product.getCurrentStock().intValue();
-        log.info("Removed {} stock from product ID: {}, new total: {}", request.getQuantityToRemove(), id, newStock);
+        return productMapper.toStockResponse(change.getProduct(), change.getMovement());
+    }
 
-        return productMapper.toStockResponse(product, "REMOVE", previousStock, request.getReason());
+    @Override
+    @Transactional(readOnly = true)
+    public StockMovementListResponse getStockMovements(UUID productId, Pageable pageable) {
+        log.debug("Retrieving stock movements for product ID: {}", productId);
+
+        Page<StockMovement> movements = stockMovementRepository.findByTenantIdAndProductIdOrderByCreatedAtDesc(
+                TenantContext.getTenantId(), productId, pageable);
+        return productMapper.toStockMovementListResponse(movements);
     }
 
     // ==================== VALIDATION ====================
@@ -269,53 +411,81 @@ public class ProductServiceImpl implements ProductService {
     // ==================== BULK OPERATIONS ====================
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public BulkOperationResponse bulkUpdateStatus(List<UUID> productIds, ProductStatus newStatus) {
         log.debug("Bulk updating status for {} products to {}", productIds.size(), newStatus);
 
-        String tenantId = TenantContext.getTenantId();
-        List<String> errors = new ArrayList<>();
-        int successful = 0;
-
-        for (UUID productId : productIds) {
-            try {
-                Product product = getProductEntityById(productId);
-                product.setStatus(newStatus);
-
-                // Apply business rules based on status
-                if (newStatus == ProductStatus.ACTIVE) {
-                    product.activate();
-                } else if (newStatus == ProductStatus.DISCONTINUED) {
-                    product.discontinue();
-                }
-
-                productRepository.save(product);
-                successful++;
-            } catch (Exception e) {
-                errors.add("Failed to update product " + productId + ": " + e.getMessage());
-            }
-        }
-
-        log.info("Bulk status update completed: {} successful, {} failed", successful, errors.size());
+        ProductMutation mutation = ProductMutation.builder().status(newStatus).build();
+        return bulkMutationService.updateByIds(productIds, mutation, "BULK_STATUS_UPDATE");
+    }
 
-        return BulkOperationResponse.builder()
-                .totalRequested(productIds.size())
-                .successfulOperations(successful)
-                .failedOperations(errors.size())
-                .errors(errors)
-                .operationType("BULK_STATUS_UPDATE")
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkOperationResponse bulkUpdate(BulkProductUpdateRequest request) {
+        ProductMutation mutation = ProductMutation.builder()
+                .status(request.getNewStatus())
+                .categoryId(request.getNewCategoryId())
+                .minStockLevel(request.getNewMinStockLevel())
+                .maxStockLevel(request.getNewMaxStockLevel())
+                .active(request.getNewActive())
                 .build();
+
+        if (request.getFilter() != null) {
+            log.debug("Bulk updating products matching {}: {}", request.getFilter(), mutation);
+            return bulkMutationService.updateByFilter(request.getFilter(), mutation, "BULK_UPDATE");
+        }
+        log.debug("Bulk updating {} products: {}", request.getProductIds().size(), mutation);
+        return bulkMutationService.updateByIds(request.getProductIds(), mutation, "BULK_UPDATE");
     }
 
     // ==================== HELPER METHODS ====================
 
     @Transactional(readOnly = true)
     public Product getProductEntityById(UUID id) {
-        String tenantId = TenantContext.getTenantId();
+        // Tenant-Filter greift bereits in Hibernate (@TenantId), fremde Produkte werden nicht geladen
         return productRepository.findById(id)
-                .filter(product -> product.getTenantId().equals(tenantId))
                 .orElseThrow(() -> new ProductNotFoundException("Product not found with ID: " + id));
     }
 
+    private Page<Product> loadInOrder(Page<UUID> idPage) {
+        if (idPage.isEmpty()) {
+            return new PageImpl<>(List.of(), idPage.getPageable(), idPage.getTotalElements());
+        }
+        Map<UUID, Product> productsById = productRepository.findAllWithCategoryByIdIn(idPage.getContent()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> products = idPage.getContent().stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(products, idPage.getPageable(), idPage.getTotalElements());
+    }
+
+    private ProductSearchFilter toSearchFilter(ProductSearchRequest request) {
+        Set<StockState> stockStates = null;
+        if (Boolean.TRUE.equals(request.getOutOfStockOnly())) {
+            stockStates = EnumSet.of(StockState.OUT_OF_STOCK);
+        } else if (Boolean.TRUE.equals(request.getLowStockOnly())) {
+            stockStates = EnumSet.of(StockState.LOW_STOCK, StockState.OUT_OF_STOCK);
+        }
+
+        return ProductSearchFilter.builder()
+                .categoryId(request.getCategoryId())
+                .status(request.getStatus())
+                .unit(request.getUnit())
+                .minPrice(request.getMinPrice())
+                .maxPrice(request.getMaxPrice())
+                .stockStates(stockStates)
+                .build();
+    }
+
+    private Map<UUID, String> categoryNames(FacetCounts facets) {
+        if (facets.getCategories().isEmpty()) {
+            return Map.of();
+        }
+        return categoryRepository.findAllById(facets.getCategories().keySet()).stream()
+                .collect(Collectors.toMap(ProductCategory::getId, ProductCategory::getName));
+    }
+
     private String formatCurrency(BigDecimal amount, String currency) {
         if (amount == null) {
             return currency + " 0,00";
@@ -0,0 +1,45 @@
+package com.dwestermann.erp.product.statistics;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.ProductStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * What one product adds to the tenant statistics.
+ * Ein Update zieht den alten Beitrag ab und addiert den neuen - dafür wird der Stand vor der Änderung im Event mitgegeben.
+ */
+@Value
+public class ProductContribution {
+
+    ProductStatus status;
+    UUID categoryId;
+    boolean lowStock;
+    boolean outOfStock;
+    BigDecimal inventoryValue;
+
+    /**
+     * Same conditions as the statistics query (findLowStockProducts, findOutOfStockProducts, calculateTotalInventoryValue)
+     */
+    public static ProductContribution of(Product product) {
+        return of(product, product.getCurrentStock());
+    }
+
+    /**
+     * Contribution of the product with a different stock, e.g. the stock before a ledger movement
+     */
+    public static ProductContribution of(Product product, BigDecimal stock) {
+        BigDecimal minStock = product.getMinStockLevel();
+        boolean lowStock = stock != null && minStock != null
+                && minStock.signum() > 0 && stock.compareTo(minStock) <= 0;
+        boolean outOfStock = stock != null && stock.signum() == 0;
+        BigDecimal price = product.getSellingPrice() != null ? product.getSellingPrice().getAmount() : null;
+        BigDecimal value = price != null && stock != null ? price.multiply(stock) : BigDecimal.ZERO;
+
+        return new ProductContribution(product.getStatus(),
+                product.getCategory() != null ? product.getCategory().getId() : null,
+                lowStock, outOfStock, value);
+    }
+}
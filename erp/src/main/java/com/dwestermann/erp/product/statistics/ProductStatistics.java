@@ -0,0 +1,25 @@
+package com.dwestermann.erp.product.statistics;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+/**
+ * Immutable view of a tenant snapshot
+ */
+@Value
+public class ProductStatistics {
+
+    long totalProducts;
+    Map<ProductStatus, Long> productsByStatus;
+    long lowStockProducts;
+    long outOfStockProducts;
+    BigDecimal totalInventoryValue;
+    long categoriesWithProducts;
+
+    public long getProducts(ProductStatus status) {
+        return productsByStatus.getOrDefault(status, 0L);
+    }
+}
@@ -0,0 +1,21 @@
+package com.dwestermann.erp.product.statistics;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One group (category, status) of the statistics aggregate (JPQL projection)
+ */
+@Value
+public class ProductStatisticsRow {
+
+    UUID categoryId;
+    ProductStatus status;
+    Long products;
+    Long lowStock;
+    Long outOfStock;
+    BigDecimal inventoryValue;
+}
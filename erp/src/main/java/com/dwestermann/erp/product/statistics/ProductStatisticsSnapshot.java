@@ -0,0 +1,84 @@
+package com.dwestermann.erp.product.statistics;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Running totals of one tenant. Wird aus der Aggregat-Query aufgebaut und danach per Beitrags-Delta
+ * ({@link ProductContribution}) fortgeschrieben. Nicht thread-safe.
+ */
+public class ProductStatisticsSnapshot {
+
+    private final Map<ProductStatus, Long> productsByStatus = new EnumMap<>(ProductStatus.class);
+    private final Map<UUID, Long> productsByCategory = new HashMap<>();
+    private long totalProducts;
+    private long lowStock;
+    private long outOfStock;
+    private BigDecimal inventoryValue = BigDecimal.ZERO;
+
+    public static ProductStatisticsSnapshot of(List<ProductStatisticsRow> rows) {
+        ProductStatisticsSnapshot snapshot = new ProductStatisticsSnapshot();
+        for (ProductStatisticsRow row : rows) {
+            long products = row.getProducts() != null ? row.getProducts() : 0;
+            snapshot.totalProducts += products;
+            if (row.getStatus() != null) {
+                snapshot.productsByStatus.merge(row.getStatus(), products, Long::sum);
+            }
+            if (row.getCategoryId() != null) {
+                snapshot.productsByCategory.merge(row.getCategoryId(), products, Long::sum);
+            }
+            snapshot.lowStock += row.getLowStock() != null ? row.getLowStock() : 0;
+            snapshot.outOfStock += row.getOutOfStock() != null ? row.getOutOfStock() : 0;
+            if (row.getInventoryValue() != null) {
+                snapshot.inventoryValue = snapshot.inventoryValue.add(row.getInventoryValue());
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Replace a product's contribution
+     *
+     * @param previous contribution before the change, null for new products
+     * @param current  contribution after the change, null for deleted products
+     */
+    public void apply(ProductContribution previous, ProductContribution current) {
+        if (previous != null) {
+            add(previous, -1);
+        }
+        if (current != null) {
+            add(current, 1);
+        }
+    }
+
+    public ProductStatistics toStatistics() {
+        return new ProductStatistics(totalProducts, Map.copyOf(productsByStatus), lowStock, outOfStock,
+                inventoryValue, productsByCategory.size());
+    }
+
+    private void add(ProductContribution contribution, int sign) {
+        totalProducts += sign;
+        if (contribution.getStatus() != null) {
+            productsByStatus.merge(contribution.getStatus(), (long) sign, Long::sum);
+        }
+        if (contribution.getCategoryId() != null) {
+            // Kategorien ohne Produkte fallen aus dem Distinct-Count
+            productsByCategory.compute(contribution.getCategoryId(),
+                    (id, count) -> count == null ? (sign > 0 ? 1L : null) : (count + sign > 0 ? count + sign : null));
+        }
+        if (contribution.isLowStock()) {
+            lowStock += sign;
+        }
+        if (contribution.isOutOfStock()) {
+            outOfStock += sign;
+        }
+        BigDecimal value = contribution.getInventoryValue();
+        inventoryValue = sign > 0 ? inventoryValue.add(value) : inventoryValue.subtract(value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.dwestermann.erp.product.stock;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stock operations of one write-combining batch, applied in arrival order against the starting stock.
+ * Ein Abgang, der reservierten Bestand verbrauchen würde, wird abgelehnt und ändert den laufenden Bestand nicht -
+ * jeder Aufrufer bekommt dasselbe Ergebnis wie bei einzelnen Updates in dieser Reihenfolge.
+ * Eine Inventur (absoluter Bestand) wird immer übernommen.
+ */
+@Getter
+public class StockBatch {
+
+    private final BigDecimal startStock;
+    private final BigDecimal endStock;
+    private final List<BigDecimal> resultingStocks; // null = abgelehnt
+
+    private StockBatch(BigDecimal startStock, BigDecimal endStock, List<BigDecimal> resultingStocks) {
+        this.startStock = startStock;
+        this.endStock = endStock;
+        this.resultingStocks = Collections.unmodifiableList(resultingStocks);
+    }
+
+    public static StockBatch admit(BigDecimal startStock, BigDecimal reservedStock, List<StockOperation> operations) {
+        BigDecimal stock = startStock;
+        List<BigDecimal> resultingStocks = new ArrayList<>(operations.size());
+        for (StockOperation operation : operations) {
+            BigDecimal delta = operation.deltaFrom(stock);
+            BigDecimal next = stock.add(delta);
+            if (!operation.isAbsolute() && delta.signum() < 0 && next.compareTo(reservedStock) < 0) {
+                resultingStocks.add(null);
+            } else {
+                resultingStocks.add(next);
+                stock = next;
+            }
+        }
+        return new StockBatch(startStock, stock, resultingStocks);
+    }
+
+    /**
+     * Sum of all deltas, null if the batch contains an absolute stock (depends on the current stock)
+     */
+    public static BigDecimal netDelta(List<StockOperation> operations) {
+        BigDecimal net = BigDecimal.ZERO;
+        for (StockOperation operation : operations) {
+            if (operation.isAbsolute()) {
+                return null;
+            }
+            net = net.add(operation.getQuantity());
+        }
+        return net;
+    }
+
+    public boolean isAccepted(int index) {
+        return resultingStocks.get(index) != null;
+    }
+
+    public boolean hasAccepted() {
+        return resultingStocks.stream().anyMatch(stock -> stock != null);
+    }
+}
@@ -0,0 +1,16 @@
+package com.dwestermann.erp.product.stock;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.StockMovement;
+import lombok.Value;
+
+/**
+ * Result of one stock operation: the product after its batch and the caller's own ledger entry.
+ * Bei Write-Combining teilen sich die Aufrufer das Produkt, Vor-/Nachbestand stehen in der Bewegung.
+ */
+@Value
+public class StockChange {
+
+    Product product;
+    StockMovement movement;
+}
@@ -0,0 +1,47 @@
+package com.dwestermann.erp.product.stock;
+
+import com.dwestermann.erp.common.entity.BaseEntity;
+import com.dwestermann.erp.product.domain.StockMovementType;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * A requested stock change before it is applied.
+ * ADD/REMOVE tragen ein vorzeichenbehaftetes Delta, UPDATE einen absoluten Zielbestand (Inventur).
+ * requestedBy wird beim Erstellen aus dem Security Context übernommen - der Batch läuft ggf. auf einem fremden Thread.
+ */
+@Value
+public class StockOperation {
+
+    StockMovementType type;
+    BigDecimal quantity;
+    String reason;
+    String reference;
+    String notes;
+    String requestedBy;
+
+    public static StockOperation add(BigDecimal quantity, String reason, String reference, String notes) {
+        return new StockOperation(StockMovementType.ADD, quantity, reason, reference, notes, BaseEntity.currentUsername());
+    }
+
+    public static StockOperation remove(BigDecimal quantity, String reason, String reference, String notes) {
+        return new StockOperation(StockMovementType.REMOVE, quantity.negate(), reason, reference, notes,
+                BaseEntity.currentUsername());
+    }
+
+    public static StockOperation set(BigDecimal stock, String reason, String notes) {
+        return new StockOperation(StockMovementType.UPDATE, stock, reason, null, notes, BaseEntity.currentUsername());
+    }
+
+    public boolean isAbsolute() {
+        return type == StockMovementType.UPDATE;
+    }
+
+    /**
+     * Change relative to the given stock
+     */
+    public BigDecimal deltaFrom(BigDecimal stock) {
+        return isAbsolute() ? quantity.subtract(stock) : quantity;
+    }
+}
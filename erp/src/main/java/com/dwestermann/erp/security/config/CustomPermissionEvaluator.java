@@ -1,22 +1,21 @@
 package com.dwestermann.erp.security.config;
 
-import com.dwestermann.erp.security.entity.Permission;
-import com.dwestermann.erp.security.entity.Role;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.security.access.PermissionEvaluator;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 
 import java.io.Serializable;
-import java.util.Set;
 
 @Component
 @Profile("!test")
 @Slf4j
 public class CustomPermissionEvaluator implements PermissionEvaluator {
 
+    // Wird pro @PreAuthorize Check abgefragt - einmalig beim Start aufgebaut
+    private final PermissionMatrix permissionMatrix = new PermissionMatrix();
+
     @Override
     public boolean hasPermission(Authentication authentication, Object targetDomainObject, Object permission) {
         if (authentication == null || !authentication.isAuthenticated()) {
@@ -36,45 +35,12 @@ public class CustomPermissionEvaluator implements PermissionEvaluator {
     }
 
     private boolean hasPrivilege(Authentication authentication, String targetType, String permission) {
-        String username = authentication.getName();
-
-        log.debug("Checking permission for user: {}", username);
-        log.debug("User authorities: {}", authentication.getAuthorities());
-
-        // Find ROLE_ authority (die Rolle ist immer mit ROLE_ prefixed)
-        String roleName = authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(auth -> auth.startsWith("ROLE_"))
-                .map(auth -> auth.substring(5)) // Remove "ROLE_" prefix
-                .findFirst()
-                .orElse("");
-
-        log.debug("Extracted role: {} for user: {}", roleName, username);
-        log.debug("Checking permission: targetType={}, permission={}", targetType, permission);
-
-        if (roleName.isEmpty()) {
-            log.warn("No role found for user: {}", username);
-            return false;
-        }
+        boolean granted = permissionMatrix.hasPermission(authentication, targetType, permission);
 
-        try {
-            Role role = Role.valueOf(roleName);
-            Set<Permission> permissions = role.getPermissions();
-
-            // Build expected permission string: CUSTOMER_READ, CUSTOMER_WRITE, etc.
-            String requiredPermission = targetType.toUpperCase() + "_" + permission.toUpperCase();
-
-            boolean hasPermission = permissions.stream()
-                    .anyMatch(p -> p.name().equals(requiredPermission));
-
-            log.debug("Permission check result: {} (required: {}, available: {})",
-                    hasPermission, requiredPermission, permissions);
-
-            return hasPermission;
-
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid role: {} for user: {}", roleName, username);
-            return false;
+        if (!granted && log.isDebugEnabled()) {
+            log.debug("Permission denied for user: {} (targetType={}, permission={}, authorities={})",
+                    authentication.getName(), targetType, permission, authentication.getAuthorities());
         }
+        return granted;
     }
-}
\ No newline at end of file
+}
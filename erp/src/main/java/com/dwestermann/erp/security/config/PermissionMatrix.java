@@ -0,0 +1,121 @@
+package com.dwestermann.erp.security.config;
+
+import com.dwestermann.erp.security.entity.Permission;
+import com.dwestermann.erp.security.entity.Role;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Role/Permission Matrix, einmalig beim Start aufgebaut.
+ * Pro Role ein Bitset über Permission-Ordinals, (targetType, permission) Paare werden
+ * auf das Permission-Ordinal vorab aufgelöst - ein Check ist damit allocation-free.
+ * Semantik wie bisher: TARGET_PERMISSION (upper case) muss dem Permission-Namen entsprechen.
+ */
+final class PermissionMatrix {
+
+    static final int UNKNOWN = -1;
+
+    private static final String ROLE_PREFIX = "ROLE_";
+
+    // Schutz gegen unbegrenztes Wachstum bei beliebigen targetType Strings
+    private static final int MAX_RESOLVED_TARGETS = 256;
+
+    private final long[][] grants;
+    private final Map<String, Role> roleByAuthority;
+    private final Map<String, Integer> ordinalByName;
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, Integer>> resolved = new ConcurrentHashMap<>();
+
+    PermissionMatrix() {
+        Permission[] permissions = Permission.values();
+        int words = (permissions.length + 63) >>> 6;
+
+        Role[] roles = Role.values();
+        this.grants = new long[roles.length][words];
+        Map<String, Role> authorities = new HashMap<>();
+        for (Role role : roles) {
+            for (Permission permission : role.getPermissions()) {
+                grants[role.ordinal()][permission.ordinal() >>> 6] |= 1L << permission.ordinal();
+            }
+            authorities.put(ROLE_PREFIX + role.name(), role);
+        }
+        this.roleByAuthority = Map.copyOf(authorities);
+
+        Map<String, Integer> names = new HashMap<>();
+        for (Permission permission : permissions) {
+            names.put(permission.name(), permission.ordinal());
+        }
+        this.ordinalByName = Map.copyOf(names);
+
+        // Alle Zerlegungen TARGET_PERMISSION in upper und lower case vorab auflösen
+        for (Permission permission : permissions) {
+            String name = permission.name();
+            for (int i = name.indexOf('_'); i > 0; i = name.indexOf('_', i + 1)) {
+                String target = name.substring(0, i);
+                String action = name.substring(i + 1);
+                register(target, action, permission.ordinal());
+                register(target.toLowerCase(), action.toLowerCase(), permission.ordinal());
+            }
+        }
+    }
+
+    /**
+     * Check if the role of the authentication grants targetType/permission
+     */
+    boolean hasPermission(Authentication authentication, String targetType, String permission) {
+        Role role = resolveRole(authentication);
+        return role != null && hasPermission(role, targetType, permission);
+    }
+
+    /**
+     * Check if the role grants targetType/permission
+     */
+    boolean hasPermission(Role role, String targetType, String permission) {
+        int ordinal = resolve(targetType, permission);
+        return ordinal != UNKNOWN && (grants[role.ordinal()][ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Role from the first ROLE_ authority, null if missing or unknown
+     */
+    Role resolveRole(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith(ROLE_PREFIX)) {
+                return roleByAuthority.get(name);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Permission ordinal for targetType/permission or {@link #UNKNOWN}
+     */
+    int resolve(String targetType, String permission) {
+        Map<String, Integer> actions = resolved.get(targetType);
+        if (actions != null) {
+            Integer ordinal = actions.get(permission);
+            if (ordinal != null) {
+                return ordinal;
+            }
+        }
+
+        // Unbekannte Schreibweise - einmalig auflösen und merken
+        Integer ordinal = ordinalByName.getOrDefault(
+                targetType.toUpperCase() + "_" + permission.toUpperCase(), UNKNOWN);
+        if (actions != null || resolved.size() < MAX_RESOLVED_TARGETS) {
+            register(targetType, permission, ordinal);
+        }
+        return ordinal;
+    }
+
+    private void register(String targetType, String permission, Integer ordinal) {
+        ConcurrentHashMap<String, Integer> actions = resolved.computeIfAbsent(targetType, key -> new ConcurrentHashMap<>());
+        if (actions.size() < MAX_RESOLVED_TARGETS) {
+            actions.putIfAbsent(permission, ordinal);
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.dwestermann.erp.security.config;
 
 import com.dwestermann.erp.security.jwt.JwtAuthenticationFilter;
 import com.dwestermann.erp.security.service.CustomUserDetailsService;
+import com.dwestermann.erp.security.service.PasswordHashingService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.access.PermissionEvaluator;
@@ -24,6 +28,8 @@ import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfigurationSource;
 
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
@@ -38,7 +44,8 @@ public class SecurityConfig {
     private final PermissionEvaluator permissionEvaluator;
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http,
+                                                   AuthenticationProvider authenticationProvider) throws Exception {
         http
                 // CSRF für JWT APIs deaktivieren
                 .csrf(AbstractHttpConfigurer::disable)
@@ -75,7 +82,7 @@ public class SecurityConfig {
                 )
 
                 // Authentication Provider
-                .authenticationProvider(authenticationProvider())
+                .authenticationProvider(authenticationProvider)
 
                 // JWT Filter vor UsernamePasswordAuthenticationFilter
                 .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
@@ -91,9 +98,18 @@ public class SecurityConfig {
         return handler;
     }
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    /**
+     * BCrypt läuft auf einem eigenen, begrenzten Executor (nicht auf Tomcat-Threads)
+     */
+    @Bean(destroyMethod = "shutdown")
+    public PasswordHashingService passwordEncoder(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.timeout:5000}") long timeoutMs) {
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new PasswordHashingService(new BCryptPasswordEncoder(), poolSize, queueCapacity,
+                Duration.ofMillis(timeoutMs), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
     }
 
     @Bean
@@ -102,10 +118,10 @@ public class SecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider() {
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 }
\ No newline at end of file
@@ -1,8 +1,11 @@
 package com.dwestermann.erp.security.controller;
 
 import com.dwestermann.erp.security.dto.*;
+import com.dwestermann.erp.security.jwt.JwtService;
+import com.dwestermann.erp.security.ratelimit.AuthRateLimiter;
 import com.dwestermann.erp.security.service.AuthService;
 import com.dwestermann.erp.tenant.context.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,15 +22,20 @@ import java.time.LocalDateTime;
 public class AuthController {
 
     private final AuthService authService;
+    private final JwtService jwtService;
+    private final AuthRateLimiter rateLimiter;
 
     /**
      * User Login - erstellt JWT Token mit Tenant-Kontext
      */
     @PostMapping("/login")
-    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthResponse> login(@Valid @RequestBody LoginRequest request,
+                                              HttpServletRequest httpRequest) {
         log.info("Login attempt for user: {} in tenant: {}",
                 request.getEmail(), TenantContext.getTenantId());
 
+        rateLimiter.check("login", request.getEmail(), httpRequest);
+
         try {
             AuthResponse response = authService.authenticate(request);
             log.info("Successful login for user: {} in tenant: {}",
@@ -44,10 +52,13 @@ public class AuthController {
      * User Registration - erstellt neuen User im aktuellen Tenant
      */
     @PostMapping("/register")
-    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request) {
+    public ResponseEntity<AuthResponse> register(@Valid @RequestBody RegisterRequest request,
+                                                 HttpServletRequest httpRequest) {
         log.info("Registration attempt for user: {} in tenant: {}",
                 request.getEmail(), TenantContext.getTenantId());
 
+        rateLimiter.check("register", request.getEmail(), httpRequest);
+
         AuthResponse response = authService.register(request);
         log.info("Successful registration for user: {} in tenant: {}",
                 request.getEmail(), TenantContext.getTenantId());
@@ -59,21 +70,26 @@ public class AuthController {
      * Refresh JWT Token
      */
     @PostMapping("/refresh")
-    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request) {
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshTokenRequest request,
+                                                HttpServletRequest httpRequest) {
         log.debug("Token refresh attempt in tenant: {}", TenantContext.getTenantId());
 
+        rateLimiter.check("refresh", null, httpRequest);
+
         AuthResponse response = authService.refreshToken(request.getRefreshToken());
         return ResponseEntity.ok(response);
     }
 
     /**
-     * User Logout - invalidiert Refresh Token
+     * User Logout - widerruft Refresh Token und aktuellen Access Token
      */
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(@Valid @RequestBody LogoutRequest request) {
+    public ResponseEntity<Void> logout(
+            @Valid @RequestBody LogoutRequest request,
+            @RequestHeader(value = "Authorization", required = false) String authorization) {
         log.info("Logout for user in tenant: {}", TenantContext.getTenantId());
 
-        authService.logout(request.getRefreshToken());
+        authService.logout(request.getRefreshToken(), jwtService.extractTokenFromHeader(authorization));
         return ResponseEntity.ok().build();
     }
 
@@ -126,10 +142,13 @@ public class AuthController {
      * Request Password Reset
      */
     @PostMapping("/forgot-password")
-    public ResponseEntity<MessageResponse> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request) {
+    public ResponseEntity<MessageResponse> forgotPassword(@Valid @RequestBody ForgotPasswordRequest request,
+                                                         HttpServletRequest httpRequest) {
         log.info("Password reset request for email: {} in tenant: {}",
                 request.getEmail(), TenantContext.getTenantId());
 
+        rateLimiter.check("forgot-password", request.getEmail(), httpRequest);
+
         authService.initiatePasswordReset(request.getEmail());
 
         // ✅ Verwende static factory method statt Builder
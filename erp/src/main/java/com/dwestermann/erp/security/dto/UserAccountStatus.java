@@ -0,0 +1,21 @@
+package com.dwestermann.erp.security.dto;
+
+import com.dwestermann.erp.security.entity.Role;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Minimal projection of the security relevant user state
+ * (wird vom UserAccountStatusRegistry periodisch geladen)
+ */
+@Value
+public class UserAccountStatus {
+
+    UUID userId;
+    String tenantId;
+    boolean accountLocked;
+    LocalDateTime passwordChangedAt;
+    Role role;
+}
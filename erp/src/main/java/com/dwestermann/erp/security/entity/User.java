@@ -17,12 +17,14 @@ import java.util.stream.Collectors;
 @Entity
 @Table(name = "users",
         uniqueConstraints = {
-                @UniqueConstraint(columnNames = {"email", "tenant_id"})
+                @UniqueConstraint(name = "uq_users_tenant_email", columnNames = {"tenant_id", "email"})
         },
         indexes = {
-                @Index(name = "idx_user_email_tenant", columnList = "email, tenant_id"),
-                @Index(name = "idx_user_tenant", columnList = "tenant_id"),
-                @Index(name = "idx_user_role", columnList = "role")
+                @Index(name = "idx_users_email", columnList = "email"),
+                @Index(name = "idx_users_tenant_role", columnList = "tenant_id, role"),
+                @Index(name = "idx_users_role", columnList = "role"),
+                @Index(name = "idx_users_tenant_last_login", columnList = "tenant_id, last_login_at"),
+                @Index(name = "idx_users_tenant_created", columnList = "tenant_id, created_at")
         })
 @Getter
 @Setter
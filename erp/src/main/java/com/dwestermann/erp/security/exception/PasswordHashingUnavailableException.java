@@ -0,0 +1,14 @@
+package com.dwestermann.erp.security.exception;
+
+/**
+ * Thrown when the password hashing executor is saturated (Queue voll oder Timeout)
+ */
+public class PasswordHashingUnavailableException extends RuntimeException {
+    public PasswordHashingUnavailableException(String message) {
+        super(message);
+    }
+
+    public PasswordHashingUnavailableException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,17 @@
+package com.dwestermann.erp.security.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an auth endpoint is called too often (429 Too Many Requests)
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
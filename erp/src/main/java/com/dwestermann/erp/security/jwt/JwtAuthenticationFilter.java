@@ -1,6 +1,7 @@
 package com.dwestermann.erp.security.jwt;
 
 import com.dwestermann.erp.security.service.CustomUserDetailsService;
+import com.dwestermann.erp.security.service.UserAccountStatusRegistry;
 import com.dwestermann.erp.tenant.context.TenantContext;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -9,6 +10,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.DisabledException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,6 +27,8 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final CustomUserDetailsService userDetailsService;
+    private final UserAccountStatusRegistry accountStatusRegistry;
+    private final TokenRevocationStore revocationStore;
 
     @Override
     protected void doFilterInternal(
@@ -54,62 +58,104 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // Extract username and tenant from JWT
-            final String userEmail = jwtService.extractUsername(jwt);
-            final String tenantId = jwtService.extractTenantId(jwt);
+            // Verify token once - all further checks use the immutable claims
+            final JwtClaims claims = jwtService.resolveClaims(jwt);
+
+            // Revoked tokens (logout / forced sign-out) - Bloom-Filter Fast Path
+            if (revocationStore.isRevoked(claims)) {
+                log.debug("Rejected revoked JWT token for user: {}", claims.getSubject());
+            } else {
+                authenticate(request, claims);
+            }
 
-            log.debug("Extracted from JWT - Email: {}, Tenant: {}", userEmail, tenantId);
+        } catch (Exception e) {
+            log.error("Error processing JWT token: {}", e.getMessage(), e);
+            // Clear tenant context on error
+            TenantContext.clear();
+            request.removeAttribute(TenantContext.TOKEN_TENANT_ATTRIBUTE);
+        }
 
-            // Set tenant context from JWT
-            if (tenantId != null) {
-                TenantContext.setTenantId(tenantId);
-                log.debug("Set tenant context to: {}", tenantId);
-            }
+        // Continue filter chain - Tenant nie an den nächsten Request des Threads weitergeben
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /**
+     * Set tenant context and authentication from verified claims
+     */
+    private void authenticate(HttpServletRequest request, JwtClaims claims) {
+        final String userEmail = claims.getSubject();
+        final String tenantId = claims.getTenantId();
 
-            // If user is not already authenticated
-            if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        log.debug("Extracted from JWT - Email: {}, Tenant: {}", userEmail, tenantId);
 
-                // Validate token first
-                if (!jwtService.isTokenValid(jwt)) {
-                    log.warn("Invalid JWT token for user: {}", userEmail);
-                    filterChain.doFilter(request, response);
-                    return;
-                }
+        // Set tenant context from JWT - der TenantInterceptor übernimmt diesen Tenant
+        if (tenantId != null) {
+            TenantContext.setTenantId(tenantId);
+            request.setAttribute(TenantContext.TOKEN_TENANT_ATTRIBUTE, tenantId);
+            log.debug("Set tenant context to: {}", tenantId);
+        }
+
+        // If user is not already authenticated
+        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
+            // Claims-only mode: principal from token, no user lookup
+            UserDetails userDetails = resolvePrincipalFromClaims(claims);
+            if (userDetails == null) {
                 // Load user details
-                UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                userDetails = userDetailsService.loadUserByUsername(userEmail);
                 log.debug("Loaded user details for: {}", userEmail);
+            }
 
-                // Double-check token validity with user details
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+            // Check token against user details (no second parse)
+            if (jwtService.isTokenValid(claims, userDetails)) {
 
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
-                            null,
-                            userDetails.getAuthorities()
-                    );
+                // Create authentication token
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails,
+                        null,
+                        userDetails.getAuthorities()
+                );
 
-                    // Set authentication details
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                // Set authentication details
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
 
-                    // Set authentication in SecurityContext
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                // Set authentication in SecurityContext
+                SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                    log.info("Successfully authenticated user: {} in tenant: {}", userEmail, tenantId);
-                } else {
-                    log.warn("JWT token validation failed for user: {}", userEmail);
-                }
+                log.info("Successfully authenticated user: {} in tenant: {}", userEmail, tenantId);
+            } else {
+                log.warn("JWT token validation failed for user: {}", userEmail);
             }
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error processing JWT token: {}", e.getMessage(), e);
-            // Clear tenant context on error
-            TenantContext.clear();
+    /**
+     * Build the principal from claims if claims-only authentication is active.
+     * Returns null if the DB lookup is required (mode disabled, status table stale, claims incomplete).
+     */
+    private UserDetails resolvePrincipalFromClaims(JwtClaims claims) {
+        if (!accountStatusRegistry.isReady()) {
+            return null;
         }
 
-        // Continue filter chain
-        filterChain.doFilter(request, response);
+        JwtUserPrincipal principal = JwtUserPrincipal.fromClaims(claims);
+        if (principal == null) {
+            return null;
+        }
+
+        if (!accountStatusRegistry.isAccessAllowed(claims)) {
+            throw new DisabledException("Account locked or credentials changed for: " + claims.getSubject());
+        }
+        if (!accountStatusRegistry.isRoleCurrent(claims)) {
+            // Rolle seit Token-Ausstellung geändert - Berechtigungen aus der DB
+            log.debug("Role of {} changed since token issue, loading user", claims.getSubject());
+            return null;
+        }
+        return principal;
     }
 
     /**
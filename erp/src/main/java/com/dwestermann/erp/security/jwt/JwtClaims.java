@@ -0,0 +1,46 @@
+package com.dwestermann.erp.security.jwt;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a JWT whose signature has already been verified.
+ * Wird einmal pro Token erzeugt und im {@link JwtClaimsCache} wiederverwendet.
+ */
+@Value
+@Builder
+public class JwtClaims {
+
+    String tokenId;
+    String subject;
+    String tenantId;
+    String userId;
+    String role;
+    String tokenType;
+    // Millisekunden-Genauigkeit (Claim issuedAtMs), bei älteren Tokens iat
+    Instant issuedAt;
+    Instant expiresAt;
+
+    /**
+     * Check if token is expired at the given point in time
+     */
+    public boolean isExpiredAt(Instant instant) {
+        return expiresAt != null && !expiresAt.isAfter(instant);
+    }
+
+    /**
+     * Check if token is expired now
+     */
+    public boolean isExpired() {
+        return isExpiredAt(Instant.now());
+    }
+
+    /**
+     * Check if this is a refresh token
+     */
+    public boolean isRefreshToken() {
+        return "refresh".equals(tokenType);
+    }
+}
@@ -0,0 +1,95 @@
+package com.dwestermann.erp.security.jwt;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.function.Function;
+
+/**
+ * Bounded cache for verified JWT claims.
+ * Key ist der SHA-256 Digest des Tokens (der Token selbst wird nicht gehalten),
+ * jeder Eintrag läuft zusammen mit dem Token ab.
+ */
+@Component
+@Slf4j
+public class JwtClaimsCache {
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final Cache<String, JwtClaims> cache;
+
+    public JwtClaimsCache(@Value("${jwt.claims-cache.max-size:10000}") long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .build();
+
+        log.info("JWT claims cache initialized with maximum size {}", maximumSize);
+    }
+
+    /**
+     * Return cached claims for the token or verify it once with the given parser.
+     * Invalid tokens are never cached - the parser exception is passed through.
+     */
+    public JwtClaims get(String token, Function<String, JwtClaims> parser) {
+        return cache.get(digest(token), key -> parser.apply(token));
+    }
+
+    /**
+     * Remove a token from the cache
+     */
+    public void invalidate(String token) {
+        cache.invalidate(digest(token));
+    }
+
+    /**
+     * Approximate number of cached tokens
+     */
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private String digest(String token) {
+        try {
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            return HEX.formatHex(messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Entries expire exactly when the token expires
+     */
+    private static final class TokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            if (claims.getExpiresAt() == null) {
+                return 0L;
+            }
+            long remaining = Duration.between(Instant.now(), claims.getExpiresAt()).toNanos();
+            return Math.max(remaining, 0L);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
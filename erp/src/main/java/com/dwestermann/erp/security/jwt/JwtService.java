@@ -2,25 +2,34 @@ package com.dwestermann.erp.security.jwt;
 
 import com.dwestermann.erp.security.entity.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
-import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
 
+    // iat hat nur Sekunden-Genauigkeit - Revocation vergleicht in Millisekunden
+    static final String ISSUED_AT_MILLIS_CLAIM = "issuedAtMs";
+
+    private final JwtClaimsCache claimsCache;
+
     @Value("${jwt.secret-key}")
     private String secretKey;
 
@@ -30,32 +39,101 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    // Signing key und Parser werden einmalig (lazy) aus dem Secret aufgebaut
+    private volatile SecretKey signingKey;
+    private volatile JwtParser jwtParser;
+
+    /**
+     * Build signing key and parser once from the configured secret
+     */
+    synchronized void initSigningKey() {
+        if (jwtParser != null) {
+            return;
+        }
+        SecretKey key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        this.signingKey = key;
+        this.jwtParser = Jwts.parser()
+                .verifyWith(key)
+                .build();
+    }
+
+    private JwtParser parser() {
+        if (jwtParser == null) {
+            initSigningKey();
+        }
+        return jwtParser;
+    }
+
+    private SecretKey signingKey() {
+        if (signingKey == null) {
+            initSigningKey();
+        }
+        return signingKey;
+    }
+
+    /**
+     * Verify token signature and expiration once and return the immutable claims.
+     * Verified claims are served from the cache until the token expires.
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtClaims resolveClaims(String token) {
+        return claimsCache.get(token, this::parseToken);
+    }
+
+    /**
+     * Verify and parse token without the cache
+     */
+    public JwtClaims parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+
+        return JwtClaims.builder()
+                .tokenId(claims.getId())
+                .subject(claims.getSubject())
+                .tenantId(claims.get("tenant", String.class))
+                .userId(claims.get("userId", String.class))
+                .role(claims.get("role", String.class))
+                .tokenType(claims.get("type", String.class))
+                .issuedAt(issuedAt(claims))
+                .expiresAt(claims.getExpiration() != null ? claims.getExpiration().toInstant() : null)
+                .build();
+    }
+
+    private static Instant issuedAt(Claims claims) {
+        Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+        if (issuedAtMillis != null) {
+            return Instant.ofEpochMilli(issuedAtMillis);
+        }
+        // Tokens ohne Millisekunden-Claim: iat (abgerundet auf die Sekunde)
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null;
+    }
+
     /**
      * Extract username from JWT token
      */
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return resolveClaims(token).getSubject();
     }
 
     /**
      * Extract tenant ID from JWT token
      */
     public String extractTenantId(String token) {
-        return extractClaim(token, claims -> claims.get("tenant", String.class));
+        return resolveClaims(token).getTenantId();
     }
 
     /**
      * Extract role from JWT token
      */
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return resolveClaims(token).getRole();
     }
 
     /**
      * Extract user ID from JWT token
      */
     public String extractUserId(String token) {
-        return extractClaim(token, claims -> claims.get("userId", String.class));
+        return resolveClaims(token).getUserId();
     }
 
     /**
@@ -135,8 +213,15 @@ public class JwtService {
      * Validate token against user details
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        JwtClaims claims = resolveClaims(token);
+        return isTokenValid(claims, userDetails);
+    }
+
+    /**
+     * Validate already verified claims against user details
+     */
+    public boolean isTokenValid(JwtClaims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && !claims.isExpired();
     }
 
     /**
@@ -144,34 +229,18 @@ public class JwtService {
      */
     public boolean isTokenValid(String token) {
         try {
-            return !isTokenExpired(token);
+            return !resolveClaims(token).isExpired();
         } catch (Exception e) {
             log.warn("Token validation failed: {}", e.getMessage());
             return false;
         }
     }
 
-    /**
-     * Check if token is expired
-     */
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
-    }
-
-    /**
-     * Extract expiration date from token
-     */
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
     /**
      * Extract all claims from token
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith((SecretKey) getSignInKey())
-                .build()
+        return parser()
                 .parseSignedClaims(token)
                 .getPayload();
     }
@@ -180,12 +249,15 @@ public class JwtService {
      * Build JWT token
      */
     private String buildToken(Map<String, Object> extraClaims, String subject, long expiration) {
+        long now = System.currentTimeMillis();
         return Jwts.builder()
                 .claims(extraClaims)
+                .claim(ISSUED_AT_MILLIS_CLAIM, now)
+                .id(UUID.randomUUID().toString())
                 .subject(subject)
-                .issuedAt(new Date(System.currentTimeMillis()))
-                .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .issuedAt(new Date(now))
+                .expiration(new Date(now + expiration))
+                .signWith(signingKey())
                 .compact();
     }
 
@@ -223,12 +295,4 @@ public class JwtService {
         }
         return extractTokenFromHeader(authHeader);
     }
-
-    /**
-     * Get signing key from secret
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.dwestermann.erp.security.jwt;
+
+import com.dwestermann.erp.security.entity.Role;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal built from verified JWT claims only (claims-only authentication mode).
+ * Enthält keine Passwortdaten - Lock-Status wird über den UserAccountStatusRegistry geprüft.
+ */
+@Getter
+@ToString
+@EqualsAndHashCode(of = {"userId", "tenantId"})
+public class JwtUserPrincipal implements UserDetails {
+
+    private final String userId;
+    private final String email;
+    private final String tenantId;
+    private final Role role;
+    private final List<? extends GrantedAuthority> authorities;
+
+    public JwtUserPrincipal(String userId, String email, String tenantId, Role role) {
+        this.userId = userId;
+        this.email = email;
+        this.tenantId = tenantId;
+        this.role = role;
+        this.authorities = role.getAuthorities();
+    }
+
+    /**
+     * Create principal from claims, returns null if the token lacks the required claims
+     */
+    public static JwtUserPrincipal fromClaims(JwtClaims claims) {
+        if (claims.getSubject() == null || claims.getUserId() == null
+                || claims.getTenantId() == null || claims.getRole() == null) {
+            return null;
+        }
+        try {
+            return new JwtUserPrincipal(claims.getUserId(), claims.getSubject(),
+                    claims.getTenantId(), Role.valueOf(claims.getRole()));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+}
@@ -0,0 +1,152 @@
+package com.dwestermann.erp.security.jwt;
+
+import com.dwestermann.erp.common.collection.BloomFilter;
+import com.dwestermann.erp.common.timing.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation store for JWTs (Logout / erzwungene Abmeldung).
+ * Widerrufene Tokens werden über ihre jti geführt: ein Bloom-Filter beantwortet den
+ * Normalfall "nicht widerrufen" ohne exakten Lookup, Einträge werden über ein
+ * Timing Wheel zum Ablaufzeitpunkt des Tokens entfernt.
+ */
+@Component
+@Slf4j
+public class TokenRevocationStore {
+
+    private static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+    private final int expectedRevocations;
+    private final Duration maxTokenLifetime;
+
+    // jti -> Ablaufzeitpunkt des Tokens
+    private final Map<String, Instant> revokedTokens = new ConcurrentHashMap<>();
+
+    // tenant:userId -> alle vorher ausgestellten Tokens sind widerrufen
+    private final Map<String, Instant> revokedBefore = new ConcurrentHashMap<>();
+
+    private final HierarchicalTimingWheel<Revocation> expiryWheel =
+            new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 4, Instant.now());
+
+    private volatile BloomFilter filter;
+    private int filterCapacity;
+    private int insertedSinceRebuild;
+    private int evictedSinceRebuild;
+
+    public TokenRevocationStore(
+            @Value("${jwt.revocation.expected-revocations:10000}") int expectedRevocations,
+            @Value("${jwt.refresh-expiration}") long refreshExpirationMs) {
+        this.expectedRevocations = expectedRevocations;
+        this.maxTokenLifetime = Duration.ofMillis(refreshExpirationMs);
+        this.filterCapacity = expectedRevocations;
+        this.filter = BloomFilter.create(expectedRevocations, FALSE_POSITIVE_PROBABILITY);
+    }
+
+    /**
+     * Check if the verified token has been revoked
+     */
+    public boolean isRevoked(JwtClaims claims) {
+        String tokenId = claims.getTokenId();
+        if (tokenId != null && filter.mightContain(tokenId) && revokedTokens.containsKey(tokenId)) {
+            return true;
+        }
+
+        if (!revokedBefore.isEmpty() && claims.getIssuedAt() != null) {
+            Instant notBefore = revokedBefore.get(userKey(claims.getTenantId(), claims.getUserId()));
+            return notBefore != null && claims.getIssuedAt().isBefore(notBefore);
+        }
+        return false;
+    }
+
+    /**
+     * Revoke a single token until it expires
+     */
+    public synchronized void revoke(JwtClaims claims) {
+        if (claims.getTokenId() == null || claims.getExpiresAt() == null) {
+            log.debug("Token without jti/exp cannot be revoked individually");
+            return;
+        }
+        if (!expiryWheel.schedule(new Revocation(claims.getTokenId(), false), claims.getExpiresAt())) {
+            return; // bereits abgelaufen
+        }
+
+        revokedTokens.put(claims.getTokenId(), claims.getExpiresAt());
+        filter.put(claims.getTokenId());
+        insertedSinceRebuild++;
+
+        if (insertedSinceRebuild > filterCapacity) {
+            rebuildFilter();
+        }
+    }
+
+    /**
+     * Forced sign-out: revoke all tokens of the user issued before now
+     */
+    public synchronized void revokeAllForUser(String tenantId, String userId) {
+        // Ausstellungszeit der Tokens in Millisekunden (JwtClaims.issuedAt) - danach ausgestellte bleiben gültig
+        Instant notBefore = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        String key = userKey(tenantId, userId);
+        revokedBefore.put(key, notBefore);
+        expiryWheel.schedule(new Revocation(key, true), notBefore.plus(maxTokenLifetime));
+        log.info("Revoked all tokens of user {} in tenant {}", userId, tenantId);
+    }
+
+    /**
+     * Number of individually revoked tokens still tracked
+     */
+    public int size() {
+        return revokedTokens.size();
+    }
+
+    // ==================== EXPIRY ====================
+
+    /**
+     * Remove revocations of expired tokens and rebuild the filter when it is mostly stale
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.eviction-interval:1000}")
+    public synchronized void evictExpired() {
+        Instant now = Instant.now();
+        expiryWheel.advance(now, revocation -> {
+            if (revocation.user()) {
+                revokedBefore.computeIfPresent(revocation.key(),
+                        (key, notBefore) -> notBefore.plus(maxTokenLifetime).isAfter(now) ? notBefore : null);
+            } else if (revokedTokens.remove(revocation.key()) != null) {
+                evictedSinceRebuild++;
+            }
+        });
+
+        // Bloom-Filter kann nicht löschen - neu aufbauen, wenn überwiegend abgelaufene Einträge drin sind
+        if (evictedSinceRebuild > 0 && evictedSinceRebuild >= revokedTokens.size()) {
+            rebuildFilter();
+        }
+    }
+
+    private void rebuildFilter() {
+        int live = revokedTokens.size();
+        int capacity = Math.max(expectedRevocations, live * 2);
+        BloomFilter rebuilt = BloomFilter.create(capacity, FALSE_POSITIVE_PROBABILITY);
+        revokedTokens.keySet().forEach(rebuilt::put);
+
+        this.filter = rebuilt;
+        this.filterCapacity = capacity;
+        this.insertedSinceRebuild = live;
+        this.evictedSinceRebuild = 0;
+        log.debug("Rebuilt revocation filter for {} tokens (capacity {})", live, capacity);
+    }
+
+    private static String userKey(String tenantId, String userId) {
+        return tenantId + ":" + userId;
+    }
+
+    private record Revocation(String key, boolean user) {
+    }
+}
@@ -0,0 +1,164 @@
+package com.dwestermann.erp.security.ratelimit;
+
+import com.dwestermann.erp.security.exception.RateLimitExceededException;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-process rate limiter for the /api/auth endpoints.
+ * Zwei Ebenen: pro Tenant+Email (Credential Stuffing auf ein Konto) und pro Client-IP.
+ * Buckets liegen in einer ConcurrentHashMap (Acquire per CAS im Bucket, kein Lock) und werden entfernt,
+ * sobald sie wieder voll sind.
+ */
+@Component
+@Slf4j
+public class AuthRateLimiter {
+
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final BucketScope identityScope;
+    private final BucketScope ipScope;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public AuthRateLimiter(
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${auth.rate-limit.enabled:true}") boolean enabled,
+            @Value("${auth.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+            @Value("${auth.rate-limit.identity.capacity:10}") int identityCapacity,
+            @Value("${auth.rate-limit.identity.refill-period:60s}") Duration identityRefillPeriod,
+            @Value("${auth.rate-limit.ip.capacity:60}") int ipCapacity,
+            @Value("${auth.rate-limit.ip.refill-period:60s}") Duration ipRefillPeriod) {
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), enabled, trustForwardedFor,
+                identityCapacity, identityRefillPeriod, ipCapacity, ipRefillPeriod, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source in nanos (Tests: manuell vorgestellte Uhr)
+     */
+    AuthRateLimiter(MeterRegistry meterRegistry, boolean enabled, boolean trustForwardedFor,
+                    int identityCapacity, Duration identityRefillPeriod, int ipCapacity, Duration ipRefillPeriod,
+                    LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.nanoClock = nanoClock;
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.identityScope = new BucketScope("identity", identityCapacity, identityRefillPeriod);
+        this.ipScope = new BucketScope("ip", ipCapacity, ipRefillPeriod);
+    }
+
+    /**
+     * Check the limits for an auth endpoint, throws {@link RateLimitExceededException} if exceeded.
+     * IP wird zuerst geprüft, damit ein einzelner Client keine Identity-Buckets leeren kann.
+     *
+     * @param endpoint name of the endpoint (metric tag)
+     * @param email    email of the request or null (z.B. refresh)
+     */
+    public void check(String endpoint, String email, HttpServletRequest request) {
+        if (!enabled) {
+            return;
+        }
+
+        long now = nanoClock.getAsLong();
+        ipScope.acquire(endpoint, resolveClientIp(request), now);
+
+        if (email != null && !email.isBlank()) {
+            String tenantId = TenantContext.getTenantId();
+            identityScope.acquire(endpoint, tenantId + ":" + email.trim().toLowerCase(Locale.ROOT), now);
+        }
+    }
+
+    /**
+     * Drop full buckets so idle clients do not keep memory
+     */
+    @Scheduled(fixedDelayString = "${auth.rate-limit.eviction-interval:60000}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        int evicted = identityScope.evictIdle(now) + ipScope.evictIdle(now);
+        if (evicted > 0) {
+            log.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    private String resolveClientIp(HttpServletRequest request) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma > 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Buckets of one limit type
+     */
+    private final class BucketScope {
+
+        private final String name;
+        private final int capacity;
+        private final long emissionIntervalNanos;
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+        BucketScope(String name, int capacity, Duration refillPeriod) {
+            this.name = name;
+            this.capacity = capacity;
+            this.emissionIntervalNanos = Math.max(1, refillPeriod.toNanos() / capacity);
+            Gauge.builder("auth.rate_limit.buckets", this, BucketScope::size)
+                    .description("Active rate limit buckets")
+                    .tag("scope", name)
+                    .register(meterRegistry);
+        }
+
+        void acquire(String endpoint, String key, long now) {
+            // get() zuerst: vorhandene Buckets ohne Lock auf dem Map-Bin
+            TokenBucket bucket = buckets.get(key);
+            if (bucket == null) {
+                bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(capacity, emissionIntervalNanos, now));
+            }
+
+            long waitNanos = bucket.tryAcquire(now);
+            if (waitNanos > 0) {
+                rejections.computeIfAbsent(endpoint, e -> Counter.builder("auth.rate_limit.rejected")
+                        .description("Auth requests rejected by the rate limiter")
+                        .tag("scope", name)
+                        .tag("endpoint", e)
+                        .register(meterRegistry)).increment();
+
+                long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+                log.debug("Rate limit exceeded for {} on /api/auth/{} (retry after {}s)", name, endpoint, retryAfter);
+                throw new RateLimitExceededException("Too many requests, please retry later", retryAfter);
+            }
+        }
+
+        int evictIdle(long now) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isIdle(now));
+            return before - buckets.size();
+        }
+
+        int size() {
+            return buckets.size();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.dwestermann.erp.security.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket as GCRA (generic cell rate algorithm).
+ * Der gesamte Zustand ist ein einzelner AtomicLong ("theoretical arrival time"),
+ * ein Acquire ist ein CAS ohne Lock und ohne Allokation.
+ */
+final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    /**
+     * @param capacity              maximum burst size
+     * @param emissionIntervalNanos time to refill one token
+     * @param nowNanos              creation time (bucket starts full)
+     */
+    TokenBucket(int capacity, long emissionIntervalNanos, long nowNanos) {
+        this.emissionIntervalNanos = emissionIntervalNanos;
+        this.burstToleranceNanos = emissionIntervalNanos * capacity;
+        this.theoreticalArrivalTime = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Try to take one token
+     *
+     * @return 0 if granted, otherwise nanos until the next token is available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long newTat = Math.max(tat, nowNanos) + emissionIntervalNanos;
+            long waitNanos = newTat - nowNanos - burstToleranceNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, newTat)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Bucket is full again and can be dropped without changing behavior
+     */
+    boolean isIdle(long nowNanos) {
+        return theoreticalArrivalTime.get() <= nowNanos;
+    }
+}
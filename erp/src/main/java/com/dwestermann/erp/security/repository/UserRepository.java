@@ -1,5 +1,6 @@
 package com.dwestermann.erp.security.repository;
 
+import com.dwestermann.erp.security.dto.UserAccountStatus;
 import com.dwestermann.erp.security.entity.Role;
 import com.dwestermann.erp.security.entity.User;
 import org.springframework.data.domain.Page;
@@ -155,6 +156,15 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     List<User> findInactiveUsersSince(@Param("tenantId") String tenantId,
                                       @Param("since") LocalDateTime since);
 
+    /**
+     * Load lock state and role of locked users and users changed recently (Passwort, Rolle)
+     * (Revocation-Tabelle für claims-only Authentication)
+     */
+    @Query("SELECT new com.dwestermann.erp.security.dto.UserAccountStatus(" +
+            "u.id, u.tenantId, u.accountLocked, u.passwordChangedAt, u.role) FROM User u " +
+            "WHERE u.accountLocked = true OR u.passwordChangedAt > :since OR u.updatedAt > :since")
+    List<UserAccountStatus> findAccountStatusChangedSince(@Param("since") LocalDateTime since);
+
     // ========================================
     // Password Reset & Email Verification
     // ========================================
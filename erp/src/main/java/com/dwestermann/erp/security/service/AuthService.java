@@ -6,7 +6,9 @@ import com.dwestermann.erp.security.entity.Role;
 import com.dwestermann.erp.security.exception.AuthenticationException;
 import com.dwestermann.erp.security.exception.UserAlreadyExistsException;
 import com.dwestermann.erp.security.exception.InvalidPasswordException;
+import com.dwestermann.erp.security.jwt.JwtClaims;
 import com.dwestermann.erp.security.jwt.JwtService;
+import com.dwestermann.erp.security.jwt.TokenRevocationStore;
 import com.dwestermann.erp.security.repository.UserRepository;
 import com.dwestermann.erp.tenant.context.TenantContext;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +35,9 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserAccountStatusRegistry accountStatusRegistry;
+    private final LoginActivityBuffer loginActivityBuffer;
+    private final TokenRevocationStore revocationStore;
 
     /**
      * Authenticate user and return JWT tokens
@@ -54,15 +59,13 @@ public class AuthService {
             User user = userRepository.findByEmailAndTenantId(request.getEmail(), tenantId)
                     .orElseThrow(() -> new AuthenticationException("User not found"));
 
-            // Check if account is locked
-            if (user.isAccountLocked()) {
+            // Check if account is locked (also lockouts not yet flushed)
+            if (user.isAccountLocked() || loginActivityBuffer.isLocked(user.getId())) {
                 throw new AuthenticationException("Account is locked");
             }
 
-            // Update last login and reset failed attempts
-            user.setLastLoginAt(LocalDateTime.now());
-            user.resetFailedLoginAttempts(); // Use the method from User entity
-            userRepository.save(user);
+            // Update last login and reset failed attempts (write-behind, kein save() pro Login)
+            loginActivityBuffer.recordSuccess(user);
 
             // Generate tokens
             String accessToken = jwtService.generateToken(user);
@@ -157,7 +160,8 @@ public class AuthService {
     public AuthResponse refreshToken(String refreshToken) {
         String tenantId = TenantContext.getTenantId();
 
-        if (!jwtService.isTokenValid(refreshToken)) {
+        if (!jwtService.isTokenValid(refreshToken)
+                || revocationStore.isRevoked(jwtService.resolveClaims(refreshToken))) {
             throw new AuthenticationException("Invalid refresh token");
         }
 
@@ -165,7 +169,8 @@ public class AuthService {
         User user = userRepository.findByEmailAndTenantId(userEmail, tenantId)
                 .orElseThrow(() -> new AuthenticationException("User not found"));
 
-        if (user.isAccountLocked()) {
+        // Wie beim Login auch Lockouts prüfen, die noch nicht geschrieben sind
+        if (user.isAccountLocked() || loginActivityBuffer.isLocked(user.getId())) {
             throw new AuthenticationException("Account is locked");
         }
 
@@ -190,15 +195,25 @@ public class AuthService {
     }
 
     /**
-     * Logout user by invalidating refresh token
+     * Logout user by revoking refresh token and (if present) the current access token
      */
-    public void logout(String refreshToken) {
-        // In a real implementation, you would maintain a blacklist of tokens
-        // or store refresh tokens in database/Redis for proper invalidation
+    public void logout(String refreshToken, String accessToken) {
+        revokeIfValid(refreshToken);
+        if (accessToken != null) {
+            revokeIfValid(accessToken);
+        }
+
         log.info("User logged out with refresh token ending in: {}",
                 refreshToken.substring(Math.max(0, refreshToken.length() - 10)));
     }
 
+    /**
+     * Forced sign-out - revokes all tokens of the user issued so far
+     */
+    public void forceSignOut(User user) {
+        revocationStore.revokeAllForUser(user.getTenantId(), user.getId().toString());
+    }
+
     /**
      * Get current authenticated user information
      */
@@ -259,6 +274,10 @@ public class AuthService {
 
         userRepository.save(user);
 
+        // Ältere Tokens sofort ungültig machen
+        accountStatusRegistry.markCredentialsChanged(user.getId(), tenantId, user.getPasswordChangedAt());
+        forceSignOut(user);
+
         log.info("Password changed successfully for user {} in tenant {}", userEmail, tenantId);
     }
 
@@ -283,22 +302,30 @@ public class AuthService {
                 });
     }
 
+    /**
+     * Revoke token until it expires, invalid or expired tokens are ignored
+     */
+    private void revokeIfValid(String token) {
+        try {
+            JwtClaims claims = jwtService.resolveClaims(token);
+            revocationStore.revoke(claims);
+        } catch (Exception e) {
+            log.debug("Ignoring invalid token on logout: {}", e.getMessage());
+        }
+    }
+
     /**
      * Handle failed login attempts
      */
     private void handleFailedLoginAttempt(String email, String tenantId) {
         userRepository.findByEmailAndTenantId(email, tenantId)
                 .ifPresent(user -> {
-                    user.incrementFailedLoginAttempts();
-
-                    // Lock account after 5 failed attempts
-                    if (user.getFailedLoginAttempts() >= 5) {
-                        user.lockAccount();
+                    // Lock account after max failed attempts (exakter In-Memory Zähler)
+                    if (loginActivityBuffer.recordFailure(user)) {
+                        accountStatusRegistry.markLocked(user.getId(), tenantId);
                         log.warn("Account locked for user {} in tenant {} due to {} failed login attempts",
-                                email, tenantId, user.getFailedLoginAttempts());
+                                email, tenantId, loginActivityBuffer.getFailedAttempts(user.getId()));
                     }
-
-                    userRepository.save(user);
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,236 @@
+package com.dwestermann.erp.security.service;
+
+import com.dwestermann.erp.security.entity.User;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Write-behind buffer for login bookkeeping (last login, failed attempts, lockout).
+ * Updates werden pro User zusammengefasst und periodisch per JDBC Batch geschrieben - je ein Batch für den Shared
+ * Pool und für jeden Tenant mit eigener DB. Lockout-Entscheidungen laufen über einen exakten In-Memory Zähler.
+ */
+@Service
+@Slf4j
+public class LoginActivityBuffer {
+
+    private static final String UPDATE_ACTIVITY_SQL =
+            "UPDATE users SET last_login_at = COALESCE(?, last_login_at), failed_login_attempts = ? WHERE id = ?";
+
+    private static final String UPDATE_LOCK_SQL =
+            "UPDATE users SET is_account_locked = TRUE, account_locked_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectProvider<TenantRoutingDataSource> routingDataSource;
+    private final int maxFailedAttempts;
+
+    // Fehlversuche pro User - Quelle für Lockout-Entscheidungen bis zum nächsten Flush
+    private final Map<UUID, Integer> failedAttempts = new ConcurrentHashMap<>();
+
+    // Noch nicht geschriebene Änderungen, pro User zusammengefasst
+    private final Map<UUID, LoginActivity> pending = new ConcurrentHashMap<>();
+
+    public LoginActivityBuffer(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ObjectProvider<TenantRoutingDataSource> routingDataSource,
+            @Value("${auth.lockout.max-failed-attempts:5}") int maxFailedAttempts) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.routingDataSource = routingDataSource;
+        this.maxFailedAttempts = maxFailedAttempts;
+    }
+
+    /**
+     * Record successful login - sets last login and resets failed attempts
+     */
+    public void recordSuccess(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        failedAttempts.compute(user.getId(), (id, attempts) -> {
+            pending.merge(id, new LoginActivity(user.getTenantId(), now, 0, null), LoginActivity::merge);
+            return 0;
+        });
+    }
+
+    /**
+     * Record failed login attempt
+     *
+     * @return true if the account is locked by this attempt
+     */
+    public boolean recordFailure(User user) {
+        LocalDateTime now = LocalDateTime.now();
+        boolean[] lockedNow = new boolean[1];
+
+        failedAttempts.compute(user.getId(), (id, attempts) -> {
+            int current = attempts != null ? attempts : user.getFailedLoginAttempts();
+            int updated = current + 1;
+            lockedNow[0] = current < maxFailedAttempts && updated >= maxFailedAttempts;
+
+            pending.merge(id, new LoginActivity(user.getTenantId(), null, updated, lockedNow[0] ? now : null),
+                    LoginActivity::merge);
+            return updated;
+        });
+
+        return lockedNow[0];
+    }
+
+    /**
+     * Check if the account is locked by attempts not yet written to the database
+     */
+    public boolean isLocked(UUID userId) {
+        Integer attempts = failedAttempts.get(userId);
+        return attempts != null && attempts >= maxFailedAttempts;
+    }
+
+    /**
+     * Current number of failed attempts (buffered value or null if not tracked)
+     */
+    public Integer getFailedAttempts(UUID userId) {
+        return failedAttempts.get(userId);
+    }
+
+    // ==================== FLUSH ====================
+
+    /**
+     * Write buffered updates in JDBC batches (kein Version-Bump, kein Entity-Load)
+     */
+    @Scheduled(fixedDelayString = "${auth.login-activity.flush-interval:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, LoginActivity> drained = drain();
+        if (drained.isEmpty()) {
+            return;
+        }
+
+        // Nach Ziel-DB gruppieren: Shared Pool (null) und jeder Tenant mit eigener DB
+        TenantRoutingDataSource routing = routingDataSource.getIfAvailable();
+        Map<String, Map<UUID, LoginActivity>> byTarget = new HashMap<>();
+        drained.forEach((userId, activity) -> {
+            String target = routing != null && routing.isRouted(activity.tenantId()) ? activity.tenantId() : null;
+            byTarget.computeIfAbsent(target, tenantId -> new LinkedHashMap<>()).put(userId, activity);
+        });
+
+        // Die Connection wird beim Transaktionsbeginn über den TenantContext gewählt
+        byTarget.forEach((tenantId, activities) -> TenantContext.runWithTenant(tenantId, () -> write(tenantId, activities)));
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(String tenantId, Map<UUID, LoginActivity> activities) {
+        String target = tenantId != null ? "tenant " + tenantId : "shared pool";
+        List<UUID> userIds = new ArrayList<>(activities.keySet());
+        List<Object[]> activityArgs = new ArrayList<>(userIds.size());
+        List<Object[]> lockArgs = new ArrayList<>();
+        for (UUID userId : userIds) {
+            LoginActivity activity = activities.get(userId);
+            activityArgs.add(new Object[]{toTimestamp(activity.lastLoginAt()), activity.failedAttempts(), userId});
+            if (activity.lockedAt() != null) {
+                lockArgs.add(new Object[]{toTimestamp(activity.lockedAt()), userId});
+            }
+        }
+
+        try {
+            int[] updated = transactionTemplate.execute(status -> {
+                int[] rows = jdbcTemplate.batchUpdate(UPDATE_ACTIVITY_SQL, activityArgs);
+                if (!lockArgs.isEmpty()) {
+                    jdbcTemplate.batchUpdate(UPDATE_LOCK_SQL, lockArgs);
+                }
+                return rows;
+            });
+
+            // 0 Zeilen: User existiert in dieser DB nicht (mehr) - nicht still verwerfen, Zähler bleibt im Speicher
+            Set<UUID> missing = new HashSet<>();
+            for (int i = 0; i < updated.length; i++) {
+                if (updated[i] == 0) {
+                    missing.add(userIds.get(i));
+                }
+            }
+            if (!missing.isEmpty()) {
+                log.warn("Login activity of {} users matched no row in {}: {}", missing.size(), target, missing);
+            }
+
+            // Zähler verwerfen, wenn die DB jetzt denselben Stand hat
+            activities.forEach((userId, activity) -> {
+                if (!missing.contains(userId)) {
+                    failedAttempts.computeIfPresent(userId, (id, attempts) ->
+                            attempts == activity.failedAttempts() && !pending.containsKey(id) ? null : attempts);
+                }
+            });
+
+            log.debug("Flushed login activity for {} users to {} ({} lockouts)",
+                    activityArgs.size() - missing.size(), target, lockArgs.size());
+        } catch (Exception e) {
+            log.error("Failed to flush login activity for {} users to {}, will retry: {}",
+                    activities.size(), target, e.getMessage());
+            // Zurück in den Buffer - neuere Änderungen haben Vorrang
+            activities.forEach((userId, activity) -> failedAttempts.compute(userId, (id, attempts) -> {
+                pending.merge(id, activity, (newer, older) -> LoginActivity.merge(older, newer));
+                return attempts;
+            }));
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private Map<UUID, LoginActivity> drain() {
+        Map<UUID, LoginActivity> drained = new HashMap<>();
+        for (UUID userId : new ArrayList<>(pending.keySet())) {
+            // Unter dem Zähler-Lock entfernen, damit Zähler und Buffer konsistent bleiben
+            failedAttempts.compute(userId, (id, attempts) -> {
+                LoginActivity activity = pending.remove(id);
+                if (activity != null) {
+                    drained.put(id, activity);
+                }
+                return attempts;
+            });
+        }
+        return drained;
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime dateTime) {
+        return dateTime != null ? Timestamp.valueOf(dateTime) : null;
+    }
+
+    /**
+     * Coalesced bookkeeping state of one user, failedAttempts is the absolute value to write
+     */
+    private record LoginActivity(String tenantId, LocalDateTime lastLoginAt, int failedAttempts,
+                                 LocalDateTime lockedAt) {
+
+        static LoginActivity merge(LoginActivity older, LoginActivity newer) {
+            LocalDateTime lastLogin = older.lastLoginAt();
+            if (lastLogin == null || (newer.lastLoginAt() != null && newer.lastLoginAt().isAfter(lastLogin))) {
+                lastLogin = newer.lastLoginAt();
+            }
+            return new LoginActivity(newer.tenantId(), lastLogin, newer.failedAttempts(),
+                    older.lockedAt() != null ? older.lockedAt() : newer.lockedAt());
+        }
+    }
+}
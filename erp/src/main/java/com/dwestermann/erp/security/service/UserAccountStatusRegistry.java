@@ -0,0 +1,212 @@
+package com.dwestermann.erp.security.service;
+
+import com.dwestermann.erp.security.dto.UserAccountStatus;
+import com.dwestermann.erp.security.entity.Role;
+import com.dwestermann.erp.security.jwt.JwtClaims;
+import com.dwestermann.erp.security.repository.UserRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory revocation table for claims-only authentication.
+ * Hält gesperrte User, Passwort-Änderungen (alle Tokens davor sind ungültig) und die Rolle kürzlich geänderter User,
+ * wird im Hintergrund aus dem Shared Pool und jeder Tenant-DB geladen und bei lokalen Änderungen sofort aktualisiert.
+ */
+@Service
+@Slf4j
+public class UserAccountStatusRegistry {
+
+    private final UserRepository userRepository;
+    private final ObjectProvider<TenantRoutingDataSource> routingDataSource;
+    private final boolean enabled;
+    private final Duration refreshInterval;
+    private final Duration tokenLifetime;
+
+    // Snapshot aus der DB, wird bei jedem Refresh komplett ersetzt
+    private volatile Map<String, AccountState> snapshot = Map.of();
+    private volatile Instant lastRefreshAt;
+
+    // Lokale Änderungen, die noch nicht sicher im Snapshot enthalten sind
+    private final Map<String, PendingState> pending = new ConcurrentHashMap<>();
+
+    public UserAccountStatusRegistry(
+            UserRepository userRepository,
+            ObjectProvider<TenantRoutingDataSource> routingDataSource,
+            @Value("${jwt.claims-only-authentication:false}") boolean enabled,
+            @Value("${jwt.account-status.refresh-interval:15000}") long refreshIntervalMs,
+            @Value("${jwt.expiration}") long tokenLifetimeMs) {
+        this.userRepository = userRepository;
+        this.routingDataSource = routingDataSource;
+        this.enabled = enabled;
+        this.refreshInterval = Duration.ofMillis(refreshIntervalMs);
+        this.tokenLifetime = Duration.ofMillis(tokenLifetimeMs);
+    }
+
+    /**
+     * Claims-only mode is active and the table is fresh enough to be trusted.
+     * Ist der letzte erfolgreiche Refresh zu alt, fällt der Filter auf den DB-Lookup zurück.
+     */
+    public boolean isReady() {
+        Instant refreshedAt = lastRefreshAt;
+        return enabled && refreshedAt != null
+                && refreshedAt.plus(refreshInterval.multipliedBy(3)).isAfter(Instant.now());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Check if a token (verified claims) may still be used
+     */
+    public boolean isAccessAllowed(JwtClaims claims) {
+        String key = key(claims.getTenantId(), claims.getUserId());
+        AccountState state = merge(snapshot.get(key), pending.get(key));
+        if (state == null) {
+            return true;
+        }
+        if (state.locked()) {
+            return false;
+        }
+        return state.credentialsChangedAt() == null
+                || claims.getIssuedAt() == null
+                || !claims.getIssuedAt().isBefore(state.credentialsChangedAt());
+    }
+
+    /**
+     * Check if the role claim still matches the stored role.
+     * Rollenänderungen sind mit dem nächsten Refresh sichtbar, der Filter lädt den User dann aus der DB.
+     */
+    public boolean isRoleCurrent(JwtClaims claims) {
+        AccountState state = snapshot.get(key(claims.getTenantId(), claims.getUserId()));
+        return state == null || state.role() == null || state.role().name().equals(claims.getRole());
+    }
+
+    // ==================== LOCAL UPDATES ====================
+
+    /**
+     * Account was locked on this instance
+     */
+    public void markLocked(UUID userId, String tenantId) {
+        if (!enabled || userId == null) {
+            return;
+        }
+        pending.merge(key(tenantId, userId.toString()),
+                new PendingState(new AccountState(true, null, null), Instant.now()),
+                (previous, update) -> new PendingState(
+                        new AccountState(true, previous.state().credentialsChangedAt(), null), update.recordedAt()));
+    }
+
+    /**
+     * Password was changed on this instance - all older tokens are revoked
+     */
+    public void markCredentialsChanged(UUID userId, String tenantId, LocalDateTime changedAt) {
+        if (!enabled || userId == null || changedAt == null) {
+            return;
+        }
+        Instant changed = toInstant(changedAt);
+        pending.merge(key(tenantId, userId.toString()),
+                new PendingState(new AccountState(false, changed, null), Instant.now()),
+                (previous, update) -> new PendingState(
+                        new AccountState(previous.state().locked(), changed, null), update.recordedAt()));
+    }
+
+    // ==================== BACKGROUND REFRESH ====================
+
+    /**
+     * Reload locked users and recent password changes.
+     * Schlägt eine der Datenbanken fehl, bleibt der alte Snapshot - nach 3 Intervallen greift der DB-Lookup.
+     */
+    @Scheduled(fixedDelayString = "${jwt.account-status.refresh-interval:15000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+
+        Instant startedAt = Instant.now();
+        // Nur Passwort-Änderungen innerhalb der Token-Lebensdauer sind relevant
+        LocalDateTime since = LocalDateTime.ofInstant(startedAt.minus(tokenLifetime), ZoneId.systemDefault());
+
+        try {
+            Map<String, AccountState> loaded = new HashMap<>();
+            TenantRoutingDataSource routing = routingDataSource.getIfAvailable();
+            // Shared Pool ohne Tenant (ROOT, alle Tenants) - Tenants mit eigener DB kommen nur aus ihrer DB
+            load(loaded, since, routing);
+            if (routing != null) {
+                for (String tenantId : routing.getRoutedTenants()) {
+                    TenantContext.runWithTenant(tenantId, () -> load(loaded, since, null));
+                }
+            }
+            this.snapshot = Map.copyOf(loaded);
+            this.lastRefreshAt = startedAt;
+
+            // Lokale Änderungen erst entfernen, wenn ein späterer Refresh sie sicher gesehen hat
+            Instant cutoff = startedAt.minus(refreshInterval);
+            pending.values().removeIf(p -> p.recordedAt().isBefore(cutoff));
+
+            log.debug("Refreshed account status table: {} entries, {} pending local updates",
+                    loaded.size(), pending.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh account status table: {}", e.getMessage());
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    private void load(Map<String, AccountState> loaded, LocalDateTime since, TenantRoutingDataSource skipRouted) {
+        for (UserAccountStatus status : userRepository.findAccountStatusChangedSince(since)) {
+            if (skipRouted != null && skipRouted.isRouted(status.getTenantId())) {
+                continue;
+            }
+            loaded.put(key(status.getTenantId(), status.getUserId().toString()),
+                    new AccountState(status.isAccountLocked(), toInstant(status.getPasswordChangedAt()),
+                            status.getRole()));
+        }
+    }
+
+    private static AccountState merge(AccountState stored, PendingState local) {
+        if (local == null) {
+            return stored;
+        }
+        if (stored == null) {
+            return local.state();
+        }
+        Instant changedAt = stored.credentialsChangedAt();
+        Instant localChangedAt = local.state().credentialsChangedAt();
+        if (changedAt == null || (localChangedAt != null && localChangedAt.isAfter(changedAt))) {
+            changedAt = localChangedAt;
+        }
+        return new AccountState(stored.locked() || local.state().locked(), changedAt, stored.role());
+    }
+
+    private static Instant toInstant(LocalDateTime dateTime) {
+        // Ausstellungszeit der Tokens hat Millisekunden-Genauigkeit (JwtClaims.issuedAt)
+        return dateTime == null ? null
+                : dateTime.atZone(ZoneId.systemDefault()).toInstant().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    private static String key(String tenantId, String userId) {
+        return tenantId + ":" + userId;
+    }
+
+    private record AccountState(boolean locked, Instant credentialsChangedAt, Role role) {
+    }
+
+    private record PendingState(AccountState state, Instant recordedAt) {
+    }
+}
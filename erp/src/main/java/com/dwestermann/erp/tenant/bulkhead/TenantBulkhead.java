@@ -0,0 +1,181 @@
+package com.dwestermann.erp.tenant.bulkhead;
+
+import com.dwestermann.erp.tenant.exception.TenantBulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-tenant concurrency bulkhead for API requests.
+ * Jeder Tenant hat ein eigenes Limit (Basis * Gewicht) und eine kurze Warteschlange,
+ * zusätzlich begrenzt ein globales Limit alle Tenants. Beide Semaphoren sind fair (FIFO),
+ * ein einzelner Tenant kann so nie mehr als seinen Anteil an Threads/Connections belegen.
+ */
+@Component
+@EnableConfigurationProperties(TenantBulkheadProperties.class)
+@Slf4j
+public class TenantBulkhead {
+
+    private static final String UNKNOWN_TENANT = "unknown";
+
+    private final TenantBulkheadProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore globalPermits;
+    private final long queueTimeoutNanos;
+    private final Map<String, TenantState> tenants = new ConcurrentHashMap<>();
+
+    public TenantBulkhead(TenantBulkheadProperties properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.globalPermits = new Semaphore(properties.getMaxConcurrentTotal(), true);
+        this.queueTimeoutNanos = properties.getQueueTimeout().toNanos();
+
+        Gauge.builder("tenant.bulkhead.in_flight", this, TenantBulkhead::getInFlight)
+                .description("Requests currently holding a bulkhead permit")
+                .register(this.meterRegistry);
+        Gauge.builder("tenant.bulkhead.tenants", tenants, Map::size)
+                .description("Tenants with bulkhead state")
+                .register(this.meterRegistry);
+    }
+
+    /**
+     * Acquire a slot for the tenant, throws {@link TenantBulkheadFullException} if the tenant
+     * or the whole instance is at its limit
+     */
+    public Permit acquire(String tenantId) {
+        if (!properties.isEnabled()) {
+            return Permit.NOOP;
+        }
+
+        TenantState state = tenants.computeIfAbsent(tenantId != null ? tenantId : UNKNOWN_TENANT, this::createState);
+        state.lastUsedNanos = System.nanoTime();
+
+        if (!state.enter()) {
+            throw reject(state, "tenant_limit");
+        }
+        if (!tryAcquire(globalPermits)) {
+            state.permits.release();
+            throw reject(state, "global_limit");
+        }
+        return new Permit(state, globalPermits);
+    }
+
+    public int getInFlight() {
+        return properties.getMaxConcurrentTotal() - globalPermits.availablePermits();
+    }
+
+    /**
+     * Drop state of idle tenants
+     */
+    @Scheduled(fixedDelayString = "${tenant.bulkhead.eviction-interval:60000}")
+    public void evictIdleTenants() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        tenants.values().removeIf(state -> state.isIdle(now, idleNanos));
+    }
+
+    private TenantState createState(String tenantId) {
+        double weight = properties.getWeights().getOrDefault(tenantId, 1.0);
+        int limit = Math.max(1, (int) Math.round(properties.getMaxConcurrentPerTenant() * weight));
+        return new TenantState(tenantId, limit);
+    }
+
+    private boolean tryAcquire(Semaphore semaphore) {
+        if (semaphore.tryAcquire()) {
+            return true;
+        }
+        try {
+            return semaphore.tryAcquire(queueTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private TenantBulkheadFullException reject(TenantState state, String reason) {
+        state.rejections.computeIfAbsent(reason, r -> Counter.builder("tenant.bulkhead.rejected")
+                .description("Requests rejected by the tenant bulkhead")
+                .tag("tenant", state.tenantId)
+                .tag("reason", r)
+                .register(meterRegistry)).increment();
+
+        log.debug("Tenant bulkhead full for {} ({})", state.tenantId, reason);
+        return new TenantBulkheadFullException("Too many concurrent requests for tenant, please retry later", 1);
+    }
+
+    /**
+     * Concurrency state of one tenant
+     */
+    private final class TenantState {
+
+        private final String tenantId;
+        private final int limit;
+        private final Semaphore permits;
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+        private volatile long lastUsedNanos = System.nanoTime();
+
+        TenantState(String tenantId, int limit) {
+            this.tenantId = tenantId;
+            this.limit = limit;
+            this.permits = new Semaphore(limit, true);
+        }
+
+        boolean enter() {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            // Kurze Warteschlange: voll -> sofort abweisen statt Threads zu blockieren
+            if (waiting.incrementAndGet() > properties.getMaxQueuePerTenant()) {
+                waiting.decrementAndGet();
+                return false;
+            }
+            try {
+                return tryAcquire(permits);
+            } finally {
+                waiting.decrementAndGet();
+            }
+        }
+
+        boolean isIdle(long now, long idleNanos) {
+            return permits.availablePermits() == limit && waiting.get() == 0 && now - lastUsedNanos > idleNanos;
+        }
+    }
+
+    /**
+     * Slot held by one request, release is idempotent
+     */
+    public static final class Permit {
+
+        static final Permit NOOP = new Permit(null, null);
+
+        private final TenantState state;
+        private final Semaphore globalPermits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(TenantState state, Semaphore globalPermits) {
+            this.state = state;
+            this.globalPermits = globalPermits;
+        }
+
+        public void release() {
+            if (state != null && released.compareAndSet(false, true)) {
+                globalPermits.release();
+                state.permits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.dwestermann.erp.tenant.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Limits for the per-tenant request bulkhead (tenant.bulkhead.*)
+ */
+@Data
+@ConfigurationProperties(prefix = "tenant.bulkhead")
+public class TenantBulkheadProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Gleichzeitige Requests pro Tenant bei Gewicht 1.0
+     */
+    private int maxConcurrentPerTenant = 20;
+
+    /**
+     * Wartende Requests pro Tenant, darüber wird sofort abgewiesen
+     */
+    private int maxQueuePerTenant = 10;
+
+    /**
+     * Maximale Wartezeit auf einen freien Slot
+     */
+    private Duration queueTimeout = Duration.ofMillis(100);
+
+    /**
+     * Gleichzeitige Requests über alle Tenants (unter der Tomcat Thread-Zahl halten)
+     */
+    private int maxConcurrentTotal = 150;
+
+    /**
+     * Tenant ID -> Gewicht, Limit = maxConcurrentPerTenant * Gewicht
+     */
+    private Map<String, Double> weights = new LinkedHashMap<>();
+
+    /**
+     * Idle Tenants werden nach dieser Zeit aus dem Speicher entfernt
+     */
+    private Duration idleTimeout = Duration.ofMinutes(5);
+}
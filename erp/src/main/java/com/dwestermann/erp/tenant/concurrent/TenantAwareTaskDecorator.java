@@ -0,0 +1,15 @@
+package com.dwestermann.erp.tenant.concurrent;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import org.springframework.core.task.TaskDecorator;
+
+/**
+ * Propagates the submitting thread's tenant to tasks of a Spring TaskExecutor (@Async)
+ */
+public class TenantAwareTaskDecorator implements TaskDecorator {
+
+    @Override
+    public Runnable decorate(Runnable runnable) {
+        return TenantContext.wrap(runnable);
+    }
+}
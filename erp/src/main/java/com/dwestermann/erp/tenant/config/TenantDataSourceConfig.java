@@ -0,0 +1,111 @@
+package com.dwestermann.erp.tenant.config;
+
+import com.dwestermann.erp.tenant.datasource.TenantDataSourceProperties;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Database-per-tenant routing (optional, tenant.routing.enabled=true).
+ * Shared Pool aus spring.datasource, dazu ein eigener Hikari Pool pro Eintrag im
+ * Tenant Directory - mit eigenem Limit und eigenen hikaricp_* Metriken (pool=tenant-<id>).
+ * Flyway migriert den Shared Pool und danach jede Tenant-DB, Hibernate ddl-auto sieht nur den Shared Pool.
+ */
+@Configuration
+@EnableConfigurationProperties(TenantDataSourceProperties.class)
+@ConditionalOnProperty(prefix = "tenant.routing", name = "enabled", havingValue = "true")
+@Slf4j
+public class TenantDataSourceConfig {
+
+    @Bean(destroyMethod = "close")
+    @Primary
+    public TenantRoutingDataSource dataSource(DataSourceProperties dataSourceProperties,
+                                              TenantDataSourceProperties routingProperties,
+                                              Environment environment,
+                                              ObjectProvider<MeterRegistry> meterRegistryProvider) {
+
+        MeterRegistry meterRegistry = meterRegistryProvider.getIfAvailable();
+
+        HikariDataSource shared = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // spring.datasource.hikari.* gilt weiterhin für den Shared Pool
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(shared));
+        if (shared.getPoolName() == null) {
+            shared.setPoolName("shared");
+        }
+        applyMetrics(shared, meterRegistry);
+
+        Map<String, HikariDataSource> tenantPools = new LinkedHashMap<>();
+        routingProperties.getTenants().forEach((tenantId, target) ->
+                tenantPools.put(tenantId, createTenantPool(tenantId, target, dataSourceProperties, meterRegistry)));
+
+        log.info("Tenant routing enabled: {} dedicated pool(s) {}", tenantPools.size(), tenantPools.keySet());
+        return new TenantRoutingDataSource(shared, tenantPools);
+    }
+
+    /**
+     * Boot migriert nur die Default-Connection des Routing-Pools (Shared Pool) - danach jede Tenant-DB mit derselben
+     * Konfiguration. Schlägt eine Migration fehl, startet die Anwendung nicht.
+     */
+    @Bean
+    public FlywayMigrationStrategy tenantFlywayMigrationStrategy(TenantRoutingDataSource routingDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            for (String tenantId : routingDataSource.getRoutedTenants()) {
+                log.info("Migrating database of tenant {}", tenantId);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(routingDataSource.getTenantDataSource(tenantId))
+                        .load()
+                        .migrate();
+            }
+        };
+    }
+
+    private HikariDataSource createTenantPool(String tenantId, TenantDataSourceProperties.Target target,
+                                              DataSourceProperties defaults, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("tenant-" + tenantId);
+        dataSource.setJdbcUrl(StringUtils.hasText(target.getUrl()) ? target.getUrl() : defaults.determineUrl());
+        dataSource.setUsername(target.getUsername() != null ? target.getUsername() : defaults.determineUsername());
+        dataSource.setPassword(target.getPassword() != null ? target.getPassword() : defaults.determinePassword());
+        if (StringUtils.hasText(defaults.determineDriverClassName())) {
+            dataSource.setDriverClassName(defaults.determineDriverClassName());
+        }
+        if (StringUtils.hasText(target.getSchema())) {
+            dataSource.setSchema(target.getSchema());
+        }
+        dataSource.setMaximumPoolSize(target.getMaximumPoolSize());
+        dataSource.setMinimumIdle(Math.min(target.getMinimumIdle(), target.getMaximumPoolSize()));
+        dataSource.setConnectionTimeout(target.getConnectionTimeout());
+        applyMetrics(dataSource, meterRegistry);
+
+        log.info("Created connection pool for tenant {} (max {} connections)", tenantId, target.getMaximumPoolSize());
+        return dataSource;
+    }
+
+    private void applyMetrics(HikariDataSource dataSource, MeterRegistry meterRegistry) {
+        if (meterRegistry != null) {
+            dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        }
+    }
+}
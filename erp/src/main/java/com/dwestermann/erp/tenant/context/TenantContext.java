@@ -2,9 +2,17 @@ package com.dwestermann.erp.tenant.context;
 
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
 @Component
 public class TenantContext {
 
+    /**
+     * Request attribute holding the tenant taken from a verified JWT (hat Vorrang vor Header/Subdomain)
+     */
+    public static final String TOKEN_TENANT_ATTRIBUTE = TenantContext.class.getName() + ".TOKEN_TENANT";
+
     private static final ThreadLocal<String> CURRENT_TENANT = new ThreadLocal<>();
 
     public static void setTenantId(String tenantId) {
@@ -28,4 +36,74 @@ public class TenantContext {
     public static boolean hasTenantId() {
         return CURRENT_TENANT.get() != null;
     }
-}
\ No newline at end of file
+
+    // ==================== SCOPED EXECUTION ====================
+
+    /**
+     * Run the task with the given tenant, der vorherige Tenant des Threads wird danach wiederhergestellt
+     */
+    public static void runWithTenant(String tenantId, Runnable task) {
+        String previous = CURRENT_TENANT.get();
+        set(tenantId);
+        try {
+            task.run();
+        } finally {
+            set(previous);
+        }
+    }
+
+    /**
+     * Call the task with the given tenant and restore the previous tenant afterwards
+     */
+    public static <T> T callWithTenant(String tenantId, Callable<T> task) throws Exception {
+        String previous = CURRENT_TENANT.get();
+        set(tenantId);
+        try {
+            return task.call();
+        } finally {
+            set(previous);
+        }
+    }
+
+    // ==================== PROPAGATION ====================
+
+    /**
+     * Capture the current tenant for execution on another thread (Executor, CompletableFuture, Virtual Thread)
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> runWithTenant(tenantId, task);
+    }
+
+    /**
+     * Capture the current tenant for a Callable
+     */
+    public static <T> Callable<T> wrapCallable(Callable<T> task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> callWithTenant(tenantId, task);
+    }
+
+    /**
+     * Capture the current tenant for a Supplier (z.B. CompletableFuture.supplyAsync)
+     */
+    public static <T> Supplier<T> wrapSupplier(Supplier<T> task) {
+        String tenantId = CURRENT_TENANT.get();
+        return () -> {
+            String previous = CURRENT_TENANT.get();
+            set(tenantId);
+            try {
+                return task.get();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    private static void set(String tenantId) {
+        if (tenantId == null) {
+            CURRENT_TENANT.remove();
+        } else {
+            CURRENT_TENANT.set(tenantId);
+        }
+    }
+}
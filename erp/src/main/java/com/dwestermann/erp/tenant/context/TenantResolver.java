@@ -1,16 +1,35 @@
 package com.dwestermann.erp.tenant.context;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.regex.Pattern;
+
 @Component
 @Slf4j
 public class TenantResolver {
 
+    private static final Pattern IPV4_ADDRESS = Pattern.compile("\\d+\\.\\d+\\.\\d+\\.\\d+");
+
+    // Marker für "Host enthält keinen Tenant" (Caffeine speichert keine null Werte)
+    private static final String NO_TENANT = "";
+
+    // Host -> Tenant, damit Pattern und Split nicht pro Request laufen
+    private final Cache<String, String> hostCache;
+
+    public TenantResolver(@Value("${tenant.resolver.host-cache-size:10000}") long hostCacheSize) {
+        this.hostCache = Caffeine.newBuilder()
+                .maximumSize(hostCacheSize)
+                .build();
+    }
+
     public String resolveTenantId(HttpServletRequest request) {
         // 1. Subdomain-basierte Erkennung (kunde1.yourerp.com)
-        String tenantFromSubdomain = extractFromSubdomain(request);
+        String tenantFromSubdomain = extractFromSubdomain(request.getServerName());
         if (tenantFromSubdomain != null) {
             return tenantFromSubdomain;
         }
@@ -25,20 +44,36 @@ public class TenantResolver {
         return "default";
     }
 
-    private String extractFromSubdomain(HttpServletRequest request) {
-        String serverName = request.getServerName();
-
-        // Skip localhost und IP-Adressen
-        if ("localhost".equals(serverName) || serverName.matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
+    private String extractFromSubdomain(String serverName) {
+        if (serverName == null) {
             return null;
         }
+        String tenantId = hostCache.get(serverName, TenantResolver::parseSubdomain);
+        return tenantId.isEmpty() ? null : tenantId;
+    }
 
-        // kunde1.yourerp.com -> kunde1
-        String[] parts = serverName.split("\\.");
-        if (parts.length >= 3) {
-            return parts[0];
+    /**
+     * kunde1.yourerp.com -> kunde1, NO_TENANT für localhost, IP-Adressen und kurze Hosts
+     */
+    static String parseSubdomain(String serverName) {
+        // Skip localhost und IP-Adressen
+        if ("localhost".equals(serverName) || IPV4_ADDRESS.matcher(serverName).matches()) {
+            return NO_TENANT;
         }
 
-        return null;
+        // Mindestens drei Teile wie bisher bei split("\\.") (abschließende Punkte zählen nicht)
+        int end = serverName.length();
+        while (end > 0 && serverName.charAt(end - 1) == '.') {
+            end--;
+        }
+        int firstDot = serverName.indexOf('.');
+        if (firstDot <= 0 || firstDot >= end) {
+            return NO_TENANT;
+        }
+        int secondDot = serverName.indexOf('.', firstDot + 1);
+        if (secondDot < 0 || secondDot >= end) {
+            return NO_TENANT;
+        }
+        return serverName.substring(0, firstDot);
     }
-}
\ No newline at end of file
+}
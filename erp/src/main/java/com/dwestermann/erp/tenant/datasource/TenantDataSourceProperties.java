@@ -0,0 +1,46 @@
+package com.dwestermann.erp.tenant.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tenant directory for database-per-tenant routing (tenant.routing.*).
+ * Tenants ohne Eintrag bleiben im Shared Pool (spring.datasource).
+ */
+@Data
+@ConfigurationProperties(prefix = "tenant.routing")
+public class TenantDataSourceProperties {
+
+    /**
+     * Routing aktivieren - ohne Routing gibt es nur den Shared Pool
+     */
+    private boolean enabled = false;
+
+    /**
+     * Tenant ID -> eigene Datenbank bzw. eigenes Schema
+     */
+    private Map<String, Target> tenants = new LinkedHashMap<>();
+
+    @Data
+    public static class Target {
+
+        /**
+         * JDBC URL, leer = URL des Shared Pools (z.B. nur eigenes Schema)
+         */
+        private String url;
+        private String username;
+        private String password;
+
+        /**
+         * Schema für Schema-per-Tenant in der gleichen Datenbank
+         */
+        private String schema;
+
+        private int maximumPoolSize = 10;
+        private int minimumIdle = 2;
+        private long connectionTimeout = 20000;
+    }
+}
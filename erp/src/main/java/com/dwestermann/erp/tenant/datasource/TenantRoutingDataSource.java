@@ -0,0 +1,71 @@
+package com.dwestermann.erp.tenant.datasource;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routes connections to the tenant's own pool, falls back to the shared pool.
+ * Die Auswahl passiert beim Holen der Connection (Transaktionsbeginn), also mit dem
+ * Tenant aus dem TenantContext - wie der Hibernate Tenant-Filter.
+ */
+@Slf4j
+public class TenantRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final HikariDataSource sharedDataSource;
+    private final Map<String, HikariDataSource> tenantDataSources;
+
+    public TenantRoutingDataSource(HikariDataSource sharedDataSource, Map<String, HikariDataSource> tenantDataSources) {
+        this.sharedDataSource = sharedDataSource;
+        this.tenantDataSources = Map.copyOf(tenantDataSources);
+
+        setDefaultTargetDataSource(sharedDataSource);
+        setTargetDataSources(new HashMap<>(this.tenantDataSources));
+        // Unbekannte Tenants laufen über den Shared Pool
+        setLenientFallback(true);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String tenantId = TenantContext.getTenantId();
+        return tenantId != null && tenantDataSources.containsKey(tenantId) ? tenantId : null;
+    }
+
+    /**
+     * Tenants with a dedicated pool
+     */
+    public Set<String> getRoutedTenants() {
+        return tenantDataSources.keySet();
+    }
+
+    /**
+     * Dedicated pool of the tenant, null if the tenant uses the shared pool
+     */
+    public DataSource getTenantDataSource(String tenantId) {
+        return tenantId != null ? tenantDataSources.get(tenantId) : null;
+    }
+
+    /**
+     * Check if the tenant has a dedicated pool
+     */
+    public boolean isRouted(String tenantId) {
+        return tenantId != null && tenantDataSources.containsKey(tenantId);
+    }
+
+    @Override
+    public void close() {
+        tenantDataSources.forEach((tenantId, dataSource) -> {
+            log.info("Closing connection pool for tenant {}", tenantId);
+            dataSource.close();
+        });
+        sharedDataSource.close();
+    }
+}
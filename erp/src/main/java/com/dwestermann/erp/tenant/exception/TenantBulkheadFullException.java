@@ -0,0 +1,17 @@
+package com.dwestermann.erp.tenant.exception;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a tenant exceeds its concurrent request limit (429 Too Many Requests)
+ */
+@Getter
+public class TenantBulkheadFullException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TenantBulkheadFullException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
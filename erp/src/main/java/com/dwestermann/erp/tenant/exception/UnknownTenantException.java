@@ -0,0 +1,10 @@
+package com.dwestermann.erp.tenant.exception;
+
+/**
+ * Thrown when a request addresses a tenant that is not registered
+ */
+public class UnknownTenantException extends RuntimeException {
+    public UnknownTenantException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,45 @@
+package com.dwestermann.erp.tenant.hibernate;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Connects Hibernate's @TenantId discriminator to the TenantContext.
+ * Jede Session filtert damit Queries, findById und Lazy Loads auf den aktuellen Tenant.
+ * Ohne gebundenen Tenant (Scheduler, DevDataInitializer, Tests) läuft die Session als ROOT:
+ * kein Filter, tenantId muss beim Speichern explizit gesetzt sein.
+ */
+@Component
+public class TenantIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+    /**
+     * Sentinel für systemweiten Zugriff ohne Tenant-Filter
+     */
+    public static final String ROOT_TENANT = "__root__";
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        String tenantId = TenantContext.getTenantId();
+        return tenantId != null ? tenantId : ROOT_TENANT;
+    }
+
+    @Override
+    public boolean isRoot(String tenantId) {
+        return ROOT_TENANT.equals(tenantId);
+    }
+
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
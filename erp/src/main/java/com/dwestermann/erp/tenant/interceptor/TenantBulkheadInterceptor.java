@@ -0,0 +1,43 @@
+package com.dwestermann.erp.tenant.interceptor;
+
+import com.dwestermann.erp.tenant.bulkhead.TenantBulkhead;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Limits concurrent requests per tenant, läuft nach dem TenantInterceptor.
+ * Bei async Requests (Streaming) bleibt der Slot bis zum Ende des async Dispatch belegt.
+ */
+@Component
+@RequiredArgsConstructor
+public class TenantBulkheadInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = TenantBulkheadInterceptor.class.getName() + ".PERMIT";
+
+    private final TenantBulkhead tenantBulkhead;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async Re-Dispatch: Slot wurde schon beim ersten Dispatch geholt
+        if (request.getAttribute(PERMIT_ATTRIBUTE) == null) {
+            request.setAttribute(PERMIT_ATTRIBUTE, tenantBulkhead.acquire(TenantContext.getTenantId()));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        if (request.isAsyncStarted()) {
+            return;
+        }
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof TenantBulkhead.Permit permit) {
+            permit.release();
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.dwestermann.erp.tenant.interceptor;
 
 import com.dwestermann.erp.tenant.context.TenantContext;
 import com.dwestermann.erp.tenant.context.TenantResolver;
+import com.dwestermann.erp.tenant.exception.UnknownTenantException;
+import com.dwestermann.erp.tenant.registry.TenantRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -15,13 +17,26 @@ import org.springframework.web.servlet.HandlerInterceptor;
 public class TenantInterceptor implements HandlerInterceptor {
 
     private final TenantResolver tenantResolver;
+    private final TenantRegistry tenantRegistry;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Tenant aus verifiziertem JWT hat Vorrang - keine zweite Auflösung über Header/Subdomain
+        Object tokenTenant = request.getAttribute(TenantContext.TOKEN_TENANT_ATTRIBUTE);
+        if (tokenTenant instanceof String tenantId) {
+            TenantContext.setTenantId(tenantId);
+            return true;
+        }
+
         String tenantId = tenantResolver.resolveTenantId(request);
+        if (!tenantRegistry.isAllowed(tenantId)) {
+            throw new UnknownTenantException("Unknown tenant: " + tenantId);
+        }
         TenantContext.setTenantId(tenantId);
 
-        log.debug("Resolved tenant: {} for request: {}", tenantId, request.getRequestURI());
+        if (log.isDebugEnabled()) {
+            log.debug("Resolved tenant: {} for request: {}", tenantId, request.getRequestURI());
+        }
         return true;
     }
 
@@ -30,4 +45,4 @@ public class TenantInterceptor implements HandlerInterceptor {
                                 Object handler, Exception ex) {
         TenantContext.clear();
     }
-}
\ No newline at end of file
+}
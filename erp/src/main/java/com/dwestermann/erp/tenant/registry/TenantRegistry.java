@@ -0,0 +1,90 @@
+package com.dwestermann.erp.tenant.registry;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Registry of known tenants.
+ * Konfigurierte Tenants, Tenants mit eigener DB (tenant.routing) und alle Tenants mit Usern (Shared Pool und jede
+ * Tenant-DB), beim Start und danach periodisch geladen. Bei aktivem enforce werden unbekannte Tenants schon im
+ * TenantInterceptor abgewiesen (ohne DB-Zugriff) - auch die Registrierung, neue Tenants kommen also nur über
+ * known-tenants, tenant.routing oder User aus der DB (sichtbar nach spätestens refresh-interval).
+ */
+@Component
+@Slf4j
+public class TenantRegistry {
+
+    private static final String SELECT_TENANTS_SQL = "SELECT DISTINCT tenant_id FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<TenantRoutingDataSource> routingDataSource;
+    private final boolean enforce;
+    private final Set<String> configuredTenants;
+
+    private volatile Set<String> knownTenants;
+
+    public TenantRegistry(
+            JdbcTemplate jdbcTemplate,
+            ObjectProvider<TenantRoutingDataSource> routingDataSource,
+            @Value("${tenant.registry.enforce:false}") boolean enforce,
+            @Value("${tenant.registry.known-tenants:}") List<String> configuredTenants) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.routingDataSource = routingDataSource;
+        this.enforce = enforce;
+        Set<String> configured = new HashSet<>(configuredTenants.stream()
+                .map(String::trim)
+                .filter(tenant -> !tenant.isEmpty())
+                .toList());
+        // Tenants mit eigenem Pool sind konfiguriert, auch wenn ihre DB noch keine User hat
+        TenantRoutingDataSource routing = routingDataSource != null ? routingDataSource.getIfAvailable() : null;
+        if (routing != null) {
+            configured.addAll(routing.getRoutedTenants());
+        }
+        this.configuredTenants = Set.copyOf(configured);
+        this.knownTenants = this.configuredTenants;
+    }
+
+    /**
+     * Check if requests for the tenant are allowed
+     */
+    public boolean isAllowed(String tenantId) {
+        return !enforce || (tenantId != null && knownTenants.contains(tenantId));
+    }
+
+    /**
+     * Reload tenants from the database
+     */
+    @Scheduled(fixedDelayString = "${tenant.registry.refresh-interval:60000}")
+    public void refresh() {
+        if (!enforce) {
+            return;
+        }
+        try {
+            Set<String> loaded = new HashSet<>(configuredTenants);
+            loaded.addAll(jdbcTemplate.queryForList(SELECT_TENANTS_SQL, String.class));
+            TenantRoutingDataSource routing = routingDataSource.getIfAvailable();
+            if (routing != null) {
+                // JdbcTemplate holt die Connection über den TenantContext aus dem Pool des Tenants
+                for (String tenantId : routing.getRoutedTenants()) {
+                    TenantContext.runWithTenant(tenantId, () ->
+                            loaded.addAll(jdbcTemplate.queryForList(SELECT_TENANTS_SQL, String.class)));
+                }
+            }
+
+            knownTenants = Set.copyOf(loaded);
+            log.debug("Tenant registry refreshed: {} tenants", loaded.size());
+        } catch (Exception e) {
+            log.warn("Failed to refresh tenant registry: {}", e.getMessage());
+        }
+    }
+}
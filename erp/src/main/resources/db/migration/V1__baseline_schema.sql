@@ -0,0 +1,139 @@
+-- ===================================================================
+-- V1: Baseline Schema (entspricht den JPA Entities, ddl-auto: validate)
+-- Indizes folgen in V2, abgestimmt auf die Repository-Queries
+-- ===================================================================
+
+-- ==================== USERS ====================
+
+CREATE TABLE users (
+    id                                  UUID            NOT NULL,
+    tenant_id                           VARCHAR(50)     NOT NULL,
+    email                               VARCHAR(255)    NOT NULL,
+    first_name                          VARCHAR(50)     NOT NULL,
+    last_name                           VARCHAR(50)     NOT NULL,
+    password                            VARCHAR(255)    NOT NULL,
+    role                                VARCHAR(255)    NOT NULL,
+    is_email_verified                   BOOLEAN         NOT NULL,
+    is_account_locked                   BOOLEAN         NOT NULL,
+    is_password_change_required         BOOLEAN         NOT NULL,
+    failed_login_attempts               INTEGER         NOT NULL,
+    account_locked_at                   TIMESTAMP(6),
+    last_login_at                       TIMESTAMP(6),
+    password_changed_at                 TIMESTAMP(6),
+    password_reset_token                VARCHAR(255),
+    password_reset_token_expires_at     TIMESTAMP(6),
+    email_verification_token            VARCHAR(255),
+    email_verification_token_expires_at TIMESTAMP(6),
+    created_at                          TIMESTAMP(6)    NOT NULL,
+    updated_at                          TIMESTAMP(6),
+    created_by                          VARCHAR(100),
+    updated_by                          VARCHAR(100),
+    version                             BIGINT,
+    notes                               VARCHAR(1000),
+    CONSTRAINT pk_users PRIMARY KEY (id),
+    CONSTRAINT ck_users_role CHECK (role IN ('SUPER_ADMIN', 'TENANT_ADMIN', 'MANAGER', 'USER', 'VIEWER'))
+);
+
+-- ==================== CUSTOMERS ====================
+
+CREATE TABLE customers (
+    id                  UUID            NOT NULL,
+    tenant_id           VARCHAR(50)     NOT NULL,
+    customer_number     VARCHAR(20),
+    name                VARCHAR(255)    NOT NULL,
+    email               VARCHAR(255),
+    phone               VARCHAR(50),
+    status              VARCHAR(255)    NOT NULL,
+    type                VARCHAR(255)    NOT NULL,
+    address_street      VARCHAR(255),
+    address_city        VARCHAR(100),
+    address_postal_code VARCHAR(20),
+    address_country     VARCHAR(100),
+    created_at          TIMESTAMP(6)    NOT NULL,
+    updated_at          TIMESTAMP(6),
+    created_by          VARCHAR(100),
+    updated_by          VARCHAR(100),
+    version             BIGINT,
+    notes               VARCHAR(1000),
+    CONSTRAINT pk_customers PRIMARY KEY (id),
+    CONSTRAINT ck_customers_status CHECK (status IN ('ACTIVE', 'INACTIVE', 'ARCHIVED')),
+    CONSTRAINT ck_customers_type CHECK (type IN ('B2B', 'B2C'))
+);
+
+CREATE TABLE contact_persons (
+    id          UUID            NOT NULL,
+    tenant_id   VARCHAR(50)     NOT NULL,
+    customer_id UUID            NOT NULL,
+    first_name  VARCHAR(100)    NOT NULL,
+    last_name   VARCHAR(100)    NOT NULL,
+    email       VARCHAR(255),
+    phone       VARCHAR(50),
+    position    VARCHAR(100),
+    is_primary  BOOLEAN         NOT NULL,
+    created_at  TIMESTAMP(6)    NOT NULL,
+    updated_at  TIMESTAMP(6),
+    created_by  VARCHAR(100),
+    updated_by  VARCHAR(100),
+    version     BIGINT,
+    notes       VARCHAR(1000),
+    CONSTRAINT pk_contact_persons PRIMARY KEY (id),
+    CONSTRAINT fk_contact_persons_customer FOREIGN KEY (customer_id) REFERENCES customers (id)
+);
+
+-- ==================== PRODUCTS ====================
+
+CREATE TABLE product_categories (
+    id                 UUID            NOT NULL,
+    tenant_id          VARCHAR(50)     NOT NULL,
+    name               VARCHAR(100)    NOT NULL,
+    description        VARCHAR(500),
+    parent_category_id UUID,
+    product_count      BIGINT,
+    created_at         TIMESTAMP(6)    NOT NULL,
+    updated_at         TIMESTAMP(6),
+    created_by         VARCHAR(100),
+    updated_by         VARCHAR(100),
+    version            BIGINT,
+    notes              VARCHAR(1000),
+    CONSTRAINT pk_product_categories PRIMARY KEY (id),
+    CONSTRAINT fk_product_categories_parent FOREIGN KEY (parent_category_id) REFERENCES product_categories (id)
+);
+
+CREATE TABLE products (
+    id                      UUID            NOT NULL,
+    tenant_id               VARCHAR(50)     NOT NULL,
+    sku                     VARCHAR(50)     NOT NULL,
+    name                    VARCHAR(255)    NOT NULL,
+    description             VARCHAR(1000),
+    category_id             UUID,
+    status                  VARCHAR(255)    NOT NULL,
+    unit                    VARCHAR(255)    NOT NULL,
+    active                  BOOLEAN         NOT NULL,
+    barcode                 VARCHAR(100),
+    image_path              VARCHAR(255),
+    supplier_info           VARCHAR(500),
+    weight                  NUMERIC(10, 4),
+    current_stock           NUMERIC(19, 4)  NOT NULL,
+    min_stock_level         NUMERIC(19, 4),
+    max_stock_level         NUMERIC(19, 4),
+    purchase_price_amount   NUMERIC(19, 4),
+    purchase_price_currency VARCHAR(3),
+    selling_price_amount    NUMERIC(19, 4),
+    selling_price_currency  VARCHAR(3),
+    rrp_amount              NUMERIC(19, 4),
+    rrp_currency            VARCHAR(3),
+    created_at              TIMESTAMP(6)    NOT NULL,
+    updated_at              TIMESTAMP(6),
+    created_by              VARCHAR(100),
+    updated_by              VARCHAR(100),
+    version                 BIGINT,
+    notes                   VARCHAR(1000),
+    CONSTRAINT pk_products PRIMARY KEY (id),
+    CONSTRAINT fk_products_category FOREIGN KEY (category_id) REFERENCES product_categories (id),
+    CONSTRAINT ck_products_status CHECK (status IN ('DRAFT', 'ACTIVE', 'DISCONTINUED', 'OUT_OF_STOCK')),
+    CONSTRAINT ck_products_unit CHECK (unit IN ('PIECE', 'PACKAGE', 'BOX', 'PALLET', 'DOZEN',
+        'KILOGRAM', 'GRAM', 'TON', 'POUND', 'LITER', 'MILLILITER', 'CUBIC_METER', 'CUBIC_CENTIMETER',
+        'METER', 'CENTIMETER', 'MILLIMETER', 'KILOMETER', 'INCH', 'FOOT',
+        'SQUARE_METER', 'SQUARE_CENTIMETER', 'SQUARE_KILOMETER',
+        'HOUR', 'MINUTE', 'DAY', 'WEEK', 'MONTH'))
+);
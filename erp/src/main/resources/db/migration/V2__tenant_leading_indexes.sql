@@ -0,0 +1,105 @@
+-- ===================================================================
+-- V2: Indizes für die Repository-Queries
+-- Jede Tenant-Query filtert zuerst auf tenant_id -> tenant_id ist immer die erste Spalte.
+-- Unique Constraints liefern gleichzeitig die Lookup-Indizes (Email, SKU, Kundennummer).
+-- ===================================================================
+
+-- ==================== USERS (UserRepository) ====================
+
+-- findByEmailAndTenantId, existsByEmailAndTenantId, findByTenantId, countByTenantId, SELECT DISTINCT tenant_id
+ALTER TABLE users ADD CONSTRAINT uq_users_tenant_email UNIQUE (tenant_id, email);
+
+-- findByEmail, existsByEmail (tenant-übergreifend)
+CREATE INDEX idx_users_email ON users (email);
+
+-- findByTenantIdAndRole, countByTenantIdAndRole
+CREATE INDEX idx_users_tenant_role ON users (tenant_id, role);
+
+-- countByRole, findByRole (SUPER_ADMIN, tenant-übergreifend)
+CREATE INDEX idx_users_role ON users (role);
+
+-- findInactiveUsersSince, countActiveLoginsByTenantIdBetween
+CREATE INDEX idx_users_tenant_last_login ON users (tenant_id, last_login_at);
+
+-- countNewUsersByTenantIdBetween
+CREATE INDEX idx_users_tenant_created ON users (tenant_id, created_at);
+
+-- findAccountStatusChangedSince: accountLocked = true OR passwordChangedAt > :since (BitmapOr)
+CREATE INDEX idx_users_locked ON users (id) WHERE is_account_locked = true;
+CREATE INDEX idx_users_password_changed ON users (password_changed_at) WHERE password_changed_at IS NOT NULL;
+
+-- findByValidPasswordResetToken, findByValidEmailVerificationToken
+CREATE INDEX idx_users_password_reset_token ON users (password_reset_token)
+    WHERE password_reset_token IS NOT NULL;
+CREATE INDEX idx_users_email_verification_token ON users (email_verification_token)
+    WHERE email_verification_token IS NOT NULL;
+
+-- ==================== CUSTOMERS (CustomerRepository) ====================
+
+-- findByTenantIdAndEmail, existsByTenantIdAndEmailAndIdNot
+ALTER TABLE customers ADD CONSTRAINT uq_customers_tenant_email UNIQUE (tenant_id, email);
+
+-- findByTenantIdAndCustomerNumber, existsByTenantIdAndCustomerNumberAndIdNot (Nummern laufen pro Tenant)
+ALTER TABLE customers ADD CONSTRAINT uq_customers_tenant_number UNIQUE (tenant_id, customer_number);
+
+-- findByTenantIdAndStatus(In), findActiveCustomersByTenantId, countByTenantIdAndStatus,
+-- findRecentActiveCustomers (ORDER BY created_at DESC)
+CREATE INDEX idx_customers_tenant_status_created ON customers (tenant_id, status, created_at DESC);
+
+-- findByTenantIdAndType, getCustomerTypeStatistics
+CREATE INDEX idx_customers_tenant_type ON customers (tenant_id, type);
+
+-- findByTenantId, findByTenantIdAndSearch (Pagination nach Name)
+CREATE INDEX idx_customers_tenant_name ON customers (tenant_id, name);
+
+-- ContactPersonRepository: findByCustomerIdAndTenantId, findPrimaryContact..., countByCustomerIdAndTenantId
+CREATE INDEX idx_contact_persons_customer_primary ON contact_persons (customer_id, is_primary);
+
+-- findByTenantIdAndEmail (ContactPerson)
+CREATE INDEX idx_contact_persons_tenant_email ON contact_persons (tenant_id, email);
+
+-- ==================== PRODUCT CATEGORIES (ProductCategoryRepository) ====================
+
+-- findRootCategoriesByTenantId, findByParentCategoryAndTenantIdOrderByNameAsc, existsByNameAndParentCategoryAndTenantId
+ALTER TABLE product_categories
+    ADD CONSTRAINT uq_product_categories_tenant_parent_name UNIQUE (tenant_id, parent_category_id, name);
+
+-- findByTenantIdOrderByNameAsc, findAllByTenantId, countByTenantId
+CREATE INDEX idx_product_categories_tenant_name ON product_categories (tenant_id, name);
+
+-- isCategoryNameAvailableInTenant (LOWER(name))
+CREATE INDEX idx_product_categories_tenant_lower_name ON product_categories (tenant_id, lower(name));
+
+-- countByParentCategoryId, Fremdschlüssel
+CREATE INDEX idx_product_categories_parent ON product_categories (parent_category_id);
+
+-- ==================== PRODUCTS (ProductRepository) ====================
+
+-- findBySkuAndTenantId, existsBySkuAndTenantId
+ALTER TABLE products ADD CONSTRAINT uq_products_tenant_sku UNIQUE (tenant_id, sku);
+
+-- isSkuAvailable (LOWER(sku))
+CREATE INDEX idx_products_tenant_lower_sku ON products (tenant_id, lower(sku));
+
+-- findByTenantIdOrderByNameAsc, findByNameContainingIgnoreCaseAndTenantId
+CREATE INDEX idx_products_tenant_name ON products (tenant_id, name);
+
+-- findByStatusAndTenantId, countByStatusAndTenantId, findWithFilters(status)
+CREATE INDEX idx_products_tenant_status ON products (tenant_id, status);
+
+-- findByCategoryIdAndTenantId, countByCategoryIdAndTenantId, countDistinctCategoriesByTenantId
+CREATE INDEX idx_products_tenant_category ON products (tenant_id, category_id);
+
+-- countByCategoryId, count*ByCategoryId, calculateTotalValueByCategoryId, Fremdschlüssel
+CREATE INDEX idx_products_category ON products (category_id);
+
+-- findByBarcodeAndTenantId, existsByBarcodeAndTenantId
+CREATE INDEX idx_products_tenant_barcode ON products (tenant_id, barcode) WHERE barcode IS NOT NULL;
+
+-- findRecentProducts / findRecentlyUpdatedProducts (ORDER BY ... DESC)
+CREATE INDEX idx_products_tenant_created ON products (tenant_id, created_at DESC);
+CREATE INDEX idx_products_tenant_updated ON products (tenant_id, updated_at DESC);
+
+-- findLowStockProducts (currentStock <= minStockLevel AND minStockLevel > 0), findOutOfStockProducts
+CREATE INDEX idx_products_tenant_low_stock ON products (tenant_id, current_stock) WHERE min_stock_level > 0;
+CREATE INDEX idx_products_tenant_out_of_stock ON products (tenant_id) WHERE current_stock = 0;
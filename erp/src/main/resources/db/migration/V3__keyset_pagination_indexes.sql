@@ -0,0 +1,14 @@
+-- ===================================================================
+-- V3: Keyset-Pagination (/scroll) auf (name, id)
+-- id als letzte Indexspalte: Seek-Bedingung und ORDER BY name, id laufen ohne Sort über den Index.
+-- Die Indizes ersetzen die (tenant_id, name) Indizes aus V2.
+-- ===================================================================
+
+CREATE INDEX idx_customers_tenant_name_id ON customers (tenant_id, name, id);
+DROP INDEX idx_customers_tenant_name;
+
+CREATE INDEX idx_product_categories_tenant_name_id ON product_categories (tenant_id, name, id);
+DROP INDEX idx_product_categories_tenant_name;
+
+CREATE INDEX idx_products_tenant_name_id ON products (tenant_id, name, id);
+DROP INDEX idx_products_tenant_name;
@@ -0,0 +1,26 @@
+-- ===================================================================
+-- V4: Lagerbewegungen (append-only Ledger)
+-- Jede Bestandsänderung schreibt eine Zeile, der Bestand selbst wird per bedingtem Delta-Update geändert.
+-- product_id ohne Fremdschlüssel, damit die Historie gelöschte Produkte überdauert.
+-- ===================================================================
+
+CREATE TABLE stock_movements (
+    id              UUID            NOT NULL,
+    tenant_id       VARCHAR(50)     NOT NULL,
+    product_id      UUID            NOT NULL,
+    type            VARCHAR(20)     NOT NULL,
+    quantity        NUMERIC(19, 4)  NOT NULL,
+    resulting_stock NUMERIC(19, 4)  NOT NULL,
+    reason          VARCHAR(255),
+    reference       VARCHAR(100),
+    created_at      TIMESTAMP(6)    NOT NULL,
+    updated_at      TIMESTAMP(6),
+    created_by      VARCHAR(100),
+    updated_by      VARCHAR(100),
+    version         BIGINT,
+    notes           VARCHAR(1000),
+    CONSTRAINT pk_stock_movements PRIMARY KEY (id),
+    CONSTRAINT ck_stock_movements_type CHECK (type IN ('ADD', 'REMOVE', 'UPDATE'))
+);
+
+CREATE INDEX idx_stock_movements_tenant_product_created ON stock_movements (tenant_id, product_id, created_at DESC);
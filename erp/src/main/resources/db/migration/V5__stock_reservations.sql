@@ -0,0 +1,29 @@
+-- ===================================================================
+-- V5: Bestandsreservierungen (Warenkorb/Angebot) mit Ablaufzeit
+-- products.reserved_stock summiert die aktiven Reservierungen, verfügbar = current_stock - reserved_stock.
+-- Ablauf über ein Timing Wheel im Speicher, nach einem Neustart aus idx_stock_reservations_status_expires geladen.
+-- ===================================================================
+
+ALTER TABLE products ADD COLUMN reserved_stock NUMERIC(19, 4) DEFAULT 0 NOT NULL;
+
+CREATE TABLE stock_reservations (
+    id              UUID            NOT NULL,
+    tenant_id       VARCHAR(50)     NOT NULL,
+    product_id      UUID            NOT NULL,
+    quantity        NUMERIC(19, 4)  NOT NULL,
+    status          VARCHAR(20)     NOT NULL,
+    expires_at      TIMESTAMP(6)    NOT NULL,
+    reference       VARCHAR(100),
+    created_at      TIMESTAMP(6)    NOT NULL,
+    updated_at      TIMESTAMP(6),
+    created_by      VARCHAR(100),
+    updated_by      VARCHAR(100),
+    version         BIGINT,
+    notes           VARCHAR(1000),
+    CONSTRAINT pk_stock_reservations PRIMARY KEY (id),
+    CONSTRAINT ck_stock_reservations_status CHECK (status IN ('ACTIVE', 'CONFIRMED', 'RELEASED', 'EXPIRED')),
+    CONSTRAINT ck_stock_reservations_quantity CHECK (quantity > 0)
+);
+
+CREATE INDEX idx_stock_reservations_tenant_product_status ON stock_reservations (tenant_id, product_id, status);
+CREATE INDEX idx_stock_reservations_status_expires ON stock_reservations (status, expires_at);
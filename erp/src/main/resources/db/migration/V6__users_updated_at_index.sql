@@ -0,0 +1,7 @@
+-- ===================================================================
+-- V6: Rollenänderungen für claims-only Authentication
+-- findAccountStatusChangedSince lädt zusätzlich kürzlich geänderte User (updated_at), damit Tokens mit veralteter
+-- Rolle erkannt werden. Dritter Zweig des BitmapOr neben idx_users_locked und idx_users_password_changed.
+-- ===================================================================
+
+CREATE INDEX idx_users_updated ON users (updated_at) WHERE updated_at IS NOT NULL;
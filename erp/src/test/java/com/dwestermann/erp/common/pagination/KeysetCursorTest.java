@@ -0,0 +1,55 @@
+package com.dwestermann.erp.common.pagination;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    @DisplayName("Should round-trip sort keys with separators and umlauts")
+    void shouldRoundTrip() {
+        UUID id = UUID.randomUUID();
+        KeysetCursor cursor = new KeysetCursor(Sort.Direction.DESC, "Müller | Söhne GmbH", id);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"));
+        assertEquals(cursor, KeysetCursor.decode(token, Sort.Direction.DESC));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed tokens and tokens of another sort direction")
+    void shouldRejectInvalidTokens() {
+        String token = new KeysetCursor(Sort.Direction.ASC, "Hammer", UUID.randomUUID()).encode();
+
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode(token, Sort.Direction.DESC));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("not a cursor", Sort.Direction.ASC));
+        assertThrows(InvalidCursorException.class, () -> KeysetCursor.decode("QXxub3QtYS11dWlkfHg", Sort.Direction.ASC));
+    }
+
+    @Test
+    @DisplayName("Should emit a next cursor only when more rows than the page size were fetched")
+    void shouldDetectNextPage() {
+        record Row(String name, UUID id) {
+        }
+        Row a = new Row("A", UUID.randomUUID());
+        Row b = new Row("B", UUID.randomUUID());
+
+        CursorPage<Row> full = CursorPage.of(List.of(a, b), 1, Sort.Direction.ASC, Row::name, Row::id, null);
+        CursorPage<Row> last = CursorPage.of(List.of(a), 1, Sort.Direction.ASC, Row::name, Row::id, 2L);
+
+        assertTrue(full.isHasNext());
+        assertEquals(List.of(a), full.getContent());
+        assertEquals(new KeysetCursor(Sort.Direction.ASC, "A", a.id()),
+                KeysetCursor.decode(full.getNextCursor(), Sort.Direction.ASC));
+        assertFalse(last.isHasNext());
+        assertNull(last.getNextCursor());
+        assertEquals(2L, last.getTotalElements());
+    }
+}
@@ -0,0 +1,63 @@
+package com.dwestermann.erp.common.timing;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private final Instant start = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Test
+    @DisplayName("Should expire items at their deadline across all levels")
+    void shouldExpireItemsAtDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 3, start);
+        long[] offsets = {1, 5, 63, 64, 65, 4095, 4096, 5000, 300_000};
+        for (long offset : offsets) {
+            assertTrue(wheel.schedule(offset, start.plusSeconds(offset)));
+        }
+        assertEquals(offsets.length, wheel.size());
+
+        List<Long> expired = new ArrayList<>();
+        for (long second = 1; second <= 300_000; second++) {
+            int before = expired.size();
+            wheel.advance(start.plusSeconds(second), expired::add);
+            for (int i = before; i < expired.size(); i++) {
+                assertEquals(second, expired.get(i), "item expired at wrong tick");
+            }
+        }
+
+        assertEquals(offsets.length, expired.size());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("Should catch up when advanced by a large step")
+    void shouldCatchUpLargeSteps() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 4, start);
+        wheel.schedule("a", start.plusSeconds(10));
+        wheel.schedule("b", start.plus(Duration.ofDays(7)));
+
+        List<String> expired = new ArrayList<>();
+        wheel.advance(start.plus(Duration.ofDays(1)), expired::add);
+        assertEquals(List.of("a"), expired);
+
+        wheel.advance(start.plus(Duration.ofDays(7)), expired::add);
+        assertEquals(List.of("a", "b"), expired);
+    }
+
+    @Test
+    @DisplayName("Should not schedule deadlines in the past")
+    void shouldRejectPastDeadlines() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(Duration.ofSeconds(1), 2, start);
+
+        assertFalse(wheel.schedule("past", start.minusSeconds(5)));
+        assertEquals(0, wheel.size());
+    }
+}
@@ -13,9 +13,13 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -168,4 +172,36 @@ class CustomerRepositoryTest {
 
         assertTrue(existsWithoutExclusion);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Should walk all customers with keyset pagination including duplicate names")
+    void shouldWalkCustomersWithKeysetPagination() {
+        for (int i = 0; i < 7; i++) {
+            Customer customer = new Customer();
+            customer.setName(i < 3 ? "Same Name" : "Customer " + i);
+            customer.setEmail("keyset" + i + "@example.com");
+            customer.setCustomerNumber("CUST-2024-01" + i);
+            customer.setTenantId(TENANT_ID);
+            customer.setStatus(CustomerStatus.ACTIVE);
+            customer.setType(CustomerType.B2C);
+            customerRepository.save(customer);
+        }
+        entityManager.flush();
+
+        Pageable pageable = PageRequest.of(0, 3, Sort.by(Sort.Direction.ASC, "name", "id"));
+        List<Customer> walked = new ArrayList<>(customerRepository.findKeysetFirstByTenantId(TENANT_ID, pageable));
+        while (walked.size() < 10) {
+            Customer last = walked.get(walked.size() - 1);
+            List<Customer> next = customerRepository.findKeysetAfterByTenantId(TENANT_ID, last.getName(), last.getId(), pageable);
+            if (next.isEmpty()) {
+                break;
+            }
+            walked.addAll(next);
+        }
+
+        assertEquals(7, walked.size());
+        assertEquals(7, walked.stream().map(Customer::getId).distinct().count());
+        assertEquals(customerRepository.findByTenantId(TENANT_ID, PageRequest.of(0, 10, Sort.by("name", "id")))
+                .getContent().stream().map(Customer::getId).toList(), walked.stream().map(Customer::getId).toList());
+    }
+}
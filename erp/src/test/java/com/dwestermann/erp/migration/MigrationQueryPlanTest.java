@@ -0,0 +1,509 @@
+package com.dwestermann.erp.migration;
+
+import com.dwestermann.erp.common.pagination.KeysetCursor;
+import com.dwestermann.erp.customer.domain.CustomerStatus;
+import com.dwestermann.erp.customer.repository.ContactPersonRepository;
+import com.dwestermann.erp.customer.repository.CustomerRepository;
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.StockReservationStatus;
+import com.dwestermann.erp.product.repository.ProductCategoryRepository;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.repository.StockReservationRepository;
+import com.dwestermann.erp.security.entity.Role;
+import com.dwestermann.erp.security.repository.UserRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs the Flyway migrations on PostgreSQL and checks the plans of the repository queries.
+ * 20 Tenants mit Testdaten (je ~5% der Zeilen) + ANALYZE. Jede Repository-Methode wird wirklich aufgerufen,
+ * die dabei ausgeführten Statements werden samt Parametern mitgeschnitten und per EXPLAIN geprüft - kein Seq Scan.
+ * Ohne Docker: -Dplan-check.jdbc-url=jdbc:postgresql://...?user=...&password=... auf eine leere Datenbank,
+ * sonst wird der Test übersprungen.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIf("isPostgresAvailable")
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=validate",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+        "logging.level.org.hibernate.SQL=WARN",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class MigrationQueryPlanTest {
+
+    private static final String JDBC_URL_PROPERTY = "plan-check.jdbc-url";
+    private static final int TENANTS = 20;
+    private static final String TENANT = "t3";
+
+    private static final StatementRecorder RECORDER = new StatementRecorder();
+    private static PostgreSQLContainer<?> postgres;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ContactPersonRepository contactPersonRepository;
+
+    @Autowired
+    private ProductCategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    private UUID customerId;
+    private UUID categoryId;
+    private UUID productId;
+    private UUID reservationId;
+
+    static boolean isPostgresAvailable() {
+        return System.getProperty(JDBC_URL_PROPERTY) != null || DockerClientFactory.instance().isDockerAvailable();
+    }
+
+    @DynamicPropertySource
+    static void postgresProperties(DynamicPropertyRegistry registry) {
+        String jdbcUrl = System.getProperty(JDBC_URL_PROPERTY);
+        if (jdbcUrl != null) {
+            registry.add("spring.datasource.url", () -> jdbcUrl);
+        } else {
+            if (postgres == null) {
+                postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+                postgres.start();
+            }
+            registry.add("spring.datasource.url", postgres::getJdbcUrl);
+            registry.add("spring.datasource.username", postgres::getUsername);
+            registry.add("spring.datasource.password", postgres::getPassword);
+        }
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @BeforeAll
+    void seed() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(seedSql());
+        jdbcTemplate.execute("ANALYZE");
+
+        customerId = jdbcTemplate.queryForObject(
+                "SELECT id FROM customers WHERE tenant_id = ? AND customer_number = 'CUST-0005'", UUID.class, TENANT);
+        categoryId = jdbcTemplate.queryForObject(
+                "SELECT id FROM product_categories WHERE tenant_id = ? AND name = 'Category 5'", UUID.class, TENANT);
+        productId = jdbcTemplate.queryForObject(
+                "SELECT id FROM products WHERE tenant_id = ? AND sku = 'SKU-100'", UUID.class, TENANT);
+        reservationId = jdbcTemplate.queryForObject(
+                "SELECT id FROM stock_reservations WHERE product_id = ? AND status = 'ACTIVE'", UUID.class, productId);
+    }
+
+    Stream<Arguments> repositoryCalls() {
+        LocalDateTime now = LocalDateTime.now();
+        return Stream.of(
+                // ==================== UserRepository ====================
+                inTenant("findByEmailAndTenantId", () -> userRepository.findByEmailAndTenantId("user5@t3.dev", TENANT)),
+                // Login und Token-Links laufen ohne Tenant (ROOT)
+                withoutTenant("findByEmail", () -> userRepository.findByEmail("user5@t3.dev")),
+                inTenant("findByTenantId (paged)",
+                        () -> userRepository.findByTenantId(TENANT, PageRequest.of(0, 20, Sort.by("email")))),
+                inTenant("countByTenantIdAndRole", () -> userRepository.countByTenantIdAndRole(TENANT, Role.MANAGER)),
+                inTenant("findInactiveUsersSince", () -> userRepository.findInactiveUsersSince(TENANT, now.minusDays(30))),
+                inTenant("countNewUsersByTenantIdBetween",
+                        () -> userRepository.countNewUsersByTenantIdBetween(TENANT, now.minusDays(7), now)),
+                withoutTenant("findAccountStatusChangedSince",
+                        () -> userRepository.findAccountStatusChangedSince(now.minusMinutes(1))),
+                withoutTenant("findByValidPasswordResetToken",
+                        () -> userRepository.findByValidPasswordResetToken("token-1", now)),
+
+                // ==================== CustomerRepository ====================
+                inTenant("findByTenantIdAndId", () -> customerRepository.findByTenantIdAndId(TENANT, customerId)),
+                inTenant("findByTenantIdAndEmail", () -> customerRepository.findByTenantIdAndEmail(TENANT, "customer5@t3.dev")),
+                inTenant("findByTenantIdAndCustomerNumber",
+                        () -> customerRepository.findByTenantIdAndCustomerNumber(TENANT, "CUST-0005")),
+                inTenant("findByTenantId (paged by name)",
+                        () -> customerRepository.findByTenantId(TENANT, PageRequest.of(0, 20, Sort.by("name")))),
+                inTenant("findKeysetFirstByTenantId",
+                        () -> customerRepository.findKeysetFirstByTenantId(TENANT, keyset(Sort.Direction.ASC))),
+                inTenant("findKeysetAfterByTenantId", () -> customerRepository.findKeysetAfterByTenantId(
+                        TENANT, "Customer 5", customerId, keyset(Sort.Direction.ASC))),
+                inTenant("findKeysetBeforeByTenantId", () -> customerRepository.findKeysetBeforeByTenantId(
+                        TENANT, "Customer 5", customerId, keyset(Sort.Direction.DESC))),
+                inTenant("findByTenantIdAndStatus", () -> customerRepository.findByTenantIdAndStatus(
+                        TENANT, CustomerStatus.INACTIVE, PageRequest.of(0, 20))),
+                inTenant("countByTenantIdAndStatus",
+                        () -> customerRepository.countByTenantIdAndStatus(TENANT, CustomerStatus.ACTIVE)),
+                inTenant("getCustomerTypeStatistics", () -> customerRepository.getCustomerTypeStatistics(TENANT)),
+                // Controller sortieren standardmäßig nach name, '%term%' wird als Filter auf dem Tenant-Index ausgewertet
+                inTenant("findByTenantIdAndSearch", () -> customerRepository.findByTenantIdAndSearch(
+                        TENANT, "5", PageRequest.of(0, 20, Sort.by("name")))),
+                inTenant("findRecentActiveCustomers",
+                        () -> customerRepository.findRecentActiveCustomers(TENANT, PageRequest.of(0, 10))),
+                inTenant("ContactPerson findByCustomerIdAndTenantId",
+                        () -> contactPersonRepository.findByCustomerIdAndTenantId(customerId, TENANT)),
+
+                // ==================== ProductCategoryRepository ====================
+                inTenant("findByTenantIdOrderByNameAsc (categories)",
+                        () -> categoryRepository.findByTenantIdOrderByNameAsc(TENANT)),
+                inTenant("findKeysetAfterByTenantId (categories)", () -> categoryRepository.findKeysetAfterByTenantId(
+                        TENANT, "Category 5", categoryId, keyset(Sort.Direction.ASC))),
+                inTenant("findRootCategoriesByTenantId", () -> categoryRepository.findRootCategoriesByTenantId(TENANT)),
+                inTenant("isCategoryNameAvailableInTenant",
+                        () -> categoryRepository.isCategoryNameAvailableInTenant("Category 5", null, null, TENANT)),
+                inTenant("countByParentCategoryId", () -> categoryRepository.countByParentCategoryId(categoryId)),
+
+                // ==================== ProductRepository ====================
+                inTenant("findBySkuAndTenantId", () -> productRepository.findBySkuAndTenantId("SKU-5", TENANT)),
+                inTenant("findIdBySkuAndTenantId", () -> productRepository.findIdBySkuAndTenantId("SKU-5", TENANT)),
+                inTenant("findIdsByBarcodeAndTenantId", () -> productRepository.findIdsByBarcodeAndTenantId(
+                        "4000000000006", TENANT, PageRequest.of(0, 1))),
+                inTenant("isSkuAvailable", () -> productRepository.isSkuAvailable("sku-5", TENANT, null)),
+                inTenant("findByTenantIdOrderByNameAsc (paged)",
+                        () -> productRepository.findByTenantIdOrderByNameAsc(TENANT, PageRequest.of(0, 20))),
+                inTenant("findKeysetAfterByTenantId (products)", () -> productRepository.findKeysetAfterByTenantId(
+                        TENANT, "Product 5", productId, keyset(Sort.Direction.ASC))),
+                inTenant("findKeysetBeforeByTenantId (products)", () -> productRepository.findKeysetBeforeByTenantId(
+                        TENANT, "Product 5", productId, keyset(Sort.Direction.DESC))),
+                inTenant("countByStatusAndTenantId",
+                        () -> productRepository.countByStatusAndTenantId(ProductStatus.DRAFT, TENANT)),
+                inTenant("findByCategoryIdAndTenantId", () -> productRepository.findByCategoryIdAndTenantId(categoryId, TENANT)),
+                inTenant("countByCategoryId", () -> productRepository.countByCategoryId(categoryId)),
+                inTenant("findByBarcodeAndTenantId", () -> productRepository.findByBarcodeAndTenantId("4000000000006", TENANT)),
+                inTenant("findLowStockProducts", () -> productRepository.findLowStockProducts(TENANT)),
+                inTenant("findOutOfStockProducts", () -> productRepository.findOutOfStockProducts(TENANT)),
+                inTenant("findRecentlyUpdatedProducts",
+                        () -> productRepository.findRecentlyUpdatedProducts(TENANT, PageRequest.of(0, 10))),
+                inTenant("findRecentProducts", () -> productRepository.findRecentProducts(TENANT, PageRequest.of(0, 10))),
+                inTenant("calculateTotalInventoryValue", () -> productRepository.calculateTotalInventoryValue(TENANT)),
+                inTenant("aggregateStatisticsByTenantId", () -> productRepository.aggregateStatisticsByTenantId(TENANT)),
+                // Top-10-Listen der Statistik, die Kategorie kommt per LEFT JOIN FETCH über den Primärschlüssel dazu
+                inTenant("findLowStockProducts (top 10)",
+                        () -> productRepository.findLowStockProducts(TENANT, PageRequest.of(0, 10))),
+                inTenant("findOutOfStockProducts (top 10)",
+                        () -> productRepository.findOutOfStockProducts(TENANT, PageRequest.of(0, 10))),
+                inTenant("countDistinctCategoriesByTenantId",
+                        () -> productRepository.countDistinctCategoriesByTenantId(TENANT)),
+                inTenant("adjustStock", () -> productRepository.adjustStock(
+                        productId, TENANT, BigDecimal.ONE.negate(), now, "picker")),
+                inTenant("reserveStock", () -> productRepository.reserveStock(productId, TENANT, BigDecimal.ONE)),
+                inTenant("searchByTerm",
+                        () -> productRepository.searchByTerm("5", TENANT, PageRequest.of(0, 20, Sort.by("name")))),
+                // Export und Scan-Index lesen den ganzen Tenant per Stream (Fetch Size) über den Tenant-Index
+                inTenant("streamExportRowsByTenantId", () -> {
+                    try (Stream<?> rows = productRepository.streamExportRowsByTenantId(TENANT)) {
+                        rows.forEach(row -> { });
+                    }
+                }),
+                inTenant("streamScanEntriesByTenantId", () -> {
+                    try (Stream<?> entries = productRepository.streamScanEntriesByTenantId(TENANT)) {
+                        entries.forEach(entry -> { });
+                    }
+                }),
+                inTenant("findScanEntryBySkuAndTenantId",
+                        () -> productRepository.findScanEntryBySkuAndTenantId("SKU-5", TENANT)),
+                inTenant("findScanEntriesByBarcodeAndTenantId", () -> productRepository.findScanEntriesByBarcodeAndTenantId(
+                        "4000000000006", TENANT, PageRequest.of(0, 1))),
+
+                // ==================== StockMovementRepository ====================
+                inTenant("findByTenantIdAndProductIdOrderByCreatedAtDesc",
+                        () -> stockMovementRepository.findByTenantIdAndProductIdOrderByCreatedAtDesc(
+                                TENANT, productId, PageRequest.of(0, 20))),
+
+                // ==================== StockReservationRepository ====================
+                inTenant("findByTenantIdAndProductIdAndStatusOrderByExpiresAtAsc",
+                        () -> reservationRepository.findByTenantIdAndProductIdAndStatusOrderByExpiresAtAsc(
+                                TENANT, productId, StockReservationStatus.ACTIVE)),
+                // Recovery und Sweep laufen tenantübergreifend
+                withoutTenant("findByStatus (recovery)",
+                        () -> reservationRepository.findByStatus(StockReservationStatus.ACTIVE)),
+                withoutTenant("findByStatusAndExpiresAtLessThanEqual (sweep)",
+                        () -> reservationRepository.findByStatusAndExpiresAtLessThanEqual(StockReservationStatus.ACTIVE, now)),
+                inTenant("expire", () -> reservationRepository.expire(reservationId, TENANT, now))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    @DisplayName("Should not use sequential scans for repository queries")
+    void shouldUseIndexes(String repositoryMethod, String tenantId, Runnable call) throws SQLException {
+        List<RecordedStatement> statements = record(tenantId, call);
+
+        assertFalse(statements.isEmpty(), () -> repositoryMethod + " did not execute any statement");
+        for (RecordedStatement statement : statements) {
+            String plan = explain(statement);
+            assertFalse(plan.contains("Seq Scan"),
+                    () -> repositoryMethod + " uses a sequential scan:\n" + statement.sql() + "\n" + plan);
+        }
+    }
+
+    // ==================== HELPER METHODS ====================
+
+    /**
+     * Führt den Aufruf in einer zurückgerollten Transaktion aus (auch @Modifying) und liefert die ausgeführten Statements
+     */
+    private List<RecordedStatement> record(String tenantId, Runnable call) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Runnable inTransaction = () -> transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            RECORDER.start();
+            try {
+                call.run();
+            } finally {
+                RECORDER.stop();
+            }
+        });
+
+        if (tenantId != null) {
+            TenantContext.runWithTenant(tenantId, inTransaction);
+        } else {
+            inTransaction.run();
+        }
+        return RECORDER.statements();
+    }
+
+    private String explain(RecordedStatement statement) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement explain = connection.prepareStatement("EXPLAIN " + statement.sql())) {
+            for (Binding binding : statement.bindings()) {
+                binding.applyTo(explain);
+            }
+            try (ResultSet resultSet = explain.executeQuery()) {
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+            }
+        }
+        return plan.toString();
+    }
+
+    private static PageRequest keyset(Sort.Direction direction) {
+        return (PageRequest) KeysetCursor.pageRequest(20, direction, "name");
+    }
+
+    private static Arguments inTenant(String repositoryMethod, Runnable call) {
+        return Arguments.of(repositoryMethod, TENANT, call);
+    }
+
+    private static Arguments withoutTenant(String repositoryMethod, Runnable call) {
+        return Arguments.of(repositoryMethod, null, call);
+    }
+
+    // ==================== STATEMENT RECORDING ====================
+
+    /**
+     * Wraps the DataSource so that every PreparedStatement records its SQL and parameters
+     */
+    @TestConfiguration
+    static class RecordingDataSourceConfiguration {
+
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? RECORDER.wrap(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    private record RecordedStatement(String sql, List<Binding> bindings) {
+    }
+
+    /**
+     * Ein setXxx(index, value) Aufruf, der auf dem EXPLAIN-Statement wiederholt wird
+     */
+    private record Binding(Method setter, Object[] args) {
+
+        void applyTo(PreparedStatement statement) throws SQLException {
+            try {
+                setter.invoke(statement, args);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException sqlException) {
+                    throw sqlException;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+    }
+
+    private static final class StatementRecorder {
+
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+        private volatile boolean recording;
+
+        void start() {
+            statements.clear();
+            recording = true;
+        }
+
+        void stop() {
+            recording = false;
+        }
+
+        List<RecordedStatement> statements() {
+            return List.copyOf(statements);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return recordingConnection(super.getConnection());
+                }
+            };
+        }
+
+        private Connection recordingConnection(Connection connection) {
+            return proxy(Connection.class, (proxy, method, args) -> {
+                Object result = invoke(connection, method, args);
+                return method.getName().equals("prepareStatement")
+                        ? recordingStatement((PreparedStatement) result, (String) args[0])
+                        : result;
+            });
+        }
+
+        private PreparedStatement recordingStatement(PreparedStatement statement, String sql) {
+            List<Binding> bindings = new ArrayList<>();
+            return proxy(PreparedStatement.class, (proxy, method, args) -> {
+                // Nur die Parameter-Setter deklariert PreparedStatement selbst (setFetchSize & Co. kommen aus Statement)
+                if (method.getDeclaringClass() == PreparedStatement.class && method.getName().startsWith("set")) {
+                    bindings.add(new Binding(method, args));
+                } else if (method.getName().equals("clearParameters")) {
+                    bindings.clear();
+                } else if (recording && method.getName().startsWith("execute")) {
+                    statements.add(new RecordedStatement(sql, List.copyOf(bindings)));
+                }
+                return invoke(statement, method, args);
+            });
+        }
+
+        private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 20 Tenants mit je 100 Usern, 50 Kategorien, 1000 Kunden und 1000 Produkten (je 5 Lagerbewegungen und Reservierungen)
+     */
+    private static String seedSql() {
+        return """
+                INSERT INTO users (id, tenant_id, email, first_name, last_name, password, role,
+                                   is_email_verified, is_account_locked, is_password_change_required,
+                                   failed_login_attempts, last_login_at, created_at)
+                SELECT gen_random_uuid(), 't' || t, 'user' || i || '@t' || t || '.dev', 'First', 'Last', 'x',
+                       (ARRAY['TENANT_ADMIN', 'MANAGER', 'USER', 'VIEWER'])[1 + i % 4],
+                       true, i % 97 = 0, false, 0, now() - (i || ' hours')::interval, now() - (i || ' days')::interval
+                FROM generate_series(1, :tenants) t, generate_series(1, 100) i;
+
+                INSERT INTO product_categories (id, tenant_id, name, created_at)
+                SELECT gen_random_uuid(), 't' || t, 'Category ' || i, now()
+                FROM generate_series(1, :tenants) t, generate_series(1, 50) i;
+
+                INSERT INTO customers (id, tenant_id, customer_number, name, email, status, type, created_at)
+                SELECT gen_random_uuid(), 't' || t, 'CUST-' || lpad(i::text, 4, '0'), 'Customer ' || i,
+                       'customer' || i || '@t' || t || '.dev',
+                       (ARRAY['ACTIVE', 'INACTIVE', 'ARCHIVED'])[1 + i % 3], (ARRAY['B2B', 'B2C'])[1 + i % 2],
+                       now() - (i || ' minutes')::interval
+                FROM generate_series(1, :tenants) t, generate_series(1, 1000) i;
+
+                INSERT INTO contact_persons (id, tenant_id, customer_id, first_name, last_name, is_primary, created_at)
+                SELECT gen_random_uuid(), c.tenant_id, c.id, 'Contact', 'Person', true, now()
+                FROM customers c;
+
+                INSERT INTO products (id, tenant_id, sku, name, description, category_id, status, unit, active,
+                                      barcode, current_stock, min_stock_level, selling_price_amount,
+                                      selling_price_currency, created_at, updated_at)
+                SELECT gen_random_uuid(), 't' || t, 'SKU-' || i, 'Product ' || i, 'Description ' || i,
+                       (SELECT id FROM product_categories pc WHERE pc.tenant_id = 't' || t AND pc.name = 'Category ' || (1 + i % 50)),
+                       (ARRAY['DRAFT', 'ACTIVE', 'DISCONTINUED', 'OUT_OF_STOCK'])[1 + i % 4], 'PIECE', true,
+                       CASE WHEN i % 2 = 0 THEN (4000000000000 + i)::text END,
+                       CASE WHEN i % 50 = 0 THEN 0 ELSE i % 200 END, CASE WHEN i % 10 = 0 THEN 20 ELSE 0 END,
+                       9.99, 'EUR', now() - (i || ' minutes')::interval, now() - (i || ' seconds')::interval
+                FROM generate_series(1, :tenants) t, generate_series(1, 1000) i;
+
+                INSERT INTO stock_movements (id, tenant_id, product_id, type, quantity, resulting_stock, created_at)
+                SELECT gen_random_uuid(), p.tenant_id, p.id, 'ADD', 10, p.current_stock, now() - (i || ' days')::interval
+                FROM products p, generate_series(1, 5) i;
+
+                INSERT INTO stock_reservations (id, tenant_id, product_id, quantity, status, expires_at, created_at)
+                SELECT gen_random_uuid(), p.tenant_id, p.id, 1,
+                       CASE WHEN i = 1 AND p.sku LIKE '%00' THEN 'ACTIVE' ELSE 'EXPIRED' END,
+                       now() - (i || ' hours')::interval, now() - (i || ' days')::interval
+                FROM products p, generate_series(1, 5) i;
+                """.replace(":tenants", String.valueOf(TENANTS));
+    }
+}
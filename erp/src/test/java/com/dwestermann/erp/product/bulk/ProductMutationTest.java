@@ -0,0 +1,35 @@
+package com.dwestermann.erp.product.bulk;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductMutationTest {
+
+    @Test
+    @DisplayName("Should apply the activate/discontinue rules to the active flag")
+    void shouldDeriveActiveFromStatus() {
+        ProductMutation activate = ProductMutation.builder().status(ProductStatus.ACTIVE).build();
+        ProductMutation discontinue = ProductMutation.builder().status(ProductStatus.DISCONTINUED).build();
+        ProductMutation draft = ProductMutation.builder().status(ProductStatus.DRAFT).build();
+
+        assertEquals(Boolean.TRUE, activate.getEffectiveActive());
+        assertTrue(activate.requiresSellingPrice());
+        assertEquals(Boolean.FALSE, discontinue.getEffectiveActive());
+        assertFalse(discontinue.requiresSellingPrice());
+        assertNull(draft.getEffectiveActive()); // unverändert
+    }
+
+    @Test
+    @DisplayName("Should only update the category when no column changes")
+    void shouldSeparateCategoryChange() {
+        ProductMutation mutation = ProductMutation.builder().categoryId(UUID.randomUUID()).build();
+
+        assertTrue(mutation.changesCategory());
+        assertFalse(mutation.changesColumns());
+    }
+}
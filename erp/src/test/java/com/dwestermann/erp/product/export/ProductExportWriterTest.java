@@ -0,0 +1,61 @@
+package com.dwestermann.erp.product.export;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductExportWriterTest {
+
+    private final ProductExportRow row = new ProductExportRow(
+            UUID.fromString("00000000-0000-0000-0000-000000000001"), "SKU-1", "Schraube, \"M8\"", "Zeile 1\nZeile 2",
+            null, Unit.PIECE, null, null, new BigDecimal("1.5000"), "EUR",
+            new BigDecimal("10.0000"), new BigDecimal("4.0000"), BigDecimal.ZERO, null,
+            ProductStatus.ACTIVE, true, null, null, LocalDateTime.of(2025, 1, 2, 3, 4, 5));
+
+    @Test
+    @DisplayName("Should quote CSV fields with separators, quotes and line breaks")
+    void shouldWriteCsv() throws IOException {
+        StringWriter out = new StringWriter();
+        ProductExportWriter writer = ProductExportWriter.of(ProductExportFormat.CSV, out, null);
+
+        writer.writeHeader();
+        writer.write(row);
+        writer.finish();
+
+        String[] lines = out.toString().split("\r\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("id,sku,name,"));
+        assertEquals("00000000-0000-0000-0000-000000000001,SKU-1,\"Schraube, \"\"M8\"\"\",\"Zeile 1\nZeile 2\",,PIECE,,,"
+                + "1.5000,EUR,10.0000,4.0000,6.0000,0,,ACTIVE,true,,,2025-01-02T03:04:05", lines[1]);
+    }
+
+    @Test
+    @DisplayName("Should write one JSON object per line")
+    void shouldWriteNdjson() throws IOException {
+        StringWriter out = new StringWriter();
+        ProductExportWriter writer = ProductExportWriter.of(ProductExportFormat.NDJSON, out,
+                Jackson2ObjectMapperBuilder.json().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build());
+
+        writer.writeHeader();
+        writer.write(row);
+        writer.write(row);
+        writer.finish();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"sku\":\"SKU-1\""));
+        assertTrue(lines[0].contains("\"availableStock\":6.0000"));
+        assertTrue(lines[0].contains("\"updatedAt\":\"2025-01-02T03:04:05\""));
+    }
+}
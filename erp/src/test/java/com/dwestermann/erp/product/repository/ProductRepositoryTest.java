@@ -0,0 +1,168 @@
+package com.dwestermann.erp.product.repository;
+
+import com.dwestermann.erp.common.valueobject.Money;
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.ProductCategory;
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import com.dwestermann.erp.product.search.FacetCounts;
+import com.dwestermann.erp.product.search.PriceBand;
+import com.dwestermann.erp.product.search.ProductSearchFilter;
+import com.dwestermann.erp.product.search.ProductSearchIndex;
+import com.dwestermann.erp.product.search.StockState;
+import com.dwestermann.erp.product.service.ProductSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("dev")
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:testdb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class ProductRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Product product;
+    private final String TENANT_ID = "test-tenant";
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("SKU-1", "Hammer", Unit.PIECE, TENANT_ID);
+        product.setCurrentStock(new BigDecimal("5"));
+        product = entityManager.persistFlushFind(product);
+    }
+
+    @Test
+    @DisplayName("Should apply the stock delta and increment the version")
+    void shouldApplyStockDelta() {
+        Long version = product.getVersion();
+
+        int updated = productRepository.adjustStock(product.getId(), TENANT_ID, new BigDecimal("-3"),
+                LocalDateTime.now(), "picker");
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(0, new BigDecimal("2").compareTo(reloaded.getCurrentStock()));
+        assertEquals(version + 1, reloaded.getVersion());
+        assertEquals("picker", reloaded.getUpdatedBy());
+    }
+
+    @Test
+    @DisplayName("Should not update when the stock would become negative or the tenant differs")
+    void shouldRejectStockDelta() {
+        assertEquals(0, productRepository.adjustStock(product.getId(), TENANT_ID, new BigDecimal("-6"),
+                LocalDateTime.now(), "picker"));
+        assertEquals(0, productRepository.adjustStock(product.getId(), "other-tenant", new BigDecimal("1"),
+                LocalDateTime.now(), "picker"));
+
+        // Bestand auf genau 0 ist erlaubt
+        assertEquals(1, productRepository.adjustStock(product.getId(), TENANT_ID, new BigDecimal("-5"),
+                LocalDateTime.now(), "picker"));
+        assertEquals(0, productRepository.findById(product.getId()).orElseThrow().getCurrentStock().signum());
+    }
+
+    @Test
+    @DisplayName("Should reserve only available stock and keep it from removals")
+    void shouldKeepReservedStock() {
+        assertEquals(1, productRepository.reserveStock(product.getId(), TENANT_ID, new BigDecimal("3")));
+        assertEquals(0, productRepository.reserveStock(product.getId(), TENANT_ID, new BigDecimal("3")));
+
+        // 2 verfügbar: Abgang von 3 abgelehnt, Zugang immer möglich
+        assertEquals(0, productRepository.adjustStock(product.getId(), TENANT_ID, new BigDecimal("-3"),
+                LocalDateTime.now(), "picker"));
+        assertEquals(1, productRepository.adjustStock(product.getId(), TENANT_ID, new BigDecimal("-2"),
+                LocalDateTime.now(), "picker"));
+
+        assertEquals(1, productRepository.consumeReservedStock(product.getId(), TENANT_ID, new BigDecimal("3"),
+                LocalDateTime.now(), "picker"));
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(0, reloaded.getCurrentStock().signum());
+        assertEquals(0, reloaded.getReservedStock().signum());
+    }
+
+    @Test
+    @DisplayName("Should update only the given columns of the selected products")
+    void shouldBulkUpdateGivenColumns() {
+        product.setMaxStockLevel(new BigDecimal("50"));
+        product = entityManager.persistFlushFind(product);
+
+        int updated = productRepository.bulkUpdate(List.of(product.getId()), TENANT_ID, ProductStatus.DISCONTINUED,
+                false, new BigDecimal("3"), null, LocalDateTime.now(), "bulk");
+
+        Product reloaded = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(1, updated);
+        assertEquals(ProductStatus.DISCONTINUED, reloaded.getStatus());
+        assertFalse(reloaded.getActive());
+        assertEquals(0, new BigDecimal("3").compareTo(reloaded.getMinStockLevel()));
+        assertEquals(0, new BigDecimal("50").compareTo(reloaded.getMaxStockLevel()));
+        assertEquals(0, productRepository.bulkUpdate(List.of(product.getId()), "other-tenant", ProductStatus.ACTIVE,
+                true, null, null, LocalDateTime.now(), "bulk"));
+    }
+
+    @Test
+    @DisplayName("Should count search facets with GROUP BY like the search index")
+    void shouldCountFacetsLikeTheIndex() {
+        ProductCategory tools = entityManager.persist(new ProductCategory("Werkzeug", null, null, TENANT_ID));
+
+        Product screw = new Product("SKU-2", "Schraube", Unit.BOX, TENANT_ID);
+        screw.setCategory(tools);
+        screw.setStatus(ProductStatus.ACTIVE);
+        screw.updatePricing(null, new Money(new BigDecimal("20")), null);
+        screw.setCurrentStock(BigDecimal.ZERO);
+        entityManager.persist(screw);
+
+        Product handle = new Product("SKU-3", "Hammerstiel", Unit.PIECE, TENANT_ID);
+        handle.setCategory(tools);
+        handle.updatePricing(null, new Money(new BigDecimal("60")), null);
+        handle.setCurrentStock(new BigDecimal("2"));
+        handle.setMinStockLevel(new BigDecimal("5"));
+        entityManager.persistAndFlush(handle);
+
+        ProductSearchService searchService = new ProductSearchService(productRepository,
+                new StaticListableBeanFactory().getBeanProvider(MeterRegistry.class), false,
+                Duration.ofMinutes(30), Duration.ofHours(2), List.of(new BigDecimal("10"), new BigDecimal("50")));
+
+        // Ohne Suchbegriff: gleiche Counts wie der Index über alle Produkte
+        ProductSearchIndex index = new ProductSearchIndex(new BigDecimal("10"), new BigDecimal("50"));
+        productRepository.findSearchDocumentsByTenantId(TENANT_ID).forEach(index::upsert);
+        FacetCounts all = searchService.countFacets(TENANT_ID, null);
+        assertEquals(index.search(null, ProductSearchFilter.NONE, 0, 10).getFacets(), all);
+        assertEquals(Map.of(tools.getId(), 2L), all.getCategories());
+        assertEquals(1, all.getUncategorized());
+        assertEquals(Map.of(StockState.IN_STOCK, 1L, StockState.LOW_STOCK, 1L, StockState.OUT_OF_STOCK, 1L),
+                all.getStockStates());
+
+        // Mit Suchbegriff: nur die Treffer von searchByTerm
+        FacetCounts hammer = searchService.countFacets(TENANT_ID, "hammer");
+        assertEquals(Map.of(tools.getId(), 1L), hammer.getCategories());
+        assertEquals(1, hammer.getUncategorized());
+        assertEquals(Map.of(ProductStatus.DRAFT, 2L), hammer.getStatuses());
+        assertEquals(Map.of(Unit.PIECE, 2L), hammer.getUnits());
+        assertEquals(Map.of(new PriceBand(new BigDecimal("50"), null), 1L, PriceBand.NO_PRICE, 1L),
+                hammer.getPriceBands());
+        assertEquals(Map.of(StockState.IN_STOCK, 1L, StockState.LOW_STOCK, 1L), hammer.getStockStates());
+    }
+}
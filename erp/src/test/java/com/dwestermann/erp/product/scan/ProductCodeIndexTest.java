@@ -0,0 +1,65 @@
+package com.dwestermann.erp.product.scan;
+
+import com.dwestermann.erp.product.scan.ProductCodeIndex.CodeType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCodeIndexTest {
+
+    private final ProductCodeIndex index = new ProductCodeIndex(16, 0.75f);
+
+    @Test
+    @DisplayName("Should follow code and stock changes and ignore outdated versions")
+    void shouldApplyChangesByVersion() {
+        UUID id = UUID.randomUUID();
+        assertTrue(index.upsert(new ProductScanEntry(id, 1L, "SKU-1", "4000000000001", new BigDecimal("5"))));
+
+        ProductScanHit hit = index.lookup(CodeType.BARCODE, "4000000000001");
+        assertEquals(id, hit.getProductId());
+        assertEquals(0, new BigDecimal("5").compareTo(hit.getCurrentStock()));
+        assertNull(index.lookup(CodeType.SKU, "4000000000001"));
+
+        assertTrue(index.upsert(new ProductScanEntry(id, 3L, "SKU-1", "4000000000002", new BigDecimal("2.5"))));
+        assertFalse(index.upsert(new ProductScanEntry(id, 2L, "SKU-1", "4000000000001", BigDecimal.ONE)));
+        assertNull(index.lookup(CodeType.BARCODE, "4000000000001"));
+        assertEquals(0, new BigDecimal("2.5").compareTo(index.lookup(CodeType.SKU, "SKU-1").getCurrentStock()));
+
+        index.remove(id);
+        assertNull(index.lookup(CodeType.SKU, "SKU-1"));
+        assertFalse(index.upsert(new ProductScanEntry(id, 4L, "SKU-1", null, BigDecimal.ONE)));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    @DisplayName("Should keep all codes reachable while growing and removing")
+    void shouldGrowAndRemove() {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            index.upsert(new ProductScanEntry(id, 0L, "SKU-" + i, "40" + i, BigDecimal.valueOf(i)));
+        }
+        for (int i = 0; i < ids.size(); i += 2) {
+            index.remove(ids.get(i));
+        }
+
+        for (int i = 0; i < ids.size(); i++) {
+            ProductScanHit hit = index.lookup(CodeType.SKU, "SKU-" + i);
+            if (i % 2 == 0) {
+                assertNull(hit);
+            } else {
+                assertEquals(ids.get(i), hit.getProductId());
+                assertEquals(ids.get(i), index.lookup(CodeType.BARCODE, "40" + i).getProductId());
+            }
+        }
+        assertEquals(2500, index.size());
+        assertTrue(index.offHeapBytes() > 0);
+    }
+}
@@ -0,0 +1,143 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private static final UUID HAMMER = UUID.randomUUID();
+    private static final UUID SLEDGE = UUID.randomUUID();
+    private static final UUID NAILS = UUID.randomUUID();
+    private static final UUID TOOLS = UUID.randomUUID();
+    private static final UUID FASTENERS = UUID.randomUUID();
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.upsert(new ProductSearchDocument(HAMMER, 0L, "WZ-1001", "Hammer", "Schlosserhammer 300g", "4006381333931",
+                TOOLS, ProductStatus.ACTIVE, Unit.PIECE, new BigDecimal("12.90"), BigDecimal.TEN, BigDecimal.ONE));
+        index.upsert(new ProductSearchDocument(SLEDGE, 0L, "WZ-1002", "Vorschlaghammer", "Für grobe Arbeiten, Hammer mit Glasfaserstiel", null,
+                TOOLS, ProductStatus.DRAFT, Unit.PIECE, new BigDecimal("59.00"), BigDecimal.ONE, BigDecimal.TEN));
+        index.upsert(new ProductSearchDocument(NAILS, 0L, "BF-2001", "Nägel 3x40", "Drahtstifte für den Hammer", "4006381999999",
+                FASTENERS, ProductStatus.ACTIVE, Unit.KILOGRAM, new BigDecimal("4.50"), BigDecimal.ZERO, BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches")
+    void shouldRankByField() {
+        SearchHits hits = index.search("hammer", 0, 10);
+
+        assertEquals(3, hits.getTotal());
+        assertEquals(HAMMER, hits.getIds().get(0));
+    }
+
+    @Test
+    @DisplayName("Should match token prefixes and ignore umlauts")
+    void shouldMatchPrefixesAndUmlauts() {
+        assertEquals(List.of(HAMMER), index.search("schlosser", 0, 10).getIds());
+        assertEquals(List.of(NAILS), index.search("nagel", 0, 10).getIds());
+        assertEquals(List.of(NAILS), index.search("NÄG 3x", 0, 10).getIds());
+    }
+
+    @Test
+    @DisplayName("Should require all tokens to match")
+    void shouldRequireAllTokens() {
+        assertEquals(List.of(SLEDGE), index.search("hammer glasfaser", 0, 10).getIds());
+        assertEquals(0, index.search("hammer schraube", 0, 10).getTotal());
+    }
+
+    @Test
+    @DisplayName("Should find SKU and barcode substrings and rank exact codes first")
+    void shouldMatchCodes() {
+        assertEquals(List.of(HAMMER, SLEDGE), index.search("wz-100", 0, 10).getIds());
+        assertEquals(List.of(SLEDGE), index.search("WZ 1002", 0, 10).getIds());
+        assertEquals(List.of(NAILS), index.search("1999999", 0, 10).getIds());
+        assertEquals(List.of(HAMMER, NAILS), index.search("4006381", 0, 10).getIds());
+    }
+
+    @Test
+    @DisplayName("Should page through ranked results")
+    void shouldPage() {
+        SearchHits first = index.search("hammer", 0, 2);
+        SearchHits second = index.search("hammer", 2, 2);
+
+        assertEquals(2, first.getIds().size());
+        assertEquals(1, second.getIds().size());
+        assertEquals(3, second.getTotal());
+        assertFalse(first.getIds().contains(second.getIds().get(0)));
+    }
+
+    @Test
+    @DisplayName("Should apply updates and deletes and ignore stale versions")
+    void shouldApplyChanges() {
+        assertTrue(index.upsert(document(HAMMER, 1L, "Fäustel")));
+        assertFalse(index.upsert(document(HAMMER, 0L, "Hammer")));
+
+        assertEquals(List.of(HAMMER), index.search("faustel", 0, 10).getIds());
+        assertFalse(index.search("hammer", 0, 10).getIds().contains(HAMMER));
+
+        assertTrue(index.remove(NAILS));
+        assertFalse(index.upsert(document(NAILS, 5L, "Nägel")));
+        assertEquals(0, index.search("nagel", 0, 10).getTotal());
+        assertEquals(2, index.size());
+        assertEquals(2, index.deletedCount());
+    }
+
+    @Test
+    @DisplayName("Should count facets of all matches with every filter except the facet's own")
+    void shouldCountFacets() {
+        ProductSearchFilter activeTools = ProductSearchFilter.builder()
+                .status(ProductStatus.ACTIVE)
+                .categoryId(TOOLS)
+                .build();
+
+        SearchHits hits = index.search("hammer", activeTools, 0, 10);
+
+        assertEquals(List.of(HAMMER), hits.getIds());
+        FacetCounts facets = hits.getFacets();
+        // Kategorie-Facette ohne Kategorie-Filter: aktive Produkte
+        assertEquals(Map.of(TOOLS, 1L, FASTENERS, 1L), facets.getCategories());
+        // Status-Facette ohne Status-Filter: Werkzeuge
+        assertEquals(Map.of(ProductStatus.ACTIVE, 1L, ProductStatus.DRAFT, 1L), facets.getStatuses());
+        assertEquals(Map.of(Unit.PIECE, 1L), facets.getUnits());
+        assertEquals(Map.of(StockState.IN_STOCK, 1L), facets.getStockStates());
+        assertEquals(List.of("10-50"), facets.getPriceBands().keySet().stream().map(PriceBand::getKey).toList());
+    }
+
+    @Test
+    @DisplayName("Should filter all products by price and stock state without a search term")
+    void shouldFilterWithoutTerm() {
+        ProductSearchFilter filter = ProductSearchFilter.builder()
+                .maxPrice(new BigDecimal("60"))
+                .stockStates(EnumSet.of(StockState.LOW_STOCK, StockState.OUT_OF_STOCK))
+                .build();
+
+        SearchHits hits = index.search(null, filter, 0, 10);
+
+        assertEquals(List.of(NAILS, SLEDGE), hits.getIds());
+        assertEquals(Map.of(StockState.IN_STOCK, 1L, StockState.LOW_STOCK, 1L, StockState.OUT_OF_STOCK, 1L),
+                hits.getFacets().getStockStates());
+        // Preis-Facette ohne Preisfilter, aber mit Bestandsfilter
+        assertEquals(Map.of("bis 10", 1L, "50 - 100", 1L), hits.getFacets().getPriceBands().entrySet().stream()
+                .collect(Collectors.toMap(e -> e.getKey().getLabel(), Map.Entry::getValue)));
+    }
+
+    private static ProductSearchDocument document(UUID id, long version, String name) {
+        return new ProductSearchDocument(id, version, "X-" + version, name, null, null,
+                null, ProductStatus.DRAFT, Unit.PIECE, null, BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+}
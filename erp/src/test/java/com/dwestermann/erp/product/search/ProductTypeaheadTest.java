@@ -0,0 +1,140 @@
+package com.dwestermann.erp.product.search;
+
+import com.dwestermann.erp.product.search.ProductSuggestion.MatchedField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductTypeaheadTest {
+
+    private static final UUID HAMMER = UUID.randomUUID();
+    private static final UUID SLEDGE = UUID.randomUUID();
+    private static final UUID DRILL = UUID.randomUUID();
+
+    private ProductTypeahead typeahead;
+
+    @BeforeEach
+    void setUp() {
+        typeahead = new ProductTypeahead();
+        typeahead.put(document(HAMMER, "WZ-1001", "Hammer 300g", "4006381333931"));
+        typeahead.put(document(SLEDGE, "WZ-1002", "Vorschlaghammer", null));
+        typeahead.put(document(DRILL, "AK-18", "Akku-Bohrschrauber 18V", "4006381000018"));
+    }
+
+    @Test
+    @DisplayName("Should suggest by SKU, barcode and name prefix")
+    void shouldSuggestByPrefix() {
+        assertEquals(List.of(HAMMER, SLEDGE), ids(typeahead.suggest("wz-10", 10)));
+        assertEquals(List.of(HAMMER), ids(typeahead.suggest("ham", 10)));
+        assertEquals(List.of(DRILL), ids(typeahead.suggest("bohr", 10)));
+        assertEquals(List.of(DRILL), ids(typeahead.suggest("akku bohrs", 10)));
+        assertEquals(MatchedField.BARCODE, typeahead.suggest("400638100", 10).get(0).getMatchedField());
+        assertTrue(typeahead.suggest("schlag", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Should rank code matches first and return each product once")
+    void shouldRankAndDeduplicate() {
+        typeahead.put(document(UUID.randomUUID(), "18-XL", "Zange", null));
+
+        List<ProductSuggestion> suggestions = typeahead.suggest("18", 10);
+
+        assertEquals(2, suggestions.size());
+        assertEquals(MatchedField.SKU, suggestions.get(0).getMatchedField());
+        assertEquals(DRILL, suggestions.get(1).getId());
+        assertEquals(MatchedField.NAME, suggestions.get(1).getMatchedField());
+        assertEquals(1, typeahead.suggest("wz", 1).size());
+    }
+
+    @Test
+    @DisplayName("Should reflect updates and removals")
+    void shouldApplyUpdates() {
+        typeahead.put(document(HAMMER, "WZ-1001", "Fäustel", "4006381333931"));
+        typeahead.remove(SLEDGE);
+
+        assertTrue(typeahead.suggest("ham", 10).isEmpty());
+        assertEquals(List.of(HAMMER), ids(typeahead.suggest("faus", 10)));
+        assertEquals(List.of(HAMMER), ids(typeahead.suggest("wz", 10)));
+        assertEquals(2, typeahead.size());
+    }
+
+    @Test
+    @DisplayName("Should return the same top-k as a full scan under random inserts and removals")
+    void shouldMatchFullScan() {
+        Random random = new Random(42);
+        ProductTypeahead index = new ProductTypeahead();
+        Map<UUID, ProductSearchDocument> documents = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+
+        for (int i = 0; i < 3000; i++) {
+            if (!ids.isEmpty() && random.nextInt(4) == 0) {
+                UUID id = ids.remove(random.nextInt(ids.size()));
+                index.remove(id);
+                documents.remove(id);
+            } else {
+                UUID id = ids.isEmpty() || random.nextBoolean() ? UUID.randomUUID() : ids.get(random.nextInt(ids.size()));
+                ProductSearchDocument document = document(id, word(random, 4), word(random, 5) + " " + word(random, 4), null);
+                if (!documents.containsKey(id)) {
+                    ids.add(id);
+                }
+                index.put(document);
+                documents.put(id, document);
+            }
+
+            String query = word(random, 1 + random.nextInt(2));
+            assertEquals(fullScan(documents, query), ids(index.suggest(query, 10)), "query " + query);
+        }
+    }
+
+    private static List<UUID> fullScan(Map<UUID, ProductSearchDocument> documents, String query) {
+        Comparator<Object[]> ranking = Comparator.<Object[]>comparingInt(rank -> (int) rank[0])
+                .thenComparingInt(rank -> (int) rank[1])
+                .thenComparingInt(rank -> ((String) rank[2]).length())
+                .thenComparing(rank -> (String) rank[2])
+                .thenComparing(rank -> (UUID) rank[3]);
+
+        List<Object[]> best = new ArrayList<>();
+        for (ProductSearchDocument document : documents.values()) {
+            List<Object[]> matches = new ArrayList<>();
+            String sku = SearchTokenizer.normalizeCode(document.getSku());
+            if (sku.startsWith(query)) {
+                matches.add(new Object[]{0, 0, sku, document.getId()});
+            }
+            List<String> words = SearchTokenizer.tokenize(document.getName());
+            for (int word = 0; word < words.size(); word++) {
+                String key = String.join(" ", words.subList(word, words.size()));
+                if (key.startsWith(query)) {
+                    matches.add(new Object[]{2, word, key, document.getId()});
+                }
+            }
+            matches.stream().min(ranking).ifPresent(best::add);
+        }
+        return best.stream().sorted(ranking).limit(10).map(rank -> (UUID) rank[3]).toList();
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            word.append((char) ('a' + random.nextInt(3)));
+        }
+        return word.toString();
+    }
+
+    private static List<UUID> ids(List<ProductSuggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggestion::getId).toList();
+    }
+
+    private static ProductSearchDocument document(UUID id, String sku, String name, String barcode) {
+        return new ProductSearchDocument(id, null, sku, name, null, barcode, null, null, null, null, null, null);
+    }
+}
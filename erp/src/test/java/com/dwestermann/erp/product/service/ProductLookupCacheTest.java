@@ -0,0 +1,83 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.dto.response.ProductResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductLookupCacheTest {
+
+    private final UUID productId = UUID.randomUUID();
+    private final Map<UUID, ProductResponse> database = new HashMap<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private MeterRegistry meterRegistry;
+    private ProductLookupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        cache = new ProductLookupCache(beanFactory.getBeanProvider(MeterRegistry.class), true,
+                DataSize.ofMegabytes(1), 1000, Duration.ofMinutes(5));
+        database.put(productId, product("SKU-1"));
+    }
+
+    @Test
+    @DisplayName("Should load once per tenant and reload after invalidation")
+    void shouldCachePerTenant() {
+        cache.getById("t1", productId, () -> load(productId));
+        cache.getById("t1", productId, () -> load(productId));
+        cache.getById("t2", productId, () -> load(productId));
+        assertEquals(2, loads.get());
+
+        cache.invalidate("t1", productId);
+        cache.getById("t1", productId, () -> load(productId));
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "product.lookup").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    @DisplayName("Should never return a product for a SKU it no longer has")
+    void shouldVerifySkuAliases() {
+        assertEquals(productId, bySku("SKU-1").orElseThrow().getId());
+        assertEquals(productId, bySku("SKU-1").orElseThrow().getId());
+        assertEquals(1, loads.get());
+
+        // SKU geändert, Produkt-Eintrag invalidiert - der alte SKU-Alias zeigt noch auf das Produkt
+        database.put(productId, product("SKU-2"));
+        cache.invalidate("t1", productId);
+
+        assertTrue(bySku("SKU-1").isEmpty());
+        assertEquals("SKU-2", bySku("SKU-2").orElseThrow().getSku());
+    }
+
+    private Optional<ProductResponse> bySku(String sku) {
+        return cache.getBySku("t1", sku,
+                code -> database.values().stream().filter(p -> code.equals(p.getSku())).map(ProductResponse::getId).findFirst(),
+                this::load);
+    }
+
+    private ProductResponse load(UUID id) {
+        loads.incrementAndGet();
+        return database.get(id);
+    }
+
+    private ProductResponse product(String sku) {
+        return ProductResponse.builder().id(productId).sku(sku).name("Schraube").build();
+    }
+}
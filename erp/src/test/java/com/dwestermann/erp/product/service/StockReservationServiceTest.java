@@ -0,0 +1,269 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.StockReservationStatus;
+import com.dwestermann.erp.product.domain.Unit;
+import com.dwestermann.erp.product.dto.mapper.ProductMapper;
+import com.dwestermann.erp.product.dto.request.ReserveStockRequest;
+import com.dwestermann.erp.product.exception.InsufficientStockException;
+import com.dwestermann.erp.product.exception.InvalidStockReservationStateException;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.repository.StockReservationRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reservierungen gegen die echte Datenbank: Bestand und reserved_stock bleiben konsistent, egal ob Bestätigen,
+ * Freigeben oder Ablauf eine Reservierung beendet. Aufrufe laufen wie über den @Transactional-Proxy.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:stockreservationdb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class StockReservationServiceTest {
+
+    private static final String TENANT = "reservation-tenant";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private MeterRegistry meterRegistry;
+    private StockReservationService reservationService;
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        meterRegistry = new SimpleMeterRegistry();
+        reservationService = createService(meterRegistry);
+
+        Product product = new Product("SKU-RES", "Reservierbar", Unit.PIECE, TENANT);
+        product.setCurrentStock(new BigDecimal("10"));
+        productId = productRepository.save(product).getId();
+        TenantContext.setTenantId(TENANT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        reservationRepository.deleteAll();
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should reject a reservation over the available stock")
+    void shouldRejectReservationOverAvailable() {
+        reserve(7);
+
+        assertThrows(InsufficientStockException.class, () -> reserve(4));
+        assertEquals(0, new BigDecimal("7").compareTo(reservedStock()));
+        assertEquals(1, reservationRepository.count());
+
+        // Genau der Rest ist noch verfügbar
+        reserve(3);
+        assertEquals(0, new BigDecimal("10").compareTo(reservedStock()));
+        assertEquals(0, new BigDecimal("10").compareTo(currentStock()));
+    }
+
+    @Test
+    @DisplayName("Should let exactly one of confirm, release and expiry finish a reservation")
+    void shouldFinishReservationOnce() throws Exception {
+        int rounds = 20;
+        int confirmed = 0;
+        // Jede Runde kann eine Einheit per Bestätigen verbrauchen - Bestand für alle Runden
+        jdbcTemplate.update("UPDATE products SET current_stock = ? WHERE id = ?", rounds, productId);
+        for (int round = 0; round < rounds; round++) {
+            UUID reservationId = reserve(1);
+            // Deadline knapp in der Zukunft, damit auch der Ablauf mitläuft
+            jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE id = ?",
+                    LocalDateTime.now().plusNanos(ThreadLocalRandom.current().nextLong(0, 30_000_000)), reservationId);
+
+            CyclicBarrier start = new CyclicBarrier(3);
+            CompletableFuture<Boolean> confirm = race(start,
+                    () -> inTransaction(() -> reservationService.confirm(productId, reservationId)));
+            CompletableFuture<Boolean> release = race(start,
+                    () -> inTransaction(() -> reservationService.release(productId, reservationId)));
+            CompletableFuture<Boolean> expiry = race(start, reservationService::sweepOverdue);
+            boolean confirmWon = confirm.get(30, TimeUnit.SECONDS);
+            boolean releaseWon = release.get(30, TimeUnit.SECONDS);
+            expiry.get(30, TimeUnit.SECONDS);
+
+            StockReservationStatus status = status(reservationId);
+            if (status == StockReservationStatus.ACTIVE) {
+                // Bestätigen und Freigeben kamen nach der Deadline, der Sweep davor
+                Thread.sleep(30);
+                reservationService.sweepOverdue();
+                status = status(reservationId);
+            }
+
+            int winners = (confirmWon ? 1 : 0) + (releaseWon ? 1 : 0) + (status == StockReservationStatus.EXPIRED ? 1 : 0);
+            assertEquals(1, winners, "round " + round + " ended with " + status);
+            assertEquals(confirmWon, status == StockReservationStatus.CONFIRMED);
+            assertEquals(releaseWon, status == StockReservationStatus.RELEASED);
+            assertEquals(0, reservedStock().signum());
+            confirmed += confirmWon ? 1 : 0;
+        }
+
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_movements WHERE product_id = ?", BigDecimal.class, productId);
+        assertEquals(0, BigDecimal.valueOf(rounds - confirmed).compareTo(currentStock()));
+        assertEquals(0, BigDecimal.valueOf(-confirmed).compareTo(ledger));
+        assertEquals(jdbcTemplate.queryForObject(
+                        "SELECT COUNT(*) FROM stock_reservations WHERE status = 'EXPIRED'", Long.class),
+                (long) meterRegistry.get("product.stock.reservations.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should keep a reservation active when the reserved stock does not cover it")
+    void shouldRollBackWhenReservedStockIsMissing() {
+        UUID reservationId = reserve(3);
+        jdbcTemplate.update("UPDATE products SET reserved_stock = 1 WHERE id = ?", productId);
+
+        assertThrows(IllegalStateException.class,
+                () -> inTransaction(() -> reservationService.release(productId, reservationId)));
+        assertEquals(StockReservationStatus.ACTIVE, status(reservationId));
+
+        // Ablauf ebenso zurückgerollt, der nächste Sweep versucht es erneut
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusSeconds(1), reservationId);
+        reservationService.sweepOverdue();
+        assertEquals(StockReservationStatus.ACTIVE, status(reservationId));
+        assertEquals(0, new BigDecimal("1").compareTo(reservedStock()));
+
+        jdbcTemplate.update("UPDATE products SET reserved_stock = 3 WHERE id = ?", productId);
+        reservationService.sweepOverdue();
+        assertEquals(StockReservationStatus.EXPIRED, status(reservationId));
+        assertEquals(0, reservedStock().signum());
+        assertEquals(1.0, meterRegistry.get("product.stock.reservations.expired").counter().count());
+    }
+
+    @Test
+    @DisplayName("Should release overdue reservations on startup and schedule the others")
+    void shouldRecoverReservationsOnStartup() {
+        UUID overdue = reserve(4);
+        UUID pending = reserve(2);
+        jdbcTemplate.update("UPDATE stock_reservations SET expires_at = ? WHERE id = ?",
+                LocalDateTime.now().minusMinutes(1), overdue);
+
+        // Neue Instanz mit leerem Timing Wheel
+        MeterRegistry restartedRegistry = new SimpleMeterRegistry();
+        StockReservationService restarted = createService(restartedRegistry);
+        TenantContext.clear();
+        restarted.recoverActiveReservations();
+
+        assertEquals(StockReservationStatus.EXPIRED, status(overdue));
+        assertEquals(StockReservationStatus.ACTIVE, status(pending));
+        assertEquals(0, new BigDecimal("2").compareTo(reservedStock()));
+        assertEquals(1.0, restartedRegistry.get("product.stock.reservations.expired").counter().count());
+        assertEquals(1.0, restartedRegistry.get("product.stock.reservations.scheduled").gauge().value());
+    }
+
+    // ==================== HELPERS ====================
+
+    private StockReservationService createService(MeterRegistry registry) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", registry));
+        ProductLookupCache lookupCache = new ProductLookupCache(beanFactory.getBeanProvider(MeterRegistry.class), true,
+                DataSize.ofMegabytes(1), 1000, Duration.ofMinutes(5));
+        return new StockReservationService(productRepository, reservationRepository, stockMovementRepository,
+                event -> { }, new ProductMapper(), lookupCache, transactionManager,
+                new StaticListableBeanFactory().getBeanProvider(TenantRoutingDataSource.class),
+                beanFactory.getBeanProvider(MeterRegistry.class), Duration.ofMinutes(15));
+    }
+
+    private UUID reserve(int quantity) {
+        ReserveStockRequest request = new ReserveStockRequest();
+        request.setQuantity(quantity);
+        request.setTtlSeconds(60);
+        return transactionTemplate.execute(status -> reservationService.reserve(productId, request)).getId();
+    }
+
+    private void inTransaction(Supplier<Object> call) {
+        transactionTemplate.execute(status -> call.get());
+    }
+
+    /**
+     * Run a call in its own thread once all contenders are ready
+     *
+     * @return true if the call completed, false if the reservation was no longer active
+     */
+    private CompletableFuture<Boolean> race(CyclicBarrier start, Runnable call) {
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        new Thread(() -> {
+            try {
+                start.await(10, TimeUnit.SECONDS);
+                TenantContext.runWithTenant(TENANT, call);
+                result.complete(true);
+            } catch (InvalidStockReservationStateException e) {
+                result.complete(false);
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        }).start();
+        return result;
+    }
+
+    private StockReservationStatus status(UUID reservationId) {
+        return StockReservationStatus.valueOf(jdbcTemplate.queryForObject(
+                "SELECT status FROM stock_reservations WHERE id = ?", String.class, reservationId));
+    }
+
+    private BigDecimal currentStock() {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM products WHERE id = ?", BigDecimal.class, productId);
+    }
+
+    private BigDecimal reservedStock() {
+        return jdbcTemplate.queryForObject("SELECT reserved_stock FROM products WHERE id = ?", BigDecimal.class, productId);
+    }
+}
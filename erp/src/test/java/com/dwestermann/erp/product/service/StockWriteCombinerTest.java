@@ -0,0 +1,263 @@
+package com.dwestermann.erp.product.service;
+
+import com.dwestermann.erp.product.domain.Product;
+import com.dwestermann.erp.product.domain.Unit;
+import com.dwestermann.erp.product.exception.InsufficientStockException;
+import com.dwestermann.erp.product.repository.ProductRepository;
+import com.dwestermann.erp.product.repository.StockMovementRepository;
+import com.dwestermann.erp.product.stock.StockChange;
+import com.dwestermann.erp.product.stock.StockOperation;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Write-Combining gegen die echte Datenbank: nach jedem Szenario entspricht der Bestand der Summe des Ledgers.
+ * Batches werden gebildet, indem die erste Anfrage im Event-Publisher (innerhalb ihrer Transaktion) angehalten wird.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:stockcombinerdb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class StockWriteCombinerTest {
+
+    private static final String TENANT = "stock-tenant";
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+    private MeterRegistry meterRegistry;
+    private StockWriteCombiner combiner;
+    private UUID productId;
+
+    private volatile CountDownLatch hold;
+    private volatile CountDownLatch held;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        meterRegistry = new SimpleMeterRegistry();
+        combiner = new StockWriteCombiner(productRepository, stockMovementRepository, event -> {
+                    CountDownLatch gate = hold;
+                    if (gate != null) {
+                        hold = null;
+                        held.countDown();
+                        await(gate);
+                    }
+                }, transactionManager,
+                new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry)).getBeanProvider(MeterRegistry.class),
+                true, 100);
+
+        Product product = new Product("SKU-STOCK", "Lagerartikel", Unit.PIECE, TENANT);
+        productId = productRepository.save(product).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockMovementRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should hand the lane over between concurrent callers and keep stock equal to the ledger")
+    void shouldHandOverLaneUnderContention() throws Exception {
+        apply(StockOperation.add(new BigDecimal("20"), "Wareneingang", null, null));
+
+        int threads = 8;
+        int operationsPerThread = 50;
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<BigDecimal>> applied = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            CompletableFuture<BigDecimal> delta = new CompletableFuture<>();
+            applied.add(delta);
+            new Thread(() -> {
+                BigDecimal sum = BigDecimal.ZERO;
+                try {
+                    await(start);
+                    for (int i = 0; i < operationsPerThread; i++) {
+                        BigDecimal quantity = BigDecimal.valueOf(ThreadLocalRandom.current().nextInt(1, 6));
+                        boolean add = ThreadLocalRandom.current().nextBoolean();
+                        try {
+                            apply(add ? StockOperation.add(quantity, "Zugang", null, null)
+                                    : StockOperation.remove(quantity, "Abgang", null, null));
+                            sum = sum.add(add ? quantity : quantity.negate());
+                        } catch (InsufficientStockException e) {
+                            // Abgang ohne ausreichenden Bestand - weder Bestand noch Ledger ändern sich
+                        }
+                    }
+                    delta.complete(sum);
+                } catch (Throwable e) {
+                    delta.completeExceptionally(e);
+                }
+            }).start();
+        }
+        start.countDown();
+
+        BigDecimal expected = new BigDecimal("20");
+        for (CompletableFuture<BigDecimal> delta : applied) {
+            expected = expected.add(delta.get(60, TimeUnit.SECONDS));
+        }
+        assertEquals(0, expected.compareTo(currentStock()));
+        assertLedgerMatchesStock();
+        assertEquals(threads * operationsPerThread + 1, batchSizes().totalAmount());
+    }
+
+    @Test
+    @DisplayName("Should book back a rejected removal when the net delta of a batch fits")
+    void shouldBookBackRejectedRemovalOnFastPath() throws Exception {
+        // Stand 1, Batch [-5, +10]: netto +5 über den Schnellpfad, der Abgang davor passt nicht
+        CompletableFuture<StockChange> first = holdLane(StockOperation.add(BigDecimal.ONE, "Wareneingang", null, null));
+        CompletableFuture<StockChange> removal = submit(StockOperation.remove(new BigDecimal("5"), "Abgang", null, null));
+        CompletableFuture<StockChange> addition = submit(StockOperation.add(new BigDecimal("10"), "Zugang", null, null));
+        releaseLane();
+
+        first.get(10, TimeUnit.SECONDS);
+        assertInsufficientStock(removal);
+        assertEquals(0, new BigDecimal("11").compareTo(addition.get(10, TimeUnit.SECONDS).getMovement().getResultingStock()));
+        assertEquals(0, new BigDecimal("11").compareTo(currentStock()));
+        assertLedgerMatchesStock();
+        assertEquals(2, batchSizes().count());
+        assertEquals(2, batchSizes().max());
+    }
+
+    @Test
+    @DisplayName("Should admit a batch one by one under the row lock when the net delta does not fit")
+    void shouldAdmitUnderRowLock() throws Exception {
+        // Stand 1, Batch [-5, +3, =2]: Inventur im Batch, kein Netto-Delta - Zeile sperren und einzeln zulassen
+        CompletableFuture<StockChange> first = holdLane(StockOperation.add(BigDecimal.ONE, "Wareneingang", null, null));
+        CompletableFuture<StockChange> removal = submit(StockOperation.remove(new BigDecimal("5"), "Abgang", null, null));
+        CompletableFuture<StockChange> addition = submit(StockOperation.add(new BigDecimal("3"), "Zugang", null, null));
+        CompletableFuture<StockChange> count = submit(StockOperation.set(new BigDecimal("2"), "Inventur", null));
+        releaseLane();
+
+        first.get(10, TimeUnit.SECONDS);
+        assertInsufficientStock(removal);
+        assertEquals(0, new BigDecimal("4").compareTo(addition.get(10, TimeUnit.SECONDS).getMovement().getResultingStock()));
+        assertEquals(0, new BigDecimal("-2").compareTo(count.get(10, TimeUnit.SECONDS).getMovement().getQuantity()));
+        assertEquals(0, new BigDecimal("2").compareTo(currentStock()));
+        assertLedgerMatchesStock();
+        assertEquals(3, batchSizes().max());
+    }
+
+    // ==================== HELPERS ====================
+
+    private StockChange apply(StockOperation operation) throws Exception {
+        return TenantContext.callWithTenant(TENANT, () -> combiner.apply(productId, operation));
+    }
+
+    /**
+     * Start an operation that stops inside its transaction until {@link #releaseLane()}
+     */
+    private CompletableFuture<StockChange> holdLane(StockOperation operation) {
+        release = new CountDownLatch(1);
+        held = new CountDownLatch(1);
+        hold = release;
+        CompletableFuture<StockChange> result = start(operation);
+        await(held);
+        return result;
+    }
+
+    private void releaseLane() {
+        release.countDown();
+    }
+
+    /**
+     * Start an operation and wait until it is queued behind the held lane
+     */
+    private CompletableFuture<StockChange> submit(StockOperation operation) throws InterruptedException {
+        CompletableFuture<StockChange> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> complete(result, operation));
+        thread.start();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(Thread.State.WAITING, thread.getState());
+        return result;
+    }
+
+    private CompletableFuture<StockChange> start(StockOperation operation) {
+        CompletableFuture<StockChange> result = new CompletableFuture<>();
+        new Thread(() -> complete(result, operation)).start();
+        return result;
+    }
+
+    private void complete(CompletableFuture<StockChange> result, StockOperation operation) {
+        try {
+            result.complete(apply(operation));
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        }
+    }
+
+    private void assertInsufficientStock(CompletableFuture<StockChange> result) {
+        CompletionException thrown = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(InsufficientStockException.class, thrown.getCause());
+    }
+
+    private void assertLedgerMatchesStock() {
+        BigDecimal ledger = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(quantity), 0) FROM stock_movements WHERE product_id = ?", BigDecimal.class, productId);
+        assertEquals(0, ledger.compareTo(currentStock()), "current_stock must equal the sum of stock_movements");
+    }
+
+    private BigDecimal currentStock() {
+        return jdbcTemplate.queryForObject("SELECT current_stock FROM products WHERE id = ?", BigDecimal.class, productId);
+    }
+
+    private DistributionSummary batchSizes() {
+        return meterRegistry.get("product.stock.batch.size").summary();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.dwestermann.erp.product.statistics;
+
+import com.dwestermann.erp.product.domain.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductStatisticsSnapshotTest {
+
+    private static final UUID TOOLS = UUID.randomUUID();
+    private static final UUID FASTENERS = UUID.randomUUID();
+
+    @Test
+    @DisplayName("Should sum the aggregate rows")
+    void shouldSumRows() {
+        ProductStatistics statistics = ProductStatisticsSnapshot.of(List.of(
+                new ProductStatisticsRow(TOOLS, ProductStatus.ACTIVE, 3L, 1L, 0L, new BigDecimal("30.00")),
+                new ProductStatisticsRow(TOOLS, ProductStatus.DRAFT, 2L, 0L, 1L, null),
+                new ProductStatisticsRow(null, ProductStatus.ACTIVE, 1L, 1L, 1L, BigDecimal.ZERO)
+        )).toStatistics();
+
+        assertEquals(6, statistics.getTotalProducts());
+        assertEquals(4, statistics.getProducts(ProductStatus.ACTIVE));
+        assertEquals(2, statistics.getProducts(ProductStatus.DRAFT));
+        assertEquals(0, statistics.getProducts(ProductStatus.DISCONTINUED));
+        assertEquals(2, statistics.getLowStockProducts());
+        assertEquals(2, statistics.getOutOfStockProducts());
+        assertEquals(0, new BigDecimal("30").compareTo(statistics.getTotalInventoryValue()));
+        assertEquals(1, statistics.getCategoriesWithProducts());
+    }
+
+    @Test
+    @DisplayName("Should replace contributions on create, update and delete")
+    void shouldApplyDeltas() {
+        ProductStatisticsSnapshot snapshot = ProductStatisticsSnapshot.of(List.of());
+        ProductContribution created = new ProductContribution(ProductStatus.DRAFT, TOOLS, false, true, BigDecimal.ZERO);
+        ProductContribution restocked = new ProductContribution(ProductStatus.ACTIVE, FASTENERS, false, false, new BigDecimal("45.00"));
+
+        snapshot.apply(null, created);
+        snapshot.apply(created, restocked);
+        ProductStatistics afterUpdate = snapshot.toStatistics();
+
+        assertEquals(1, afterUpdate.getTotalProducts());
+        assertEquals(0, afterUpdate.getProducts(ProductStatus.DRAFT));
+        assertEquals(1, afterUpdate.getProducts(ProductStatus.ACTIVE));
+        assertEquals(0, afterUpdate.getOutOfStockProducts());
+        assertEquals(1, afterUpdate.getCategoriesWithProducts());
+        assertEquals(0, new BigDecimal("45").compareTo(afterUpdate.getTotalInventoryValue()));
+
+        snapshot.apply(restocked, null);
+        ProductStatistics afterDelete = snapshot.toStatistics();
+
+        assertEquals(0, afterDelete.getTotalProducts());
+        assertEquals(0, afterDelete.getCategoriesWithProducts());
+        assertEquals(0, afterDelete.getTotalInventoryValue().signum());
+    }
+}
@@ -0,0 +1,76 @@
+package com.dwestermann.erp.product.stock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockBatchTest {
+
+    @Test
+    @DisplayName("Should reject only the operations that would make the running stock negative")
+    void shouldAdmitInArrivalOrder() {
+        List<StockOperation> operations = List.of(
+                remove("3"), remove("4"), remove("2"), add("5"), remove("4"));
+
+        StockBatch batch = StockBatch.admit(new BigDecimal("6"), BigDecimal.ZERO, operations);
+
+        assertTrue(batch.isAccepted(0));
+        assertFalse(batch.isAccepted(1)); // 3 verfügbar, 4 angefordert
+        assertTrue(batch.isAccepted(2));
+        assertTrue(batch.isAccepted(3));
+        assertTrue(batch.isAccepted(4));
+        assertEquals(0, new BigDecimal("1").compareTo(batch.getResultingStocks().get(2)));
+        assertEquals(0, new BigDecimal("2").compareTo(batch.getEndStock()));
+        assertEquals(0, new BigDecimal("-8").compareTo(StockBatch.netDelta(operations)));
+    }
+
+    @Test
+    @DisplayName("Should apply absolute stocks against the running stock")
+    void shouldApplyAbsoluteStock() {
+        List<StockOperation> operations = List.of(
+                remove("2"), StockOperation.set(new BigDecimal("10"), "Inventur", null), remove("4"));
+
+        StockBatch batch = StockBatch.admit(new BigDecimal("5"), BigDecimal.ZERO, operations);
+
+        assertNull(StockBatch.netDelta(operations));
+        assertEquals(0, new BigDecimal("7").compareTo(operations.get(1).deltaFrom(new BigDecimal("3"))));
+        assertEquals(0, new BigDecimal("6").compareTo(batch.getEndStock()));
+        assertTrue(batch.hasAccepted());
+    }
+
+    @Test
+    @DisplayName("Should keep reserved stock for removals but not for absolute stocks")
+    void shouldKeepReservedStock() {
+        List<StockOperation> operations = List.of(
+                remove("5"), add("1"), remove("5"), StockOperation.set(new BigDecimal("2"), "Inventur", null));
+
+        StockBatch batch = StockBatch.admit(new BigDecimal("10"), new BigDecimal("6"), operations);
+
+        assertFalse(batch.isAccepted(0)); // nur 4 verfügbar
+        assertTrue(batch.isAccepted(1));
+        assertTrue(batch.isAccepted(2));
+        assertTrue(batch.isAccepted(3)); // Inventur unter die Reservierungen
+        assertEquals(0, new BigDecimal("2").compareTo(batch.getEndStock()));
+    }
+
+    @Test
+    @DisplayName("Should report a batch without accepted operations")
+    void shouldRejectAll() {
+        StockBatch batch = StockBatch.admit(BigDecimal.ZERO, BigDecimal.ZERO, List.of(remove("1"), remove("1")));
+
+        assertFalse(batch.hasAccepted());
+        assertEquals(0, batch.getEndStock().signum());
+    }
+
+    private static StockOperation add(String quantity) {
+        return StockOperation.add(new BigDecimal(quantity), null, null, null);
+    }
+
+    private static StockOperation remove(String quantity) {
+        return StockOperation.remove(new BigDecimal(quantity), null, null, null);
+    }
+}
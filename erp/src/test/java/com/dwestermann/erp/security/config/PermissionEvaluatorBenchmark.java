@@ -0,0 +1,88 @@
+package com.dwestermann.erp.security.config;
+
+import com.dwestermann.erp.security.entity.Permission;
+import com.dwestermann.erp.security.entity.Role;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark: Permission-Check über Streams/String-Building (bisher) vs. PermissionMatrix.
+ * Ausführen mit: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.dwestermann.erp.security.config.PermissionEvaluatorBenchmark
+ * oder direkt über die main() Methode in der IDE (-prof gc zeigt die Allocation-Rate).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PermissionEvaluatorBenchmark {
+
+    private CustomPermissionEvaluator evaluator;
+    private Authentication authentication;
+
+    @Param({"inventory:write", "product:write", "customer:read"})
+    private String check;
+
+    private String targetType;
+    private String permission;
+
+    @Setup
+    public void setUp() {
+        evaluator = new CustomPermissionEvaluator();
+        authentication = new UsernamePasswordAuthenticationToken("user@erp.dev", null, Role.MANAGER.getAuthorities());
+        targetType = check.substring(0, check.indexOf(':'));
+        permission = check.substring(check.indexOf(':') + 1);
+    }
+
+    @Benchmark
+    public boolean legacyStreamCheck() {
+        return legacyHasPrivilege(authentication, targetType, permission);
+    }
+
+    @Benchmark
+    public boolean permissionMatrixCheck() {
+        return evaluator.hasPermission(authentication, targetType, permission);
+    }
+
+    /**
+     * Previous implementation of CustomPermissionEvaluator.hasPrivilege (ohne Logging)
+     */
+    private static boolean legacyHasPrivilege(Authentication authentication, String targetType, String permission) {
+        String roleName = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .filter(auth -> auth.startsWith("ROLE_"))
+                .map(auth -> auth.substring(5))
+                .findFirst()
+                .orElse("");
+
+        if (roleName.isEmpty()) {
+            return false;
+        }
+
+        try {
+            Set<Permission> permissions = Role.valueOf(roleName).getPermissions();
+            String requiredPermission = targetType.toUpperCase() + "_" + permission.toUpperCase();
+            return permissions.stream().anyMatch(p -> p.name().equals(requiredPermission));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PermissionEvaluatorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
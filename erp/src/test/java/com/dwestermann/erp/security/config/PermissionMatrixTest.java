@@ -0,0 +1,63 @@
+package com.dwestermann.erp.security.config;
+
+import com.dwestermann.erp.security.entity.Permission;
+import com.dwestermann.erp.security.entity.Role;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PermissionMatrixTest {
+
+    private final PermissionMatrix matrix = new PermissionMatrix();
+
+    @Test
+    @DisplayName("Should match the name based permission check for all roles")
+    void shouldMatchNameBasedCheck() {
+        List<String[]> pairs = new ArrayList<>();
+        for (Permission permission : Permission.values()) {
+            String name = permission.name();
+            int split = name.lastIndexOf('_');
+            String target = name.substring(0, split);
+            String action = name.substring(split + 1);
+            pairs.add(new String[]{target, action});
+            pairs.add(new String[]{target.toLowerCase(), action.toLowerCase()});
+            pairs.add(new String[]{target.toLowerCase(), action});
+        }
+        pairs.add(new String[]{"product", "write"});
+        pairs.add(new String[]{"Customer", "Read"});
+        pairs.add(new String[]{"unknown", "read"});
+        pairs.add(new String[]{"inventory", ""});
+
+        for (Role role : Role.values()) {
+            for (String[] pair : pairs) {
+                boolean expected = role.getPermissions().stream()
+                        .anyMatch(p -> p.name().equals(pair[0].toUpperCase() + "_" + pair[1].toUpperCase()));
+
+                assertEquals(expected, matrix.hasPermission(role, pair[0], pair[1]),
+                        role + " " + pair[0] + "/" + pair[1]);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should resolve role from the first ROLE_ authority")
+    void shouldResolveRoleFromAuthorities() {
+        assertEquals(Role.MANAGER, matrix.resolveRole(authentication(Role.MANAGER.getAuthorities())));
+        assertTrue(matrix.hasPermission(authentication(Role.MANAGER.getAuthorities()), "inventory", "write"));
+        assertFalse(matrix.hasPermission(authentication(Role.VIEWER.getAuthorities()), "inventory", "write"));
+
+        assertNull(matrix.resolveRole(authentication(List.of(new SimpleGrantedAuthority("ROLE_UNKNOWN")))));
+        assertNull(matrix.resolveRole(authentication(List.of(new SimpleGrantedAuthority("crm:read")))));
+    }
+
+    private Authentication authentication(List<SimpleGrantedAuthority> authorities) {
+        return new UsernamePasswordAuthenticationToken("user@erp.dev", null, authorities);
+    }
+}
@@ -0,0 +1,145 @@
+package com.dwestermann.erp.security.jwt;
+
+import com.dwestermann.erp.security.entity.Role;
+import com.dwestermann.erp.security.entity.User;
+import com.dwestermann.erp.security.repository.UserRepository;
+import com.dwestermann.erp.security.service.CustomUserDetailsService;
+import com.dwestermann.erp.security.service.UserAccountStatusRegistry;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Claims-only Authentication: Principal aus dem Token, Sperren/Passwort-/Rollenänderungen aus der Statustabelle.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:claimsonlydb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET =
+            "RXJwU3lzdGVtMjAyNVNlY3VyZUtleWQ4ZjdlNmM1YjRhMzkyODFmMGU5ZDhjN2I2YTU5NDgzNzI2MTUwNDgzOTI4MTc0NjUwMjkzODQ3NTYxODI5MzA=";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private JwtService jwtService;
+    private UserAccountStatusRegistry registry;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService(new JwtClaimsCache(100));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 3_600_000L);
+        jwtService.initSigningKey();
+
+        registry = new UserAccountStatusRegistry(userRepository,
+                new StaticListableBeanFactory().getBeanProvider(TenantRoutingDataSource.class), true, 15_000L, 3_600_000L);
+        filter = new JwtAuthenticationFilter(jwtService, new CustomUserDetailsService(userRepository), registry,
+                new TokenRevocationStore(1000, 3_600_000L));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should authenticate from claims without loading the user")
+    void shouldAcceptClaimsOnlyToken() throws Exception {
+        User user = saveUser("claims@erp.dev", Role.MANAGER);
+        String token = jwtService.generateToken(user);
+        registry.refresh();
+        assertTrue(registry.isReady());
+
+        Authentication authentication = authenticate(token);
+
+        assertNotNull(authentication);
+        JwtUserPrincipal principal = assertInstanceOf(JwtUserPrincipal.class, authentication.getPrincipal());
+        assertEquals(user.getId().toString(), principal.getUserId());
+        assertEquals(Role.MANAGER, principal.getRole());
+    }
+
+    @Test
+    @DisplayName("Should reject tokens of locked users and tokens issued before a password change")
+    void shouldRejectLockedAndRevokedUsers() throws Exception {
+        User locked = saveUser("locked@erp.dev", Role.USER);
+        User changed = saveUser("changed@erp.dev", Role.USER);
+        String lockedToken = jwtService.generateToken(locked);
+        String changedToken = jwtService.generateToken(changed);
+
+        locked.setAccountLocked(true);
+        userRepository.save(locked);
+        changed.setPasswordChangedAt(LocalDateTime.now().plusSeconds(1));
+        userRepository.save(changed);
+        registry.refresh();
+
+        assertNull(authenticate(lockedToken));
+        assertNull(authenticate(changedToken));
+    }
+
+    @Test
+    @DisplayName("Should load the user when the role changed after the token was issued")
+    void shouldReflectRoleChange() throws Exception {
+        User user = saveUser("role@erp.dev", Role.MANAGER);
+        String token = jwtService.generateToken(user);
+
+        user.setRole(Role.VIEWER);
+        userRepository.save(user);
+        registry.refresh();
+
+        Authentication authentication = authenticate(token);
+
+        assertNotNull(authentication);
+        User principal = assertInstanceOf(User.class, authentication.getPrincipal());
+        assertEquals(Role.VIEWER, principal.getRole());
+        assertEquals(Role.VIEWER.getAuthorities().size(), authentication.getAuthorities().size());
+    }
+
+    private Authentication authenticate(String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private User saveUser(String email, Role role) {
+        User user = User.builder()
+                .email(email)
+                .firstName("Test")
+                .lastName("User")
+                .password("secret")
+                .role(role)
+                .build();
+        user.setTenantId("claims-tenant");
+        return userRepository.save(user);
+    }
+}
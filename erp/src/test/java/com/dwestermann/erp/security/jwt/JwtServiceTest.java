@@ -0,0 +1,112 @@
+package com.dwestermann.erp.security.jwt;
+
+import com.dwestermann.erp.security.entity.Role;
+import com.dwestermann.erp.security.entity.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "RXJwU3lzdGVtMjAyNVNlY3VyZUtleWQ4ZjdlNmM1YjRhMzkyODFmMGU5ZDhjN2I2YTU5NDgzNzI2MTUwNDgzOTI4MTc0NjUwMjkzODQ3NTYxODI5MzA=";
+
+    private JwtClaimsCache claimsCache;
+    private JwtService jwtService;
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        claimsCache = new JwtClaimsCache(100);
+        jwtService = createService(3_600_000L);
+
+        user = User.builder()
+                .email("user@erp.dev")
+                .firstName("Test")
+                .lastName("User")
+                .password("secret")
+                .role(Role.MANAGER)
+                .build();
+        user.setId(UUID.randomUUID());
+        user.setTenantId("test-tenant");
+    }
+
+    @Test
+    @DisplayName("Should resolve all claims from a single verification")
+    void shouldResolveClaims() {
+        String token = jwtService.generateToken(user);
+
+        JwtClaims claims = jwtService.resolveClaims(token);
+
+        assertEquals("user@erp.dev", claims.getSubject());
+        assertEquals("test-tenant", claims.getTenantId());
+        assertEquals(user.getId().toString(), claims.getUserId());
+        assertEquals("MANAGER", claims.getRole());
+        assertFalse(claims.isExpired());
+        assertFalse(claims.isRefreshToken());
+        assertTrue(jwtService.isTokenValid(claims, user));
+    }
+
+    @Test
+    @DisplayName("Should serve repeated lookups from the claims cache")
+    void shouldCacheVerifiedClaims() {
+        String token = jwtService.generateToken(user);
+
+        JwtClaims first = jwtService.resolveClaims(token);
+        JwtClaims second = jwtService.resolveClaims(token);
+
+        assertSame(first, second);
+        assertEquals(1, claimsCache.size());
+    }
+
+    @Test
+    @DisplayName("Should reject tampered tokens and not cache them")
+    void shouldRejectTamperedToken() {
+        String token = jwtService.generateToken(user);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("A") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.resolveClaims(tampered));
+        assertFalse(jwtService.isTokenValid(tampered));
+        assertEquals(0, claimsCache.size());
+    }
+
+    @Test
+    @DisplayName("Should reject expired tokens")
+    void shouldRejectExpiredToken() {
+        JwtService expiringService = createService(-1_000L);
+        String token = expiringService.generateToken(user);
+
+        assertFalse(expiringService.isTokenValid(token));
+        assertEquals(0, claimsCache.size());
+    }
+
+    @Test
+    @DisplayName("Should keep tokens issued right after a forced sign-out in the same second")
+    void shouldRevokeByMillisecond() throws InterruptedException {
+        TokenRevocationStore revocationStore = new TokenRevocationStore(1000, 3_600_000L);
+        JwtClaims before = jwtService.resolveClaims(jwtService.generateToken(user));
+
+        Thread.sleep(2);
+        revocationStore.revokeAllForUser("test-tenant", user.getId().toString());
+        Thread.sleep(2);
+        JwtClaims after = jwtService.resolveClaims(jwtService.generateToken(user));
+
+        assertTrue(revocationStore.isRevoked(before));
+        assertFalse(revocationStore.isRevoked(after));
+    }
+
+    private JwtService createService(long expiration) {
+        JwtService service = new JwtService(claimsCache);
+        ReflectionTestUtils.setField(service, "secretKey", SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "refreshExpiration", expiration);
+        service.initSigningKey();
+        return service;
+    }
+}
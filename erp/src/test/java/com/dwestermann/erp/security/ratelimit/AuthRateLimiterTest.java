@@ -0,0 +1,97 @@
+package com.dwestermann.erp.security.ratelimit;
+
+import com.dwestermann.erp.security.exception.RateLimitExceededException;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AuthRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        // Identity: 2 pro Minute (ein Token alle 30s), IP: 3 pro Minute (alle 20s)
+        limiter = new AuthRateLimiter(meterRegistry, true, false,
+                2, Duration.ofMinutes(1), 3, Duration.ofMinutes(1), clock::get);
+        TenantContext.setTenantId("rate-tenant");
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should limit one account and refill after the emission interval")
+    void shouldLimitIdentity() {
+        limiter.check("login", "User@erp.dev", request("10.0.0.1"));
+        limiter.check("login", "user@erp.dev ", request("10.0.0.2"));
+
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> limiter.check("login", "user@erp.dev", request("10.0.0.3")));
+        assertEquals(30, rejected.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.counter("auth.rate_limit.rejected", "scope", "identity", "endpoint", "login").count());
+
+        advance(Duration.ofSeconds(29));
+        assertThrows(RateLimitExceededException.class, () -> limiter.check("login", "user@erp.dev", request("10.0.0.4")));
+        advance(Duration.ofSeconds(1));
+        assertDoesNotThrow(() -> limiter.check("login", "user@erp.dev", request("10.0.0.5")));
+    }
+
+    @Test
+    @DisplayName("Should limit one client IP across accounts")
+    void shouldLimitIp() {
+        for (int i = 0; i < 3; i++) {
+            limiter.check("login", "user" + i + "@erp.dev", request("10.0.0.1"));
+        }
+
+        RateLimitExceededException rejected = assertThrows(RateLimitExceededException.class,
+                () -> limiter.check("refresh", null, request("10.0.0.1")));
+        assertEquals(20, rejected.getRetryAfterSeconds());
+        assertDoesNotThrow(() -> limiter.check("refresh", null, request("10.0.0.2")));
+    }
+
+    @Test
+    @DisplayName("Should evict buckets once they are full again")
+    void shouldEvictIdleBuckets() {
+        limiter.check("login", "user@erp.dev", request("10.0.0.1"));
+        assertEquals(1, buckets("identity"));
+        assertEquals(1, buckets("ip"));
+
+        // IP-Bucket ist nach 20s wieder voll, der Identity-Bucket erst nach 30s
+        advance(Duration.ofSeconds(20));
+        limiter.evictIdleBuckets();
+        assertEquals(1, buckets("identity"));
+        assertEquals(0, buckets("ip"));
+
+        advance(Duration.ofSeconds(10));
+        limiter.evictIdleBuckets();
+        assertEquals(0, buckets("identity"));
+    }
+
+    private void advance(Duration duration) {
+        clock.addAndGet(duration.toNanos());
+    }
+
+    private double buckets(String scope) {
+        return meterRegistry.get("auth.rate_limit.buckets").tag("scope", scope).gauge().value();
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+}
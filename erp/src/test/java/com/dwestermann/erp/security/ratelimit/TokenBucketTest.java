@@ -0,0 +1,47 @@
+package com.dwestermann.erp.security.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    // 3 Tokens, ein Token alle 100 ns
+    private static final long INTERVAL = 100;
+
+    @Test
+    @DisplayName("Should grant the full burst and then report the time until the next token")
+    void shouldGrantBurstThenWait() {
+        TokenBucket bucket = new TokenBucket(3, INTERVAL, 1_000);
+
+        assertEquals(0, bucket.tryAcquire(1_000));
+        assertEquals(0, bucket.tryAcquire(1_000));
+        assertEquals(0, bucket.tryAcquire(1_000));
+        // TAT = 1300, neuer TAT wäre 1400: 1400 - 1000 - 300 = 100
+        assertEquals(INTERVAL, bucket.tryAcquire(1_000));
+        assertEquals(40, bucket.tryAcquire(1_060));
+        assertFalse(bucket.isIdle(1_299));
+    }
+
+    @Test
+    @DisplayName("Should refill one token per emission interval and never above capacity")
+    void shouldRefillOverTime() {
+        TokenBucket bucket = new TokenBucket(3, INTERVAL, 0);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(0));
+        }
+
+        // Nach 150 ns: ein Token nachgefüllt (TAT 300 -> 400), der nächste erst bei 200
+        assertEquals(0, bucket.tryAcquire(150));
+        assertEquals(50, bucket.tryAcquire(150));
+        assertEquals(0, bucket.tryAcquire(200));
+
+        // Lange Pause: TAT springt auf "jetzt", wieder genau 3 Tokens
+        assertTrue(bucket.isIdle(10_000));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(10_000));
+        }
+        assertEquals(INTERVAL, bucket.tryAcquire(10_000));
+    }
+}
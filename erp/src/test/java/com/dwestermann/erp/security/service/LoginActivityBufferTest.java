@@ -0,0 +1,182 @@
+package com.dwestermann.erp.security.service;
+
+import com.dwestermann.erp.security.dto.AuthResponse;
+import com.dwestermann.erp.security.dto.LoginRequest;
+import com.dwestermann.erp.security.entity.Role;
+import com.dwestermann.erp.security.entity.User;
+import com.dwestermann.erp.security.exception.AuthenticationException;
+import com.dwestermann.erp.security.jwt.JwtClaimsCache;
+import com.dwestermann.erp.security.jwt.JwtService;
+import com.dwestermann.erp.security.jwt.TokenRevocationStore;
+import com.dwestermann.erp.security.repository.UserRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.datasource.TenantRoutingDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lockout über den Write-Behind Buffer: Login und Refresh sind gesperrt, bevor und nachdem der Lock geschrieben ist,
+ * auch wenn ein Flush fehlschlägt und mit neueren Fehlversuchen zusammengeführt wird.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:loginactivitydb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class LoginActivityBufferTest {
+
+    private static final String SECRET =
+            "RXJwU3lzdGVtMjAyNVNlY3VyZUtleWQ4ZjdlNmM1YjRhMzkyODFmMGU5ZDhjN2I2YTU5NDgzNzI2MTUwNDgzOTI4MTc0NjUwMjkzODQ3NTYxODI5MzA=";
+    private static final String TENANT = "lockout-tenant";
+    private static final String PASSWORD = "correct-password";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final AtomicBoolean failWrites = new AtomicBoolean();
+    private JdbcTemplate jdbcTemplate;
+    private JwtService jwtService;
+    private LoginActivityBuffer buffer;
+    private AuthService authService;
+
+    @BeforeEach
+    void setUp() {
+        // Schreibfehler der Datenbank simulieren
+        jdbcTemplate = new JdbcTemplate(dataSource) {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                if (failWrites.get()) {
+                    throw new DataAccessResourceFailureException("Database unavailable");
+                }
+                return super.batchUpdate(sql, batchArgs);
+            }
+        };
+
+        jwtService = new JwtService(new JwtClaimsCache(100));
+        ReflectionTestUtils.setField(jwtService, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 3_600_000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtService, "initSigningKey");
+
+        ObjectProvider<TenantRoutingDataSource> noRouting =
+                new StaticListableBeanFactory().getBeanProvider(TenantRoutingDataSource.class);
+        buffer = new LoginActivityBuffer(jdbcTemplate, transactionManager, noRouting, 3);
+
+        BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider(new CustomUserDetailsService(userRepository));
+        authProvider.setPasswordEncoder(passwordEncoder);
+
+        authService = new AuthService(userRepository, passwordEncoder, jwtService, new ProviderManager(authProvider),
+                new UserAccountStatusRegistry(userRepository, noRouting, false, 15_000L, 3_600_000L),
+                buffer, new TokenRevocationStore(1000, 3_600_000L));
+
+        User user = User.builder()
+                .email("lockout@erp.dev")
+                .firstName("Test")
+                .lastName("User")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(Role.USER)
+                .build();
+        user.setTenantId(TENANT);
+        userRepository.save(user);
+        TenantContext.setTenantId(TENANT);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should reject login and refresh once locked, before and after a failed and retried flush")
+    void shouldKeepAccountLockedAcrossFlushes() {
+        String refreshToken = login(PASSWORD).getRefreshToken();
+        User user = userRepository.findByEmailAndTenantId("lockout@erp.dev", TENANT).orElseThrow();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Invalid email or password",
+                    assertThrows(AuthenticationException.class, () -> login("wrong-password")).getMessage());
+        }
+        assertTrue(buffer.isLocked(user.getId()));
+
+        // Lock nur im Buffer - richtiges Passwort und Refresh Token werden trotzdem abgewiesen
+        assertLocked(() -> login(PASSWORD));
+        assertLocked(() -> authService.refreshToken(refreshToken));
+
+        // Flush schlägt fehl, Änderungen bleiben im Buffer
+        failWrites.set(true);
+        buffer.flush();
+        assertEquals(false, readUser(user).get("is_account_locked"));
+        assertTrue(buffer.isLocked(user.getId()));
+        assertLocked(() -> authService.refreshToken(refreshToken));
+
+        // Weiterer Fehlversuch während des Ausfalls wird mit dem zurückgestellten Stand zusammengeführt
+        assertThrows(AuthenticationException.class, () -> login("wrong-password"));
+        assertEquals(4, buffer.getFailedAttempts(user.getId()));
+
+        failWrites.set(false);
+        buffer.flush();
+        Map<String, Object> stored = readUser(user);
+        assertEquals(true, stored.get("is_account_locked"));
+        assertNotNull(stored.get("account_locked_at"));
+        assertEquals(4, ((Number) stored.get("failed_login_attempts")).intValue());
+        assertNull(buffer.getFailedAttempts(user.getId()));
+
+        // Lock aus der DB
+        assertThrows(LockedException.class, () -> login(PASSWORD));
+        assertLocked(() -> authService.refreshToken(refreshToken));
+    }
+
+    private AuthResponse login(String password) {
+        LoginRequest request = new LoginRequest();
+        request.setEmail("lockout@erp.dev");
+        request.setPassword(password);
+        return authService.authenticate(request);
+    }
+
+    private void assertLocked(Executable call) {
+        assertEquals("Account is locked", assertThrows(AuthenticationException.class, call).getMessage());
+    }
+
+    private Map<String, Object> readUser(User user) {
+        return jdbcTemplate.queryForMap(
+                "SELECT is_account_locked, account_locked_at, failed_login_attempts FROM users WHERE id = ?",
+                user.getId());
+    }
+}
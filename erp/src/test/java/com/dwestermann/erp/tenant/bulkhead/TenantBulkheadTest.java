@@ -0,0 +1,65 @@
+package com.dwestermann.erp.tenant.bulkhead;
+
+import com.dwestermann.erp.tenant.exception.TenantBulkheadFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantBulkheadTest {
+
+    private MeterRegistry meterRegistry;
+    private TenantBulkhead bulkhead;
+
+    @BeforeEach
+    void setUp() {
+        TenantBulkheadProperties properties = new TenantBulkheadProperties();
+        properties.setMaxConcurrentPerTenant(2);
+        properties.setMaxQueuePerTenant(0);
+        properties.setQueueTimeout(Duration.ZERO);
+        properties.setMaxConcurrentTotal(5);
+        properties.setWeights(Map.of("big", 2.0));
+
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        bulkhead = new TenantBulkhead(properties, beanFactory.getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    @DisplayName("Should reject a tenant over its limit without affecting other tenants")
+    void shouldIsolateTenants() {
+        TenantBulkhead.Permit first = bulkhead.acquire("noisy");
+        bulkhead.acquire("noisy");
+
+        assertThrows(TenantBulkheadFullException.class, () -> bulkhead.acquire("noisy"));
+        assertDoesNotThrow(() -> bulkhead.acquire("quiet"));
+        assertEquals(1.0, meterRegistry.get("tenant.bulkhead.rejected")
+                .tag("tenant", "noisy").tag("reason", "tenant_limit").counter().count());
+
+        first.release();
+        first.release(); // idempotent
+        assertDoesNotThrow(() -> bulkhead.acquire("noisy"));
+        assertEquals(3, bulkhead.getInFlight());
+    }
+
+    @Test
+    @DisplayName("Should scale the tenant limit by weight and enforce the global limit")
+    void shouldApplyWeightsAndGlobalLimit() {
+        for (int i = 0; i < 4; i++) {
+            bulkhead.acquire("big");
+        }
+        assertThrows(TenantBulkheadFullException.class, () -> bulkhead.acquire("big"));
+
+        bulkhead.acquire("small");
+        assertThrows(TenantBulkheadFullException.class, () -> bulkhead.acquire("other"));
+        assertEquals(1.0, meterRegistry.get("tenant.bulkhead.rejected")
+                .tag("tenant", "other").tag("reason", "global_limit").counter().count());
+    }
+}
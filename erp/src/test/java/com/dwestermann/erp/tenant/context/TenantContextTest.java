@@ -0,0 +1,66 @@
+package com.dwestermann.erp.tenant.context;
+
+import com.dwestermann.erp.tenant.concurrent.TenantAwareTaskDecorator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantContextTest {
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Should propagate tenant to virtual threads via wrap")
+    void shouldPropagateToVirtualThreads() throws Exception {
+        TenantContext.setTenantId("tenant-a");
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            String unwrapped = executor.submit(TenantContext::getTenantId).get();
+            String wrapped = CompletableFuture
+                    .supplyAsync(TenantContext.wrapSupplier(TenantContext::getTenantId), executor)
+                    .get();
+
+            assertNull(unwrapped);
+            assertEquals("tenant-a", wrapped);
+        }
+    }
+
+    @Test
+    @DisplayName("Should restore previous tenant after scoped execution")
+    void shouldRestorePreviousTenant() throws Exception {
+        TenantContext.setTenantId("outer");
+
+        String inner = TenantContext.callWithTenant("inner", TenantContext::getTenantId);
+        assertEquals("inner", inner);
+        assertEquals("outer", TenantContext.getTenantId());
+
+        TenantContext.clear();
+        TenantContext.runWithTenant("inner", () -> assertEquals("inner", TenantContext.getTenantId()));
+        assertFalse(TenantContext.hasTenantId());
+    }
+
+    @Test
+    @DisplayName("Should propagate tenant through the decorated async executor")
+    void shouldPropagateThroughTaskDecorator() throws Exception {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("test-");
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(new TenantAwareTaskDecorator());
+
+        TenantContext.setTenantId("tenant-b");
+        CompletableFuture<String> future = new CompletableFuture<>();
+        executor.execute(() -> future.complete(TenantContext.getTenantId()));
+
+        assertEquals("tenant-b", future.get());
+        executor.close();
+    }
+}
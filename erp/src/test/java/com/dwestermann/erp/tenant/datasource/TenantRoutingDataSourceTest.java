@@ -0,0 +1,60 @@
+package com.dwestermann.erp.tenant.datasource;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TenantRoutingDataSourceTest {
+
+    private TenantRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        routingDataSource = new TenantRoutingDataSource(
+                pool("shared", "jdbc:h2:mem:shared"),
+                Map.of("big-tenant", pool("tenant-big-tenant", "jdbc:h2:mem:big")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        routingDataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should route routed tenants to their own pool and everyone else to the shared pool")
+    void shouldRouteByTenant() throws Exception {
+        assertEquals("jdbc:h2:mem:shared", currentUrl());
+
+        TenantContext.setTenantId("small-tenant");
+        assertEquals("jdbc:h2:mem:shared", currentUrl());
+
+        TenantContext.setTenantId("big-tenant");
+        assertEquals("jdbc:h2:mem:big", currentUrl());
+        assertTrue(routingDataSource.isRouted("big-tenant"));
+        assertFalse(routingDataSource.isRouted("small-tenant"));
+    }
+
+    private String currentUrl() throws Exception {
+        try (Connection connection = routingDataSource.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private static HikariDataSource pool(String name, String url) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(name);
+        dataSource.setJdbcUrl(url + ";DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(2);
+        return dataSource;
+    }
+}
@@ -0,0 +1,89 @@
+package com.dwestermann.erp.tenant.hibernate;
+
+import com.dwestermann.erp.customer.domain.Address;
+import com.dwestermann.erp.customer.domain.Customer;
+import com.dwestermann.erp.customer.domain.CustomerStatus;
+import com.dwestermann.erp.customer.domain.CustomerType;
+import com.dwestermann.erp.customer.repository.CustomerRepository;
+import com.dwestermann.erp.tenant.context.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sessions werden erst innerhalb von runWithTenant geöffnet (kein Test-Transaktionsrahmen),
+ * damit der Tenant wie im Request beim Öffnen der Session feststeht.
+ */
+@DataJpaTest
+@ActiveProfiles("dev")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.datasource.url=jdbc:h2:mem:tenantdb;DB_CLOSE_DELAY=-1",
+        "jwt.secret-key=test-secret-key-minimum-256-bits-for-testing"
+})
+class TenantIdentifierResolverTest {
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @AfterEach
+    void tearDown() {
+        TenantContext.clear();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should scope findById and queries to the current tenant")
+    void shouldScopeLookupsToCurrentTenant() {
+        UUID idA = saveCustomer("tenant-a", "a@example.com");
+        UUID idB = saveCustomer("tenant-b", "b@example.com");
+
+        TenantContext.runWithTenant("tenant-a", () -> {
+            assertTrue(customerRepository.findById(idA).isPresent());
+            assertTrue(customerRepository.findById(idB).isEmpty());
+            assertEquals(1, customerRepository.count());
+        });
+
+        // Ohne Tenant (ROOT) sind alle Tenants sichtbar
+        assertEquals(2, customerRepository.count());
+    }
+
+    @Test
+    @DisplayName("Should assign the current tenant and reject foreign tenant ids on insert")
+    void shouldAssignCurrentTenantOnInsert() {
+        TenantContext.runWithTenant("tenant-a", () -> {
+            Customer customer = newCustomer(null, "new@example.com");
+            assertEquals("tenant-a", customerRepository.save(customer).getTenantId());
+
+            Customer foreign = newCustomer("tenant-b", "foreign@example.com");
+            assertThrows(RuntimeException.class, () -> customerRepository.save(foreign));
+        });
+    }
+
+    private UUID saveCustomer(String tenantId, String email) {
+        return customerRepository.save(newCustomer(tenantId, email)).getId();
+    }
+
+    private Customer newCustomer(String tenantId, String email) {
+        Customer customer = new Customer();
+        customer.setName("Customer " + email);
+        customer.setEmail(email);
+        customer.setCustomerNumber("CUST-" + UUID.randomUUID().toString().substring(0, 8));
+        customer.setTenantId(tenantId);
+        customer.setStatus(CustomerStatus.ACTIVE);
+        customer.setType(CustomerType.B2B);
+        customer.setPrimaryAddress(new Address("Test Street 1", "Test City", "12345", "Germany"));
+        return customer;
+    }
+}
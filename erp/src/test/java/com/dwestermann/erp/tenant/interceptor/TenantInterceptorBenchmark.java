@@ -0,0 +1,111 @@
+package com.dwestermann.erp.tenant.interceptor;
+
+import com.dwestermann.erp.tenant.context.TenantContext;
+import com.dwestermann.erp.tenant.context.TenantResolver;
+import com.dwestermann.erp.tenant.registry.TenantRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH Benchmark: Tenant-Auflösung pro Request mit String.matches/split (bisher) vs.
+ * TenantInterceptor mit Host-Cache, Registry-Check und Token-Tenant.
+ * Ausführen über die main() Methode (-prof gc zeigt die Allocation-Rate).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TenantInterceptorBenchmark {
+
+    private TenantInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    private MockHttpServletRequest subdomainRequest;
+    private MockHttpServletRequest headerRequest;
+    private MockHttpServletRequest tokenRequest;
+
+    @Setup
+    public void setUp() {
+        TenantRegistry registry = new TenantRegistry(null, null, true, List.of("kunde1", "dev-tenant"));
+        interceptor = new TenantInterceptor(new TenantResolver(1_000), registry);
+        response = new MockHttpServletResponse();
+
+        subdomainRequest = new MockHttpServletRequest("GET", "/api/products");
+        subdomainRequest.setServerName("kunde1.yourerp.com");
+
+        headerRequest = new MockHttpServletRequest("GET", "/api/products");
+        headerRequest.setServerName("localhost");
+        headerRequest.addHeader("X-Tenant-ID", "dev-tenant");
+
+        tokenRequest = new MockHttpServletRequest("GET", "/api/products");
+        tokenRequest.setServerName("kunde1.yourerp.com");
+        tokenRequest.setAttribute(TenantContext.TOKEN_TENANT_ATTRIBUTE, "kunde1");
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearContext() {
+        TenantContext.clear();
+    }
+
+    @Benchmark
+    public String legacySubdomain() {
+        return legacyResolveTenantId(subdomainRequest);
+    }
+
+    @Benchmark
+    public String legacyHeader() {
+        return legacyResolveTenantId(headerRequest);
+    }
+
+    @Benchmark
+    public String interceptorSubdomain() {
+        interceptor.preHandle(subdomainRequest, response, null);
+        return TenantContext.getTenantId();
+    }
+
+    @Benchmark
+    public String interceptorHeader() {
+        interceptor.preHandle(headerRequest, response, null);
+        return TenantContext.getTenantId();
+    }
+
+    @Benchmark
+    public String interceptorTokenTenant() {
+        interceptor.preHandle(tokenRequest, response, null);
+        return TenantContext.getTenantId();
+    }
+
+    /**
+     * Previous implementation of TenantResolver.resolveTenantId
+     */
+    private static String legacyResolveTenantId(HttpServletRequest request) {
+        String serverName = request.getServerName();
+        if (!"localhost".equals(serverName) && !serverName.matches("\\d+\\.\\d+\\.\\d+\\.\\d+")) {
+            String[] parts = serverName.split("\\.");
+            if (parts.length >= 3) {
+                return parts[0];
+            }
+        }
+
+        String tenantFromHeader = request.getHeader("X-Tenant-ID");
+        return tenantFromHeader != null ? tenantFromHeader : "default";
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(TenantInterceptorBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}